@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.controller.advice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com.linecorp.clova.extension.boot.message.context.SystemContext;
+import com.linecorp.clova.extension.boot.message.directive.Directive;
+import com.linecorp.clova.extension.boot.message.directive.Directives;
+import com.linecorp.clova.extension.boot.message.model.AudioItem;
+import com.linecorp.clova.extension.boot.message.model.AudioSource;
+import com.linecorp.clova.extension.boot.message.model.AudioStreamInfoObject;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlayPayload;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeech;
+
+/**
+ * Measures the cost of {@link CEKResponseMessageValidationAdvice} for a response with an {@link OutputSpeech}
+ * and an {@code AudioPlayer.Play} directive, for the first response with and without the preloaded
+ * constraint metadata, and per response at several {@code cek.response-validation.sample-rate}.
+ * <p>
+ * It is compiled only by the {@code benchmark} profile. Run it explicitly:
+ * <pre>{@code
+ * ./mvnw -pl clova-extension-boot-web -Pbenchmark test -Dtest=ResponseValidationBenchmark
+ * }</pre>
+ */
+public class ResponseValidationBenchmark {
+
+    private static final double[] SAMPLE_RATES = { 0.0, 0.001, 0.01, 0.1, 1.0 };
+    private static final int RESPONSES = 100_000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Test
+    public void validate() {
+        CEKResponseMessage responseMessage = responseMessage();
+
+        LocalValidatorFactoryBean coldValidator = validator();
+        long coldNanos = validateOnce(coldValidator, responseMessage);
+
+        LocalValidatorFactoryBean preloadedValidator = validator();
+        long preloadStart = System.nanoTime();
+        Arrays.asList(CEKRequestMessage.class, CEKResponseMessage.class, SystemContext.class,
+                      OutputSpeech.class, Directive.class, AudioStreamInfoObject.class)
+              .forEach(preloadedValidator::getConstraintsForClass);
+        long preloadNanos = System.nanoTime() - preloadStart;
+        long preloadedNanos = validateOnce(preloadedValidator, responseMessage);
+
+        System.out.printf("first response: %,d us without preloading, %,d us after preloading in %,d us%n",
+                          coldNanos / 1_000, preloadedNanos / 1_000, preloadNanos / 1_000);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (double sampleRate : SAMPLE_RATES) {
+                measure(preloadedValidator, responseMessage, sampleRate);
+            }
+        }
+        for (double sampleRate : SAMPLE_RATES) {
+            long nanos = measure(preloadedValidator, responseMessage, sampleRate);
+            System.out.printf("  sample rate %-6s %,7d ns per response%n", sampleRate, nanos / RESPONSES);
+        }
+
+        BeanPropertyBindingResult bindingResult =
+                new BeanPropertyBindingResult(responseMessage, "responseMessage");
+        preloadedValidator.validate(responseMessage, bindingResult);
+        assertThat(bindingResult.hasErrors()).isFalse();
+    }
+
+    private static LocalValidatorFactoryBean validator() {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        return validator;
+    }
+
+    private static long validateOnce(LocalValidatorFactoryBean validator, CEKResponseMessage responseMessage) {
+        long start = System.nanoTime();
+        validator.validate(responseMessage, new BeanPropertyBindingResult(responseMessage, "responseMessage"));
+        return System.nanoTime() - start;
+    }
+
+    // same as the sampling of CEKResponseMessageValidationAdvice while DEBUG logging is disabled
+    private static long measure(LocalValidatorFactoryBean validator, CEKResponseMessage responseMessage,
+                                double sampleRate) {
+        long start = System.nanoTime();
+        for (int i = 0; i < RESPONSES; i++) {
+            if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                continue;
+            }
+            validator.validate(responseMessage,
+                               new BeanPropertyBindingResult(responseMessage, "responseMessage"));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static CEKResponseMessage responseMessage() {
+        AudioStreamInfoObject stream = AudioStreamInfoObject.builder()
+                                                            .beginAtInMilliseconds(0L)
+                                                            .token("token")
+                                                            .url("https://example.com/token")
+                                                            .urlPlayable(true)
+                                                            .build();
+        AudioPlayerPlayPayload payload =
+                AudioPlayerPlayPayload.builder()
+                                      .audioItem(AudioItem.builder()
+                                                          .audioItemId("token")
+                                                          .titleSubText1("artist")
+                                                          .titleText("title")
+                                                          .stream(stream)
+                                                          .build())
+                                      .source(AudioSource.builder()
+                                                         .name("source")
+                                                         .build())
+                                      .build();
+        return new CEKResponseMessage(CEKResponse.builder()
+                                                 .outputSpeech(OutputSpeech.text("再生します。"))
+                                                 .directive(Directives.AudioPlayer.play(payload))
+                                                 .shouldEndSession(true)
+                                                 .build());
+    }
+
+}
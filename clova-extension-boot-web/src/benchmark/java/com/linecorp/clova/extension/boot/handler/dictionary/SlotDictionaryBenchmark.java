@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.dictionary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+
+/**
+ * Measures the lookup latency of {@link SlotDictionary} with synthetic dictionaries of up to 1M entries.
+ * <p>
+ * It is compiled only by the {@code benchmark} profile. Run it explicitly with a large enough heap:
+ * <pre>{@code
+ * ./mvnw -pl clova-extension-boot-web -Pbenchmark test -Dtest=SlotDictionaryBenchmark -DargLine=-Xmx4g
+ * }</pre>
+ */
+public class SlotDictionaryBenchmark {
+
+    private static final int[] SIZES = { 10_000, 100_000, 1_000_000 };
+    private static final int QUERIES = 5_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final String[] SYLLABLES = {
+            "a", "i", "u", "e", "o", "ka", "ki", "ku", "ke", "ko", "sa", "shi", "su", "se", "so", "ta", "chi",
+            "tsu", "te", "to", "na", "ni", "nu", "ne", "no", "ha", "hi", "fu", "he", "ho", "ma", "mi", "mu",
+            "me", "mo", "ya", "yu", "yo", "ra", "ri", "ru", "re", "ro", "wa", "n", "ga", "zu", "do", "bi", "pa"
+    };
+
+    @Test
+    public void lookup() {
+        for (int size : SIZES) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        Random random = new Random(size);
+        String[] values = new String[size];
+        SlotDictionary.Builder builder = SlotDictionary.builder("benchmark");
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            values[i] = randomTitle(random);
+            // a half of the entries have a synonym
+            if (i % 2 == 0) {
+                builder.add(String.valueOf(i), values[i], "the " + values[i]);
+            } else {
+                builder.add(String.valueOf(i), values[i]);
+            }
+        }
+        SlotDictionary dictionary = builder.build();
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        String[] exact = queries(i -> values[random.nextInt(size)]);
+        String[] synonym = queries(i -> "The " + values[random.nextInt(size / 2) * 2]);
+        String[] fuzzy = queries(i -> typo(random, values[random.nextInt(size)]));
+        String[] miss = queries(i -> "zzz" + randomTitle(random));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            measure(dictionary, exact);
+            measure(dictionary, synonym);
+            measure(dictionary, fuzzy);
+            measure(dictionary, miss);
+        }
+        System.out.printf("%,d entries, built in %,d ms%n", size, buildMillis);
+        report("exact", measure(dictionary, exact), matchRatio(dictionary, exact));
+        report("synonym", measure(dictionary, synonym), matchRatio(dictionary, synonym));
+        report("fuzzy", measure(dictionary, fuzzy), matchRatio(dictionary, fuzzy));
+        report("miss", measure(dictionary, miss), matchRatio(dictionary, miss));
+
+        assertThat(dictionary.lookup(exact[0])).isNotNull();
+    }
+
+    private static String[] queries(IntFunction<String> generator) {
+        String[] queries = new String[QUERIES];
+        Arrays.setAll(queries, generator);
+        return queries;
+    }
+
+    private static long[] measure(SlotDictionary dictionary, String[] queries) {
+        long[] nanos = new long[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            long start = System.nanoTime();
+            dictionary.lookup(queries[i]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double matchRatio(SlotDictionary dictionary, String[] queries) {
+        return (double) Arrays.stream(queries).filter(query -> dictionary.lookup(query) != null).count()
+               / queries.length;
+    }
+
+    private static void report(String name, long[] sortedNanos, double matchRatio) {
+        System.out.printf("  %-8s p50 %,7d ns, p99 %,9d ns, max %,9d ns, matched %5.1f%%%n", name,
+                          sortedNanos[sortedNanos.length / 2], sortedNanos[sortedNanos.length * 99 / 100],
+                          sortedNanos[sortedNanos.length - 1], matchRatio * 100);
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            int syllables = 2 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) {
+                sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String typo(Random random, String value) {
+        StringBuilder sb = new StringBuilder(value);
+        int position = random.nextInt(sb.length());
+        if (sb.charAt(position) == ' ') {
+            sb.deleteCharAt(position);
+        } else {
+            sb.setCharAt(position, 'x');
+        }
+        return sb.toString();
+    }
+
+}
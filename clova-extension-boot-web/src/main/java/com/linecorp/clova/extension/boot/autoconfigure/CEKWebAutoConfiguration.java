@@ -16,24 +16,41 @@
 
 package com.linecorp.clova.extension.boot.autoconfigure;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.SmartValidator;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 import com.linecorp.clova.extension.boot.config.CEKFilterConfig;
 import com.linecorp.clova.extension.boot.config.CEKProperties;
@@ -42,14 +59,28 @@ import com.linecorp.clova.extension.boot.controller.CEKHandleIntentController;
 import com.linecorp.clova.extension.boot.controller.advice.CEKHandleIntentControllerAdvice;
 import com.linecorp.clova.extension.boot.controller.advice.CEKResponseMessageValidationAdvice;
 import com.linecorp.clova.extension.boot.controller.advice.CEKSDKInformationBinderResponseBodyAdvice;
+import com.linecorp.clova.extension.boot.exception.ExpectedExceptions;
 import com.linecorp.clova.extension.boot.handler.CEKRequestHandlerDispatcher;
 import com.linecorp.clova.extension.boot.handler.CEKRequestMappingHandlerMapping;
 import com.linecorp.clova.extension.boot.handler.CEKRequestProcessor;
+import com.linecorp.clova.extension.boot.handler.cache.CEKResponseCache;
+import com.linecorp.clova.extension.boot.handler.cache.CEKResponseCacheStore;
+import com.linecorp.clova.extension.boot.handler.cache.EventReplayCache;
+import com.linecorp.clova.extension.boot.handler.cache.InMemoryCEKResponseCacheStore;
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotDictionaries;
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotDictionary;
 import com.linecorp.clova.extension.boot.handler.interceptor.CEKHandlerInterceptor;
+import com.linecorp.clova.extension.boot.handler.playback.AppendLogPlaybackStatePersister;
+import com.linecorp.clova.extension.boot.handler.playback.AudioStreamPrefetcher;
+import com.linecorp.clova.extension.boot.handler.playback.NextStreamResolver;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateBuffer;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStatePersister;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateStore;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKContextPropertyArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKEventPayloadArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKEventRequestArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKIntentRequestArgumentResolver;
+import com.linecorp.clova.extension.boot.handler.resolver.CEKPlaybackStateArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKRequestHandlerArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKRequestTypeArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKSessionArgumentResolver;
@@ -58,7 +89,17 @@ import com.linecorp.clova.extension.boot.handler.resolver.CEKSessionValueArgumen
 import com.linecorp.clova.extension.boot.handler.resolver.CEKSlotValueArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.HttpServletRequestArgumentResolver;
 import com.linecorp.clova.extension.boot.handler.resolver.HttpServletResponseArgumentResolver;
+import com.linecorp.clova.extension.boot.message.catalog.SwappableAudioCatalog;
+import com.linecorp.clova.extension.boot.message.request.EventPayloadTypeRegistry;
+import com.linecorp.clova.extension.boot.message.response.ConstantCEKResponses;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeechCacheRefresher;
 import com.linecorp.clova.extension.boot.message.speech.OutputSpeechGenerator;
+import com.linecorp.clova.extension.boot.message.speech.SpeechTemplates;
+import com.linecorp.clova.extension.boot.session.SessionAttributesCodec;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
+import com.linecorp.clova.extension.boot.session.store.CEKSessionStore;
+import com.linecorp.clova.extension.boot.session.store.CEKSessionStoreExternalizer;
+import com.linecorp.clova.extension.boot.session.store.InMemoryCEKSessionStore;
 import com.linecorp.clova.extension.boot.verifier.CEKRequestVerifier;
 
 /**
@@ -69,10 +110,17 @@ import com.linecorp.clova.extension.boot.verifier.CEKRequestVerifier;
 @EnableConfigurationProperties(CEKProperties.class)
 public class CEKWebAutoConfiguration {
 
+    @Bean
+    InitializingBean cekExpectedExceptionsInitializer(CEKProperties cekProperties) {
+        return () -> ExpectedExceptions.setStackTraceEnabled(cekProperties.isExceptionStackTrace());
+    }
+
     @Bean
     CEKResponseMessageValidationAdvice cekResponseMessageValidationAdvice(
-            ObjectProvider<SmartValidator> validatorProvider) {
-        return new CEKResponseMessageValidationAdvice(validatorProvider.getObject());
+            ObjectProvider<SmartValidator> validatorProvider,
+            CEKProperties cekProperties) {
+        return new CEKResponseMessageValidationAdvice(validatorProvider.getObject(),
+                                                      cekProperties.getResponseValidation().getSampleRate());
     }
 
     @Bean
@@ -91,18 +139,36 @@ public class CEKWebAutoConfiguration {
     CEKHandleIntentController cekHandleIntentController(
             CEKRequestProcessor requestProcessor,
             ObjectProvider<ObjectMapper> objectMapperProvider,
-            CEKProperties cekProperties) {
+            CEKProperties cekProperties,
+            ObjectProvider<EventPayloadTypeRegistry> payloadTypeRegistryProvider) {
         return new CEKHandleIntentController(requestProcessor, objectMapperProvider.getObject(),
-                                             cekProperties.getClient().getDefaultLocale());
+                                             cekProperties.getClient().getDefaultLocale(),
+                                             payloadTypeRegistryProvider.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    EventPayloadTypeRegistry eventPayloadTypeRegistry() {
+        return new EventPayloadTypeRegistry();
     }
 
     @Bean
     CEKRequestHandlerDispatcher cekRequestHandlerDispatcher(
             CEKRequestMappingHandlerMapping handlerMapping,
             ObjectProvider<SmartValidator> validatorProvider,
+            ObjectProvider<Validator> beanValidatorProvider,
             ObjectProvider<ObjectMapper> objectMapperProvider,
             ObjectProvider<List<CEKRequestVerifier>> requestVerifiers,
-            ObjectProvider<Map<String, CEKHandlerInterceptor>> handlerInterceptorMap) {
+            ObjectProvider<Map<String, CEKHandlerInterceptor>> handlerInterceptorMap,
+            ObjectProvider<SessionAttributesExternalizer> externalizerProvider,
+            ObjectProvider<CEKResponseCache> responseCacheProvider,
+            ObjectProvider<EventReplayCache> eventReplayCacheProvider,
+            ObjectProvider<PlaybackStateBuffer> playbackStateBufferProvider,
+            ObjectProvider<PlaybackStateStore> playbackStateStoreProvider,
+            ObjectProvider<AudioStreamPrefetcher> audioStreamPrefetcherProvider,
+            ObjectProvider<ConstantCEKResponses> constantResponsesProvider,
+            OutputSpeechGenerator outputSpeechGenerator,
+            CEKProperties cekProperties) {
         CEKRequestHandlerDispatcher dispatcher =
                 new CEKRequestHandlerDispatcher(handlerMapping, validatorProvider.getObject(),
                                                 objectMapperProvider.getObject());
@@ -114,19 +180,63 @@ public class CEKWebAutoConfiguration {
                 .filter(map -> !map.isEmpty())
                 .map(this::sortByOrder)
                 .ifPresent(dispatcher::setHandlerInterceptorMap);
+        dispatcher.setSessionAttributesExternalizer(externalizerProvider.getIfAvailable());
+        dispatcher.setResponseCache(responseCacheProvider.getIfAvailable());
+        dispatcher.setEventReplayCache(eventReplayCacheProvider.getIfAvailable());
+        dispatcher.setPlaybackStateBuffer(playbackStateBufferProvider.getIfAvailable());
+        dispatcher.setPlaybackStateStore(playbackStateStoreProvider.getIfAvailable());
+        dispatcher.setAudioStreamPrefetcher(audioStreamPrefetcherProvider.getIfAvailable());
+        dispatcher.setConstantResponses(constantResponsesProvider.getIfAvailable());
+        dispatcher.setBeanValidator(beanValidatorProvider.getIfUnique());
+        if (!cekProperties.isExpectedExceptionsThrown()) {
+            dispatcher.setExpectedOutcomeSpeechGenerator(outputSpeechGenerator);
+        }
 
         return dispatcher;
     }
 
     @Bean
     CEKRequestMappingHandlerMapping cekRequestMappingHandlerMapping(
-            List<CEKRequestHandlerArgumentResolver> argumentResolvers) {
-        return new CEKRequestMappingHandlerMapping(argumentResolvers);
+            List<CEKRequestHandlerArgumentResolver> argumentResolvers,
+            ObjectProvider<EventPayloadTypeRegistry> payloadTypeRegistryProvider) {
+        CEKRequestMappingHandlerMapping handlerMapping = new CEKRequestMappingHandlerMapping(argumentResolvers);
+        handlerMapping.setPayloadTypeRegistry(payloadTypeRegistryProvider.getIfAvailable());
+        return handlerMapping;
     }
 
     @Bean
-    OutputSpeechGenerator outputSpeechGenerator(MessageSource messageSource) {
-        return new OutputSpeechGenerator(messageSource);
+    @ConditionalOnMissingBean
+    PlaybackStateBuffer playbackStateBuffer(CEKProperties cekProperties) {
+        return new PlaybackStateBuffer(cekProperties.getPlaybackState().getFlushInterval());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    SlotDictionaries slotDictionaries(CEKProperties cekProperties,
+                                      ObjectProvider<List<SlotDictionary>> slotDictionariesProvider) {
+        List<SlotDictionary> dictionaries =
+                new ArrayList<>(slotDictionariesProvider.getIfAvailable(Collections::emptyList));
+        CEKProperties.SlotDictionary properties = cekProperties.getSlotDictionary();
+        properties.getResources().forEach((name, resource) -> dictionaries.add(
+                SlotDictionary.load(name, resource, properties.getMaxEditDistance())));
+        return new SlotDictionaries(dictionaries);
+    }
+
+    @Bean
+    OutputSpeechGenerator outputSpeechGenerator(
+            MessageSource messageSource,
+            ObjectProvider<SpeechTemplates> speechTemplatesProvider,
+            ObjectProvider<ConstantCEKResponses> constantResponsesProvider) {
+        OutputSpeechGenerator outputSpeechGenerator = new OutputSpeechGenerator(messageSource);
+        outputSpeechGenerator.setSpeechTemplates(speechTemplatesProvider.getIfAvailable());
+        outputSpeechGenerator.setConstantResponses(constantResponsesProvider.getIfAvailable());
+        return outputSpeechGenerator;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    ConstantCEKResponses constantCEKResponses(ObjectProvider<ObjectMapper> objectMapperProvider) {
+        return new ConstantCEKResponses(objectMapperProvider.getObject());
     }
 
     @SuppressWarnings("unchecked")
@@ -141,6 +251,178 @@ public class CEKWebAutoConfiguration {
                                                               LinkedHashMap::new));
     }
 
+    @Configuration
+    @ConditionalOnProperty(name = "cek.speech-templates.enabled", havingValue = "true")
+    static class SpeechTemplatesConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        SpeechTemplates speechTemplates(MessageSource messageSource, Environment environment) {
+            String basename = environment.getProperty("spring.messages.basename", "messages");
+            String[] basenames = StringUtils.commaDelimitedListToStringArray(
+                    StringUtils.trimAllWhitespace(basename));
+            return new SpeechTemplates(messageSource, Arrays.asList(basenames));
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "spring.messages.cache-duration")
+    static class OutputSpeechCacheRefresherConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        OutputSpeechCacheRefresher outputSpeechCacheRefresher(OutputSpeechGenerator outputSpeechGenerator,
+                                                              Environment environment) {
+            // the same period as the MessageSource of Spring Boot reloads the messages, in seconds by default
+            Duration cacheDuration = Binder.get(environment)
+                                           .bind("spring.messages", MessageSourceProperties.class)
+                                           .map(MessageSourceProperties::getCacheDuration)
+                                           .orElse(Duration.ZERO);
+            return new OutputSpeechCacheRefresher(outputSpeechGenerator, cacheDuration);
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnClass(SmileFactory.class)
+    @ConditionalOnProperty(name = "cek.session-codec.enabled", havingValue = "true")
+    static class SessionAttributesCodecConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        SessionAttributesCodec sessionAttributesCodec(ObjectProvider<ObjectMapper> objectMapperProvider,
+                                                      CEKProperties cekProperties) {
+            CEKProperties.SessionCodec sessionCodec = cekProperties.getSessionCodec();
+            return new SessionAttributesCodec(objectMapperProvider.getObject(), new SmileFactory(),
+                                              sessionCodec.getAttributeName(), sessionCodec.getAttributes(),
+                                              sessionCodec.getCompressionThreshold());
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "cek.session-store.type")
+    static class SessionStoreConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        CEKSessionStore cekSessionStore(CEKProperties cekProperties) {
+            CEKProperties.SessionStore sessionStore = cekProperties.getSessionStore();
+            if (!"memory".equals(sessionStore.getType())) {
+                throw new IllegalStateException(
+                        "Unsupported session store type: " + sessionStore.getType()
+                        + ". Define a CEKSessionStore bean for it.");
+            }
+            return new InMemoryCEKSessionStore(sessionStore.getTtl());
+        }
+
+        /**
+         * Takes precedence over {@link SessionAttributesCodec} if both are enabled.
+         */
+        @Bean
+        @Primary
+        CEKSessionStoreExternalizer cekSessionStoreExternalizer(
+                ObjectProvider<ObjectMapper> objectMapperProvider,
+                CEKSessionStore sessionStore,
+                CEKProperties cekProperties) {
+            CEKProperties.SessionStore properties = cekProperties.getSessionStore();
+            return new CEKSessionStoreExternalizer(objectMapperProvider.getObject(), sessionStore,
+                                                   properties.getAttributeName(), properties.getAttributes());
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "cek.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    static class ResponseCacheConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        CEKResponseCacheStore cekResponseCacheStore(CEKProperties cekProperties) {
+            return new InMemoryCEKResponseCacheStore(cekProperties.getResponseCache().getMaximumSize());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        CEKResponseCache cekResponseCache(CEKResponseCacheStore responseCacheStore,
+                                          CEKProperties cekProperties) {
+            return new CEKResponseCache(responseCacheStore, cekProperties.getResponseCache().getTtl());
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "cek.event-replay.enabled", havingValue = "true")
+    static class EventReplayConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        EventReplayCache eventReplayCache(ObjectProvider<ObjectMapper> objectMapperProvider,
+                                          CEKProperties cekProperties) {
+            CEKProperties.EventReplay eventReplay = cekProperties.getEventReplay();
+            return new EventReplayCache(objectMapperProvider.getObject(), eventReplay.getWindow(),
+                                        eventReplay.getCapacity());
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "cek.playback-state.store.enabled", havingValue = "true")
+    static class PlaybackStateStoreConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        PlaybackStatePersister playbackStatePersister(CEKProperties cekProperties,
+                                                      ObjectProvider<ObjectMapper> objectMapperProvider) {
+            return new AppendLogPlaybackStatePersister(cekProperties.getPlaybackState().getStore().getLogFile(),
+                                                       objectMapperProvider.getObject());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        PlaybackStateStore playbackStateStore(PlaybackStatePersister playbackStatePersister,
+                                              CEKProperties cekProperties) {
+            CEKProperties.PlaybackState.Store store = cekProperties.getPlaybackState().getStore();
+            return new PlaybackStateStore(playbackStatePersister, store.getMaximumSize(),
+                                          store.getFlushInterval());
+        }
+
+        @Bean
+        CEKPlaybackStateArgumentResolver cekPlaybackStateArgumentResolver(
+                PlaybackStateStore playbackStateStore) {
+            return new CEKPlaybackStateArgumentResolver(playbackStateStore);
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnBean(NextStreamResolver.class)
+    static class StreamPrefetchConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        AudioStreamPrefetcher audioStreamPrefetcher(NextStreamResolver nextStreamResolver,
+                                                    CEKProperties cekProperties) {
+            CEKProperties.StreamPrefetch streamPrefetch = cekProperties.getStreamPrefetch();
+            return new AudioStreamPrefetcher(nextStreamResolver, streamPrefetch.getTtl(),
+                                             streamPrefetch.getMaximumSize(), streamPrefetch.getThreads());
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "cek.audio-catalog.path")
+    static class AudioCatalogConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        SwappableAudioCatalog swappableAudioCatalog(CEKProperties cekProperties) throws IOException {
+            return SwappableAudioCatalog.open(cekProperties.getAudioCatalog().getPath());
+        }
+
+    }
+
     @Configuration
     static class ArgumentResolverConfig {
 
@@ -178,20 +460,26 @@ public class CEKWebAutoConfiguration {
 
         @Bean
         CEKSessionHolderArgumentResolver cekSessionHolderArgumentResolver(
-                ObjectProvider<ObjectMapper> objectMapperProvider) {
-            return new CEKSessionHolderArgumentResolver(objectMapperProvider.getObject());
+                ObjectProvider<ObjectMapper> objectMapperProvider,
+                ObjectProvider<SessionAttributesExternalizer> externalizerProvider) {
+            return new CEKSessionHolderArgumentResolver(objectMapperProvider.getObject(),
+                                                        externalizerProvider.getIfAvailable());
         }
 
         @Bean
         CEKSessionValueArgumentResolver cekSessionValueArgumentResolver(
-                ObjectProvider<ObjectMapper> objectMapperProvider) {
-            return new CEKSessionValueArgumentResolver(objectMapperProvider.getObject());
+                ObjectProvider<ObjectMapper> objectMapperProvider,
+                ObjectProvider<SessionAttributesExternalizer> externalizerProvider) {
+            return new CEKSessionValueArgumentResolver(objectMapperProvider.getObject(),
+                                                       externalizerProvider.getIfAvailable());
         }
 
         @Bean
         CEKSlotValueArgumentResolver cekSlotValueArgumentResolver(
-                ObjectProvider<ObjectMapper> objectMapperProvider) {
-            return new CEKSlotValueArgumentResolver(objectMapperProvider.getObject());
+                ObjectProvider<ObjectMapper> objectMapperProvider,
+                ObjectProvider<SlotDictionaries> slotDictionariesProvider) {
+            return new CEKSlotValueArgumentResolver(objectMapperProvider.getObject(),
+                                                    slotDictionariesProvider.getIfAvailable());
         }
 
         @Bean
@@ -16,12 +16,15 @@
 
 package com.linecorp.clova.extension.boot.config;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Condition;
@@ -30,7 +33,9 @@ import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 
+import com.linecorp.clova.extension.boot.filter.CEKTrafficCaptureFilter;
 import com.linecorp.clova.extension.boot.filter.LoggingCEKResponseFilter;
+import com.linecorp.clova.extension.boot.filter.capture.CEKTrafficLogWriter;
 import com.linecorp.clova.extension.boot.filter.logger.DefaultCEKResponseLogger;
 import com.linecorp.clova.extension.boot.filter.logger.HttpServletResponseLogger;
 
@@ -49,6 +54,28 @@ public class CEKFilterConfig {
         return new LoggingCEKResponseFilter(loggers, cekProperties.getApiPath());
     }
 
+    @Configuration
+    @ConditionalOnProperty(name = "cek.capture.enabled", havingValue = "true")
+    static class CEKTrafficCaptureConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        CEKTrafficLogWriter cekTrafficLogWriter(CEKProperties cekProperties) throws IOException {
+            CEKProperties.Capture capture = cekProperties.getCapture();
+            return new CEKTrafficLogWriter(Paths.get(capture.getDirectory()), capture.getSegmentSize(),
+                                           capture.getMaxSegments(), capture.isCompress(),
+                                           capture.getQueueCapacity());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        CEKTrafficCaptureFilter cekTrafficCaptureFilter(CEKTrafficLogWriter writer,
+                                                        CEKProperties cekProperties) {
+            return new CEKTrafficCaptureFilter(writer, cekProperties.getApiPath());
+        }
+
+    }
+
     @Configuration
     static class CEKResponseLoggerConfig {
 
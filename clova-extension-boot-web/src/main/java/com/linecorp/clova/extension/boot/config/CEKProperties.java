@@ -16,9 +16,17 @@
 
 package com.linecorp.clova.extension.boot.config;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
 
 import lombok.Data;
 
@@ -34,11 +42,79 @@ public class CEKProperties {
      */
     private String apiPath = "/";
 
+    /**
+     * Whether the exceptions for the expected outcomes of CEK requests, e.g.) a missing slot, capture stack
+     * traces. Enable only for debugging.
+     */
+    private boolean exceptionStackTrace;
+
+    /**
+     * Whether a missing Handler and the missing or invalid slots and session attributes are thrown to the
+     * exception handlers. If false, their error responses are built by the dispatcher without creating or
+     * resolving the exceptions, so custom exception handlers for them are not called.
+     */
+    private boolean expectedExceptionsThrown = true;
+
     /**
      * Client environment settings.
      */
     private Client client = new Client();
 
+    /**
+     * Traffic capture settings.
+     */
+    private Capture capture = new Capture();
+
+    /**
+     * Speech templates settings.
+     */
+    private SpeechTemplates speechTemplates = new SpeechTemplates();
+
+    /**
+     * Session attributes codec settings.
+     */
+    private SessionCodec sessionCodec = new SessionCodec();
+
+    /**
+     * Server-side session store settings.
+     */
+    private SessionStore sessionStore = new SessionStore();
+
+    /**
+     * Response cache settings.
+     */
+    private ResponseCache responseCache = new ResponseCache();
+
+    /**
+     * Event request replay settings.
+     */
+    private EventReplay eventReplay = new EventReplay();
+
+    /**
+     * Playback state event settings.
+     */
+    private PlaybackState playbackState = new PlaybackState();
+
+    /**
+     * Next stream prefetch settings.
+     */
+    private StreamPrefetch streamPrefetch = new StreamPrefetch();
+
+    /**
+     * Audio catalog settings.
+     */
+    private AudioCatalog audioCatalog = new AudioCatalog();
+
+    /**
+     * Slot dictionary settings.
+     */
+    private SlotDictionary slotDictionary = new SlotDictionary();
+
+    /**
+     * Response validation settings.
+     */
+    private ResponseValidation responseValidation = new ResponseValidation();
+
     /**
      * Clova client properties.
      */
@@ -55,4 +131,284 @@ public class CEKProperties {
 
     }
 
+    /**
+     * Traffic capture properties.
+     */
+    @Data
+    public static class Capture {
+
+        /**
+         * Whether to capture CEK requests and responses into binary log files.
+         */
+        private boolean enabled;
+
+        /**
+         * The directory where log files are written.
+         */
+        private String directory = "cek-capture";
+
+        /**
+         * The size of a log file in bytes. A new file is created when the current one is full.
+         */
+        private int segmentSize = 64 * 1024 * 1024;
+
+        /**
+         * The maximum number of log files to keep. The oldest files are deleted.
+         */
+        private int maxSegments = 16;
+
+        /**
+         * Whether to compress each record.
+         */
+        private boolean compress;
+
+        /**
+         * The maximum number of records waiting to be written. Records are dropped when it is full.
+         */
+        private int queueCapacity = 10_000;
+
+    }
+
+    /**
+     * Speech templates properties.
+     */
+    @Data
+    public static class SpeechTemplates {
+
+        /**
+         * Whether to compile all the messages of {@code spring.messages.basename} at startup, and use them to
+         * generate {@code OutputSpeech} from {@code MessageCode}.
+         */
+        private boolean enabled;
+
+    }
+
+    /**
+     * Session attributes codec properties.
+     */
+    @Data
+    public static class SessionCodec {
+
+        /**
+         * Whether to encode session attributes into one attribute in the Smile format.
+         * <p>
+         * Requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile}.
+         */
+        private boolean enabled;
+
+        /**
+         * The name of the session attribute which holds the encoded attributes.
+         */
+        private String attributeName = "_cek";
+
+        /**
+         * The names of the session attributes to encode. In default, all session attributes are encoded.
+         */
+        private List<String> attributes = new ArrayList<>();
+
+        /**
+         * The minimum size in bytes to compress the encoded attributes. A negative value disables compression.
+         */
+        private int compressionThreshold = 256;
+
+    }
+
+    /**
+     * Server-side session store properties.
+     */
+    @Data
+    public static class SessionStore {
+
+        /**
+         * The type of the session store. Only {@code memory} is built in, and any other type requires a
+         * {@code CEKSessionStore} bean. In default, session attributes are kept in the CEK session.
+         */
+        private String type;
+
+        /**
+         * The time to live of the attributes of an idle session in the {@code memory} store.
+         */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * The name of the session attribute which refers to the stored attributes.
+         */
+        private String attributeName = "_cekSession";
+
+        /**
+         * The names of the session attributes to store. In default, all session attributes are stored.
+         */
+        private List<String> attributes = new ArrayList<>();
+
+    }
+
+    /**
+     * Response cache properties.
+     */
+    @Data
+    public static class ResponseCache {
+
+        /**
+         * Whether to cache the responses of the Handlers annotated with {@code @CEKCacheable}.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The time to live of cached responses, unless specified by the annotation.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * The maximum number of responses in the built-in store. It is not used if a
+         * {@code CEKResponseCacheStore} bean is defined.
+         */
+        private int maximumSize = 10_000;
+
+    }
+
+    /**
+     * Event request replay properties.
+     */
+    @Data
+    public static class EventReplay {
+
+        /**
+         * Whether to answer the retried event requests, which have the same {@code requestId}, with the
+         * response of the first one instead of calling the Handler again.
+         */
+        private boolean enabled;
+
+        /**
+         * How long the responses are kept. The event requests whose timestamp differs from the current time
+         * more than this are rejected.
+         */
+        private Duration window = Duration.ofMinutes(5);
+
+        /**
+         * The maximum number of kept responses.
+         */
+        private int capacity = 10_000;
+
+    }
+
+    /**
+     * Playback state event properties.
+     */
+    @Data
+    public static class PlaybackState {
+
+        /**
+         * The interval to pass the coalesced events to the {@code @PlaybackStateMapping} Handlers.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Per-user playback state store settings.
+         */
+        private Store store = new Store();
+
+        /**
+         * Per-user playback state store properties.
+         */
+        @Data
+        public static class Store {
+
+            /**
+             * Whether to record the playback state of each user, which can be injected into the Handlers as
+             * {@code PlaybackState}.
+             */
+            private boolean enabled;
+
+            /**
+             * The interval to write the states behind to the {@code PlaybackStatePersister}, or zero to write
+             * them synchronously.
+             */
+            private Duration flushInterval = Duration.ofSeconds(1);
+
+            /**
+             * The maximum number of states kept in memory.
+             */
+            private int maximumSize = 100_000;
+
+            /**
+             * The append log file of the built-in persister. It is not used if a
+             * {@code PlaybackStatePersister} bean is defined.
+             */
+            private Path logFile = Paths.get("cek-playback-state.log");
+
+        }
+
+    }
+
+    /**
+     * Next stream prefetch properties. They are used only if a {@code NextStreamResolver} bean is defined.
+     */
+    @Data
+    public static class StreamPrefetch {
+
+        /**
+         * Time to live of the prefetched streams, which should be shorter than the expiry of the stream URLs.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * The maximum number of the prefetched streams.
+         */
+        private int maximumSize = 10_000;
+
+        /**
+         * The number of threads to call the {@code NextStreamResolver}.
+         */
+        private int threads = 4;
+
+    }
+
+    /**
+     * Audio catalog properties.
+     */
+    @Data
+    public static class AudioCatalog {
+
+        /**
+         * The catalog file built by {@code AudioCatalogWriter}. A {@code SwappableAudioCatalog} bean is defined
+         * only if this is set.
+         */
+        private Path path;
+
+    }
+
+    /**
+     * Slot dictionary properties.
+     */
+    @Data
+    public static class SlotDictionary {
+
+        /**
+         * Tab separated dictionary files by the name of the dictionary, which are loaded at startup. Each line
+         * is {@code id<TAB>value[<TAB>synonym]...}.
+         */
+        private Map<String, Resource> resources = new LinkedHashMap<>();
+
+        /**
+         * The maximum edit distance of the fuzzy lookup of the loaded dictionaries. {@code 0} disables it.
+         */
+        private int maxEditDistance = 2;
+
+    }
+
+    /**
+     * Response validation properties.
+     */
+    @Data
+    public static class ResponseValidation {
+
+        /**
+         * The ratio of the responses to validate, between {@code 0.0} and {@code 1.0}, when DEBUG logging of
+         * {@code CEKResponseMessageValidationAdvice} is disabled. Errors of the sampled responses are logged
+         * with WARN level. All responses are validated while DEBUG logging is enabled.
+         */
+        private double sampleRate;
+
+    }
+
 }
@@ -23,26 +23,27 @@ import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import com.linecorp.clova.extension.boot.config.CEKProperties;
 import com.linecorp.clova.extension.boot.handler.CEKRequestProcessor;
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.EventPayloadTypeRegistry;
 import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
 import com.linecorp.clova.extension.boot.util.RequestUtils;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * The controller for handling CEK Requests.
  */
 @RestController
-@RequiredArgsConstructor
 @Slf4j
 public class CEKHandleIntentController {
 
@@ -50,10 +51,35 @@ public class CEKHandleIntentController {
             LoggerFactory.getLogger("cek.message.request");
 
     private final CEKRequestProcessor requestProcessor;
-    private final ObjectMapper objectMapper;
+    private final ObjectReader requestMessageReader;
 
     private final Locale defaultClientLocale;
 
+    public CEKHandleIntentController(CEKRequestProcessor requestProcessor, ObjectMapper objectMapper,
+                                     Locale defaultClientLocale) {
+        this(requestProcessor, objectMapper, defaultClientLocale, null);
+    }
+
+    /**
+     * Constructs the controller which deserializes event payloads into the types registered to the registry.
+     *
+     * @param requestProcessor    {@link CEKRequestProcessor}
+     * @param objectMapper        {@link ObjectMapper} to read the CEK Request body
+     * @param defaultClientLocale the locale of the clients
+     * @param payloadTypeRegistry {@link EventPayloadTypeRegistry}; if {@code null}, event payloads are read as
+     *                            {@code MapPayload}
+     */
+    public CEKHandleIntentController(CEKRequestProcessor requestProcessor, ObjectMapper objectMapper,
+                                     Locale defaultClientLocale,
+                                     @Nullable EventPayloadTypeRegistry payloadTypeRegistry) {
+        ObjectReader requestMessageReader = objectMapper.readerFor(CEKRequestMessage.class);
+        this.requestProcessor = requestProcessor;
+        this.requestMessageReader = payloadTypeRegistry != null
+                                    ? payloadTypeRegistry.applyTo(requestMessageReader)
+                                    : requestMessageReader;
+        this.defaultClientLocale = defaultClientLocale;
+    }
+
     /**
      * The handler method for a CEK Request.
      *
@@ -72,7 +98,7 @@ public class CEKHandleIntentController {
             log.debug("CEK Payload --> {}", requestBody);
         }
         RequestUtils.setRequestBodyJson(request, requestBody);
-        CEKRequestMessage requestMessage = objectMapper.readValue(requestBody, CEKRequestMessage.class);
+        CEKRequestMessage requestMessage = requestMessageReader.readValue(requestBody);
         LocaleContextHolder.setLocale(defaultClientLocale, true);
 
         return requestProcessor.process(request, requestMessage);
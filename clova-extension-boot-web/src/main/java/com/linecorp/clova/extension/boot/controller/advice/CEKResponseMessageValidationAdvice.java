@@ -16,6 +16,8 @@
 
 package com.linecorp.clova.extension.boot.controller.advice;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.springframework.core.MethodParameter;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -24,6 +26,7 @@ import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.SmartValidator;
 import org.springframework.web.bind.annotation.RestController;
@@ -34,27 +37,45 @@ import com.linecorp.clova.extension.boot.message.response.CEKResponse;
 import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
 import com.linecorp.clova.extension.boot.util.LogUtils;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * {@link ResponseBodyAdvice} that validates the response body.
  * <p>
- * The validation errors are logged out with WARN level.
+ * All responses are validated while DEBUG logging is enabled, and the validation errors are logged out with
+ * DEBUG level. Otherwise, only the sampled responses are validated, and the errors are logged out with WARN
+ * level.
  * This advice never throws validation error.
  */
 @RestControllerAdvice(annotations = { RestController.class, RestControllerAdvice.class })
 @Order(Ordered.LOWEST_PRECEDENCE - 1)
-@RequiredArgsConstructor
 @Slf4j
 public class CEKResponseMessageValidationAdvice extends CEKResponseMessageBodyAbstractAdvice {
 
     private final SmartValidator validator;
+    private final double sampleRate;
+
+    public CEKResponseMessageValidationAdvice(SmartValidator validator) {
+        this(validator, 0.0);
+    }
+
+    /**
+     * Constructs the advice which also validates a part of the responses while DEBUG logging is disabled.
+     *
+     * @param validator  validator of the responses
+     * @param sampleRate the ratio of the responses to validate, between {@code 0.0} and {@code 1.0}
+     */
+    public CEKResponseMessageValidationAdvice(SmartValidator validator, double sampleRate) {
+        Assert.isTrue(sampleRate >= 0.0 && sampleRate <= 1.0,
+                      "sampleRate should be between 0.0 and 1.0. [sampleRate:" + sampleRate + "]");
+        this.validator = validator;
+        this.sampleRate = sampleRate;
+    }
 
     @Override
     public boolean supports(MethodParameter returnType,
                             Class<? extends HttpMessageConverter<?>> converterType) {
-        return log.isDebugEnabled() && super.supports(returnType, converterType);
+        return (log.isDebugEnabled() || sampleRate > 0.0) && super.supports(returnType, converterType);
     }
 
     @Nullable
@@ -69,13 +90,23 @@ public class CEKResponseMessageValidationAdvice extends CEKResponseMessageBodyAb
             return new CEKResponseMessage(CEKResponse.empty());
         }
 
+        boolean debugEnabled = log.isDebugEnabled();
+        if (!debugEnabled && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return body;
+        }
+
         try {
             BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(body, "responseMessage");
             validator.validate(body, bindingResult);
 
             if (bindingResult.hasErrors()) {
-                log.debug("Invalid CEK response. Please check the following errors.\n"
-                          + bindingResult);
+                if (debugEnabled) {
+                    log.debug("Invalid CEK response. Please check the following errors.\n"
+                              + bindingResult);
+                } else {
+                    log.warn("Invalid CEK response. Please check the following errors.\n"
+                             + bindingResult);
+                }
             }
         } catch (Throwable t) {
             LogUtils.logging(log, t);
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.exception;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Settings of the exceptions for the expected outcomes of CEK requests, e.g.) a missing slot or no handler for
+ * a misrecognized intent.
+ * <p>
+ * {@link RequestHandlerNotFoundException}, {@link MissingSlotException},
+ * {@link MissingSessionAttributeException}, {@link InvalidSlotException}, {@link InvalidUserParameterException}
+ * and its subclasses do not capture stack traces by default, since they are caused by the users, thrown
+ * frequently in normal voice traffic, and identified by their types and messages. The other exceptions, which
+ * report bugs of the application, always capture stack traces. Enable stack traces with
+ * {@code cek.exception-stack-trace=true} or {@link #setStackTraceEnabled(boolean)} for debugging.
+ * <p>
+ * With {@code cek.expected-exceptions-thrown=false}, the dispatcher answers a missing Handler without creating
+ * {@link RequestHandlerNotFoundException}, and the missing or invalid arguments without passing the exceptions
+ * to the exception handlers.
+ */
+@UtilityClass
+public class ExpectedExceptions {
+
+    private volatile boolean stackTraceEnabled = Boolean.getBoolean("cek.exception-stack-trace");
+
+    /**
+     * Returns whether the expected exceptions capture stack traces.
+     *
+     * @return {@code true} if stack traces are captured
+     */
+    public boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    /**
+     * Sets whether the expected exceptions capture stack traces. It affects the exceptions created afterwards.
+     *
+     * @param enabled {@code true} to capture stack traces
+     */
+    public void setStackTraceEnabled(boolean enabled) {
+        stackTraceEnabled = enabled;
+    }
+
+}
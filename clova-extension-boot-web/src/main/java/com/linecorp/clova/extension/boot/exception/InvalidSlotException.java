@@ -25,6 +25,8 @@ import lombok.Getter;
 
 /**
  * An exception when an invalid slot is set.
+ * <p>
+ * The stack trace is not captured by default, while the cause keeps its own. See {@link ExpectedExceptions}.
  */
 public class InvalidSlotException extends InvalidApplicationParameterException {
 
@@ -52,4 +54,12 @@ public class InvalidSlotException extends InvalidApplicationParameterException {
         return "Failed to mapping. [" + slot + " -> " + StringUtils.methodParamToString(methodParam) + "]";
     }
 
+    /**
+     * Captures the stack trace only if {@link ExpectedExceptions#isStackTraceEnabled()}.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return ExpectedExceptions.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
+
 }
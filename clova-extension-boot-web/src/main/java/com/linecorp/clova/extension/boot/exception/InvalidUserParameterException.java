@@ -22,6 +22,8 @@ import com.linecorp.clova.extension.boot.util.LogLevel;
 
 /**
  * An exception for when an invalid parameter is set by the Clova user.
+ * <p>
+ * The stack trace is not captured by default. See {@link ExpectedExceptions}.
  */
 @LogLevel(WARN)
 public class InvalidUserParameterException extends RuntimeException {
@@ -56,4 +58,12 @@ public class InvalidUserParameterException extends RuntimeException {
         super((String) null);
     }
 
+    /**
+     * Captures the stack trace only if {@link ExpectedExceptions#isStackTraceEnabled()}.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return ExpectedExceptions.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
+
 }
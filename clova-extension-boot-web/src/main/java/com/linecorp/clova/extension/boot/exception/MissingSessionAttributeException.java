@@ -24,6 +24,8 @@ import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
  * This exception occurred when expected {@link CEKRequestMessage.Session#sessionAttributes session attribute} is missing.
  * Handler methods may access {@link CEKRequestMessage.Session#sessionAttributes session attribute}s with the method parameters.
  * This exception is thrown if the parameter is required.
+ * <p>
+ * The stack trace is not captured by default. See {@link ExpectedExceptions}.
  *
  * @see CEKRequestMessage
  */
@@ -47,4 +49,12 @@ public class MissingSessionAttributeException extends MissingRequiredParamExcept
         return "Missing session attribute. [attribute name:" + getName() + "]";
     }
 
+    /**
+     * Captures the stack trace only if {@link ExpectedExceptions#isStackTraceEnabled()}.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return ExpectedExceptions.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
+
 }
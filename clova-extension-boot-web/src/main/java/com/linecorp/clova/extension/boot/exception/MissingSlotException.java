@@ -26,6 +26,8 @@ import com.linecorp.clova.extension.boot.util.LogLevel;
  * <p>
  * This exception occurred when expected {@link Slot slot} is missing. Handler methods may access {@link Slot
  * slot}s with the method parameters. This exception is thrown if the parameter is required.
+ * <p>
+ * The stack trace is not captured by default. See {@link ExpectedExceptions}.
  */
 @LogLevel(ERROR)
 public class MissingSlotException extends MissingRequiredParamException {
@@ -47,4 +49,12 @@ public class MissingSlotException extends MissingRequiredParamException {
         return "Missing slot value. slot name: " + getName();
     }
 
+    /**
+     * Captures the stack trace only if {@link ExpectedExceptions#isStackTraceEnabled()}.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return ExpectedExceptions.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
+
 }
@@ -25,6 +25,8 @@ import com.linecorp.clova.extension.boot.util.LogLevel;
 
 /**
  * An exception for when no applicable {@link CEKHandlerMethod} is found.
+ * <p>
+ * The stack trace is not captured by default. See {@link ExpectedExceptions}.
  */
 @LogLevel(ERROR)
 public class RequestHandlerNotFoundException extends InvalidApplicationParameterException {
@@ -47,6 +49,26 @@ public class RequestHandlerNotFoundException extends InvalidApplicationParameter
 
     @Override
     public String getMessage() {
-        return "Handler was not found. [requestType:" + this.requestType + ", name: " + this.name + "]";
+        return messageOf(this.requestType, this.name);
     }
+
+    /**
+     * Returns the message of the exception for the request, to report it without creating the exception.
+     *
+     * @param requestType {@link RequestType}
+     * @param name        {@link CEKRequest#getName()}
+     * @return the message
+     */
+    public static String messageOf(RequestType requestType, String name) {
+        return "Handler was not found. [requestType:" + requestType + ", name: " + name + "]";
+    }
+
+    /**
+     * Captures the stack trace only if {@link ExpectedExceptions#isStackTraceEnabled()}.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return ExpectedExceptions.isStackTraceEnabled() ? super.fillInStackTrace() : this;
+    }
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.filter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.linecorp.clova.extension.boot.filter.capture.CEKTrafficLogWriter;
+import com.linecorp.clova.extension.boot.filter.capture.CEKTrafficRecord;
+import com.linecorp.clova.extension.boot.util.RequestUtils;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * {@link javax.servlet.Filter Filter} for capturing CEK requests and responses.
+ * <p>
+ * Captures the request body, {@code SignatureCEK} header, response body and processing time, and hands them
+ * to {@link CEKTrafficLogWriter}, which writes them off the request thread.
+ * <p>
+ * The request body is the one bound by the controller, so requests which did not reach the controller are not
+ * captured.
+ */
+public class CEKTrafficCaptureFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final String SIGNATURE_HEADER = "SignatureCEK";
+
+    private final CEKTrafficLogWriter writer;
+    private final String cekApiPathPattern;
+
+    @Getter
+    @Setter
+    private int order = Ordered.LOWEST_PRECEDENCE;
+
+    private AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public CEKTrafficCaptureFilter(CEKTrafficLogWriter writer, String cekApiPathPattern) {
+        this.writer = writer;
+        this.cekApiPathPattern = cekApiPathPattern;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !pathMatcher.match(cekApiPathPattern, request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws
+                                                             ServletException, IOException {
+        // reuses the wrapper of an outer filter, which copies the body to the response
+        boolean wrapped = response instanceof ContentCachingResponseWrapper;
+        ContentCachingResponseWrapper responseToUse = wrapped
+                                                      ? (ContentCachingResponseWrapper) response
+                                                      : new ContentCachingResponseWrapper(response);
+
+        long timestamp = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, responseToUse);
+        } finally {
+            long durationNanos = System.nanoTime() - startNanos;
+            capture(request, responseToUse, timestamp, durationNanos);
+            if (!wrapped) {
+                responseToUse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void capture(HttpServletRequest request, ContentCachingResponseWrapper response, long timestamp,
+                         long durationNanos) {
+        String requestBody = RequestUtils.getRequestBodyJson(request);
+        if (requestBody == null) {
+            return;
+        }
+        writer.append(new CEKTrafficRecord(timestamp, durationNanos, response.getStatusCode(),
+                                           request.getHeader(SIGNATURE_HEADER),
+                                           requestBody.getBytes(StandardCharsets.UTF_8),
+                                           response.getContentAsByteArray()));
+    }
+
+}
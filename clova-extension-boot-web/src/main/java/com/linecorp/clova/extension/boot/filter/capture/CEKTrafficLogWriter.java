@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.filter.capture;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends {@link CEKTrafficRecord}s to rotating, memory-mapped binary log files on a background thread.
+ * <p>
+ * Each file is pre-allocated to the segment size and has the following layout (big-endian).
+ * <pre>
+ * file    := magic(int "CEKT") version(byte) reserved(3 bytes) record* zero-filled tail
+ * record  := length(int, &gt; 0) flags(byte) payload(length bytes)
+ * payload := timestamp(long) durationNanos(long) status(int)
+ *            signatureLength(int, -1 if absent) signature(UTF-8)
+ *            requestLength(int) requestBody
+ *            responseLength(int) responseBody
+ * </pre>
+ * If {@link #FLAG_DEFLATED} is set in the flags, the payload is compressed with {@link Deflater}.
+ * A record length of zero means the end of the file.
+ * <p>
+ * Records are dropped instead of blocking the request thread when the queue is full.
+ */
+@Slf4j
+public final class CEKTrafficLogWriter implements DisposableBean {
+
+    public static final int MAGIC = 0x43454B54;
+    public static final byte VERSION = 1;
+    public static final int FILE_HEADER_SIZE = 8;
+    public static final int RECORD_HEADER_SIZE = 5;
+    public static final byte FLAG_DEFLATED = 0x01;
+
+    public static final String FILE_PREFIX = "cek-traffic-";
+    public static final String FILE_SUFFIX = ".log";
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean compress;
+
+    private final BlockingQueue<Runnable> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // accessed only by the writer thread
+    private final ByteArrayOutputStream payloadBuffer = new ByteArrayOutputStream();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private MappedByteBuffer segment;
+    private int segmentSequence;
+
+    public CEKTrafficLogWriter(Path directory, int segmentSize, int maxSegments, boolean compress,
+                               int queueCapacity) throws IOException {
+        if (segmentSize <= FILE_HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize is too small. segmentSize: " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.compress = compress;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.thread = new Thread(this::run, "cek-traffic-log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        log.info("Capturing CEK traffic into {}", this.directory.toAbsolutePath());
+    }
+
+    /**
+     * Enqueues the record without blocking.
+     *
+     * @param record {@link CEKTrafficRecord}
+     * @return {@code false} if the record was dropped
+     */
+    public boolean append(CEKTrafficRecord record) {
+        if (this.running && this.queue.offer(() -> write(record))) {
+            return true;
+        }
+        this.droppedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Waits until all records enqueued before are written.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return {@code false} if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        if (!this.queue.offer(() -> {
+            if (this.segment != null) {
+                this.segment.force();
+            }
+            latch.countDown();
+        }, timeout, unit)) {
+            return false;
+        }
+        return latch.await(timeout, unit);
+    }
+
+    /**
+     * Returns the number of records dropped because the queue was full or the record was too large.
+     *
+     * @return the number of dropped records
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        this.running = false;
+        this.thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    private void run() {
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                Runnable task = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    task.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Failed to write the CEK traffic log.", e);
+            }
+        }
+        closeSegment();
+        this.deflater.end();
+    }
+
+    private void write(CEKTrafficRecord record) {
+        byte[] payload = encode(record);
+        byte flags = 0;
+        if (this.compress) {
+            payload = deflate(payload);
+            flags |= FLAG_DEFLATED;
+        }
+
+        int size = RECORD_HEADER_SIZE + payload.length;
+        if (size > this.segmentSize - FILE_HEADER_SIZE) {
+            this.droppedCount.incrementAndGet();
+            log.warn("The record is larger than the segment size. size: {}", size);
+            return;
+        }
+        if (this.segment == null || this.segment.remaining() < size) {
+            rotate();
+        }
+        this.segment.putInt(payload.length)
+                    .put(flags)
+                    .put(payload);
+    }
+
+    private byte[] encode(CEKTrafficRecord record) {
+        this.payloadBuffer.reset();
+        DataOutputStream out = new DataOutputStream(this.payloadBuffer);
+        try {
+            out.writeLong(record.getTimestamp());
+            out.writeLong(record.getDurationNanos());
+            out.writeInt(record.getStatus());
+            if (record.getSignature() != null) {
+                writeBytes(out, record.getSignature().getBytes(StandardCharsets.UTF_8));
+            } else {
+                out.writeInt(-1);
+            }
+            writeBytes(out, record.getRequestBody());
+            writeBytes(out, record.getResponseBody());
+        } catch (IOException e) {
+            // never happens with ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return this.payloadBuffer.toByteArray();
+    }
+
+    private byte[] deflate(byte[] payload) {
+        this.deflater.reset();
+        this.deflater.setInput(payload);
+        this.deflater.finish();
+        this.payloadBuffer.reset();
+        byte[] chunk = new byte[4096];
+        while (!this.deflater.finished()) {
+            int length = this.deflater.deflate(chunk);
+            this.payloadBuffer.write(chunk, 0, length);
+        }
+        return this.payloadBuffer.toByteArray();
+    }
+
+    private void rotate() {
+        closeSegment();
+        Path path = this.directory.resolve(String.format("%s%d-%05d%s", FILE_PREFIX, System.currentTimeMillis(),
+                                                         this.segmentSequence++, FILE_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.segment = channel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create a CEK traffic log file. path: " + path, e);
+        }
+        this.segment.putInt(MAGIC)
+                    .put(VERSION)
+                    .put(new byte[FILE_HEADER_SIZE - 5]);
+        deleteOldSegments();
+    }
+
+    private void closeSegment() {
+        if (this.segment != null) {
+            this.segment.force();
+            this.segment = null;
+        }
+    }
+
+    private void deleteOldSegments() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory,
+                                                                     FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.warn("Failed to list CEK traffic log files.", e);
+            return;
+        }
+        Collections.sort(files);
+        for (int i = 0; i < files.size() - this.maxSegments; i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                log.warn("Failed to delete the CEK traffic log file. path: {}", files.get(i), e);
+            }
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+}
@@ -26,19 +26,27 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import javax.validation.Valid;
+
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.validation.annotation.Validated;
 
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKCacheable;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestMapping;
 import com.linecorp.clova.extension.boot.handler.condition.CEKHandleConditionMatcher;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKRequestHandlerArgumentResolver;
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
 import com.linecorp.clova.extension.boot.message.request.RequestType;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 
 /**
  * A class to store the Handler information extracted from the {@link CEKRequestMapping @CEKRequestMapping}
@@ -58,6 +66,9 @@ import lombok.Data;
  */
 @Data
 public class CEKHandlerMethod implements Comparable<CEKHandlerMethod> {
+
+    private static final Object[] NO_VALIDATION_HINTS = new Object[0];
+
     private final RequestType requestType;
 
     private final Object bean;
@@ -72,6 +83,18 @@ public class CEKHandlerMethod implements Comparable<CEKHandlerMethod> {
 
     private final CEKHandleConditionMatcher compositeMatcher;
 
+    /**
+     * {@link CEKCacheable @CEKCacheable} of the method, or {@code null} if the response is not cacheable.
+     */
+    private final CEKCacheable cacheable;
+
+    /**
+     * Validation hints of each parameter, which are {@code null} for the parameters annotated with neither
+     * {@link Valid @Valid} nor {@link Validated @Validated}. {@code null} if no parameter is validated.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Object[][] validationHints;
+
     @Builder
     public CEKHandlerMethod(RequestType requestType,
                             Object bean,
@@ -91,6 +114,9 @@ public class CEKHandlerMethod implements Comparable<CEKHandlerMethod> {
                 Collections::emptySet);
         this.methodConditionMatchers = Optional.ofNullable(methodConditionMatchers).orElseGet(
                 Collections::emptySet);
+        this.cacheable = method != null ? AnnotatedElementUtils.findMergedAnnotation(method, CEKCacheable.class)
+                                        : null;
+        this.validationHints = methodParams != null ? validationHints(methodParams) : null;
 
         this.compositeMatcher = (request, requestMessage, system) -> {
             if (!this.handlerConditionMatchers.isEmpty()
@@ -107,6 +133,43 @@ public class CEKHandlerMethod implements Comparable<CEKHandlerMethod> {
         };
     }
 
+    private static Object[][] validationHints(List<MethodParameter> methodParams) {
+        Object[][] hints = new Object[methodParams.size()][];
+        boolean validated = false;
+        for (int i = 0; i < hints.length; i++) {
+            MethodParameter methodParam = methodParams.get(i);
+            if (methodParam.hasParameterAnnotation(Valid.class)) {
+                hints[i] = NO_VALIDATION_HINTS;
+            } else {
+                Validated annotation = methodParam.getParameterAnnotation(Validated.class);
+                hints[i] = annotation != null ? annotation.value() : null;
+            }
+            validated |= hints[i] != null;
+        }
+        return validated ? hints : null;
+    }
+
+    /**
+     * Returns whether any parameter is annotated with {@link Valid @Valid} or {@link Validated @Validated}.
+     *
+     * @return {@code true} if any parameter should be validated
+     */
+    public boolean hasValidatedParams() {
+        return validationHints != null;
+    }
+
+    /**
+     * Returns the validation hints of the parameter, which are resolved when this handler method is mapped.
+     *
+     * @param paramIndex the index of the parameter
+     * @return the groups of {@link Validated @Validated}, an empty array for {@link Valid @Valid}, or
+     *         {@code null} if the parameter is not validated
+     */
+    @Nullable
+    public Object[] getValidationHints(int paramIndex) {
+        return validationHints != null ? validationHints[paramIndex] : null;
+    }
+
     public CEKRequestKey createKey() {
         return CEKRequestKey.builder()
                             .key(name)
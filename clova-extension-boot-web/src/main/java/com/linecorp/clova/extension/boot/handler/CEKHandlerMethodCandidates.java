@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.linecorp.clova.extension.boot.handler.condition.CEKHandleConditionMatcher;
+import com.linecorp.clova.extension.boot.handler.condition.SessionStateConditionMatcher;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
+
+/**
+ * The Handler methods mapped to a request, indexed by the dialog state of
+ * {@link com.linecorp.clova.extension.boot.handler.annnotation.SessionStateCondition @SessionStateCondition}.
+ * <p>
+ * The Handler methods without the state condition are always candidates, and the ones with it are candidates
+ * only in their states. The selected candidates are matched against all their conditions as before.
+ */
+final class CEKHandlerMethodCandidates {
+
+    private final List<CEKHandlerMethod> stateless;
+    // attribute name -> state -> handler methods
+    private final Map<String, Map<String, List<CEKHandlerMethod>>> stateIndex;
+
+    private CEKHandlerMethodCandidates(List<CEKHandlerMethod> stateless,
+                                       Map<String, Map<String, List<CEKHandlerMethod>>> stateIndex) {
+        this.stateless = stateless;
+        this.stateIndex = stateIndex;
+    }
+
+    static CEKHandlerMethodCandidates of(List<CEKHandlerMethod> handlerMethods) {
+        List<CEKHandlerMethod> stateless = new ArrayList<>();
+        Map<String, Map<String, List<CEKHandlerMethod>>> stateIndex = new HashMap<>();
+        for (CEKHandlerMethod handlerMethod : handlerMethods) {
+            SessionStateConditionMatcher matcher = findStateMatcher(handlerMethod.getMethodConditionMatchers());
+            if (matcher == null) {
+                matcher = findStateMatcher(handlerMethod.getHandlerConditionMatchers());
+            }
+            if (matcher == null) {
+                stateless.add(handlerMethod);
+                continue;
+            }
+            Map<String, List<CEKHandlerMethod>> byState =
+                    stateIndex.computeIfAbsent(matcher.getAttributeName(), name -> new HashMap<>());
+            for (String state : matcher.getStates()) {
+                byState.computeIfAbsent(state, key -> new ArrayList<>()).add(handlerMethod);
+            }
+        }
+        return new CEKHandlerMethodCandidates(stateless, stateIndex);
+    }
+
+    /**
+     * Selects the candidates for the state of the session.
+     *
+     * @param session      {@link CEKRequestMessage.Session} of the request
+     * @param externalizer {@link SessionAttributesExternalizer}, or {@code null} if the session attributes are
+     *                     not externalized
+     * @return the Handler methods which may process the request
+     */
+    List<CEKHandlerMethod> select(CEKRequestMessage.Session session,
+                                  SessionAttributesExternalizer externalizer) {
+        if (this.stateIndex.isEmpty()) {
+            return this.stateless;
+        }
+        List<CEKHandlerMethod> candidates = null;
+        for (Map.Entry<String, Map<String, List<CEKHandlerMethod>>> entry : this.stateIndex.entrySet()) {
+            String state = SessionStateConditionMatcher.readState(session, entry.getKey(), externalizer);
+            List<CEKHandlerMethod> stateful = state != null ? entry.getValue().get(state) : null;
+            if (stateful == null) {
+                continue;
+            }
+            if (candidates == null) {
+                candidates = new ArrayList<>(this.stateless);
+            }
+            candidates.addAll(stateful);
+        }
+        return candidates != null ? candidates : this.stateless;
+    }
+
+    private static SessionStateConditionMatcher findStateMatcher(Set<CEKHandleConditionMatcher> matchers) {
+        for (CEKHandleConditionMatcher matcher : matchers) {
+            if (matcher instanceof SessionStateConditionMatcher) {
+                return (SessionStateConditionMatcher) matcher;
+            }
+        }
+        return null;
+    }
+
+}
@@ -17,9 +17,11 @@
 package com.linecorp.clova.extension.boot.handler;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,28 +31,45 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.validation.Valid;
+import javax.validation.Validator;
 
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.MethodParameter;
 import org.springframework.util.Assert;
 import org.springframework.validation.BindException;
 import org.springframework.validation.SmartValidator;
-import org.springframework.validation.annotation.Validated;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.linecorp.clova.extension.boot.exception.CEKHandlerInterceptException;
+import com.linecorp.clova.extension.boot.exception.InvalidSlotException;
+import com.linecorp.clova.extension.boot.exception.MissingRequiredParamException;
 import com.linecorp.clova.extension.boot.exception.RequestHandlerNotFoundException;
 import com.linecorp.clova.extension.boot.exception.TooManyMatchedRequestHandlersException;
+import com.linecorp.clova.extension.boot.handler.cache.CEKResponseCache;
+import com.linecorp.clova.extension.boot.handler.cache.EventReplayCache;
 import com.linecorp.clova.extension.boot.handler.interceptor.CEKHandlerInterceptor;
+import com.linecorp.clova.extension.boot.handler.playback.AudioStreamPrefetcher;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateBuffer;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateStore;
 import com.linecorp.clova.extension.boot.message.context.SystemContext;
+import com.linecorp.clova.extension.boot.message.directive.Directive;
+import com.linecorp.clova.extension.boot.message.model.AudioStreamInfoObject;
 import com.linecorp.clova.extension.boot.message.request.CEKRequest;
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
 import com.linecorp.clova.extension.boot.message.request.EventRequest;
 import com.linecorp.clova.extension.boot.message.request.RequestType;
 import com.linecorp.clova.extension.boot.message.response.CEKResponse;
 import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+import com.linecorp.clova.extension.boot.message.response.CEKResponses;
+import com.linecorp.clova.extension.boot.message.response.ConstantCEKResponses;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeech;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeechGenerator;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
 import com.linecorp.clova.extension.boot.session.SessionHolder;
+import com.linecorp.clova.extension.boot.util.ConversionMemo;
+import com.linecorp.clova.extension.boot.util.LogUtils;
 import com.linecorp.clova.extension.boot.util.RequestUtils;
 import com.linecorp.clova.extension.boot.verifier.CEKRequestVerifier;
 
@@ -65,19 +84,90 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @RequiredArgsConstructor
-public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
+public class CEKRequestHandlerDispatcher implements CEKRequestProcessor, InitializingBean {
 
     private final CEKRequestMappingHandlerMapping handlerMapping;
     private final SmartValidator validator;
     private final ObjectMapper objectMapper;
 
+    private static final String PLAYBACK_STATE_RESPONSE_KEY =
+            CEKRequestHandlerDispatcher.class.getName() + ".playbackStateResponse";
+
+    private final CEKResponse playbackStateResponse = CEKResponses.unmodifiable(CEKResponse.empty());
+
     @Setter
     private List<CEKRequestVerifier> requestVerifiers = Collections.emptyList();
     @Setter
     private Map<String, CEKHandlerInterceptor> handlerInterceptorMap = Collections.emptyMap();
+    @Setter
+    private SessionAttributesExternalizer sessionAttributesExternalizer;
+    @Setter
+    private CEKResponseCache responseCache;
+    @Setter
+    private EventReplayCache eventReplayCache;
+    @Setter
+    private PlaybackStateBuffer playbackStateBuffer;
+    @Setter
+    private PlaybackStateStore playbackStateStore;
+    @Setter
+    private AudioStreamPrefetcher audioStreamPrefetcher;
+    /**
+     * {@link ConstantCEKResponses} to write the response of the buffered playback state events, serialized
+     * only once.
+     */
+    @Setter
+    private ConstantCEKResponses constantResponses;
+    /**
+     * {@link OutputSpeechGenerator} to respond to a missing Handler method and the missing or invalid arguments
+     * in the dispatcher, in the same way as
+     * {@link com.linecorp.clova.extension.boot.controller.advice.CEKHandleIntentControllerAdvice}. If not set,
+     * they are thrown to the exception handlers.
+     */
+    @Setter
+    private OutputSpeechGenerator expectedOutcomeSpeechGenerator;
+    /**
+     * {@link Validator} to preload the constraint metadata, if {@link #validator} is not itself.
+     */
+    @Setter
+    private Validator beanValidator;
+
+    private static final Map<CEKHandlerMethodCandidatesKey, CEKHandlerMethodCandidates>
+            HANDLER_METHOD_CANDIDATES = new ConcurrentHashMap<>();
+
+    private static final List<Class<?>> PRELOADED_MODEL_TYPES =
+            Arrays.asList(CEKRequestMessage.class, CEKResponseMessage.class, SystemContext.class,
+                          OutputSpeech.class, Directive.class, AudioStreamInfoObject.class);
+
+    /**
+     * Builds the constraint metadata of the model classes and the validated Handler arguments at startup, so
+     * that the first requests don't pay for the introspection.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Validator metadataValidator = this.beanValidator != null
+                                      ? this.beanValidator
+                                      : this.validator instanceof Validator ? (Validator) this.validator
+                                                                            : null;
+        if (metadataValidator == null || this.handlerMapping.getHandlerMethodMap() == null) {
+            return;
+        }
 
-    private static final Map<CEKHandlerMethodCandidatesKey, List<CEKHandlerMethod>> HANDLER_METHOD_CANDIDATES =
-            new ConcurrentHashMap<>();
+        Set<Class<?>> types = new LinkedHashSet<>(PRELOADED_MODEL_TYPES);
+        this.handlerMapping.getHandlerMethodMap().values().stream()
+                           .flatMap(handlerMethods -> handlerMethods.values().stream())
+                           .flatMap(List::stream)
+                           .filter(CEKHandlerMethod::hasValidatedParams)
+                           .forEach(handlerMethod -> {
+                               for (int i = 0; i < handlerMethod.getMethodParams().size(); i++) {
+                                   if (handlerMethod.getValidationHints(i) != null) {
+                                       types.add(handlerMethod.getMethodParams().get(i)
+                                                              .nestedIfOptional().getNestedParameterType());
+                                   }
+                               }
+                           });
+        types.forEach(metadataValidator::getConstraintsForClass);
+        log.debug("Preloaded the constraint metadata of {}", types);
+    }
 
     /**
      * Parses the CEK request, extracts the appropriate HandlerMethod, and executes it.
@@ -104,30 +194,101 @@ public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
             RequestUtils.setRequestId(request, eventRequest.getRequestId());
         }
 
-        SystemContext system = objectMapper.convertValue(requestMessage.getContext().get("System"),
-                                                         SystemContext.class);
+        // shared with the handler arguments of SystemContext
+        SystemContext system = (SystemContext) ConversionMemo.of(request).convert(
+                objectMapper, requestMessage.getContext().get("System"),
+                objectMapper.getTypeFactory().constructType(SystemContext.class));
 
         String requestJson = RequestUtils.getRequestBodyJson(request);
         requestVerifiers.forEach(verifier -> verifier.verify(request, requestMessage, requestJson, system));
 
-        CEKHandlerMethod handlerMethod = extractHandlerMethod(request, requestMessage, system);
-        if (handlerMethod == null) {
-            throw new RequestHandlerNotFoundException(
-                    getRequestType(requestMessage.getRequest()),
-                    requestMessage.getRequest().getName());
+        if (this.eventReplayCache != null && requestType == RequestType.EVENT) {
+            // the retried events are answered before their playback states are recorded again
+            return this.eventReplayCache.process((EventRequest) requestMessage.getRequest(),
+                                                 () -> handle(request, requestMessage, requestType, system));
         }
+        return handle(request, requestMessage, requestType, system);
+    }
 
-        requestMessage.getSession().toReadOnly();
-        Object[] args = handlerMethod.resolveArguments(requestMessage);
+    private CEKResponseMessage handle(HttpServletRequest request, CEKRequestMessage requestMessage,
+                                      RequestType requestType, SystemContext system) throws Throwable {
+        if (this.playbackStateStore != null) {
+            this.playbackStateStore.record(requestMessage);
+        }
+        if (this.audioStreamPrefetcher != null && requestType == RequestType.EVENT) {
+            this.audioStreamPrefetcher.onRequest(requestMessage);
+        }
+        if (this.playbackStateBuffer != null && requestType == RequestType.EVENT
+            && this.playbackStateBuffer.offer(requestMessage)) {
+            // the state is passed to the Handlers later, so skips the session and the validation
+            return new CEKResponseMessage(
+                    this.constantResponses != null
+                    ? this.constantResponses.get(PLAYBACK_STATE_RESPONSE_KEY, CEKResponse::empty)
+                    : this.playbackStateResponse);
+        }
+        return dispatch(request, requestMessage, requestType, system);
+    }
 
-        SessionHolder sessionHolder = Arrays.stream(args)
-                                            .filter(arg -> arg instanceof SessionHolder)
-                                            .map(SessionHolder.class::cast)
-                                            .findFirst()
-                                            .orElseGet(() -> new SessionHolder(
-                                                    objectMapper, requestMessage.getSession()));
+    private CEKResponseMessage dispatch(HttpServletRequest request, CEKRequestMessage requestMessage,
+                                        RequestType requestType, SystemContext system) throws Throwable {
+        // the session attributes are not carried over once the session ends, nor by the error responses
+        boolean sessionEnded = true;
+        try {
+            if (this.sessionAttributesExternalizer != null) {
+                RequestUtils.setSessionAttributesExternalizer(request, this.sessionAttributesExternalizer);
+            }
+            CEKHandlerMethod handlerMethod = extractHandlerMethod(request, requestMessage, system);
+            if (handlerMethod == null) {
+                RequestType foundType = getRequestType(requestMessage.getRequest());
+                String name = requestMessage.getRequest().getName();
+                if (this.expectedOutcomeSpeechGenerator != null) {
+                    // a misrecognized request, answered without creating the exception
+                    LogUtils.logging(log, RequestHandlerNotFoundException.class,
+                                     RequestHandlerNotFoundException.messageOf(foundType, name));
+                    return expectedOutcomeResponse(RequestHandlerNotFoundException.class);
+                }
+                throw new RequestHandlerNotFoundException(foundType, name);
+            }
+
+            requestMessage.getSession().toReadOnly();
+            Object[] args;
+            try {
+                args = handlerMethod.resolveArguments(requestMessage);
+            } catch (MissingRequiredParamException | InvalidSlotException e) {
+                if (this.expectedOutcomeSpeechGenerator == null) {
+                    throw e;
+                }
+                // stackless by default, and answered without resolving the exception handlers
+                LogUtils.logging(log, e);
+                return expectedOutcomeResponse(e.getClass());
+            }
+
+            // handlers which do not take SessionHolder never change the session attributes
+            SessionHolder sessionHolder = null;
+            for (Object arg : args) {
+                if (arg instanceof SessionHolder) {
+                    sessionHolder = (SessionHolder) arg;
+                    break;
+                }
+            }
+
+            CEKResponseMessage responseMessage =
+                    invokeWithInterceptors(request, requestMessage, sessionHolder, handlerMethod, args);
+            sessionEnded = requestType == RequestType.SESSION_ENDED
+                           || !Boolean.FALSE.equals(responseMessage.getResponse().getShouldEndSession());
+            return responseMessage;
+        } finally {
+            if (this.sessionAttributesExternalizer != null && sessionEnded) {
+                this.sessionAttributesExternalizer.discard(requestMessage.getSession());
+            }
+        }
+    }
 
-        return invokeWithInterceptors(request, requestMessage, sessionHolder, handlerMethod, args);
+    private CEKResponseMessage expectedOutcomeResponse(Class<? extends Throwable> type) {
+        CEKResponse response = new CEKResponse();
+        response.setOutputSpeech(
+                this.expectedOutcomeSpeechGenerator.generateFrom(type, LocaleContextHolder.getLocale()));
+        return new CEKResponseMessage(response);
     }
 
     CEKResponseMessage invokeWithInterceptors(HttpServletRequest request, CEKRequestMessage requestMessage,
@@ -170,8 +331,11 @@ public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
             }
 
             if (shouldBeThrown == null) {
-                validate(handlerMethod.getMethodParams(), args);
-                Object result = handlerMethod.invoke(args);
+                validate(handlerMethod, args);
+                Object result = this.responseCache != null
+                                ? this.responseCache.get(handlerMethod, requestMessage,
+                                                         () -> handlerMethod.invoke(args))
+                                : handlerMethod.invoke(args);
 
                 if (result == null) {
                     throw new NullPointerException(
@@ -184,7 +348,9 @@ public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
                 responseMessage = new CEKResponseMessage((CEKResponse) result);
                 Boolean shouldEndSession = responseMessage.getResponse().getShouldEndSession();
                 if (shouldEndSession != null && !shouldEndSession) {
-                    responseMessage.setSessionAttributes(sessionHolder.getSessionAttributes());
+                    responseMessage.setSessionAttributes(
+                            sessionHolder != null ? sessionHolder.getSessionAttributes()
+                                                  : requestMessage.getSession().getSessionAttributes());
                 }
             }
 
@@ -218,10 +384,15 @@ public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
         return responseMessage;
     }
 
-    private void validate(List<MethodParameter> methodParams, Object[] args) throws BindException {
+    private void validate(CEKHandlerMethod handlerMethod, Object[] args) throws BindException {
+        if (!handlerMethod.hasValidatedParams()) {
+            return;
+        }
+
         for (int i = 0; i < args.length; i++) {
+            Object[] hints = handlerMethod.getValidationHints(i);
             Object arg = args[i];
-            if (arg == null) {
+            if (hints == null || arg == null) {
                 continue;
             }
 
@@ -232,27 +403,16 @@ public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
                 }
             }
 
-            MethodParameter methodParam = methodParams.get(i);
-            Valid valid = methodParam.getParameterAnnotation(Valid.class);
-            Validated validated = methodParam.getParameterAnnotation(Validated.class);
-            if (valid == null && validated == null) {
-                continue;
-            }
-
+            MethodParameter methodParam = handlerMethod.getMethodParams().get(i);
             String paramName = methodParam.getParameterName();
             Assert.notNull(paramName, "paramName should not be null.");
 
             BindException bindException = new BindException(arg, paramName);
 
-            if (valid != null) {
-                validator.validate(arg, bindException);
+            if (hints.length > 0) {
+                validator.validate(arg, bindException, hints);
             } else {
-                Class<?>[] hints = validated.value();
-                if (hints.length > 0) {
-                    validator.validate(arg, bindException, (Object[]) hints);
-                } else {
-                    validator.validate(arg, bindException);
-                }
+                validator.validate(arg, bindException);
             }
 
             if (bindException.hasErrors()) {
@@ -269,27 +429,43 @@ public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
         return request.getType();
     }
 
+    /**
+     * Selects the Handler method to process the request.
+     * <p>
+     * Not finding any Handler method is an expected outcome for misrecognized requests, so this returns
+     * {@code null} for it instead of throwing an exception, and matched methods are collected only when more
+     * than one method matches.
+     *
+     * @return the Handler method, or {@code null} if no Handler method matches
+     */
     private CEKHandlerMethod extractHandlerMethod(HttpServletRequest request, CEKRequestMessage requestMessage,
                                                   SystemContext system) {
-        List<CEKHandlerMethod> handlerMethods = extractHandlerMethodCandidates(requestMessage.getRequest())
-                .stream()
-                .filter(handlerMethod -> handlerMethod.getCompositeMatcher()
-                                                      .match(request, requestMessage, system))
-                // Sort by priority
-                .sorted()
-                .collect(Collectors.toList());
-
-        // Not found handler method
-        if (handlerMethods.isEmpty()) {
-            throw new RequestHandlerNotFoundException(
-                    getRequestType(requestMessage.getRequest()),
-                    requestMessage.getRequest().getName());
+        List<CEKHandlerMethod> candidates = extractHandlerMethodCandidates(requestMessage.getRequest())
+                .select(requestMessage.getSession(), this.sessionAttributesExternalizer);
+
+        CEKHandlerMethod firstMatched = null;
+        List<CEKHandlerMethod> handlerMethods = null;
+        for (CEKHandlerMethod candidate : candidates) {
+            if (!candidate.getCompositeMatcher().match(request, requestMessage, system)) {
+                continue;
+            }
+            if (firstMatched == null) {
+                firstMatched = candidate;
+                continue;
+            }
+            if (handlerMethods == null) {
+                handlerMethods = new ArrayList<>();
+                handlerMethods.add(firstMatched);
+            }
+            handlerMethods.add(candidate);
         }
-        // Found only one method
-        if (handlerMethods.size() == 1) {
-            return handlerMethods.get(0);
+
+        // Not found or found only one method
+        if (handlerMethods == null) {
+            return firstMatched;
         }
-        // Found more than two methods
+        // Found more than two methods, sort by priority
+        Collections.sort(handlerMethods);
         CEKHandlerMethod firstMethod = handlerMethods.get(0);
         CEKHandlerMethod secondMethod = handlerMethods.get(1);
         if (firstMethod.compareTo(secondMethod) != 0) {
@@ -302,18 +478,18 @@ public class CEKRequestHandlerDispatcher implements CEKRequestProcessor {
                 handlerMethods);
     }
 
-    private List<CEKHandlerMethod> extractHandlerMethodCandidates(CEKRequest request) {
+    private CEKHandlerMethodCandidates extractHandlerMethodCandidates(CEKRequest request) {
         return HANDLER_METHOD_CANDIDATES.computeIfAbsent(
                 new CEKHandlerMethodCandidatesKey(request),
-                candidatesKey -> this.handlerMapping.getHandlerMethodMap()
-                                                    .getOrDefault(candidatesKey.getRequestType(),
-                                                                  Collections.emptyMap())
-                                                    .entrySet()
-                                                    .stream()
-                                                    .filter(entry -> entry.getKey().matches(
-                                                            candidatesKey.getRequestName()))
-                                                    .flatMap(entry -> entry.getValue().stream())
-                                                    .collect(Collectors.toList()));
+                candidatesKey -> CEKHandlerMethodCandidates.of(
+                        this.handlerMapping.getHandlerMethodMap()
+                                           .getOrDefault(candidatesKey.getRequestType(), Collections.emptyMap())
+                                           .entrySet()
+                                           .stream()
+                                           .filter(entry -> entry.getKey()
+                                                                 .matches(candidatesKey.getRequestName()))
+                                           .flatMap(entry -> entry.getValue().stream())
+                                           .collect(Collectors.toList())));
     }
 
     @Data
@@ -55,14 +55,19 @@ import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 
 import com.linecorp.clova.extension.boot.exception.UnsupportedHandlerArgumentException;
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKCacheable;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKHandleCondition;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SessionValue;
 import com.linecorp.clova.extension.boot.handler.condition.CEKHandleConditionMatcher;
 import com.linecorp.clova.extension.boot.handler.condition.CEKHandleConditionMatcherFactory;
 import com.linecorp.clova.extension.boot.handler.resolver.CEKRequestHandlerArgumentResolver;
+import com.linecorp.clova.extension.boot.message.payload.Payload;
+import com.linecorp.clova.extension.boot.message.request.EventPayloadTypeRegistry;
 import com.linecorp.clova.extension.boot.message.request.RequestType;
 import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.session.SessionHolder;
 import com.linecorp.clova.extension.boot.util.StringUtils;
 
 import lombok.Getter;
@@ -80,11 +85,20 @@ public class CEKRequestMappingHandlerMapping implements BeanFactoryAware, Initia
     private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER =
             new DefaultParameterNameDiscoverer();
 
+    private static final String WILDCARD_NAME = "*";
+
     private final List<CEKRequestHandlerArgumentResolver> argumentResolvers;
 
     @Setter
     private BeanFactory beanFactory;
 
+    /**
+     * The registry to register the payload types of the event handlers to, or {@code null} if the event
+     * payloads are always read as {@code MapPayload}.
+     */
+    @Setter
+    private EventPayloadTypeRegistry payloadTypeRegistry;
+
     @Getter
     private Map<RequestType, Map<CEKRequestKey, List<CEKHandlerMethod>>> handlerMethodMap;
 
@@ -107,6 +121,27 @@ public class CEKRequestMappingHandlerMapping implements BeanFactoryAware, Initia
                                                           mapping(identity(), toList()))));
 
         this.handlerMethodMap = Collections.unmodifiableMap(handlerMethodMap);
+
+        if (payloadTypeRegistry != null) {
+            handlerMethodMap.getOrDefault(RequestType.EVENT, Collections.emptyMap())
+                            .values()
+                            .stream()
+                            .flatMap(List::stream)
+                            .forEach(this::registerPayloadTypes);
+        }
+    }
+
+    private void registerPayloadTypes(CEKHandlerMethod handlerMethod) {
+        String eventName = handlerMethod.getName();
+        if (StringUtils.isBlank(eventName) || WILDCARD_NAME.equals(eventName)) {
+            return;
+        }
+        handlerMethod.getMethodParams()
+                     .stream()
+                     .map(MethodParameter::getParameterType)
+                     .filter(Payload.class::isAssignableFrom)
+                     .forEach(payloadType -> payloadTypeRegistry.register(
+                             eventName, payloadType.asSubclass(Payload.class)));
     }
 
     private List<CEKHandlerMethod> extractHandlerMethods(Object requestHandler) {
@@ -147,6 +182,17 @@ public class CEKRequestMappingHandlerMapping implements BeanFactoryAware, Initia
                                 .map(this::extractArgumentResolver)
                                 .collect(Collectors.toList());
 
+            if (AnnotatedElementUtils.hasAnnotation(method, CEKCacheable.class)) {
+                methodParams.stream()
+                            .filter(CEKRequestMappingHandlerMapping::isSessionParameter)
+                            .findFirst()
+                            .ifPresent(methodParam -> {
+                                throw new UnsupportedHandlerArgumentException(
+                                        methodParam, "@CEKCacheable Handler can't take the session attributes, "
+                                                     + "as they are not cached.");
+                            });
+            }
+
             method.setAccessible(true);
 
             Set<CEKHandleConditionMatcher> methodConditionMatchers = conditionMatchers(method);
@@ -170,6 +216,11 @@ public class CEKRequestMappingHandlerMapping implements BeanFactoryAware, Initia
         return handlerMethods;
     }
 
+    private static boolean isSessionParameter(MethodParameter methodParam) {
+        return methodParam.getParameterType() == SessionHolder.class
+               || methodParam.hasParameterAnnotation(SessionValue.class);
+    }
+
     private CEKRequestHandlerArgumentResolver extractArgumentResolver(MethodParameter methodParam) {
         return this.argumentResolvers.stream()
                                      .filter(argumentResolver -> argumentResolver.supports(methodParam))
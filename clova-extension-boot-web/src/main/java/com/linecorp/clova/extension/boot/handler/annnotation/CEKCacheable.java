@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.annnotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An annotation for indicating that the {@code CEKResponse} returned by the Handler can be cached.
+ * <p>
+ * The response is cached by the intent name, the slot values of {@link #slots()}, the locale and the context
+ * values of {@link #context()}, and the Handler is not called while the response is cached. Use this only
+ * for the Handlers whose responses are decided by them, e.g.) the weather of a city.
+ * <pre><code>
+ * &#64;IntentMapping("Weather")
+ * &#64;CEKCacheable(slots = "city", ttl = 10, timeUnit = TimeUnit.MINUTES)
+ * CEKResponse handleWeather(@SlotValue String city) {
+ *   // ...
+ * }
+ * </code></pre>
+ * The session attributes are not cached, so the Handler can't take {@code SessionHolder} or
+ * {@link SessionValue @SessionValue} arguments. The {@code CEKHandlerInterceptor}s are called even if the
+ * response is cached.
+ *
+ * @see com.linecorp.clova.extension.boot.handler.cache.CEKResponseCache
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CEKCacheable {
+
+    /**
+     * The names of the slots which decide the response. In default, all slots are used.
+     */
+    String[] slots() default {};
+
+    /**
+     * The dot-separated paths of the context values which decide the response, e.g.)
+     * {@code System.device.display.size}.
+     */
+    String[] context() default {};
+
+    /**
+     * The time to live of the cached response. A negative value means {@code cek.response-cache.ttl}.
+     */
+    long ttl() default -1;
+
+    /**
+     * The time unit of {@link #ttl()}.
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+}
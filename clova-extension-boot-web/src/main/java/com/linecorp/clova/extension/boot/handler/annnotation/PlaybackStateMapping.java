@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.annnotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateUpdate;
+
+/**
+ * An annotation for mapping {@code AudioPlayer} events, which only report the playback state, to a state-only
+ * Handler method.
+ * <p>
+ * The events are not processed as usual CEK requests. The payload is bound to
+ * {@link com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload} directly, and an
+ * empty response is returned immediately without the session attributes, the validation and the
+ * {@code CEKHandlerInterceptor}s. Only the {@code CEKRequestVerifier}s are called.
+ * <p>
+ * The updates of the same user, event name and token are coalesced, and the latest one is passed to the
+ * Handler method periodically by {@code cek.playback-state.flush-interval}. The updates without the user ID
+ * are passed immediately. The Handler method takes only one
+ * {@link PlaybackStateUpdate} argument, and its return value is ignored. It should not be private, since it is
+ * called on the Handler bean, which may be a proxy.
+ * <pre><code>
+ * &#64;PlaybackStateMapping({ "AudioPlayer.ProgressReportIntervalPassed", "AudioPlayer.PlayPaused" })
+ * void recordOffset(PlaybackStateUpdate update) {
+ *   // ...
+ * }
+ * </code></pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PlaybackStateMapping {
+
+    /**
+     * The event names to handle, e.g.) {@code AudioPlayer.ProgressReportIntervalPassed}.
+     */
+    String[] value();
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.annnotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.core.annotation.AliasFor;
+
+import com.linecorp.clova.extension.boot.handler.condition.SessionStateConditionMatcherFactory;
+
+/**
+ * An annotation for indicating the dialog state handled by the Handler.
+ * <p>
+ * The state is a string session attribute, named {@link #attribute()}. For example, the Handler below only
+ * matches the "Answer" intent requests while the "state" attribute is "quiz".
+ * <pre><code>
+ * &#64;IntentMapping("Answer")
+ * &#64;SessionStateCondition("quiz")
+ * CEKResponse handleQuizAnswer(SessionHolder sessionHolder) {
+ *   sessionHolder.setAttribute("state", "result");
+ *   // ...
+ * }
+ * </code></pre>
+ * The Handlers of a request are indexed by the state, so only the state attribute is read to select the
+ * Handler, without deserializing the other session attributes. If both Handlers with and without this
+ * annotation are defined, the Handler without the annotation will process the requests in the other states.
+ *
+ * @see CEKHandleCondition
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@CEKHandleCondition(SessionStateConditionMatcherFactory.class)
+public @interface SessionStateCondition {
+
+    String DEFAULT_ATTRIBUTE = "state";
+
+    /**
+     * States to handle.
+     * <p>
+     * Specify non-blank value at least one for either this attribute or {@link #state()}.
+     */
+    @AliasFor("state")
+    String[] value() default {};
+
+    /**
+     * States to handle.
+     * <p>
+     * Specify non-blank value at least one for either this attribute or {@link #value()}.
+     */
+    @AliasFor("value")
+    String[] state() default {};
+
+    /**
+     * The name of the session attribute holding the state.
+     */
+    String attribute() default DEFAULT_ATTRIBUTE;
+
+}
@@ -44,6 +44,14 @@ import org.springframework.core.annotation.AliasFor;
  *   // =&gt; foo value: bar
  * }
  * </code></pre>
+ * With {@link #dictionary()}, the slot value is normalized by the {@code SlotDictionary} of the name, and
+ * the Handler method can receive the matched {@code SlotEntity}, or its canonical value as {@code String}.
+ * <pre><code>
+ * &#64;IntentMapping("Example.PlaySong")
+ * public CEKResponse handlePlaySong(@SlotValue(dictionary = "songs") SlotEntity song) {
+ *   System.out.println("song id: " + song.getId());
+ * }
+ * </code></pre>
  */
 @Target({ ElementType.PARAMETER })
 @Retention(RetentionPolicy.RUNTIME)
@@ -62,4 +70,13 @@ public @interface SlotValue {
      */
     @AliasFor(annotation = CEKRequestParam.class)
     boolean required() default true;
+
+    /**
+     * The name of the {@code SlotDictionary} to look up the slot value.
+     * <p>
+     * If the slot value doesn't match any entry, it is treated as an invalid slot, unless the parameter is
+     * {@code Optional} or not {@link #required()}. If the dictionary is not defined, a warning is logged at
+     * startup, and the Handler fails when it is called.
+     */
+    String dictionary() default "";
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.util.ClassUtils;
+
+import com.linecorp.clova.extension.boot.handler.CEKHandlerMethod;
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKCacheable;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.IntentRequest;
+import com.linecorp.clova.extension.boot.message.request.Slot;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponses;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Caches the responses of {@link CEKCacheable @CEKCacheable} Handlers in {@link CEKResponseCacheStore}.
+ * <p>
+ * The cache key consists of the Handler method, the request name, the locale of {@link LocaleContextHolder},
+ * and the slot values and the context values specified by {@link CEKCacheable}.
+ * <p>
+ * Concurrent misses of the same key call the Handler only once, and the others wait for the result of it.
+ * The responses are {@link CEKResponses#unmodifiable(CEKResponse) unmodifiable}.
+ */
+public class CEKResponseCache {
+
+    private final CEKResponseCacheStore store;
+    private final Duration defaultTtl;
+
+    private final ConcurrentMap<Method, KeySpec> keySpecs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Object>> loadings = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param store      the store of responses
+     * @param defaultTtl time to live of responses if not specified by {@link CEKCacheable#ttl()}
+     */
+    public CEKResponseCache(@NonNull CEKResponseCacheStore store, @NonNull Duration defaultTtl) {
+        if (defaultTtl.isNegative() || defaultTtl.isZero()) {
+            throw new IllegalArgumentException("defaultTtl should be positive. defaultTtl: " + defaultTtl);
+        }
+        this.store = store;
+        this.defaultTtl = defaultTtl;
+    }
+
+    /**
+     * Returns the cached response, or calls the loader and caches the result if absent.
+     * <p>
+     * If the Handler method is not {@link CEKCacheable cacheable}, this just calls the loader. Results other
+     * than {@link CEKResponse}, including {@code null}, are not cached.
+     *
+     * @param handlerMethod  the Handler method
+     * @param requestMessage the request
+     * @param loader         calls the Handler method
+     * @return the response
+     */
+    public Object get(CEKHandlerMethod handlerMethod, CEKRequestMessage requestMessage,
+                      Supplier<Object> loader) {
+        CEKCacheable cacheable = handlerMethod.getCacheable();
+        if (cacheable == null) {
+            return loader.get();
+        }
+        KeySpec keySpec = this.keySpecs.computeIfAbsent(handlerMethod.getMethod(),
+                                                        method -> new KeySpec(method, cacheable));
+        String key = keySpec.createKey(requestMessage, LocaleContextHolder.getLocale());
+
+        CEKResponse cached = this.store.get(key);
+        if (cached != null) {
+            this.hitCount.increment();
+            return cached;
+        }
+        this.missCount.increment();
+
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = this.loadings.putIfAbsent(key, loading);
+        if (existing != null) {
+            this.waitCount.increment();
+            return await(existing);
+        }
+        try {
+            this.loadCount.increment();
+            Object result = loader.get();
+            if (result instanceof CEKResponse) {
+                CEKResponse response = CEKResponses.unmodifiable((CEKResponse) result);
+                this.store.put(key, response, keySpec.getTtl() != null ? keySpec.getTtl() : this.defaultTtl);
+                result = response;
+            }
+            loading.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            this.loadFailureCount.increment();
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loadings.remove(key, loading);
+        }
+    }
+
+    /**
+     * Returns the metrics since this instance was created.
+     *
+     * @return {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        return new Metrics(this.hitCount.sum(), this.missCount.sum(), this.loadCount.sum(),
+                           this.loadFailureCount.sum(), this.waitCount.sum());
+    }
+
+    private static Object await(CompletableFuture<Object> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The parts of the cache key decided by {@link CEKCacheable}.
+     */
+    @Getter
+    private static class KeySpec {
+
+        private final String prefix;
+        private final String[] slotNames;
+        private final String[][] contextPaths;
+        private final Duration ttl;
+
+        KeySpec(Method method, CEKCacheable cacheable) {
+            this.prefix = ClassUtils.getQualifiedMethodName(method) + ':';
+            this.slotNames = cacheable.slots().clone();
+            Arrays.sort(this.slotNames);
+            this.contextPaths = Arrays.stream(cacheable.context())
+                                      .map(path -> path.split("\\."))
+                                      .toArray(String[][]::new);
+            this.ttl = cacheable.ttl() >= 0
+                       ? Duration.ofNanos(cacheable.timeUnit().toNanos(cacheable.ttl()))
+                       : null;
+        }
+
+        String createKey(CEKRequestMessage requestMessage, Locale locale) {
+            StringBuilder key = new StringBuilder(this.prefix);
+            String requestName = requestMessage.getRequest().getName();
+            if (requestName != null) {
+                appendEscaped(key, requestName);
+            }
+            key.append(':').append(locale.toLanguageTag()).append(':');
+
+            Map<String, Slot<?>> slots = null;
+            if (requestMessage.getRequest() instanceof IntentRequest) {
+                slots = ((IntentRequest) requestMessage.getRequest()).getIntent().getSlots();
+            }
+            if (slots != null && !slots.isEmpty()) {
+                String[] names = this.slotNames;
+                if (names.length == 0) {
+                    names = slots.keySet().toArray(new String[0]);
+                    Arrays.sort(names);
+                }
+                for (String name : names) {
+                    appendSlot(key, name, slots.get(name));
+                }
+            }
+
+            for (String[] contextPath : this.contextPaths) {
+                key.append('|');
+                Object value = requestMessage.getContext();
+                for (String name : contextPath) {
+                    value = value instanceof Map ? ((Map<?, ?>) value).get(name) : null;
+                }
+                if (value != null) {
+                    appendEscaped(key, String.valueOf(value));
+                }
+            }
+            return key.toString();
+        }
+
+        private static void appendSlot(StringBuilder key, String name, Slot<?> slot) {
+            key.append('&');
+            appendEscaped(key, name);
+            if (slot == null || slot.getValue() == null) {
+                return;
+            }
+            key.append('=');
+            appendEscaped(key, String.valueOf(slot.getValue()));
+            if (slot.getUnit() != null) {
+                key.append(';');
+                appendEscaped(key, slot.getUnit());
+            }
+        }
+
+        /**
+         * Escapes the separators of the key, so that different values never make the same key.
+         */
+        private static void appendEscaped(StringBuilder key, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '%':
+                    case ':':
+                    case '&':
+                    case '=':
+                    case ';':
+                    case '|':
+                        key.append('%').append(Character.forDigit(c >> 4, 16))
+                           .append(Character.forDigit(c & 0xF, 16));
+                        break;
+                    default:
+                        key.append(c);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Metrics of {@link CEKResponseCache}.
+     */
+    @Data
+    public static class Metrics {
+
+        /**
+         * The number of responses found in the store.
+         */
+        private final long hitCount;
+
+        /**
+         * The number of responses not found in the store.
+         */
+        private final long missCount;
+
+        /**
+         * The number of Handler calls for the misses.
+         */
+        private final long loadCount;
+
+        /**
+         * The number of Handler calls which threw exceptions.
+         */
+        private final long loadFailureCount;
+
+        /**
+         * The number of misses which waited for the Handler call of another request instead of calling it.
+         */
+        private final long waitCount;
+
+        /**
+         * Returns the ratio of the hits to all lookups.
+         *
+         * @return hit ratio, or {@code 0} if nothing has been looked up
+         */
+        public double getHitRatio() {
+            long requestCount = this.hitCount + this.missCount;
+            return requestCount > 0 ? (double) this.hitCount / requestCount : 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.time.Duration;
+
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+
+/**
+ * Stores the responses of {@link com.linecorp.clova.extension.boot.handler.annnotation.CEKCacheable
+ * &#64;CEKCacheable} Handlers, keyed by the string created by {@link CEKResponseCache}.
+ * <p>
+ * Implementations must be thread-safe, and should evict entries to bound the size. Stores should not throw
+ * exceptions for their failures, but should treat them as absent entries, because the Handler can make the
+ * response again.
+ *
+ * @see InMemoryCEKResponseCacheStore
+ * @see RemoteCEKResponseCacheStore
+ */
+public interface CEKResponseCacheStore {
+
+    /**
+     * Gets the cached response.
+     *
+     * @param key cache key
+     * @return the response, or {@code null} if absent or expired
+     */
+    CEKResponse get(String key);
+
+    /**
+     * Puts the response, replacing the previous one.
+     *
+     * @param key      cache key
+     * @param response the response, which is never changed after this call
+     * @param ttl      time to live of the response
+     */
+    void put(String key, CEKResponse response, Duration ttl);
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.request.EventRequest;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+import com.linecorp.clova.extension.boot.message.response.CEKResponses;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers the retried {@link EventRequest}s with the response of the first one, without calling the Handler
+ * again.
+ * <p>
+ * The responses are kept by {@link EventRequest#getRequestId() requestId} for the window, and at most
+ * {@code capacity} responses are kept. The oldest response is evicted when a new one is kept, by a lock-free
+ * ring of the kept responses. The requests whose {@link EventRequest#getTimestamp() timestamp} is out of the
+ * window are rejected, because their responses may have been evicted. The requests without {@code requestId}
+ * are always processed.
+ * <p>
+ * The session attributes of the responses are serialized when they are kept, so the externalized attributes
+ * are written only once.
+ * <p>
+ * A retried request which arrives while the first one is processed waits for the response of it. If the first
+ * one fails, the error is thrown for the waiting requests too, and a later retry is processed again.
+ */
+@Slf4j
+public class EventReplayCache {
+
+    private final ObjectMapper objectMapper;
+    private final Duration window;
+    private final long windowNanos;
+    private final Clock clock;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Entry> ring;
+    private final AtomicLong ringCursor = new AtomicLong();
+
+    private final LongAdder processCount = new LongAdder();
+    private final LongAdder replayCount = new LongAdder();
+    private final LongAdder rejectCount = new LongAdder();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param objectMapper {@link ObjectMapper} to serialize the session attributes of the kept responses
+     * @param window       how long the responses are kept, and the acceptable difference of the request
+     *                     timestamp
+     * @param capacity     the maximum number of responses
+     */
+    public EventReplayCache(ObjectMapper objectMapper, Duration window, int capacity) {
+        this(objectMapper, window, capacity, Clock.systemUTC());
+    }
+
+    EventReplayCache(@NonNull ObjectMapper objectMapper, @NonNull Duration window, int capacity,
+                     @NonNull Clock clock) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window should be positive. window: " + window);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive. capacity: " + capacity);
+        }
+        this.objectMapper = objectMapper;
+        this.window = window;
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Processes the request, or returns the response of the request which has the same {@code requestId}.
+     *
+     * @param eventRequest {@link EventRequest}
+     * @param processor    processes the request
+     * @return the response
+     * @throws SecurityException if the timestamp of the request is out of the window
+     * @throws Throwable         any errors thrown by the processor
+     */
+    public CEKResponseMessage process(EventRequest eventRequest, Processor processor) throws Throwable {
+        String requestId = eventRequest.getRequestId();
+        if (requestId == null) {
+            return processor.process();
+        }
+        verifyTimestamp(eventRequest);
+
+        long now = System.nanoTime();
+        Entry entry = new Entry(requestId, now);
+        Entry existing = this.entries.putIfAbsent(requestId, entry);
+        while (existing != null) {
+            if (!existing.isExpired(now, this.windowNanos)) {
+                this.replayCount.increment();
+                log.debug("Replays the response of the retried event request. requestId: {}", requestId);
+                return existing.await();
+            }
+            this.entries.remove(requestId, existing);
+            existing = this.entries.putIfAbsent(requestId, entry);
+        }
+        evictOldest(entry);
+
+        this.processCount.increment();
+        try {
+            CEKResponseMessage responseMessage = processor.process();
+            CEKResponseMessage replayable = new CEKResponseMessage(
+                    CEKResponses.unmodifiable(responseMessage.getResponse()));
+            // the externalized attributes are written only once, not for each replay
+            replayable.setSessionAttributes(SerializedSessionAttributes.serialize(
+                    this.objectMapper, responseMessage.getSessionAttributes()));
+            replayable.setVersion(responseMessage.getVersion());
+            entry.response.complete(replayable);
+            return copy(replayable, replayable.getResponse());
+        } catch (Throwable t) {
+            this.entries.remove(requestId, entry);
+            entry.response.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    /**
+     * Returns the number of kept responses, including expired ones which are not evicted yet.
+     *
+     * @return the number of responses
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the metrics since this instance was created.
+     *
+     * @return {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        return new Metrics(this.processCount.sum(), this.replayCount.sum(), this.rejectCount.sum());
+    }
+
+    private void verifyTimestamp(EventRequest eventRequest) {
+        OffsetDateTime timestamp = eventRequest.getTimestamp();
+        if (timestamp == null) {
+            return;
+        }
+        Duration age = Duration.between(timestamp.toInstant(), this.clock.instant()).abs();
+        if (age.compareTo(this.window) > 0) {
+            this.rejectCount.increment();
+            throw new SecurityException("The timestamp of the event request is out of the window. requestId: "
+                                        + eventRequest.getRequestId() + ", timestamp: " + timestamp);
+        }
+    }
+
+    /**
+     * Copies the response message, so that the callers never share it.
+     */
+    private static CEKResponseMessage copy(CEKResponseMessage responseMessage, CEKResponse response) {
+        CEKResponseMessage copied = new CEKResponseMessage(response);
+        copied.setSessionAttributes(responseMessage.getSessionAttributes());
+        copied.setVersion(responseMessage.getVersion());
+        return copied;
+    }
+
+    private void evictOldest(Entry entry) {
+        int index = (int) (this.ringCursor.getAndIncrement() % this.ring.length());
+        Entry evicted = this.ring.getAndSet(index, entry);
+        if (evicted != null) {
+            this.entries.remove(evicted.requestId, evicted);
+        }
+    }
+
+    /**
+     * Processes a request.
+     */
+    @FunctionalInterface
+    public interface Processor {
+
+        /**
+         * Processes the request.
+         *
+         * @return the response
+         * @throws Throwable any errors
+         */
+        CEKResponseMessage process() throws Throwable;
+
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+
+        private final String requestId;
+        private final long createdAtNanos;
+        private final CompletableFuture<CEKResponseMessage> response = new CompletableFuture<>();
+
+        boolean isExpired(long now, long windowNanos) {
+            return now - this.createdAtNanos - windowNanos >= 0;
+        }
+
+        CEKResponseMessage await() throws Throwable {
+            try {
+                CEKResponseMessage responseMessage = this.response.join();
+                return copy(responseMessage, responseMessage.getResponse());
+            } catch (CompletionException e) {
+                throw e.getCause() != null ? e.getCause() : e;
+            }
+        }
+
+    }
+
+    /**
+     * Metrics of {@link EventReplayCache}.
+     */
+    @Data
+    public static class Metrics {
+
+        /**
+         * The number of processed requests.
+         */
+        private final long processCount;
+
+        /**
+         * The number of retried requests answered with the kept responses.
+         */
+        private final long replayCount;
+
+        /**
+         * The number of requests rejected for their timestamps.
+         */
+        private final long rejectCount;
+
+    }
+
+}
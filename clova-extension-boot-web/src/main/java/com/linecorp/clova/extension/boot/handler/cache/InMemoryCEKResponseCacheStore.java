@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponses;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link CEKResponseCacheStore} which keeps responses in the heap of this process.
+ * <p>
+ * The least recently used response is evicted when the number of responses exceeds the maximum size, and each
+ * response expires after its time to live. The responses are kept as
+ * {@link CEKResponses#unmodifiable(CEKResponse) unmodifiable responses}, so each of them is serialized only
+ * once.
+ */
+public class InMemoryCEKResponseCacheStore implements CEKResponseCacheStore {
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param maximumSize the maximum number of responses
+     */
+    public InMemoryCEKResponseCacheStore(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize should be positive. maximumSize: " + maximumSize);
+        }
+        this.entries = new LruMap(maximumSize);
+    }
+
+    @Override
+    public CEKResponse get(@NonNull String key) {
+        long now = System.nanoTime();
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.expiresAtNanos >= 0) {
+                this.entries.remove(key);
+                return null;
+            }
+            return entry.response;
+        }
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull CEKResponse response, @NonNull Duration ttl) {
+        Entry entry = new Entry(CEKResponses.unmodifiable(response), System.nanoTime() + ttl.toNanos());
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns the number of responses, including expired ones which are not removed yet.
+     *
+     * @return the number of responses
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Removes all responses.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * {@link LinkedHashMap} in access order, which removes the eldest entry over the maximum size.
+     */
+    private static final class LruMap extends LinkedHashMap<String, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        LruMap(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > this.maximumSize;
+        }
+
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+
+        private final CEKResponse response;
+        private final long expiresAtNanos;
+
+    }
+
+}
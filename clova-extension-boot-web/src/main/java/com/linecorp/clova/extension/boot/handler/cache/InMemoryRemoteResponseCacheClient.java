@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link RemoteResponseCacheClient} which keeps values in the heap of this process, as a stand-in for a remote
+ * store in tests and local development.
+ * <p>
+ * Values are copied when they are set and got, as they are sent to a remote store. Expired values are removed
+ * when they are accessed, and by a sweep done once every {@value #SWEEP_INTERVAL} sets.
+ */
+public class InMemoryRemoteResponseCacheClient implements RemoteResponseCacheClient {
+
+    static final int SWEEP_INTERVAL = 1024;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger setCount = new AtomicInteger();
+
+    @Override
+    public byte[] get(@NonNull String key) {
+        long now = System.nanoTime();
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(now)) {
+            this.entries.remove(key, entry);
+            return null;
+        }
+        return entry.value.clone();
+    }
+
+    @Override
+    public void set(@NonNull String key, @NonNull byte[] value, @NonNull Duration ttl) {
+        long now = System.nanoTime();
+        this.entries.put(key, new Entry(Arrays.copyOf(value, value.length), now + ttl.toNanos()));
+        if (this.setCount.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            this.entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+    }
+
+    /**
+     * Returns the number of values, including expired ones which are not removed yet.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+
+        private final byte[] value;
+        private final long expiresAtNanos;
+
+        boolean isExpired(long now) {
+            return now - this.expiresAtNanos >= 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponses;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link CEKResponseCacheStore} which keeps responses in a remote store through
+ * {@link RemoteResponseCacheClient}, so that the instances of the extension can share them.
+ * <p>
+ * Responses are stored as the JSON serialized by the {@link ObjectMapper}, preceded by a byte of
+ * {@link CEKResponse#getShouldEndSession() shouldEndSession}, and are returned as
+ * {@link CEKResponses#serialized(ObjectMapper, String, Boolean) serialized responses} which write the JSON as
+ * is, without being deserialized. The other properties than
+ * {@link CEKResponse#getShouldEndSession() shouldEndSession} are deserialized only when they are requested.
+ * <p>
+ * The failures of the client are logged, and are treated as absent responses.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class RemoteCEKResponseCacheStore implements CEKResponseCacheStore {
+
+    private static final byte SHOULD_END_SESSION = 1;
+    private static final byte SHOULD_NOT_END_SESSION = 0;
+
+    @NonNull
+    private final ObjectMapper objectMapper;
+    @NonNull
+    private final RemoteResponseCacheClient client;
+
+    @Override
+    public CEKResponse get(@NonNull String key) {
+        try {
+            byte[] value = this.client.get(key);
+            if (value == null) {
+                return null;
+            }
+            if (value.length == 0
+                || value[0] != SHOULD_END_SESSION && value[0] != SHOULD_NOT_END_SESSION) {
+                log.warn("Ignored the cached response in an unknown format. key: {}", key);
+                return null;
+            }
+            return CEKResponses.serialized(this.objectMapper,
+                                           new String(value, 1, value.length - 1, StandardCharsets.UTF_8),
+                                           value[0] == SHOULD_END_SESSION);
+        } catch (RuntimeException e) {
+            log.warn("Failed to get the cached response. key: {}", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(@NonNull String key, @NonNull CEKResponse response, @NonNull Duration ttl) {
+        try {
+            ByteArrayOutputStream value = new ByteArrayOutputStream();
+            value.write(Boolean.FALSE.equals(response.getShouldEndSession()) ? SHOULD_NOT_END_SESSION
+                                                                            : SHOULD_END_SESSION);
+            this.objectMapper.writeValue(value, response);
+            this.client.set(key, value.toByteArray(), ttl);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to cache the response. key: {}", key, e);
+        }
+    }
+
+}
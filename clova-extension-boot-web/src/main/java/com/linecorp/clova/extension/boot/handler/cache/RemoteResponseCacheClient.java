@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.time.Duration;
+
+/**
+ * A client of a remote key-value store, e.g.) Redis or Memcached, used by {@link RemoteCEKResponseCacheStore}.
+ * <p>
+ * The store is expected to evict entries by itself. Implementations must be thread-safe.
+ *
+ * @see InMemoryRemoteResponseCacheClient
+ */
+public interface RemoteResponseCacheClient {
+
+    /**
+     * Gets the value.
+     *
+     * @param key key
+     * @return the value, or {@code null} if absent or expired
+     */
+    byte[] get(String key);
+
+    /**
+     * Sets the value, replacing the previous one.
+     *
+     * @param key   key
+     * @param value value
+     * @param ttl   time to live of the value
+     */
+    void set(String key, byte[] value, Duration ttl);
+
+}
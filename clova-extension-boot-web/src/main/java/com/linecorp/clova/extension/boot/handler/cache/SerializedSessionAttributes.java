@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * The session attributes of a response which are written as the serialized JSON.
+ * <p>
+ * The attributes are serialized only once, so the externalized attributes are not written again by
+ * {@code SessionAttributesExternalizer} for each writing. They are read from the JSON only when they are
+ * requested.
+ */
+@JsonSerialize(using = SerializedSessionAttributes.Serializer.class)
+final class SerializedSessionAttributes extends AbstractMap<String, Object> {
+
+    private final ObjectMapper objectMapper;
+    private final SerializableString json;
+    private volatile Map<String, Object> attributes;
+
+    private SerializedSessionAttributes(ObjectMapper objectMapper, SerializableString json) {
+        this.objectMapper = objectMapper;
+        this.json = json;
+    }
+
+    /**
+     * Serializes the session attributes.
+     *
+     * @param objectMapper {@link ObjectMapper} to serialize and read the attributes
+     * @param attributes   the session attributes of a response
+     * @return the serialized attributes
+     * @throws IOException if the attributes can not be serialized
+     */
+    static SerializedSessionAttributes serialize(ObjectMapper objectMapper, Map<String, Object> attributes)
+            throws IOException {
+        if (attributes instanceof SerializedSessionAttributes) {
+            return (SerializedSessionAttributes) attributes;
+        }
+        SerializableString json = new SerializedString(objectMapper.writeValueAsString(attributes));
+        json.asUnquotedUTF8();
+        return new SerializedSessionAttributes(objectMapper, json);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> attributes = this.attributes;
+        if (attributes == null) {
+            try {
+                attributes = Collections.unmodifiableMap(this.objectMapper.readValue(
+                        this.json.getValue(),
+                        this.objectMapper.getTypeFactory()
+                                         .constructMapType(LinkedHashMap.class, String.class, Object.class)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the session attributes.", e);
+            }
+            this.attributes = attributes;
+        }
+        return attributes.entrySet();
+    }
+
+    static class Serializer extends StdSerializer<SerializedSessionAttributes> {
+
+        private static final long serialVersionUID = 1L;
+
+        Serializer() {
+            super(SerializedSessionAttributes.class);
+        }
+
+        @Override
+        public void serialize(SerializedSessionAttributes value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeRawValue(value.json);
+        }
+
+    }
+
+}
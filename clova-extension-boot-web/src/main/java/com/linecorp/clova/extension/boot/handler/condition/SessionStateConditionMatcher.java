@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.condition;
+
+import java.util.Collection;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import com.linecorp.clova.extension.boot.message.context.SystemContext;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.RawSessionAttributes;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
+import com.linecorp.clova.extension.boot.session.SessionHolder;
+import com.linecorp.clova.extension.boot.util.RequestUtils;
+import com.linecorp.clova.extension.boot.util.StringUtils;
+
+import lombok.Getter;
+
+/**
+ * A {@link CEKHandleConditionMatcher} for the dialog state kept in a session attribute.
+ */
+@Getter
+public class SessionStateConditionMatcher implements CEKHandleConditionMatcher {
+
+    private final String attributeName;
+    private final Collection<String> states;
+
+    public SessionStateConditionMatcher(String attributeName, Collection<String> states) {
+        Assert.isTrue(StringUtils.isNotBlank(attributeName), "attributeName should not be blank.");
+        Assert.isTrue(!states.isEmpty(), "states should not be empty.");
+        Assert.isTrue(states.stream().allMatch(StringUtils::isNotBlank), "state should not be blank.");
+        this.attributeName = attributeName;
+        this.states = states;
+    }
+
+    @Override
+    public boolean match(HttpServletRequest request, CEKRequestMessage requestMessage, SystemContext system) {
+        String state = readState(requestMessage.getSession(), this.attributeName,
+                                 RequestUtils.getSessionAttributesExternalizer(request));
+        return state != null && this.states.contains(state);
+    }
+
+    /**
+     * Reads the state from the session attribute, without deserializing the other session attributes.
+     *
+     * @param session       {@link CEKRequestMessage.Session}
+     * @param attributeName the name of the session attribute holding the state
+     * @return the state, or {@code null} if the attribute is absent or not a string
+     */
+    public static String readState(CEKRequestMessage.Session session, String attributeName) {
+        return readState(session, attributeName, null);
+    }
+
+    /**
+     * Reads the state from the session attribute, which may be externalized.
+     * <p>
+     * If the attribute is absent from the session attributes of the request, it is read from the externalized
+     * attributes as {@link SessionHolder} does.
+     *
+     * @param session       {@link CEKRequestMessage.Session}
+     * @param attributeName the name of the session attribute holding the state
+     * @param externalizer  {@link SessionAttributesExternalizer}, or {@code null} if the session attributes are
+     *                      not externalized
+     * @return the state, or {@code null} if the attribute is absent or not a string
+     */
+    public static String readState(CEKRequestMessage.Session session, String attributeName,
+                                   SessionAttributesExternalizer externalizer) {
+        Map<String, Object> sessionAttributes = session != null ? session.getSessionAttributes() : null;
+        if (sessionAttributes == null) {
+            return null;
+        }
+        if (externalizer != null && !sessionAttributes.containsKey(attributeName)) {
+            if (externalizer.getAttributeName().equals(attributeName)
+                || !sessionAttributes.containsKey(externalizer.getAttributeName())) {
+                return null;
+            }
+            Object value = externalizer.read(session).get(attributeName);
+            return value instanceof String ? (String) value : null;
+        }
+        if (sessionAttributes instanceof RawSessionAttributes) {
+            RawSessionAttributes rawAttributes = (RawSessionAttributes) sessionAttributes;
+            String raw = rawAttributes.getRawValue(attributeName);
+            if (raw == null) {
+                return null;
+            }
+            // plain strings are taken as they are, without parsing
+            if (raw.length() >= 2 && raw.charAt(0) == '"' && raw.indexOf('\\') < 0) {
+                return raw.substring(1, raw.length() - 1);
+            }
+            JsonNode node = rawAttributes.readTree(attributeName);
+            return node != null && node.isTextual() ? node.textValue() : null;
+        }
+        Object value = sessionAttributes.get(attributeName);
+        return value instanceof String ? (String) value : null;
+    }
+
+    @Override
+    public String toString() {
+        return attributeName + ":" + states;
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.condition;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.util.Assert;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.SessionStateCondition;
+
+/**
+ * {@link CEKHandleConditionMatcherFactory} to create {@link SessionStateConditionMatcher}.
+ *
+ * @see CEKHandleConditionMatcherFactory
+ * @see SessionStateConditionMatcher
+ * @see SessionStateCondition
+ */
+public class SessionStateConditionMatcherFactory
+        implements CEKHandleConditionMatcherFactory<SessionStateConditionMatcher, SessionStateCondition> {
+
+    @Override
+    public SessionStateConditionMatcher create(Collection<SessionStateCondition> annotations) {
+        Assert.isTrue(!annotations.isEmpty(), "annotations should not be empty.");
+
+        Set<String> attributeNames = annotations.stream()
+                                                .map(SessionStateCondition::attribute)
+                                                .collect(Collectors.toSet());
+        Assert.isTrue(attributeNames.size() == 1,
+                      "SessionStateConditions should have the same attribute. "
+                      + "[attributes:" + attributeNames + "]");
+
+        Set<String> states = annotations.stream()
+                                        .map(SessionStateCondition::state)
+                                        .flatMap(Arrays::stream)
+                                        .collect(Collectors.toSet());
+
+        return new SessionStateConditionMatcher(attributeNames.iterator().next(), states);
+    }
+
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.dictionary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from the bigrams of keys to the keys, for the fuzzy lookup of {@link SlotDictionary}.
+ * <p>
+ * Keys are padded at both ends, so a key of {@code n} chars has {@code n + 1} bigrams and an edit changes at
+ * most two of them. Hence a key within the edit distance {@code d} from the query shares all but {@code 2d}
+ * bigrams of the query, and it is contained in at least one of any {@code 2d + 1} bigrams of the query. Only
+ * the shortest posting lists covering {@code 2d + 1} bigrams are scanned, and the candidates are verified by
+ * the edit distance bounded by {@code d}.
+ * <p>
+ * Each posting list is sorted by the length of the keys, so only the keys whose length differs by at most
+ * {@code d} are scanned. The lists covering a few more bigrams than {@code 2d + 1} are scanned, to filter out
+ * the keys which don't have enough bigrams of the query before calculating the edit distance.
+ * <p>
+ * The work is bounded, so the latency doesn't grow with the size of the dictionary. At most
+ * {@value #MAX_SCANNED_POSTINGS} postings are scanned, and a query whose {@code 2d + 1} shortest lists exceed
+ * it, i.e. it consists only of common bigrams, is not looked up fuzzily. At most
+ * {@value #MAX_VERIFIED_CANDIDATES} candidates are verified, those sharing more bigrams with the query first.
+ */
+final class BigramIndex {
+
+    private static final char PADDING = '\u0000';
+    // scans the posting lists covering (SCAN_FACTOR * d + 1) bigrams for the count filter
+    private static final int SCAN_FACTOR = 3;
+    static final int MAX_SCANNED_POSTINGS = 16384;
+    static final int MAX_VERIFIED_CANDIDATES = 256;
+
+    // the keys concatenated, to avoid an object per key
+    private final char[] keyChars;
+    private final int[] keyStarts;
+    // sorted bigram codes, and the posting list of each code
+    private final int[] grams;
+    private final int[] postingStarts;
+    private final int[] postings;
+
+    /**
+     * Constructs the index.
+     *
+     * @param keys the keys, whose index is returned by {@link #nearest(String, int)}
+     */
+    BigramIndex(String[] keys) {
+        this.keyStarts = new int[keys.length + 1];
+        int totalLength = 0;
+        for (int i = 0; i < keys.length; i++) {
+            this.keyStarts[i] = totalLength;
+            totalLength += keys[i].length();
+        }
+        this.keyStarts[keys.length] = totalLength;
+        this.keyChars = new char[totalLength];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i].getChars(0, keys[i].length(), this.keyChars, this.keyStarts[i]);
+        }
+
+        // counts the keys of each bigram, a key is counted once even if it has the same bigram twice
+        Map<Integer, int[]> countAndLastKeys = new HashMap<>();
+        for (int key = 0; key < keys.length; key++) {
+            for (int gram : gramsOf(keys[key])) {
+                int[] countAndLastKey = countAndLastKeys.computeIfAbsent(gram, g -> new int[] { 0, -1 });
+                if (countAndLastKey[1] != key) {
+                    countAndLastKey[0]++;
+                    countAndLastKey[1] = key;
+                }
+            }
+        }
+        this.grams = countAndLastKeys.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        this.postingStarts = new int[this.grams.length + 1];
+        for (int i = 0; i < this.grams.length; i++) {
+            this.postingStarts[i + 1] = this.postingStarts[i] + countAndLastKeys.get(this.grams[i])[0];
+        }
+
+        this.postings = new int[this.postingStarts[this.grams.length]];
+        int[] cursors = Arrays.copyOf(this.postingStarts, this.grams.length);
+        for (int key : sortByLength(keys)) {
+            for (int gram : gramsOf(keys[key])) {
+                int index = Arrays.binarySearch(this.grams, gram);
+                if (cursors[index] == this.postingStarts[index] || this.postings[cursors[index] - 1] != key) {
+                    this.postings[cursors[index]++] = key;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the nearest key within the edit distance.
+     *
+     * @param query       the normalized query
+     * @param maxDistance the maximum edit distance, should be less than the half of the bigrams of the query
+     * @return the index of the nearest key, the smallest one if tied, or {@code -1} if not found or the
+     *         posting lists to scan are too long
+     */
+    int nearest(String query, int maxDistance) {
+        int[] queryGrams = gramsOf(query);
+        int required = 2 * maxDistance + 1;
+        if (required > queryGrams.length) {
+            return -1;
+        }
+
+        // distinct bigrams of the query with their posting lists, the shortest lists first
+        Arrays.sort(queryGrams);
+        long[] listsByLength = new long[queryGrams.length];
+        int listCount = 0;
+        int i = 0;
+        while (i < queryGrams.length) {
+            int j = i + 1;
+            while (j < queryGrams.length && queryGrams[j] == queryGrams[i]) {
+                j++;
+            }
+            int index = Arrays.binarySearch(this.grams, queryGrams[i]);
+            int length = index >= 0 ? this.postingStarts[index + 1] - this.postingStarts[index] : 0;
+            // length, multiplicity and the index of the gram, to sort by the length
+            int multiplicity = Math.min(j - i, 0xff);
+            listsByLength[listCount++] = (long) length << 40 | (long) multiplicity << 32 | index & 0xffffffffL;
+            i = j;
+        }
+        Arrays.sort(listsByLength, 0, listCount);
+
+        // a key within the distance has at least (covered - 2d) of the scanned bigrams, so scanning a few more
+        // lists than 2d + 1 filters out most candidates before calculating the edit distance
+        int[] scanStarts = new int[listCount];
+        int[] scanEnds = new int[listCount];
+        int[] multiplicities = new int[listCount];
+        int scanned = 0;
+        int covered = 0;
+        int candidateCount = 0;
+        while (scanned < listCount && covered < SCAN_FACTOR * maxDistance + 1) {
+            int index = (int) listsByLength[scanned];
+            // no key has the bigram if the index is negative
+            if (index >= 0) {
+                scanStarts[scanned] = lengthBound(index, query.length() - maxDistance);
+                scanEnds[scanned] = lengthBound(index, query.length() + maxDistance + 1);
+                if (candidateCount + scanEnds[scanned] - scanStarts[scanned] > MAX_SCANNED_POSTINGS) {
+                    if (covered < required) {
+                        return -1;
+                    }
+                    // the count filter works with the lists scanned so far
+                    break;
+                }
+                candidateCount += scanEnds[scanned] - scanStarts[scanned];
+            }
+            multiplicities[scanned] = (int) (listsByLength[scanned] >>> 32 & 0xff);
+            covered += multiplicities[scanned];
+            scanned++;
+        }
+        int minimumCount = Math.max(1, covered - 2 * maxDistance);
+
+        CandidateCounter candidates = new CandidateCounter(candidateCount);
+        for (int k = 0; k < scanned; k++) {
+            for (int p = scanStarts[k]; p < scanEnds[k]; p++) {
+                candidates.add(this.postings[p], multiplicities[k]);
+            }
+        }
+
+        int[] previousRow = new int[query.length() + maxDistance + 1];
+        int[] currentRow = new int[query.length() + maxDistance + 1];
+        int nearest = -1;
+        int nearestDistance = maxDistance + 1;
+        int[] keys = candidates.keysByCount(minimumCount);
+        for (int k = 0; k < Math.min(keys.length, MAX_VERIFIED_CANDIDATES); k++) {
+            int key = keys[k];
+            // the smaller key wins the tie, regardless of the order of the candidates
+            int bound = nearest >= 0 && key < nearest ? nearestDistance : nearestDistance - 1;
+            int distance = editDistance(query, key, bound, previousRow, currentRow);
+            if (distance <= bound) {
+                nearest = key;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Calculates the edit distance between the query and the key.
+     *
+     * @param query the normalized query
+     * @param key   the index of the key
+     * @param bound stops calculating if the distance exceeds this
+     * @return the edit distance, or {@code bound + 1} if it exceeds the bound
+     */
+    int editDistance(String query, int key, int bound) {
+        return editDistance(query, key, bound, new int[keyLength(key) + 1], new int[keyLength(key) + 1]);
+    }
+
+    /**
+     * Calculates the edit distance only in the diagonal band of the width {@code 2 * bound + 1}, with the
+     * given rows of the dynamic programming which are reused.
+     */
+    private int editDistance(String query, int key, int bound, int[] previousRow, int[] currentRow) {
+        int keyStart = this.keyStarts[key];
+        int keyLength = keyLength(key);
+        int exceeded = bound + 1;
+        if (bound < 0 || Math.abs(keyLength - query.length()) > bound) {
+            return exceeded;
+        }
+        int[] previous = previousRow;
+        int[] current = currentRow;
+        for (int j = 0; j <= keyLength; j++) {
+            previous[j] = Math.min(j, exceeded);
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            char c = query.charAt(i - 1);
+            int from = Math.max(1, i - bound);
+            int to = Math.min(keyLength, i + bound);
+            current[0] = Math.min(i, exceeded);
+            current[from - 1] = from == 1 ? current[0] : exceeded;
+            int rowMinimum = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (this.keyChars[keyStart + j - 1] == c ? 0 : 1);
+                current[j] = Math.min(Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1),
+                                      exceeded);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < keyLength) {
+                current[to + 1] = exceeded;
+            }
+            if (rowMinimum > bound) {
+                return exceeded;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[keyLength];
+    }
+
+    private int keyLength(int key) {
+        return this.keyStarts[key + 1] - this.keyStarts[key];
+    }
+
+    /**
+     * Returns the first position in the posting list whose key is not shorter than the length.
+     */
+    private int lengthBound(int gramIndex, int length) {
+        int lo = this.postingStarts[gramIndex];
+        int hi = this.postingStarts[gramIndex + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keyLength(this.postings[mid]) < length) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Open addressing hash table which counts the bigrams of the candidate keys.
+     */
+    private static final class CandidateCounter {
+
+        private final int[] keys;
+        private final int[] counts;
+        private final int mask;
+        private int maxCount;
+
+        CandidateCounter(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+            this.keys = new int[capacity];
+            this.counts = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(this.keys, -1);
+        }
+
+        void add(int key, int count) {
+            int hash = key * 0x9e3779b9;
+            int slot = (hash ^ hash >>> 16) & this.mask;
+            while (this.keys[slot] >= 0 && this.keys[slot] != key) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.keys[slot] = key;
+            this.counts[slot] += count;
+            this.maxCount = Math.max(this.maxCount, this.counts[slot]);
+        }
+
+        /**
+         * Returns the keys counted at least the minimum count, the most counted first.
+         */
+        int[] keysByCount(int minimumCount) {
+            // counting sort in the descending order of the counts
+            int[] starts = new int[this.maxCount + 2];
+            for (int slot = 0; slot < this.keys.length; slot++) {
+                if (this.keys[slot] >= 0 && this.counts[slot] >= minimumCount) {
+                    starts[this.maxCount - this.counts[slot] + 1]++;
+                }
+            }
+            for (int i = 0; i <= this.maxCount; i++) {
+                starts[i + 1] += starts[i];
+            }
+            int[] sorted = new int[starts[this.maxCount + 1]];
+            for (int slot = 0; slot < this.keys.length; slot++) {
+                if (this.keys[slot] >= 0 && this.counts[slot] >= minimumCount) {
+                    sorted[starts[this.maxCount - this.counts[slot]]++] = this.keys[slot];
+                }
+            }
+            return sorted;
+        }
+
+    }
+
+    /**
+     * Sorts the indexes of the keys by the length of the keys, and by the index if the same length.
+     */
+    private static int[] sortByLength(String[] keys) {
+        int maxLength = 0;
+        for (String key : keys) {
+            maxLength = Math.max(maxLength, key.length());
+        }
+        // counting sort, which is stable
+        int[] starts = new int[maxLength + 2];
+        for (String key : keys) {
+            starts[key.length() + 1]++;
+        }
+        for (int length = 0; length <= maxLength; length++) {
+            starts[length + 1] += starts[length];
+        }
+        int[] sorted = new int[keys.length];
+        for (int key = 0; key < keys.length; key++) {
+            sorted[starts[keys[key].length()]++] = key;
+        }
+        return sorted;
+    }
+
+    private static int[] gramsOf(String key) {
+        int[] grams = new int[key.length() + 1];
+        char previous = PADDING;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            grams[i] = previous << 16 | c;
+            previous = c;
+        }
+        // PADDING is zero
+        grams[key.length()] = previous << 16;
+        return grams;
+    }
+
+}
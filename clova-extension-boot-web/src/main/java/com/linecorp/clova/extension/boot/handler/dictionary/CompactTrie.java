@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.dictionary;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Path-compressed trie over sorted distinct keys, which keeps the nodes in parallel arrays.
+ * <p>
+ * Each node has the label of the edge from its parent as a range of the shared {@code char[]}, and the children
+ * of a node are stored contiguously in the order of the first char of their labels. So a node costs six
+ * {@code int}s regardless of the number of keys under it, and no object is allocated per node.
+ */
+final class CompactTrie {
+
+    private static final int NO_KEY = -1;
+
+    private final char[] labels;
+    private final int[] labelStarts;
+    private final int[] labelLengths;
+    private final int[] firstChildren;
+    private final int[] childCounts;
+    private final int[] keyIndexes;
+
+    private CompactTrie(char[] labels, IntBuffer labelStarts, IntBuffer labelLengths,
+                        IntBuffer firstChildren, IntBuffer childCounts, IntBuffer keyIndexes) {
+        this.labels = labels;
+        this.labelStarts = labelStarts.toArray();
+        this.labelLengths = labelLengths.toArray();
+        this.firstChildren = firstChildren.toArray();
+        this.childCounts = childCounts.toArray();
+        this.keyIndexes = keyIndexes.toArray();
+    }
+
+    /**
+     * Builds the trie in breadth-first order, so that the children of a node are allocated together.
+     *
+     * @param keys sorted distinct non-empty keys
+     * @return {@link CompactTrie} whose {@link #find(CharSequence)} returns the index in {@code keys}
+     */
+    static CompactTrie build(String[] keys) {
+        StringBuilder labels = new StringBuilder();
+        IntBuffer labelStarts = new IntBuffer();
+        IntBuffer labelLengths = new IntBuffer();
+        IntBuffer firstChildren = new IntBuffer();
+        IntBuffer childCounts = new IntBuffer();
+        IntBuffer keyIndexes = new IntBuffer();
+
+        // the root has an empty label
+        addNode(labelStarts, labelLengths, firstChildren, childCounts, keyIndexes, 0, 0);
+        // node, lo, hi and the depth of the keys[lo, hi) under the node
+        Deque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[] { 0, 0, keys.length, 0 });
+        while (!queue.isEmpty()) {
+            int[] range = queue.poll();
+            int node = range[0];
+            int lo = range[1];
+            int hi = range[2];
+            int depth = range[3];
+
+            if (lo < hi && keys[lo].length() == depth) {
+                keyIndexes.set(node, lo);
+                lo++;
+            }
+            firstChildren.set(node, labelStarts.size());
+            int childCount = 0;
+            int i = lo;
+            while (i < hi) {
+                char c = keys[i].charAt(depth);
+                int j = i + 1;
+                while (j < hi && keys[j].charAt(depth) == c) {
+                    j++;
+                }
+                // the keys are sorted, so the first and the last share the prefix of the whole group
+                int end = commonPrefixEnd(keys[i], keys[j - 1], depth);
+                int child = addNode(labelStarts, labelLengths, firstChildren, childCounts, keyIndexes,
+                                    labels.length(), end - depth);
+                labels.append(keys[i], depth, end);
+                queue.add(new int[] { child, i, j, end });
+                childCount++;
+                i = j;
+            }
+            childCounts.set(node, childCount);
+        }
+
+        char[] labelChars = new char[labels.length()];
+        labels.getChars(0, labels.length(), labelChars, 0);
+        return new CompactTrie(labelChars, labelStarts, labelLengths, firstChildren, childCounts, keyIndexes);
+    }
+
+    /**
+     * Finds the key.
+     *
+     * @param key the key to find
+     * @return the index of the key given to {@link #build(String[])}, or {@code -1} if not found
+     */
+    int find(CharSequence key) {
+        int node = 0;
+        int position = 0;
+        int length = key.length();
+        while (position < length) {
+            int child = findChild(node, key.charAt(position));
+            if (child < 0) {
+                return NO_KEY;
+            }
+            int labelStart = this.labelStarts[child];
+            int labelLength = this.labelLengths[child];
+            if (length - position < labelLength) {
+                return NO_KEY;
+            }
+            for (int i = 0; i < labelLength; i++) {
+                if (this.labels[labelStart + i] != key.charAt(position + i)) {
+                    return NO_KEY;
+                }
+            }
+            position += labelLength;
+            node = child;
+        }
+        return this.keyIndexes[node];
+    }
+
+    private int findChild(int node, char c) {
+        int lo = this.firstChildren[node];
+        int hi = lo + this.childCounts[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = this.labels[this.labelStarts[mid]];
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int addNode(IntBuffer labelStarts, IntBuffer labelLengths, IntBuffer firstChildren,
+                               IntBuffer childCounts, IntBuffer keyIndexes, int labelStart, int labelLength) {
+        labelStarts.add(labelStart);
+        labelLengths.add(labelLength);
+        firstChildren.add(0);
+        childCounts.add(0);
+        keyIndexes.add(NO_KEY);
+        return keyIndexes.size() - 1;
+    }
+
+    private static int commonPrefixEnd(String first, String last, int from) {
+        int end = from;
+        int limit = Math.min(first.length(), last.length());
+        while (end < limit && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Growable {@code int[]}, to avoid boxing while building.
+     */
+    private static final class IntBuffer {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        void set(int index, int value) {
+            this.values[index] = value;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.dictionary;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+import lombok.NonNull;
+
+/**
+ * Named {@link SlotDictionary}s referred by {@code @SlotValue(dictionary = "...")}.
+ */
+public class SlotDictionaries {
+
+    private final Map<String, SlotDictionary> dictionaries;
+
+    /**
+     * Constructs with the dictionaries.
+     *
+     * @param dictionaries the dictionaries
+     * @throws IllegalArgumentException if the names of the dictionaries are duplicated
+     */
+    public SlotDictionaries(@NonNull Collection<SlotDictionary> dictionaries) {
+        Map<String, SlotDictionary> dictionariesByName = new LinkedHashMap<>();
+        for (SlotDictionary dictionary : dictionaries) {
+            if (dictionariesByName.putIfAbsent(dictionary.getName(), dictionary) != null) {
+                throw new IllegalArgumentException("Duplicated slot dictionary name: " + dictionary.getName());
+            }
+        }
+        this.dictionaries = Collections.unmodifiableMap(dictionariesByName);
+    }
+
+    /**
+     * Returns the dictionary.
+     *
+     * @param name the name of the dictionary
+     * @return {@link SlotDictionary}, or {@code null} if not defined
+     */
+    @Nullable
+    public SlotDictionary get(String name) {
+        return this.dictionaries.get(name);
+    }
+
+    public Set<String> getNames() {
+        return this.dictionaries.keySet();
+    }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.dictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotEntity.MatchType;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Immutable in-memory dictionary to normalize slot values, such as song titles, station names and product
+ * names, into the entries of a catalog.
+ * <p>
+ * The canonical values and the synonyms of the entries are normalized by NFKC, lower-cased and stripped of
+ * whitespaces, and kept in a {@link CompactTrie path-compressed trie}. A slot value which is not in the trie is
+ * looked up fuzzily by {@link BigramIndex the bigram index}, within the edit distance of {@code
+ * maxEditDistance}, but not more than one third of the length of the slot value, so short slot values are
+ * never matched to unrelated entries. The fuzzy lookup scans a bounded number of keys, so a slot value
+ * consisting only of bigrams common in a large dictionary may not be matched.
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * SlotDictionary stations = SlotDictionary.builder("stations")
+ *                                         .add("JY01", "Tokyo", "東京")
+ *                                         .add("JY02", "Kanda", "神田")
+ *                                         .build();
+ * stations.lookup("kanda"); // => JY02 (EXACT)
+ * stations.lookup("東京");   // => JY01 (SYNONYM)
+ * stations.lookup("Tokio"); // => JY01 (FUZZY, distance 1)
+ * }</pre>
+ */
+public final class SlotDictionary {
+
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 2;
+
+    private static final int MIN_CHARS_PER_EDIT = 3;
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String COMMENT_PREFIX = "#";
+
+    @Getter
+    private final String name;
+    private final String[] ids;
+    private final String[] values;
+    private final int maxEditDistance;
+    private final CompactTrie trie;
+    private final BigramIndex bigramIndex;
+    // the index of the entry of each key, or its complement if the key is a synonym
+    private final int[] keyEntries;
+
+    private SlotDictionary(Builder builder) {
+        this.name = builder.name;
+        this.ids = builder.ids.toArray(new String[0]);
+        this.values = builder.values.toArray(new String[0]);
+        this.maxEditDistance = builder.maxEditDistance;
+
+        String[] keys = builder.keyEntries.keySet().stream().sorted().toArray(String[]::new);
+        this.keyEntries = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            this.keyEntries[i] = builder.keyEntries.get(keys[i]);
+        }
+        this.trie = CompactTrie.build(keys);
+        this.bigramIndex = new BigramIndex(keys);
+    }
+
+    public static Builder builder(@NonNull String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * Loads the dictionary from a tab separated file.
+     * <p>
+     * Each line is {@code id<TAB>value[<TAB>synonym]...}, in UTF-8. Empty lines and lines starting with
+     * {@code #} are ignored.
+     *
+     * @param name            the name of the dictionary
+     * @param resource        the dictionary file
+     * @param maxEditDistance the maximum edit distance of the fuzzy lookup, {@code 0} to disable it
+     * @return {@link SlotDictionary}
+     * @throws UncheckedIOException     if failed to read the file
+     * @throws IllegalArgumentException if a line doesn't have a value
+     */
+    public static SlotDictionary load(@NonNull String name, @NonNull Resource resource, int maxEditDistance) {
+        Builder builder = builder(name).maxEditDistance(maxEditDistance);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                String[] fields = line.split(FIELD_SEPARATOR);
+                if (fields.length < 2) {
+                    throw new IllegalArgumentException("The line should have an id and a value. resource: "
+                                                       + resource + ", line: " + lineNumber);
+                }
+                String[] synonyms = new String[fields.length - 2];
+                System.arraycopy(fields, 2, synonyms, 0, synonyms.length);
+                builder.add(fields[0], fields[1], synonyms);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load the slot dictionary. resource: " + resource, e);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Normalizes a text in the same way as the keys of the dictionary.
+     *
+     * @param text the text
+     * @return NFKC normalized, lower-cased text without whitespaces
+     */
+    public static String normalize(@NonNull String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Looks up the entry of the slot value.
+     * <p>
+     * The canonical value takes precedence over the synonyms of the other entries, and the nearest key
+     * takes precedence in the fuzzy lookup.
+     *
+     * @param text the slot value
+     * @return {@link SlotEntity}, or {@code null} if no entry matches
+     */
+    @Nullable
+    public SlotEntity lookup(@NonNull String text) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return null;
+        }
+        int keyIndex = this.trie.find(key);
+        if (keyIndex >= 0) {
+            return toEntity(text, keyIndex, 0);
+        }
+
+        int maxDistance = Math.min(this.maxEditDistance, key.length() / MIN_CHARS_PER_EDIT);
+        if (maxDistance <= 0) {
+            return null;
+        }
+        keyIndex = this.bigramIndex.nearest(key, maxDistance);
+        if (keyIndex < 0) {
+            return null;
+        }
+        return toEntity(text, keyIndex, this.bigramIndex.editDistance(key, keyIndex, maxDistance));
+    }
+
+    /**
+     * Returns the number of the entries.
+     *
+     * @return the number of the entries, not including the synonyms
+     */
+    public int size() {
+        return this.ids.length;
+    }
+
+    private SlotEntity toEntity(String text, int keyIndex, int distance) {
+        int keyEntry = this.keyEntries[keyIndex];
+        int entry = keyEntry >= 0 ? keyEntry : ~keyEntry;
+        MatchType matchType = distance > 0 ? MatchType.FUZZY
+                                           : keyEntry >= 0 ? MatchType.EXACT : MatchType.SYNONYM;
+        return new SlotEntity(this.name, this.ids[entry], this.values[entry], text, matchType, distance);
+    }
+
+    /**
+     * Builder of {@link SlotDictionary}.
+     */
+    public static final class Builder {
+
+        private final String name;
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> keyEntries = new HashMap<>();
+        private int maxEditDistance = DEFAULT_MAX_EDIT_DISTANCE;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds an entry.
+         * <p>
+         * If the normalized value or synonym is already added, the canonical value takes precedence over the
+         * synonym, and the first added one takes precedence otherwise.
+         *
+         * @param id       the ID of the entry
+         * @param value    the canonical value of the entry
+         * @param synonyms the other names of the entry
+         * @return this builder
+         * @throws IllegalArgumentException if the value is empty after normalization
+         */
+        public Builder add(@NonNull String id, @NonNull String value, String... synonyms) {
+            String key = normalize(value);
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException("The value should not be blank. id: " + id);
+            }
+            int entry = this.ids.size();
+            this.ids.add(id);
+            this.values.add(value);
+
+            Integer previous = this.keyEntries.get(key);
+            if (previous == null || previous < 0) {
+                this.keyEntries.put(key, entry);
+            }
+            for (String synonym : synonyms) {
+                String synonymKey = normalize(synonym);
+                if (!synonymKey.isEmpty()) {
+                    this.keyEntries.putIfAbsent(synonymKey, ~entry);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Sets the maximum edit distance of the fuzzy lookup.
+         *
+         * @param maxEditDistance the maximum edit distance, {@code 0} to disable the fuzzy lookup; default is
+         *                        {@value SlotDictionary#DEFAULT_MAX_EDIT_DISTANCE}
+         * @return this builder
+         */
+        public Builder maxEditDistance(int maxEditDistance) {
+            if (maxEditDistance < 0) {
+                throw new IllegalArgumentException("maxEditDistance should not be negative.");
+            }
+            this.maxEditDistance = maxEditDistance;
+            return this;
+        }
+
+        public SlotDictionary build() {
+            return new SlotDictionary(this);
+        }
+
+    }
+
+}
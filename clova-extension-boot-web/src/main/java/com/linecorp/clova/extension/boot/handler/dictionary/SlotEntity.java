@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.dictionary;
+
+import lombok.Data;
+
+/**
+ * An entry of {@link SlotDictionary} matched with a slot value.
+ */
+@Data
+public class SlotEntity {
+
+    /**
+     * The name of the dictionary.
+     */
+    private final String dictionary;
+
+    /**
+     * The ID of the entry.
+     */
+    private final String id;
+
+    /**
+     * The canonical value of the entry.
+     */
+    private final String value;
+
+    /**
+     * The slot value as it was.
+     */
+    private final String matchedText;
+
+    /**
+     * How the slot value matched.
+     */
+    private final MatchType matchType;
+
+    /**
+     * The edit distance between the normalized slot value and the matched value or synonym, {@code 0} unless
+     * {@link MatchType#FUZZY}.
+     */
+    private final int distance;
+
+    public enum MatchType {
+
+        /**
+         * Matched the canonical value.
+         */
+        EXACT,
+
+        /**
+         * Matched a synonym.
+         */
+        SYNONYM,
+
+        /**
+         * Matched the canonical value or a synonym within the maximum edit distance.
+         */
+        FUZZY
+
+    }
+
+}
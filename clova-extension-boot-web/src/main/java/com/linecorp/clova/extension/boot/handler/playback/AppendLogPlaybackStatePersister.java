@@ -0,0 +1,328 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.linecorp.clova.extension.boot.message.context.AudioPlayerContext.PlayerActivity;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link PlaybackStatePersister} which appends the states to a local file, one JSON object per line.
+ * <p>
+ * Only the position of the latest line of each user is kept in memory, and {@link #load(String)} reads the
+ * line from the file. The log is compacted to the latest line of each user when it is opened, and when the
+ * lines grow to twice the number of the users while appending. A line torn by a crash is skipped. The file is
+ * not synced to the disk for each write, so the states written just before an OS crash may be lost.
+ * <p>
+ * This is intended for a single instance of the extension. Use a {@link PlaybackStatePersister} backed by a
+ * database to share the states among instances.
+ */
+@Slf4j
+public class AppendLogPlaybackStatePersister implements PlaybackStatePersister, DisposableBean {
+
+    private static final int DEFAULT_MIN_COMPACTION_LINES = 1024;
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private static final String USER_ID_FIELD = "userId";
+    private static final String TOKEN_FIELD = "token";
+    private static final String OFFSET_FIELD = "offsetInMilliseconds";
+    private static final String PLAYER_ACTIVITY_FIELD = "playerActivity";
+    private static final String TIMESTAMP_FIELD = "timestamp";
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final int minCompactionLines;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, LogEntry> index = new HashMap<>();
+    private FileChannel channel;
+    private long size;
+    private int lineCount;
+
+    /**
+     * Constructs a new instance, and replays the log if exists.
+     *
+     * @param path         the log file
+     * @param objectMapper {@link ObjectMapper} to read and write the lines
+     * @throws UncheckedIOException if failed to read or compact the log
+     */
+    public AppendLogPlaybackStatePersister(Path path, ObjectMapper objectMapper) {
+        this(path, objectMapper, DEFAULT_MIN_COMPACTION_LINES);
+    }
+
+    AppendLogPlaybackStatePersister(@NonNull Path path, @NonNull ObjectMapper objectMapper,
+                                    int minCompactionLines) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.minCompactionLines = minCompactionLines;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                            StandardOpenOption.WRITE);
+            replay();
+            if (needsCompaction()) {
+                compact();
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Failed to open the playback state log. path: " + path, e);
+        }
+    }
+
+    /**
+     * Appends the states, and compacts the log if it has grown.
+     */
+    @Override
+    public void persist(List<PlaybackState> states) {
+        this.lock.writeLock().lock();
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            LogEntry[] entries = new LogEntry[states.size()];
+            for (int i = 0; i < entries.length; i++) {
+                PlaybackState state = states.get(i);
+                byte[] line = toLine(state);
+                entries[i] = new LogEntry(this.size + lines.size(), line.length,
+                                          state.getTimestamp().toInstant());
+                lines.write(line);
+                lines.write('\n');
+            }
+            try {
+                write(this.channel, ByteBuffer.wrap(lines.toByteArray()), this.size);
+            } catch (IOException e) {
+                // the next write overwrites the partially written lines
+                this.channel.truncate(this.size);
+                throw e;
+            }
+            this.size += lines.size();
+            this.lineCount += entries.length;
+            for (int i = 0; i < entries.length; i++) {
+                this.index.merge(states.get(i).getUserId(), entries[i], LogEntry::latest);
+            }
+
+            if (needsCompaction()) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append the playback states. path: " + this.path, e);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public PlaybackState load(String userId) {
+        this.lock.readLock().lock();
+        try {
+            LogEntry entry = this.index.get(userId);
+            if (entry == null) {
+                return null;
+            }
+            return fromLine(read(entry));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the playback state. path: " + this.path
+                                           + ", userId: " + userId, e);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            this.channel.close();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the lines of the log, and truncates a line torn at the end.
+     */
+    private void replay() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = 0;
+        long lineStart = 0;
+        while (this.channel.read(buffer, position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                if (line.size() > 0) {
+                    this.lineCount++;
+                    indexLine(line.toByteArray(), lineStart);
+                }
+                line.reset();
+                lineStart = position;
+            }
+            buffer.clear();
+        }
+        if (lineStart < position) {
+            log.warn("Truncated a torn line of the playback state log. path: {}, position: {}",
+                     this.path, lineStart);
+            this.channel.truncate(lineStart);
+        }
+        this.size = lineStart;
+    }
+
+    private void indexLine(byte[] line, long position) {
+        PlaybackState state;
+        try {
+            state = fromLine(line);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Skipped a broken line of the playback state log. path: {}, line: {}",
+                     this.path, this.lineCount, e);
+            return;
+        }
+        this.index.merge(state.getUserId(),
+                         new LogEntry(position, line.length, state.getTimestamp().toInstant()),
+                         LogEntry::latest);
+    }
+
+    private boolean needsCompaction() {
+        return this.lineCount >= this.minCompactionLines && this.lineCount >= this.index.size() * 2;
+    }
+
+    /**
+     * Rewrites the log only with the latest lines.
+     */
+    private void compact() throws IOException {
+        Path compacted = this.path.resolveSibling(this.path.getFileName() + ".compacting");
+        Map<String, LogEntry> compactedIndex = new HashMap<>(this.index.size());
+        long position = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                                                StandardOpenOption.TRUNCATE_EXISTING,
+                                                StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, LogEntry> entry : this.index.entrySet()) {
+                LogEntry logEntry = entry.getValue();
+                ByteBuffer line = ByteBuffer.allocate(logEntry.getLength() + 1);
+                line.put(read(logEntry)).put((byte) '\n').flip();
+                write(out, line, position);
+                compactedIndex.put(entry.getKey(),
+                                   new LogEntry(position, logEntry.getLength(), logEntry.getTimestamp()));
+                position += logEntry.getLength() + 1;
+            }
+        }
+        Files.move(compacted, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.channel.close();
+        this.channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = compactedIndex;
+        this.size = position;
+        this.lineCount = compactedIndex.size();
+    }
+
+    private byte[] read(LogEntry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.getLength());
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, entry.getPosition() + buffer.position()) < 0) {
+                throw new EOFException("The playback state log is shorter than the index. path: " + this.path);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void closeQuietly() {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the playback state log. path: {}", this.path, e);
+        }
+    }
+
+    private byte[] toLine(PlaybackState state) throws IOException {
+        ObjectNode node = this.objectMapper.createObjectNode();
+        node.put(USER_ID_FIELD, state.getUserId());
+        if (state.getToken() != null) {
+            node.put(TOKEN_FIELD, state.getToken());
+        }
+        if (state.getOffsetInMilliseconds() != null) {
+            node.put(OFFSET_FIELD, state.getOffsetInMilliseconds());
+        }
+        if (state.getPlayerActivity() != null) {
+            node.put(PLAYER_ACTIVITY_FIELD, state.getPlayerActivity().name());
+        }
+        node.put(TIMESTAMP_FIELD, state.getTimestamp().toString());
+        return this.objectMapper.writeValueAsBytes(node);
+    }
+
+    private PlaybackState fromLine(byte[] line) throws IOException {
+        JsonNode node = this.objectMapper.readTree(line);
+        return new PlaybackState(node.path(USER_ID_FIELD).textValue(),
+                                 node.path(TOKEN_FIELD).textValue(),
+                                 node.hasNonNull(OFFSET_FIELD) ? node.get(OFFSET_FIELD).longValue() : null,
+                                 node.hasNonNull(PLAYER_ACTIVITY_FIELD)
+                                 ? PlayerActivity.valueOf(node.get(PLAYER_ACTIVITY_FIELD).textValue())
+                                 : null,
+                                 OffsetDateTime.parse(node.path(TIMESTAMP_FIELD).asText()));
+    }
+
+    /**
+     * The position of the latest line of a user.
+     */
+    @Data
+    private static class LogEntry {
+
+        private final long position;
+        private final int length;
+        private final Instant timestamp;
+
+        static LogEntry latest(LogEntry current, LogEntry update) {
+            return update.timestamp.isBefore(current.timestamp) ? current : update;
+        }
+
+    }
+
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerStreamPayload;
+import com.linecorp.clova.extension.boot.message.payload.Payload;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+import com.linecorp.clova.extension.boot.message.request.EventRequest;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prefetches the next stream by {@link NextStreamResolver} when the playback of a stream starts, so that the
+ * {@code AudioPlayer.StreamRequested} Handler can deliver it without resolving it on the request.
+ * <p>
+ * The next stream is resolved once per user and playing token on {@code AudioPlayer.PlayStarted} and
+ * {@code AudioPlayer.ProgressReport*} events, and kept by the user and its token for the time to live, so a
+ * stream signed for a user is not delivered to another user playing the same track.
+ * <pre><code>
+ * &#64;EventMapping("AudioPlayer.StreamRequested")
+ * CEKResponse handleStreamRequested(AudioPlayerStreamPayload payload, Session session) {
+ *     String userId = session.getUser().getUserId();
+ *     String token = payload.getAudioStream().getToken();
+ *     AudioPlayerStreamPayload next = audioStreamPrefetcher.get(userId, token,
+ *                                                               () -&gt; resolveStream(userId, token));
+ *     return CEKResponse.builder()
+ *                       .directive(Directives.AudioPlayer.streamDeliver(next))
+ *                       .build();
+ * }
+ * </code></pre>
+ */
+@Slf4j
+public class AudioStreamPrefetcher implements DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private static final Set<String> TRIGGER_EVENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "AudioPlayer.PlayStarted",
+            "AudioPlayer.ProgressReportDelayPassed",
+            "AudioPlayer.ProgressReportIntervalPassed",
+            "AudioPlayer.ProgressReportPositionPassed")));
+    private static final String TOKEN_FIELD = "token";
+    private static final String OFFSET_FIELD = "offsetInMilliseconds";
+
+    private final NextStreamResolver resolver;
+    private final long ttlNanos;
+    private final int maximumSize;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<StreamKey, Entry> streams = new ConcurrentHashMap<>();
+    private final ConcurrentMap<StreamKey, Long> triggers = new ConcurrentHashMap<>();
+
+    private final LongAdder prefetchCount = new LongAdder();
+    private final LongAdder rejectCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param resolver    {@link NextStreamResolver}
+     * @param ttl         time to live of the prefetched streams
+     * @param maximumSize the maximum number of the prefetched streams, also used as the queue size of the
+     *                    prefetch threads
+     * @param threads     the number of the prefetch threads
+     */
+    public AudioStreamPrefetcher(@NonNull NextStreamResolver resolver, @NonNull Duration ttl, int maximumSize,
+                                 int threads) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl should be positive. ttl: " + ttl);
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize should be positive. maximumSize: " + maximumSize);
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads should be positive. threads: " + threads);
+        }
+        this.resolver = resolver;
+        this.ttlNanos = ttl.toNanos();
+        this.maximumSize = maximumSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "cek-stream-prefetcher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(maximumSize), threadFactory);
+    }
+
+    /**
+     * Starts prefetching the next stream if the request is an event which triggers it.
+     *
+     * @param requestMessage {@link CEKRequestMessage}
+     * @return {@code true} if started
+     */
+    public boolean onRequest(CEKRequestMessage requestMessage) {
+        if (!(requestMessage.getRequest() instanceof EventRequest)) {
+            return false;
+        }
+        EventRequest eventRequest = (EventRequest) requestMessage.getRequest();
+        if (!TRIGGER_EVENTS.contains(eventRequest.getName())) {
+            return false;
+        }
+        Payload payload = eventRequest.getEvent().getPayload();
+        Object token;
+        Object offset;
+        if (payload instanceof AudioPlayerPlaybackStatePayload) {
+            // deserialized directly when a handler takes the typed payload
+            token = ((AudioPlayerPlaybackStatePayload) payload).getToken();
+            offset = ((AudioPlayerPlaybackStatePayload) payload).getOffsetInMilliseconds();
+        } else if (payload instanceof Map) {
+            token = ((Map<?, ?>) payload).get(TOKEN_FIELD);
+            offset = ((Map<?, ?>) payload).get(OFFSET_FIELD);
+        } else {
+            return false;
+        }
+        Session session = requestMessage.getSession();
+        String userId = session != null && session.getUser() != null ? session.getUser().getUserId() : null;
+        if (userId == null || !(token instanceof String)) {
+            return false;
+        }
+        return prefetch(userId, AudioPlayerPlaybackStatePayload.builder()
+                                                               .token((String) token)
+                                                               .offsetInMilliseconds(toLong(offset))
+                                                               .build());
+    }
+
+    /**
+     * Starts prefetching the next stream of the playing one, unless it has been started for the user and the
+     * playing token within the time to live.
+     *
+     * @param userId  the user id
+     * @param playing the token and the offset of the playing stream
+     * @return {@code true} if started
+     */
+    public boolean prefetch(@NonNull String userId, @NonNull AudioPlayerPlaybackStatePayload playing) {
+        long now = System.nanoTime();
+        StreamKey triggerKey = new StreamKey(userId, playing.getToken());
+        Long triggeredAt = this.triggers.putIfAbsent(triggerKey, now);
+        if (triggeredAt != null
+            && (now - triggeredAt < this.ttlNanos || !this.triggers.replace(triggerKey, triggeredAt, now))) {
+            return false;
+        }
+        evictIfFull(now);
+
+        try {
+            CompletableFuture.supplyAsync(() -> this.resolver.resolveNext(userId, playing), this.executor)
+                             .whenComplete((next, e) -> {
+                                 if (e != null) {
+                                     // allows the next event to retry
+                                     this.triggers.remove(triggerKey, now);
+                                     this.failureCount.increment();
+                                     log.warn("Failed to prefetch the next stream. userId: {}, token: {}",
+                                              userId, playing.getToken(), e);
+                                 } else if (next != null && next.getAudioStream() != null) {
+                                     this.streams.put(new StreamKey(userId,
+                                                                    next.getAudioStream().getToken()),
+                                                      new Entry(next, System.nanoTime() + this.ttlNanos));
+                                 }
+                             });
+        } catch (RejectedExecutionException e) {
+            this.rejectCount.increment();
+            this.triggers.remove(triggerKey, now);
+            return false;
+        }
+        this.prefetchCount.increment();
+        return true;
+    }
+
+    /**
+     * Returns the prefetched stream. This does not wait for the prefetch in progress.
+     *
+     * @param userId the user id
+     * @param token  the token of the requested stream
+     * @return the prefetched stream, or {@code null} if not prefetched for the user
+     */
+    public AudioPlayerStreamPayload get(@NonNull String userId, @NonNull String token) {
+        StreamKey key = new StreamKey(userId, token);
+        Entry entry = this.streams.get(key);
+        if (entry == null || System.nanoTime() - entry.expiresAtNanos >= 0) {
+            if (entry != null) {
+                this.streams.remove(key, entry);
+            }
+            this.missCount.increment();
+            return null;
+        }
+        this.hitCount.increment();
+        return entry.stream;
+    }
+
+    /**
+     * Returns the prefetched stream, or the one loaded by the loader if not prefetched.
+     *
+     * @param userId the user id
+     * @param token  the token of the requested stream
+     * @param loader resolves the stream on the request thread if not prefetched
+     * @return the stream
+     */
+    public AudioPlayerStreamPayload get(@NonNull String userId, @NonNull String token,
+                                        @NonNull Supplier<AudioPlayerStreamPayload> loader) {
+        AudioPlayerStreamPayload stream = get(userId, token);
+        return stream != null ? stream : loader.get();
+    }
+
+    /**
+     * Returns the number of the prefetched streams, including the expired ones not evicted yet.
+     *
+     * @return the number of the streams
+     */
+    public int size() {
+        return this.streams.size();
+    }
+
+    /**
+     * Returns the metrics since this instance was created.
+     *
+     * @return {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        return new Metrics(this.prefetchCount.sum(), this.rejectCount.sum(), this.failureCount.sum(),
+                           this.hitCount.sum(), this.missCount.sum());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        this.executor.shutdownNow();
+        this.executor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private void evictIfFull(long now) {
+        if (this.streams.size() >= this.maximumSize) {
+            this.streams.values().removeIf(entry -> now - entry.expiresAtNanos >= 0);
+        }
+        if (this.triggers.size() >= this.maximumSize) {
+            this.triggers.values().removeIf(triggeredAt -> now - triggeredAt >= this.ttlNanos);
+        }
+        // drops arbitrary ones if all of them are alive
+        int excess = this.streams.size() - this.maximumSize + 1;
+        for (StreamKey key : this.streams.keySet()) {
+            if (excess-- <= 0) {
+                break;
+            }
+            this.streams.remove(key);
+        }
+        excess = this.triggers.size() - this.maximumSize + 1;
+        for (StreamKey key : this.triggers.keySet()) {
+            if (excess-- <= 0) {
+                break;
+            }
+            this.triggers.remove(key);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+
+        private final AudioPlayerStreamPayload stream;
+        private final long expiresAtNanos;
+
+    }
+
+    @Data
+    private static class StreamKey {
+
+        private final String userId;
+        private final String token;
+
+    }
+
+    /**
+     * Metrics of {@link AudioStreamPrefetcher}.
+     */
+    @Data
+    public static class Metrics {
+
+        /**
+         * The number of started prefetches.
+         */
+        private final long prefetchCount;
+
+        /**
+         * The number of prefetches not started because the queue of the prefetch threads was full.
+         */
+        private final long rejectCount;
+
+        /**
+         * The number of prefetches for which {@link NextStreamResolver} threw exceptions.
+         */
+        private final long failureCount;
+
+        /**
+         * The number of lookups which found a prefetched stream.
+         */
+        private final long hitCount;
+
+        /**
+         * The number of lookups which did not find a prefetched stream.
+         */
+        private final long missCount;
+
+        /**
+         * Returns the ratio of the hits to all lookups.
+         *
+         * @return hit ratio, or {@code 0} if nothing has been looked up
+         */
+        public double getHitRatio() {
+            long lookupCount = this.hitCount + this.missCount;
+            return lookupCount > 0 ? (double) this.hitCount / lookupCount : 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerStreamPayload;
+
+/**
+ * Resolves the stream which will be requested by {@code AudioPlayer.StreamRequested} after the playing one,
+ * e.g.) signing the URL of the next track in the playlist.
+ *
+ * @see AudioStreamPrefetcher
+ */
+@FunctionalInterface
+public interface NextStreamResolver {
+
+    /**
+     * Resolves the next stream of the user.
+     * <p>
+     * This is called from the prefetch threads, not from the request threads.
+     *
+     * @param userId  the user id
+     * @param playing the token and the offset of the playing stream
+     * @return the payload of {@code AudioPlayer.StreamDeliver} for the next stream, or {@code null} if there
+     *         is no next stream
+     */
+    AudioPlayerStreamPayload resolveNext(String userId, AudioPlayerPlaybackStatePayload playing);
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+import com.linecorp.clova.extension.boot.message.context.AudioPlayerContext.PlayerActivity;
+
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * The playback state of a user, kept by {@link PlaybackStateStore}.
+ */
+@Data
+public class PlaybackState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NonNull
+    private final String userId;
+
+    /**
+     * The token of the audio stream, or {@code null} if unknown.
+     */
+    private final String token;
+
+    /**
+     * The playback position, or {@code null} if unknown.
+     */
+    private final Long offsetInMilliseconds;
+
+    /**
+     * The state of the audio player, or {@code null} if unknown.
+     */
+    private final PlayerActivity playerActivity;
+
+    /**
+     * The time when the request was received.
+     */
+    @NonNull
+    private final OffsetDateTime timestamp;
+
+    /**
+     * Returns the latest of the states by the timestamp. The update wins if the timestamps are the same.
+     */
+    static PlaybackState latest(PlaybackState current, PlaybackState update) {
+        return update.timestamp.isBefore(current.timestamp) ? current : update;
+    }
+
+}
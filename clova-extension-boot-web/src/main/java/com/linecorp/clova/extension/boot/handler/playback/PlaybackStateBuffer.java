@@ -0,0 +1,309 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.PlaybackStateMapping;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
+import com.linecorp.clova.extension.boot.message.payload.Payload;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+import com.linecorp.clova.extension.boot.message.request.EventRequest;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffers the {@code AudioPlayer} events mapped to {@link PlaybackStateMapping @PlaybackStateMapping} Handlers.
+ * <p>
+ * The events of the same user, event name and token are coalesced into one {@link PlaybackStateUpdate},
+ * which has the latest state by the event timestamp, and the updates are passed to the Handlers periodically.
+ * The events without the user ID can't be told apart, so they are passed to the Handlers immediately without
+ * coalescing. The updates are kept only in memory, so the latest updates are lost if the process is killed.
+ */
+@Slf4j
+public class PlaybackStateBuffer implements BeanFactoryAware, InitializingBean, DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private static final String TOKEN_FIELD = "token";
+    private static final String OFFSET_FIELD = "offsetInMilliseconds";
+
+    private final Duration flushInterval;
+
+    @Setter
+    private BeanFactory beanFactory;
+
+    private Map<String, List<HandlerMethod>> handlerMethods = Collections.emptyMap();
+    private final ConcurrentMap<UpdateKey, PlaybackStateUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    private final LongAdder eventCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param flushInterval the interval to pass the updates to the Handlers
+     */
+    public PlaybackStateBuffer(@NonNull Duration flushInterval) {
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("flushInterval should be positive. flushInterval: "
+                                               + flushInterval);
+        }
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Finds the {@link PlaybackStateMapping @PlaybackStateMapping} Handlers, and starts flushing if found.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Map<String, List<HandlerMethod>> handlerMethods = new HashMap<>();
+        ((ListableBeanFactory) this.beanFactory).getBeansWithAnnotation(CEKRequestHandler.class)
+                                                .values()
+                                                .forEach(bean -> extractHandlerMethods(bean, handlerMethods));
+        if (handlerMethods.isEmpty()) {
+            return;
+        }
+        this.handlerMethods = handlerMethods;
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cek-playback-state-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, this.flushInterval.toMillis());
+        this.flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers the request if it is an event mapped to {@link PlaybackStateMapping @PlaybackStateMapping}
+     * Handlers.
+     *
+     * @param requestMessage {@link CEKRequestMessage}
+     * @return {@code true} if buffered, or {@code false} if the request should be processed as usual
+     */
+    public boolean offer(CEKRequestMessage requestMessage) {
+        if (this.handlerMethods.isEmpty() || !(requestMessage.getRequest() instanceof EventRequest)) {
+            return false;
+        }
+        EventRequest eventRequest = (EventRequest) requestMessage.getRequest();
+        String eventName = eventRequest.getName();
+        if (eventName == null || !this.handlerMethods.containsKey(eventName)) {
+            return false;
+        }
+        AudioPlayerPlaybackStatePayload payload = toPlaybackStatePayload(eventRequest.getEvent().getPayload());
+        if (payload == null) {
+            return false;
+        }
+
+        Session session = requestMessage.getSession();
+        String userId = session != null && session.getUser() != null ? session.getUser().getUserId() : null;
+        PlaybackStateUpdate update = new PlaybackStateUpdate(userId, eventName, payload,
+                                                             eventRequest.getTimestamp(), 1);
+        this.eventCount.increment();
+        if (userId == null) {
+            handle(update);
+            return true;
+        }
+        this.pendingUpdates.merge(new UpdateKey(userId, eventName, payload.getToken()), update,
+                                  PlaybackStateBuffer::coalesce);
+        return true;
+    }
+
+    /**
+     * Passes the buffered updates to the Handlers.
+     * <p>
+     * The errors thrown by the Handlers are logged, and the updates are not retried.
+     */
+    public void flush() {
+        for (UpdateKey key : this.pendingUpdates.keySet()) {
+            PlaybackStateUpdate update = this.pendingUpdates.remove(key);
+            if (update != null) {
+                handle(update);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of updates waiting for flushing.
+     *
+     * @return the number of updates
+     */
+    public int getPendingCount() {
+        return this.pendingUpdates.size();
+    }
+
+    /**
+     * Returns the metrics since this instance was created.
+     *
+     * @return {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        return new Metrics(this.eventCount.sum(), this.flushCount.sum(), this.failureCount.sum());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (this.flusher != null) {
+            this.flusher.shutdown();
+            this.flusher.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            flush();
+        }
+    }
+
+    private void handle(PlaybackStateUpdate update) {
+        for (HandlerMethod handlerMethod : this.handlerMethods.get(update.getEventName())) {
+            try {
+                ReflectionUtils.invokeMethod(handlerMethod.getMethod(), handlerMethod.getBean(), update);
+                this.flushCount.increment();
+            } catch (RuntimeException e) {
+                this.failureCount.increment();
+                log.warn("Failed to handle the playback state. update: {}", update, e);
+            }
+        }
+    }
+
+    static PlaybackStateUpdate coalesce(PlaybackStateUpdate previous, PlaybackStateUpdate update) {
+        PlaybackStateUpdate latest = update.isOlderThan(previous) ? previous : update;
+        int eventCount = previous.getEventCount() + update.getEventCount();
+        return new PlaybackStateUpdate(latest.getUserId(), latest.getEventName(), latest.getPayload(),
+                                       latest.getTimestamp(), eventCount);
+    }
+
+    /**
+     * Binds the payload without {@code ObjectMapper}.
+     *
+     * @return the payload, or {@code null} if it does not have the playback state
+     */
+    private static AudioPlayerPlaybackStatePayload toPlaybackStatePayload(Payload payload) {
+        if (payload instanceof AudioPlayerPlaybackStatePayload) {
+            return (AudioPlayerPlaybackStatePayload) payload;
+        }
+        if (!(payload instanceof Map)) {
+            return null;
+        }
+        Object token = ((Map<?, ?>) payload).get(TOKEN_FIELD);
+        Object offset = ((Map<?, ?>) payload).get(OFFSET_FIELD);
+        if (!(token instanceof String) || !(offset instanceof Number)) {
+            return null;
+        }
+        return AudioPlayerPlaybackStatePayload.builder()
+                                              .token((String) token)
+                                              .offsetInMilliseconds(((Number) offset).longValue())
+                                              .build();
+    }
+
+    private static void extractHandlerMethods(Object bean, Map<String, List<HandlerMethod>> handlerMethods) {
+        Class<?> beanType = ClassUtils.getUserClass(AopProxyUtils.ultimateTargetClass(bean));
+        ReflectionUtils.doWithMethods(beanType, method -> {
+            PlaybackStateMapping mapping = AnnotatedElementUtils.getMergedAnnotation(method,
+                                                                                    PlaybackStateMapping.class);
+            if (mapping == null) {
+                return;
+            }
+            if (method.getParameterCount() != 1 || method.getParameterTypes()[0] != PlaybackStateUpdate.class) {
+                throw new IllegalStateException("The playback state handler should take only one "
+                                                 + PlaybackStateUpdate.class.getSimpleName()
+                                                 + ". method: " + method);
+            }
+            if (Modifier.isPrivate(method.getModifiers())) {
+                throw new IllegalStateException("The playback state handler should not be private, since it is "
+                                                + "called on the proxy of the Handler. method: " + method);
+            }
+            // looked up on the target class, but called on the bean, which may be a proxy
+            Method invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+            ReflectionUtils.makeAccessible(invocableMethod);
+            for (String eventName : mapping.value()) {
+                handlerMethods.computeIfAbsent(eventName, name -> new ArrayList<>())
+                              .add(new HandlerMethod(bean, invocableMethod));
+            }
+            log.info("Mapped playback state events {} to {}", mapping.value(), method);
+        });
+    }
+
+    @Data
+    private static class HandlerMethod {
+
+        private final Object bean;
+        private final Method method;
+
+    }
+
+    @Data
+    private static class UpdateKey {
+
+        private final String userId;
+        private final String eventName;
+        private final String token;
+
+    }
+
+    /**
+     * Metrics of {@link PlaybackStateBuffer}.
+     */
+    @Data
+    public static class Metrics {
+
+        /**
+         * The number of buffered events.
+         */
+        private final long eventCount;
+
+        /**
+         * The number of updates passed to the Handlers.
+         */
+        private final long flushCount;
+
+        /**
+         * The number of updates for which the Handlers threw exceptions.
+         */
+        private final long failureCount;
+
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import java.util.List;
+
+/**
+ * Persists the playback states written behind by {@link PlaybackStateStore}.
+ * <p>
+ * The implementations should be thread-safe. {@link #persist(List)} is called from the flusher thread of
+ * {@link PlaybackStateStore}, and {@link #load(String)} is called from the request threads.
+ *
+ * @see AppendLogPlaybackStatePersister
+ */
+public interface PlaybackStatePersister {
+
+    /**
+     * Persists the latest states of the users.
+     * <p>
+     * The states are retried at the next flush if this throws an exception, so this should be idempotent.
+     *
+     * @param states the states, one per user
+     */
+    void persist(List<PlaybackState> states);
+
+    /**
+     * Loads the persisted state of the user.
+     *
+     * @param userId the user id
+     * @return the state, or {@code null} if not persisted
+     */
+    PlaybackState load(String userId);
+
+}
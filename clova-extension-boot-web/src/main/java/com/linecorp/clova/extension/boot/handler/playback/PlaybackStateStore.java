@@ -0,0 +1,306 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.linecorp.clova.extension.boot.message.context.AudioPlayerContext.PlayerActivity;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
+import com.linecorp.clova.extension.boot.message.payload.Payload;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+import com.linecorp.clova.extension.boot.message.request.EventRequest;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the latest {@link PlaybackState} of each user in memory, and writes them behind to a
+ * {@link PlaybackStatePersister}.
+ * <p>
+ * The state is recorded from {@code AudioPlayer} in the context and the payload of {@code AudioPlayer} events
+ * for every request, and the latest one by the time when the request is received wins. The timestamps of the
+ * events are not used, as they come from the clocks of the devices and are not comparable to the server time
+ * of the other requests. Only the latest state of each user is written at the flush, and a failed write is retried
+ * at the next flush. The states not flushed yet are lost if the process crashes.
+ * <p>
+ * The states are kept in a {@link ConcurrentHashMap}, so recording the states of different users does not
+ * contend. When the map exceeds the maximum size, the flushed states are removed and loaded again from the
+ * persister on demand.
+ */
+@Slf4j
+public class PlaybackStateStore implements DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private static final String AUDIO_PLAYER_CONTEXT = "AudioPlayer";
+    private static final String AUDIO_PLAYER_NAMESPACE = "AudioPlayer";
+    private static final String TOKEN_FIELD = "token";
+    private static final String OFFSET_FIELD = "offsetInMilliseconds";
+    private static final String PLAYER_ACTIVITY_FIELD = "playerActivity";
+    private static final String STREAM_FIELD = "stream";
+
+    private static final Map<String, PlayerActivity> EVENT_PLAYER_ACTIVITIES;
+
+    static {
+        Map<String, PlayerActivity> activities = new HashMap<>();
+        activities.put("AudioPlayer.PlayStarted", PlayerActivity.PLAYING);
+        activities.put("AudioPlayer.PlayResumed", PlayerActivity.PLAYING);
+        activities.put("AudioPlayer.ProgressReportDelayPassed", PlayerActivity.PLAYING);
+        activities.put("AudioPlayer.ProgressReportIntervalPassed", PlayerActivity.PLAYING);
+        activities.put("AudioPlayer.ProgressReportPositionPassed", PlayerActivity.PLAYING);
+        activities.put("AudioPlayer.PlayPaused", PlayerActivity.PAUSED);
+        activities.put("AudioPlayer.PlayStopped", PlayerActivity.STOPPED);
+        activities.put("AudioPlayer.PlayFinished", PlayerActivity.STOPPED);
+        EVENT_PLAYER_ACTIVITIES = Collections.unmodifiableMap(activities);
+    }
+
+    private final PlaybackStatePersister persister;
+    private final int maximumSize;
+    private final Clock clock;
+    private final ConcurrentMap<String, PlaybackState> states = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PlaybackState> pendingWrites = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param persister     {@link PlaybackStatePersister}
+     * @param maximumSize   the number of states kept in memory, which may be exceeded by the states not
+     *                      flushed yet
+     * @param flushInterval interval of writing the states to the persister, or zero to write them
+     *                      synchronously
+     */
+    public PlaybackStateStore(PlaybackStatePersister persister, int maximumSize, Duration flushInterval) {
+        this(persister, maximumSize, flushInterval, Clock.systemUTC());
+    }
+
+    PlaybackStateStore(@NonNull PlaybackStatePersister persister, int maximumSize,
+                       @NonNull Duration flushInterval, @NonNull Clock clock) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize should be positive. maximumSize: " + maximumSize);
+        }
+        if (flushInterval.isNegative()) {
+            throw new IllegalArgumentException("flushInterval should not be negative.");
+        }
+        this.persister = persister;
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+
+        if (flushInterval.isZero()) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cek-playback-state-store-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(1, flushInterval.toMillis());
+            this.flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis,
+                                                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the latest state of the user, loading it from the persister if not in memory.
+     *
+     * @param userId the user id
+     * @return the state, or {@code null} if unknown
+     */
+    public PlaybackState get(@NonNull String userId) {
+        PlaybackState state = this.states.get(userId);
+        if (state != null) {
+            return state;
+        }
+        PlaybackState loaded = this.persister.load(userId);
+        if (loaded == null) {
+            return null;
+        }
+        // a state recorded while loading wins if it is newer
+        return this.states.merge(userId, loaded, PlaybackState::latest);
+    }
+
+    /**
+     * Records the state of the user from the request, if the request has it.
+     *
+     * @param requestMessage {@link CEKRequestMessage}
+     */
+    public void record(CEKRequestMessage requestMessage) {
+        Session session = requestMessage.getSession();
+        String userId = session != null && session.getUser() != null ? session.getUser().getUserId() : null;
+        if (userId == null) {
+            return;
+        }
+        PlaybackState state = extractState(userId, requestMessage);
+        if (state != null) {
+            update(state);
+        }
+    }
+
+    /**
+     * Updates the state of the user, unless the current one is newer.
+     *
+     * @param state the state
+     */
+    public void update(@NonNull PlaybackState state) {
+        if (this.states.merge(state.getUserId(), state, PlaybackState::latest) != state) {
+            return;
+        }
+        if (this.flusher != null) {
+            this.pendingWrites.merge(state.getUserId(), state, PlaybackState::latest);
+        } else {
+            this.persister.persist(Collections.singletonList(state));
+        }
+    }
+
+    /**
+     * Writes the pending states to the persister in a batch.
+     * <p>
+     * This is called periodically in the background, and can be called to write the states immediately.
+     */
+    public void flush() {
+        if (!this.pendingWrites.isEmpty()) {
+            List<PlaybackState> batch = new ArrayList<>(this.pendingWrites.values());
+            try {
+                this.persister.persist(batch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} playback states, which will be retried.", batch.size(), e);
+                return;
+            }
+            // keeps a newer state recorded while writing
+            batch.forEach(state -> this.pendingWrites.remove(state.getUserId(), state));
+        }
+        evictFlushedStates();
+    }
+
+    /**
+     * Returns the number of users whose states are not written to the persister yet.
+     *
+     * @return the number of pending states
+     */
+    public int getPendingWriteCount() {
+        return this.pendingWrites.size();
+    }
+
+    /**
+     * Returns the number of states kept in memory.
+     *
+     * @return the number of states
+     */
+    public int size() {
+        return this.states.size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (this.flusher != null) {
+            this.flusher.shutdown();
+            this.flusher.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            flush();
+        }
+    }
+
+    private void evictFlushedStates() {
+        int excess = this.states.size() - this.maximumSize;
+        for (Map.Entry<String, PlaybackState> entry : this.states.entrySet()) {
+            if (excess <= 0) {
+                return;
+            }
+            // a state recorded after the check is not removed, because the value is compared
+            if (!this.pendingWrites.containsKey(entry.getKey())
+                && this.states.remove(entry.getKey(), entry.getValue())) {
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Extracts the state from the payload of {@code AudioPlayer} events, or from {@code AudioPlayer} in the
+     * context.
+     */
+    private PlaybackState extractState(String userId, CEKRequestMessage requestMessage) {
+        OffsetDateTime timestamp = OffsetDateTime.now(this.clock);
+        Map<?, ?> audioPlayer = asMap(requestMessage.getContext() != null
+                                      ? requestMessage.getContext().get(AUDIO_PLAYER_CONTEXT)
+                                      : null);
+        PlayerActivity contextActivity = toPlayerActivity(audioPlayer.get(PLAYER_ACTIVITY_FIELD));
+
+        if (requestMessage.getRequest() instanceof EventRequest) {
+            EventRequest eventRequest = (EventRequest) requestMessage.getRequest();
+            EventRequest.Event event = eventRequest.getEvent();
+            Payload payload = event != null ? event.getPayload() : null;
+            Object token;
+            Long offset;
+            if (payload instanceof AudioPlayerPlaybackStatePayload) {
+                // deserialized directly when a handler takes the typed payload
+                token = ((AudioPlayerPlaybackStatePayload) payload).getToken();
+                offset = ((AudioPlayerPlaybackStatePayload) payload).getOffsetInMilliseconds();
+            } else {
+                token = asMap(payload).get(TOKEN_FIELD);
+                offset = toLong(asMap(payload).get(OFFSET_FIELD));
+            }
+            if (AUDIO_PLAYER_NAMESPACE.equals(event != null ? event.getNamespace() : null)
+                && token instanceof String) {
+                return new PlaybackState(userId, (String) token, offset,
+                                         EVENT_PLAYER_ACTIVITIES.getOrDefault(eventRequest.getName(),
+                                                                              contextActivity),
+                                         timestamp);
+            }
+        }
+
+        if (contextActivity == null) {
+            return null;
+        }
+        Object token = asMap(audioPlayer.get(STREAM_FIELD)).get(TOKEN_FIELD);
+        return new PlaybackState(userId, token instanceof String ? (String) token : null,
+                                 toLong(audioPlayer.get(OFFSET_FIELD)), contextActivity, timestamp);
+    }
+
+    private static Map<?, ?> asMap(Object value) {
+        return value instanceof Map ? (Map<?, ?>) value : Collections.emptyMap();
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static PlayerActivity toPlayerActivity(Object value) {
+        if (!(value instanceof String)) {
+            return null;
+        }
+        try {
+            return PlayerActivity.valueOf((String) value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.PlaybackStateMapping;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
+
+import lombok.Data;
+
+/**
+ * The latest playback state of a user and a token, passed to {@link PlaybackStateMapping @PlaybackStateMapping}
+ * Handlers.
+ */
+@Data
+public class PlaybackStateUpdate implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String userId;
+
+    /**
+     * The name of the latest event, e.g.) {@code AudioPlayer.PlayPaused}.
+     */
+    private final String eventName;
+
+    private final AudioPlayerPlaybackStatePayload payload;
+
+    /**
+     * The timestamp of the latest event, or {@code null} if the event does not have it.
+     */
+    private final OffsetDateTime timestamp;
+
+    /**
+     * The number of events coalesced into this update.
+     */
+    private final int eventCount;
+
+    boolean isOlderThan(PlaybackStateUpdate other) {
+        return this.timestamp != null && other.timestamp != null && this.timestamp.isBefore(other.timestamp);
+    }
+
+}
@@ -61,6 +61,10 @@ public class CEKEventPayloadArgumentResolver extends CEKRequestHandlerArgumentRe
         EventRequest eventRequest = (EventRequest) requestMessage.getRequest();
 
         Payload payload = eventRequest.getEvent().getPayload();
+        if (methodParam.getParameterType().isInstance(payload)) {
+            // already deserialized into the registered type
+            return payload;
+        }
         return convertValue(payload, methodParam);
     }
 
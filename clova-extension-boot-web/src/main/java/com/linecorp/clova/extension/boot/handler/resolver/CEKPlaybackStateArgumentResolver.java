@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.resolver;
+
+import org.springframework.core.MethodParameter;
+
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackState;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateStore;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link CEKRequestHandlerArgumentResolver} for the current {@link PlaybackState} of the requesting user.
+ * <p>
+ * The state includes the one recorded from the current request. It is {@code null} if the user has never
+ * played audio.
+ */
+@RequiredArgsConstructor
+public class CEKPlaybackStateArgumentResolver implements CEKRequestHandlerArgumentResolver {
+
+    @NonNull
+    private final PlaybackStateStore playbackStateStore;
+
+    @Override
+    public boolean supports(MethodParameter methodParam) {
+        return methodParam.getParameterType() == PlaybackState.class;
+    }
+
+    @Override
+    public Object resolve(MethodParameter methodParam, CEKRequestMessage requestMessage) {
+        Session session = requestMessage.getSession();
+        if (session == null || session.getUser() == null || session.getUser().getUserId() == null) {
+            return null;
+        }
+        return this.playbackStateStore.get(session.getUser().getUserId());
+    }
+
+}
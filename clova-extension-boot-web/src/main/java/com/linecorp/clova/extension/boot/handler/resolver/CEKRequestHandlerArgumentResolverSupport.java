@@ -18,11 +18,13 @@ package com.linecorp.clova.extension.boot.handler.resolver;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
@@ -38,6 +40,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linecorp.clova.extension.boot.exception.InvalidApplicationParameterException;
 import com.linecorp.clova.extension.boot.exception.MissingRequiredParamException;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestParam;
+import com.linecorp.clova.extension.boot.util.ConversionMemo;
 import com.linecorp.clova.extension.boot.util.RequestUtils;
 import com.linecorp.clova.extension.boot.util.StringUtils;
 
@@ -235,6 +238,8 @@ public abstract class CEKRequestHandlerArgumentResolverSupport implements CEKReq
 
     /**
      * Converts the object to the specified method parameter type using {@link ObjectMapper}.
+     * <p>
+     * The converted value is shared within the request through {@link ConversionMemo}.
      *
      * @param object      a value to convert
      * @param methodParam to convert the {@code object} to this method parameter type
@@ -242,8 +247,8 @@ public abstract class CEKRequestHandlerArgumentResolverSupport implements CEKReq
      */
     protected Object convertValue(Object object, MethodParameter methodParam) {
         try {
-            return objectMapper.convertValue(object, objectMapper.getTypeFactory().constructType(
-                    methodParam.getGenericParameterType()));
+            return ConversionMemo.current().convert(objectMapper, object, objectMapper.getTypeFactory()
+                    .constructType(methodParam.getGenericParameterType()));
         } catch (Exception e) {
             throw new InvalidApplicationParameterException(
                     "Failed to mapping. [" + object + " -> " + StringUtils.methodParamToString(methodParam)
@@ -269,8 +274,8 @@ public abstract class CEKRequestHandlerArgumentResolverSupport implements CEKReq
         return (Map<String, V>) camelConvertedMap.computeIfAbsent(
                 paramsWithName.getParamsName(),
                 name -> {
-                    Map<String, V> newParams = new HashMap<>(params);
-                    params.forEach((key, value) -> {
+                    Map<String, String> camelAliases = new HashMap<>();
+                    params.keySet().forEach(key -> {
                         CAMEL_CONVERTERS_BY_CONDITION
                                 .entrySet().stream()
                                 .filter(converterWithCondition -> converterWithCondition.getKey()
@@ -278,12 +283,45 @@ public abstract class CEKRequestHandlerArgumentResolverSupport implements CEKReq
                                 .findFirst()
                                 .map(converterWithCondition -> converterWithCondition.getValue()
                                                                                      .apply(key))
-                                .ifPresent(camelKey -> newParams.put(camelKey, value));
+                                .ifPresent(camelKey -> camelAliases.put(camelKey, key));
                     });
-                    return newParams;
+                    return camelAliases.isEmpty() ? params : new CamelAliasedMap<>(params, camelAliases);
                 });
     }
 
+    /**
+     * Read-only view of parameters which can be accessed also by camel case names.
+     * <p>
+     * Values are not copied, so that lazily deserialized parameters are not deserialized until they are
+     * accessed.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class CamelAliasedMap<V> extends AbstractMap<String, V> {
+
+        private final Map<String, V> params;
+        private final Map<String, String> camelAliases;
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.camelAliases.containsKey(key) || this.params.containsKey(key);
+        }
+
+        @Override
+        public V get(Object key) {
+            String originalKey = this.camelAliases.get(key);
+            return this.params.get(originalKey != null ? originalKey : key);
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            Map<String, V> merged = new HashMap<>(this.params);
+            this.camelAliases.forEach((camelKey, originalKey) -> merged.put(camelKey,
+                                                                            this.params.get(originalKey)));
+            return Collections.unmodifiableMap(merged).entrySet();
+        }
+
+    }
+
     /**
      * A functional interface for access the value to extract.
      *
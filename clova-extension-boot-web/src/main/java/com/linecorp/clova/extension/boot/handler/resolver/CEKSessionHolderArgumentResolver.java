@@ -26,17 +26,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.linecorp.clova.extension.boot.exception.UnsupportedHandlerArgumentException;
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
 import com.linecorp.clova.extension.boot.session.SessionHolder;
 
-import lombok.RequiredArgsConstructor;
-
 /**
  * {@link CEKRequestHandlerArgumentResolver} for {@link SessionHolder}.
  */
-@RequiredArgsConstructor
 public class CEKSessionHolderArgumentResolver implements CEKRequestHandlerArgumentResolver {
 
     private final ObjectMapper objectMapper;
+    private final SessionAttributesExternalizer externalizer;
+
+    public CEKSessionHolderArgumentResolver(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    /**
+     * Constructs a new instance whose {@link SessionHolder} externalizes session attributes.
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @param externalizer {@link SessionAttributesExternalizer}, or {@code null} not to externalize session
+     *                     attributes
+     */
+    public CEKSessionHolderArgumentResolver(ObjectMapper objectMapper,
+                                            SessionAttributesExternalizer externalizer) {
+        this.objectMapper = objectMapper;
+        this.externalizer = externalizer;
+    }
 
     @Override
     public boolean supports(MethodParameter methodParam) {
@@ -54,7 +70,7 @@ public class CEKSessionHolderArgumentResolver implements CEKRequestHandlerArgume
 
     @Override
     public Object resolve(MethodParameter methodParam, CEKRequestMessage requestMessage) {
-        return new SessionHolder(objectMapper, requestMessage.getSession());
+        return new SessionHolder(objectMapper, requestMessage.getSession(), externalizer);
     }
 
 }
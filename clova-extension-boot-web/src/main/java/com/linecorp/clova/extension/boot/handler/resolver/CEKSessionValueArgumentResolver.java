@@ -16,13 +16,29 @@
 
 package com.linecorp.clova.extension.boot.handler.resolver;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.core.MethodParameter;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.linecorp.clova.extension.boot.exception.InvalidApplicationParameterException;
 import com.linecorp.clova.extension.boot.exception.MissingSessionAttributeException;
 import com.linecorp.clova.extension.boot.handler.annnotation.SessionValue;
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.RawSessionAttributes;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
+import com.linecorp.clova.extension.boot.util.ConversionMemo;
+import com.linecorp.clova.extension.boot.util.StringUtils;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
 
 /**
  * {@link CEKRequestHandlerArgumentResolver} for extracting a session attribute value.
@@ -30,9 +46,25 @@ import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
 public class CEKSessionValueArgumentResolver extends CEKRequestHandlerArgumentResolverSupport {
 
     private static final String PARAMS_NAME = "session_attributes";
+    private static final String NULL_JSON = "null";
+
+    private final SessionAttributesExternalizer externalizer;
 
     public CEKSessionValueArgumentResolver(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    /**
+     * Constructs a new instance which reads also the externalized attributes.
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @param externalizer {@link SessionAttributesExternalizer}, or {@code null} if session attributes are not
+     *                     externalized
+     */
+    public CEKSessionValueArgumentResolver(ObjectMapper objectMapper,
+                                           SessionAttributesExternalizer externalizer) {
         super(objectMapper);
+        this.externalizer = externalizer;
     }
 
     @Override
@@ -42,7 +74,140 @@ public class CEKSessionValueArgumentResolver extends CEKRequestHandlerArgumentRe
 
     @Override
     public Object resolve(MethodParameter methodParam, CEKRequestMessage requestMessage) {
-        return extractAndConvertMethodParam(PARAMS_NAME, requestMessage.getSession().getSessionAttributes(),
+        Map<String, Object> sessionAttributes = requestMessage.getSession().getSessionAttributes();
+        Map<String, Object> externalized =
+                this.externalizer != null && sessionAttributes != null
+                && sessionAttributes.containsKey(this.externalizer.getAttributeName())
+                ? this.externalizer.read(requestMessage.getSession())
+                : null;
+        if (sessionAttributes instanceof RawSessionAttributes || externalized != null) {
+            // reads the received JSON, so that the attributes are still written back as they were received
+            String externalizerAttributeName = this.externalizer != null ? this.externalizer.getAttributeName()
+                                                                         : null;
+            sessionAttributes = new SessionAttributesView(sessionAttributes, externalized,
+                                                          externalizerAttributeName);
+        }
+        return extractAndConvertMethodParam(PARAMS_NAME, sessionAttributes,
                                             methodParam, MissingSessionAttributeException::new);
     }
+
+    @Override
+    protected Object convertValue(Object object, MethodParameter methodParam) {
+        if (!(object instanceof RawAttribute)) {
+            return super.convertValue(object, methodParam);
+        }
+        // reads the received JSON directly, memorized by the same key as SessionHolder does
+        RawAttribute attribute = (RawAttribute) object;
+        JavaType type = getObjectMapper().getTypeFactory().constructType(methodParam.getGenericParameterType());
+        try {
+            return ConversionMemo.current().computeIfAbsent(
+                    attribute.rawValue, type, () -> attribute.attributes.readValue(attribute.name, type));
+        } catch (Exception e) {
+            throw new InvalidApplicationParameterException(
+                    "Failed to mapping. [" + attribute.rawValue + " -> "
+                    + StringUtils.methodParamToString(methodParam) + "]", e);
+        }
+    }
+
+    /**
+     * An attribute of {@link RawSessionAttributes} which has not been deserialized.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class RawAttribute {
+
+        private final RawSessionAttributes attributes;
+        private final String name;
+        private final String rawValue;
+
+    }
+
+    /**
+     * Read-only view of session attributes whose values are read for each access.
+     * <p>
+     * Values of {@link RawSessionAttributes} are read as JSON trees, and the externalized attributes are used
+     * for the names which are not in the session attributes.
+     */
+    private static final class SessionAttributesView extends AbstractMap<String, Object> {
+
+        private final Map<String, Object> sessionAttributes;
+        private final Map<String, Object> externalized;
+        private final String externalizerAttributeName;
+        private Set<String> names;
+
+        private SessionAttributesView(Map<String, Object> sessionAttributes, Map<String, Object> externalized,
+                                      String externalizerAttributeName) {
+            this.sessionAttributes = sessionAttributes;
+            this.externalized = externalized;
+            this.externalizerAttributeName = externalizerAttributeName;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return keySet().contains(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (!(key instanceof String) || key.equals(this.externalizerAttributeName)) {
+                return null;
+            }
+            if (this.externalized != null && this.externalized.containsKey(key)
+                && !this.sessionAttributes.containsKey(key)) {
+                return this.externalized.get(key);
+            }
+            if (this.sessionAttributes instanceof RawSessionAttributes) {
+                RawSessionAttributes rawAttributes = (RawSessionAttributes) this.sessionAttributes;
+                if (rawAttributes.isMaterialized((String) key)) {
+                    return rawAttributes.readTree((String) key);
+                }
+                String rawValue = rawAttributes.getRawValue((String) key);
+                return rawValue != null && !NULL_JSON.equals(rawValue)
+                       ? new RawAttribute(rawAttributes, (String) key, rawValue)
+                       : null;
+            }
+            return this.sessionAttributes.get(key);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            if (this.names == null) {
+                Set<String> allNames = new LinkedHashSet<>(this.sessionAttributes.keySet());
+                allNames.remove(this.externalizerAttributeName);
+                if (this.externalized != null) {
+                    allNames.addAll(this.externalized.keySet());
+                }
+                this.names = allNames;
+            }
+            return this.names;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<String> names = keySet().iterator();
+                    return new Iterator<Entry<String, Object>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            String name = names.next();
+                            return new SimpleImmutableEntry<>(name, get(name));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keySet().size();
+                }
+            };
+        }
+
+    }
+
 }
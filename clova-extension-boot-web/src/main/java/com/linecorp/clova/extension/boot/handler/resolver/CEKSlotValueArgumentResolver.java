@@ -18,7 +18,9 @@ package com.linecorp.clova.extension.boot.handler.resolver;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
@@ -34,6 +36,9 @@ import com.linecorp.clova.extension.boot.exception.MissingSlotException;
 import com.linecorp.clova.extension.boot.exception.UnsupportedHandlerArgumentException;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestMapping;
 import com.linecorp.clova.extension.boot.handler.annnotation.SlotValue;
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotDictionaries;
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotDictionary;
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotEntity;
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
 import com.linecorp.clova.extension.boot.message.request.DefaultSlotValueUnit;
 import com.linecorp.clova.extension.boot.message.request.IntentRequest;
@@ -41,17 +46,36 @@ import com.linecorp.clova.extension.boot.message.request.RequestType;
 import com.linecorp.clova.extension.boot.message.request.Slot;
 import com.linecorp.clova.extension.boot.message.request.SlotValueType;
 import com.linecorp.clova.extension.boot.message.request.SlotValueUnit;
+import com.linecorp.clova.extension.boot.util.ConversionMemo;
 import com.linecorp.clova.extension.boot.util.StringUtils;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * {@link CEKRequestHandlerArgumentResolver} for extracting a slot value.
+ * <p>
+ * A slot value with {@link SlotValue#dictionary()} is looked up in the {@link SlotDictionaries}. The
+ * dictionary is resolved when the Handler is mapped. If it is not defined, a warning is logged, and the
+ * Handler fails with {@link InvalidApplicationParameterException} when it is called.
  */
+@Slf4j
 public class CEKSlotValueArgumentResolver extends CEKRequestHandlerArgumentResolverSupport {
 
     private static final String PARAMS_NAME = "slots";
 
+    @Nullable
+    private final SlotDictionaries slotDictionaries;
+    private final Map<MethodParameter, DictionaryBinding> dictionaryBindings = new ConcurrentHashMap<>();
+
     public CEKSlotValueArgumentResolver(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    public CEKSlotValueArgumentResolver(ObjectMapper objectMapper,
+                                        @Nullable SlotDictionaries slotDictionaries) {
         super(objectMapper);
+        this.slotDictionaries = slotDictionaries;
     }
 
     @Override
@@ -67,6 +91,10 @@ public class CEKSlotValueArgumentResolver extends CEKRequestHandlerArgumentResol
                 throw new UnsupportedHandlerArgumentException(methodParam,
                                                               "Only Intent Handler can handle slot value.");
             }
+            String dictionaryName = dictionaryNameOf(methodParam);
+            if (dictionaryName != null) {
+                this.dictionaryBindings.put(methodParam, bindDictionary(methodParam, dictionaryName));
+            }
             return true;
         }
         return false;
@@ -87,6 +115,10 @@ public class CEKSlotValueArgumentResolver extends CEKRequestHandlerArgumentResol
     @SuppressWarnings({ "rawTypes", "unchecked" })
     protected Object convertValue(Object object, MethodParameter methodParam) {
         Slot slot = (Slot) object;
+        DictionaryBinding dictionaryBinding = this.dictionaryBindings.get(methodParam);
+        if (dictionaryBinding != null) {
+            return lookUpDictionary(slot, dictionaryBinding, methodParam);
+        }
         SlotValueType slotValueType = slot.getValueType();
 
         try {
@@ -144,12 +176,62 @@ public class CEKSlotValueArgumentResolver extends CEKRequestHandlerArgumentResol
         }
     }
 
+    private DictionaryBinding bindDictionary(MethodParameter methodParam, String dictionaryName) {
+        if (!canConvert(SlotEntity.class, methodParam) && !canConvert(String.class, methodParam)) {
+            throw new UnsupportedHandlerArgumentException(
+                    methodParam, "The slot value with dictionary should be SlotEntity or String.");
+        }
+        SlotDictionary dictionary = this.slotDictionaries != null ? this.slotDictionaries.get(dictionaryName)
+                                                                  : null;
+        if (dictionary == null) {
+            log.warn("Unknown slot dictionary: {}, the Handler fails when it is called. method parameter: {}",
+                     dictionaryName, StringUtils.methodParamToString(methodParam));
+        }
+        return new DictionaryBinding(dictionaryName, dictionary);
+    }
+
+    private Object lookUpDictionary(Slot<?> slot, DictionaryBinding dictionaryBinding,
+                                    MethodParameter methodParam) {
+        String dictionaryName = dictionaryBinding.name;
+        SlotDictionary dictionary = dictionaryBinding.dictionary;
+        if (dictionary == null) {
+            throw new InvalidApplicationParameterException(
+                    "Unknown slot dictionary: " + dictionaryName + ". ["
+                    + StringUtils.methodParamToString(methodParam) + "]");
+        }
+        SlotEntity entity = slot.getValue() != null ? dictionary.lookup(slot.getValue().toString()) : null;
+        boolean optional = methodParam.getParameterType() == Optional.class;
+        if (entity == null) {
+            if (optional) {
+                return Optional.empty();
+            }
+            SlotValue slotValue = methodParam.getParameterAnnotation(SlotValue.class);
+            if (slotValue != null && !slotValue.required()) {
+                return null;
+            }
+            throw new InvalidSlotException(slot, methodParam, new IllegalArgumentException(
+                    "No entry matches in the slot dictionary: " + dictionaryName));
+        }
+        Object value = canConvert(SlotEntity.class, methodParam) ? entity : entity.getValue();
+        return optional ? Optional.of(value) : value;
+    }
+
     private Object doConvertValue(Object value, MethodParameter methodParam) {
         return doConvertValue(value, methodParam.getGenericParameterType());
     }
 
     private Object doConvertValue(Object value, Type type) {
-        return getObjectMapper().convertValue(value, getObjectMapper().getTypeFactory().constructType(type));
+        return ConversionMemo.current().convert(getObjectMapper(), value,
+                                                getObjectMapper().getTypeFactory().constructType(type));
+    }
+
+    @Nullable
+    private static String dictionaryNameOf(MethodParameter methodParam) {
+        SlotValue slotValue = methodParam.getParameterAnnotation(SlotValue.class);
+        if (slotValue == null || StringUtils.isBlank(slotValue.dictionary())) {
+            return null;
+        }
+        return slotValue.dictionary();
     }
 
     @Nullable
@@ -195,4 +277,13 @@ public class CEKSlotValueArgumentResolver extends CEKRequestHandlerArgumentResol
         }
         return slotValueType;
     }
+
+    @RequiredArgsConstructor
+    private static final class DictionaryBinding {
+
+        private final String name;
+        @Nullable
+        private final SlotDictionary dictionary;
+
+    }
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.catalog;
+
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.ART_IMAGE_URL;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.AUDIO_ITEM_FIELDS;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.AUDIO_ITEM_ID;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.BEGIN_AT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.CUSTOM_DATA;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.DURATION;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.HEADER_TEXT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT_DELAY;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT_INTERVAL;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT_POSITION;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.STREAM;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TITLE_SUB_TEXT1;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TITLE_SUB_TEXT2;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TITLE_TEXT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TOKEN;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.URL;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.URL_PLAYABLE;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.URL_PLAYABLE_TRUE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.linecorp.clova.extension.boot.message.model.AudioItem;
+import com.linecorp.clova.extension.boot.message.model.AudioStreamInfoObject;
+import com.linecorp.clova.extension.boot.message.model.ProgressReport;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * An immutable catalog of {@link AudioItem}s and {@link AudioStreamInfoObject}s, memory-mapped from a file
+ * built by {@link AudioCatalogWriter}.
+ * <p>
+ * The records are kept outside of the heap, and a lookup reads only the index and the found record from the
+ * mapped file, materializing the objects on demand. The mapping is released when this instance is garbage
+ * collected, so this does not need to be closed, and the lookups in progress are not affected by
+ * {@link SwappableAudioCatalog#swap(Path)}.
+ * <p>
+ * This is thread-safe.
+ */
+public final class AudioCatalog {
+
+    @Getter
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int indexOffset;
+
+    private AudioCatalog(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < AudioCatalogFormat.HEADER_SIZE
+            || buffer.getInt(0) != AudioCatalogFormat.MAGIC) {
+            throw new IllegalArgumentException("Not an audio catalog. path: " + path);
+        }
+        if (buffer.getInt(4) != AudioCatalogFormat.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported format version: " + buffer.getInt(4)
+                                               + ", path: " + path);
+        }
+        this.count = buffer.getInt(8);
+        long indexOffset = buffer.getLong(16);
+        if (indexOffset + (long) this.count * AudioCatalogFormat.INDEX_ENTRY_SIZE != buffer.capacity()) {
+            throw new IllegalArgumentException("The audio catalog is broken. path: " + path);
+        }
+        this.indexOffset = (int) indexOffset;
+    }
+
+    /**
+     * Maps the catalog file into memory.
+     *
+     * @param path the catalog file built by {@link AudioCatalogWriter}
+     * @return {@link AudioCatalog}
+     * @throws IOException              if failed to map the file
+     * @throws IllegalArgumentException if the file is not a catalog
+     */
+    public static AudioCatalog open(@NonNull Path path) throws IOException {
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The audio catalog should be smaller than 2 GiB. path: "
+                                                   + path);
+            }
+            return new AudioCatalog(path, channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Finds the {@link AudioItem} added by {@link AudioCatalogWriter#add(String, AudioItem)}.
+     *
+     * @param key the key
+     * @return a new {@link AudioItem}, or {@code null} if not found
+     */
+    public AudioItem findAudioItem(@NonNull String key) {
+        RecordReader reader = findRecord(key);
+        if (reader == null) {
+            return null;
+        }
+        int flags = reader.readFlags();
+        if ((flags & AUDIO_ITEM_FIELDS) == 0) {
+            return null;
+        }
+        return AudioItem.builder()
+                        .audioItemId(reader.readString(flags, AUDIO_ITEM_ID))
+                        .artImageUrl(reader.readString(flags, ART_IMAGE_URL))
+                        .headerText(reader.readString(flags, HEADER_TEXT))
+                        .titleSubText1(reader.readString(flags, TITLE_SUB_TEXT1))
+                        .titleSubText2(reader.readString(flags, TITLE_SUB_TEXT2))
+                        .titleText(reader.readString(flags, TITLE_TEXT))
+                        .stream(readStream(reader, flags))
+                        .build();
+    }
+
+    /**
+     * Finds the {@link AudioStreamInfoObject}, skipping the other fields of {@link AudioItem}.
+     *
+     * @param key the key
+     * @return a new {@link AudioStreamInfoObject}, or {@code null} if not found
+     */
+    public AudioStreamInfoObject findStream(@NonNull String key) {
+        RecordReader reader = findRecord(key);
+        if (reader == null) {
+            return null;
+        }
+        int flags = reader.readFlags();
+        for (int flag : new int[] { AUDIO_ITEM_ID, ART_IMAGE_URL, HEADER_TEXT, TITLE_SUB_TEXT1, TITLE_SUB_TEXT2,
+                                    TITLE_TEXT }) {
+            reader.skipString(flags, flag);
+        }
+        return readStream(reader, flags);
+    }
+
+    /**
+     * Returns whether the catalog has the key.
+     *
+     * @param key the key
+     * @return {@code true} if found
+     */
+    public boolean contains(@NonNull String key) {
+        return findRecord(key) != null;
+    }
+
+    /**
+     * Returns the number of the records.
+     *
+     * @return the number of the records
+     */
+    public int size() {
+        return this.count;
+    }
+
+    private static AudioStreamInfoObject readStream(RecordReader reader, int flags) {
+        if ((flags & STREAM) == 0) {
+            return null;
+        }
+        AudioStreamInfoObject.AudioStreamInfoObjectBuilder builder =
+                AudioStreamInfoObject.builder()
+                                     .beginAtInMilliseconds(reader.readLong(flags, BEGIN_AT))
+                                     .durationInMilliseconds(reader.readLong(flags, DURATION));
+        if ((flags & PROGRESS_REPORT) != 0) {
+            Long delay = reader.readLong(flags, PROGRESS_REPORT_DELAY);
+            Long interval = reader.readLong(flags, PROGRESS_REPORT_INTERVAL);
+            Long position = reader.readLong(flags, PROGRESS_REPORT_POSITION);
+            builder.progressReport(ProgressReport.builder()
+                                                 .delayInMilliseconds(delay)
+                                                 .intervalInMilliseconds(interval)
+                                                 .positionInMilliseconds(position)
+                                                 .build());
+        }
+        return builder.token(reader.readString(flags, TOKEN))
+                      .url(reader.readString(flags, URL))
+                      .urlPlayable((flags & URL_PLAYABLE) != 0 ? (flags & URL_PLAYABLE_TRUE) != 0 : null)
+                      .customData(reader.readString(flags, CUSTOM_DATA))
+                      .build();
+    }
+
+    /**
+     * Finds the record by binary search of the index, comparing the keys without decoding.
+     *
+     * @return {@link RecordReader} positioned after the key, or {@code null} if not found
+     */
+    private RecordReader findRecord(String key) {
+        int hash = key.hashCode();
+        int low = 0;
+        int high = this.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyHashAt(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        byte[] keyBytes = null;
+        for (int i = low; i < this.count && keyHashAt(i) == hash; i++) {
+            if (keyBytes == null) {
+                keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            }
+            RecordReader reader = new RecordReader(this.buffer, recordOffsetAt(i));
+            if (reader.matchKey(keyBytes)) {
+                return reader;
+            }
+        }
+        return null;
+    }
+
+    private int keyHashAt(int index) {
+        return this.buffer.getInt(this.indexOffset + index * AudioCatalogFormat.INDEX_ENTRY_SIZE);
+    }
+
+    private int recordOffsetAt(int index) {
+        return this.buffer.getInt(this.indexOffset + index * AudioCatalogFormat.INDEX_ENTRY_SIZE + 4);
+    }
+
+    /**
+     * Reads a record with its own position, so that the lookups do not share the position of the buffer.
+     */
+    private static final class RecordReader {
+
+        private final ByteBuffer buffer;
+
+        RecordReader(ByteBuffer buffer, int offset) {
+            this.buffer = buffer.duplicate();
+            this.buffer.position(offset);
+        }
+
+        boolean matchKey(byte[] keyBytes) {
+            if (readVarint() != keyBytes.length) {
+                return false;
+            }
+            for (byte b : keyBytes) {
+                if (this.buffer.get() != b) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int readFlags() {
+            return (int) readVarint();
+        }
+
+        String readString(int flags, int flag) {
+            if ((flags & flag) == 0) {
+                return null;
+            }
+            byte[] bytes = new byte[(int) readVarint()];
+            this.buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skipString(int flags, int flag) {
+            if ((flags & flag) != 0) {
+                int length = (int) readVarint();
+                this.buffer.position(this.buffer.position() + length);
+            }
+        }
+
+        Long readLong(int flags, int flag) {
+            if ((flags & flag) == 0) {
+                return null;
+            }
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = this.buffer.get();
+                value |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.catalog;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * The file format of {@link AudioCatalog}.
+ * <p>
+ * All numbers are big-endian.
+ * <pre>
+ * header  : magic(int) formatVersion(int) count(int) reserved(int) indexOffset(long)
+ * records : record*
+ * index   : (keyHash(int) recordOffset(int)){count}, sorted by keyHash
+ * record  : keyLength(varint) key(UTF-8) flags(varint) field*
+ * </pre>
+ * Only the fields whose flag is set follow the flags, in the order of the flags. Strings are the length as a
+ * varint and UTF-8 bytes, and numbers are zigzag-encoded varints. The key hash is {@link String#hashCode()}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class AudioCatalogFormat {
+
+    static final int MAGIC = 0x43454b41; // "CEKA"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int INDEX_ENTRY_SIZE = 8;
+
+    static final int AUDIO_ITEM_ID = 1;
+    static final int ART_IMAGE_URL = 1 << 1;
+    static final int HEADER_TEXT = 1 << 2;
+    static final int TITLE_SUB_TEXT1 = 1 << 3;
+    static final int TITLE_SUB_TEXT2 = 1 << 4;
+    static final int TITLE_TEXT = 1 << 5;
+    static final int STREAM = 1 << 6;
+    static final int BEGIN_AT = 1 << 7;
+    static final int DURATION = 1 << 8;
+    static final int PROGRESS_REPORT = 1 << 9;
+    static final int PROGRESS_REPORT_DELAY = 1 << 10;
+    static final int PROGRESS_REPORT_INTERVAL = 1 << 11;
+    static final int PROGRESS_REPORT_POSITION = 1 << 12;
+    static final int TOKEN = 1 << 13;
+    static final int URL = 1 << 14;
+    static final int URL_PLAYABLE = 1 << 15;
+    static final int URL_PLAYABLE_TRUE = 1 << 16;
+    static final int CUSTOM_DATA = 1 << 17;
+
+    /**
+     * The flags of the {@code AudioItem} fields preceding the stream fields.
+     */
+    static final int AUDIO_ITEM_FIELDS =
+            AUDIO_ITEM_ID | ART_IMAGE_URL | HEADER_TEXT | TITLE_SUB_TEXT1 | TITLE_SUB_TEXT2 | TITLE_TEXT;
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.catalog;
+
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.ART_IMAGE_URL;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.AUDIO_ITEM_ID;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.BEGIN_AT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.CUSTOM_DATA;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.DURATION;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.HEADER_TEXT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT_DELAY;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT_INTERVAL;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.PROGRESS_REPORT_POSITION;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.STREAM;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TITLE_SUB_TEXT1;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TITLE_SUB_TEXT2;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TITLE_TEXT;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.TOKEN;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.URL;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.URL_PLAYABLE;
+import static com.linecorp.clova.extension.boot.message.catalog.AudioCatalogFormat.URL_PLAYABLE_TRUE;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.linecorp.clova.extension.boot.message.model.AudioItem;
+import com.linecorp.clova.extension.boot.message.model.AudioStreamInfoObject;
+import com.linecorp.clova.extension.boot.message.model.ProgressReport;
+
+import lombok.NonNull;
+
+/**
+ * Builds an {@link AudioCatalog} file offline.
+ * <p>
+ * The records are written to a temporary file as they are added, and the file is moved to the path
+ * atomically by {@link #commit()}, so a running {@link SwappableAudioCatalog} never sees a partial file.
+ * Only the keys and the record offsets are kept in memory while building.
+ * <pre>{@code
+ * try (AudioCatalogWriter writer = AudioCatalogWriter.create(Paths.get("catalog-20181001.bin"))) {
+ *     for (AudioItem item : items) {
+ *         writer.add(item.getStream().getToken(), item);
+ *     }
+ *     writer.commit();
+ * }
+ * }</pre>
+ */
+public class AudioCatalogWriter implements Closeable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path path;
+    private final Path temporaryPath;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final Set<String> keys = new HashSet<>();
+
+    private int[] keyHashes = new int[INITIAL_CAPACITY];
+    private int[] recordOffsets = new int[INITIAL_CAPACITY];
+    private long position = AudioCatalogFormat.HEADER_SIZE;
+    private boolean committed;
+
+    private AudioCatalogWriter(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path fileName = path.getFileName();
+        if (directory == null || fileName == null) {
+            throw new IllegalArgumentException("path should be a file. path: " + path);
+        }
+        this.path = path;
+        this.temporaryPath = Files.createTempFile(directory, fileName.toString(), ".tmp");
+        this.channel = FileChannel.open(this.temporaryPath, StandardOpenOption.WRITE);
+        this.channel.position(AudioCatalogFormat.HEADER_SIZE);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(this.channel)));
+    }
+
+    /**
+     * Starts building a catalog file.
+     *
+     * @param path the catalog file, which is replaced by {@link #commit()} if exists
+     * @return {@link AudioCatalogWriter}
+     * @throws IOException              if failed to create the temporary file
+     * @throws IllegalArgumentException if the path is not a file, e.g.) the root directory
+     */
+    public static AudioCatalogWriter create(@NonNull Path path) throws IOException {
+        return new AudioCatalogWriter(path);
+    }
+
+    /**
+     * Adds an {@link AudioItem}, which can be looked up by {@link AudioCatalog#findAudioItem(String)} and
+     * {@link AudioCatalog#findStream(String)}.
+     *
+     * @param key  the key, e.g.) a token or a slot value
+     * @param item {@link AudioItem}
+     * @return this instance
+     * @throws IOException              if failed to write
+     * @throws IllegalArgumentException if the key has been added
+     */
+    public AudioCatalogWriter add(@NonNull String key, @NonNull AudioItem item) throws IOException {
+        return addRecord(key, item, item.getStream());
+    }
+
+    /**
+     * Adds an {@link AudioStreamInfoObject}, which can be looked up by {@link AudioCatalog#findStream(String)}.
+     *
+     * @param key    the key, e.g.) a token or a slot value
+     * @param stream {@link AudioStreamInfoObject}
+     * @return this instance
+     * @throws IOException              if failed to write
+     * @throws IllegalArgumentException if the key has been added
+     */
+    public AudioCatalogWriter add(@NonNull String key, @NonNull AudioStreamInfoObject stream)
+            throws IOException {
+        return addRecord(key, null, stream);
+    }
+
+    /**
+     * Writes the index and the header, and moves the file to the path.
+     *
+     * @throws IOException if failed to write or move
+     */
+    public void commit() throws IOException {
+        if (this.committed) {
+            throw new IllegalStateException("Already committed. path: " + this.path);
+        }
+        int count = this.keys.size();
+        long indexOffset = this.position;
+        long[] sortedEntries = new long[count];
+        for (int i = 0; i < count; i++) {
+            sortedEntries[i] = ((long) this.keyHashes[i] << 32) | i;
+        }
+        // sorts by the hash, keeping the order of the addition for the same hash
+        Arrays.sort(sortedEntries);
+        for (long entry : sortedEntries) {
+            int i = (int) entry;
+            this.out.writeInt(this.keyHashes[i]);
+            this.out.writeInt(this.recordOffsets[i]);
+        }
+        this.out.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(AudioCatalogFormat.HEADER_SIZE);
+        header.putInt(AudioCatalogFormat.MAGIC)
+              .putInt(AudioCatalogFormat.FORMAT_VERSION)
+              .putInt(count)
+              .putInt(0)
+              .putLong(indexOffset)
+              .flip();
+        while (header.hasRemaining()) {
+            this.channel.write(header, header.position());
+        }
+        this.channel.force(true);
+        this.channel.close();
+
+        Files.move(this.temporaryPath, this.path, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+        this.committed = true;
+    }
+
+    /**
+     * Discards the temporary file unless committed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.committed) {
+            this.channel.close();
+            Files.deleteIfExists(this.temporaryPath);
+        }
+    }
+
+    private AudioCatalogWriter addRecord(String key, AudioItem item, AudioStreamInfoObject stream)
+            throws IOException {
+        if (this.committed) {
+            throw new IllegalStateException("Already committed. path: " + this.path);
+        }
+        if (!this.keys.add(key)) {
+            throw new IllegalArgumentException("Duplicated key: " + key);
+        }
+
+        this.record.reset();
+        writeString(key);
+        writeRecord(item, stream);
+        if (this.position + this.record.size() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The catalog should be smaller than 2 GiB. path: " + this.path);
+        }
+
+        int index = this.keys.size() - 1;
+        if (index == this.keyHashes.length) {
+            this.keyHashes = Arrays.copyOf(this.keyHashes, index * 2);
+            this.recordOffsets = Arrays.copyOf(this.recordOffsets, index * 2);
+        }
+        this.keyHashes[index] = key.hashCode();
+        this.recordOffsets[index] = (int) this.position;
+        this.record.writeTo(this.out);
+        this.position += this.record.size();
+        return this;
+    }
+
+    private void writeRecord(AudioItem item, AudioStreamInfoObject stream) {
+        ProgressReport progressReport = stream != null ? stream.getProgressReport() : null;
+        int flags = 0;
+        if (item != null) {
+            flags |= flag(AUDIO_ITEM_ID, item.getAudioItemId())
+                     | flag(ART_IMAGE_URL, item.getArtImageUrl())
+                     | flag(HEADER_TEXT, item.getHeaderText())
+                     | flag(TITLE_SUB_TEXT1, item.getTitleSubText1())
+                     | flag(TITLE_SUB_TEXT2, item.getTitleSubText2())
+                     | flag(TITLE_TEXT, item.getTitleText());
+        }
+        if (stream != null) {
+            flags |= STREAM
+                     | flag(BEGIN_AT, stream.getBeginAtInMilliseconds())
+                     | flag(DURATION, stream.getDurationInMilliseconds())
+                     | flag(PROGRESS_REPORT, progressReport)
+                     | flag(TOKEN, stream.getToken())
+                     | flag(URL, stream.getUrl())
+                     | flag(URL_PLAYABLE, stream.getUrlPlayable())
+                     | (Boolean.TRUE.equals(stream.getUrlPlayable()) ? URL_PLAYABLE_TRUE : 0)
+                     | flag(CUSTOM_DATA, stream.getCustomData());
+        }
+        if (progressReport != null) {
+            flags |= flag(PROGRESS_REPORT_DELAY, progressReport.getDelayInMilliseconds())
+                     | flag(PROGRESS_REPORT_INTERVAL, progressReport.getIntervalInMilliseconds())
+                     | flag(PROGRESS_REPORT_POSITION, progressReport.getPositionInMilliseconds());
+        }
+        writeVarint(flags);
+
+        if (item != null) {
+            writeString(item.getAudioItemId());
+            writeString(item.getArtImageUrl());
+            writeString(item.getHeaderText());
+            writeString(item.getTitleSubText1());
+            writeString(item.getTitleSubText2());
+            writeString(item.getTitleText());
+        }
+        if (stream != null) {
+            writeLong(stream.getBeginAtInMilliseconds());
+            writeLong(stream.getDurationInMilliseconds());
+            if (progressReport != null) {
+                writeLong(progressReport.getDelayInMilliseconds());
+                writeLong(progressReport.getIntervalInMilliseconds());
+                writeLong(progressReport.getPositionInMilliseconds());
+            }
+            writeString(stream.getToken());
+            writeString(stream.getUrl());
+            writeString(stream.getCustomData());
+        }
+    }
+
+    private static int flag(int flag, Object value) {
+        return value != null ? flag : 0;
+    }
+
+    /**
+     * Writes the string if not {@code null}, whose presence is written in the flags.
+     */
+    private void writeString(String value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        this.record.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes the zigzag-encoded number if not {@code null}, whose presence is written in the flags.
+     */
+    private void writeLong(Long value) {
+        if (value != null) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7fL) != 0) {
+            this.record.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        this.record.write((int) value);
+    }
+
+}
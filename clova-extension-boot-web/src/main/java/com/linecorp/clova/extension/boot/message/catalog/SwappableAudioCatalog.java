@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.linecorp.clova.extension.boot.message.model.AudioItem;
+import com.linecorp.clova.extension.boot.message.model.AudioStreamInfoObject;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the current {@link AudioCatalog}, which can be swapped to a new version without pausing the lookups.
+ * <p>
+ * The new catalog is mapped and validated before the swap, so a broken file does not replace the current one.
+ * <pre>{@code
+ * // after a new catalog is built by AudioCatalogWriter
+ * audioCatalog.swap(Paths.get("catalog-20181002.bin"));
+ * }</pre>
+ */
+@Slf4j
+public class SwappableAudioCatalog {
+
+    private final AtomicReference<AudioCatalog> current;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param catalog the initial catalog
+     */
+    public SwappableAudioCatalog(@NonNull AudioCatalog catalog) {
+        this.current = new AtomicReference<>(catalog);
+    }
+
+    /**
+     * Constructs a new instance with the catalog file.
+     *
+     * @param path the catalog file
+     * @return {@link SwappableAudioCatalog}
+     * @throws IOException if failed to map the file
+     */
+    public static SwappableAudioCatalog open(@NonNull Path path) throws IOException {
+        return new SwappableAudioCatalog(AudioCatalog.open(path));
+    }
+
+    /**
+     * Returns the current catalog. Use the returned one for a series of lookups to see the same version.
+     *
+     * @return the current catalog
+     */
+    public AudioCatalog get() {
+        return this.current.get();
+    }
+
+    /**
+     * Swaps the current catalog to the one mapped from the file.
+     *
+     * @param path the new catalog file
+     * @return the previous catalog
+     * @throws IOException              if failed to map the file
+     * @throws IllegalArgumentException if the file is not a catalog
+     */
+    public AudioCatalog swap(@NonNull Path path) throws IOException {
+        return swap(AudioCatalog.open(path));
+    }
+
+    /**
+     * Swaps the current catalog.
+     *
+     * @param catalog the new catalog
+     * @return the previous catalog
+     */
+    public AudioCatalog swap(@NonNull AudioCatalog catalog) {
+        AudioCatalog previous = this.current.getAndSet(catalog);
+        log.info("Swapped the audio catalog. path: {}, size: {}, previous path: {}",
+                 catalog.getPath(), catalog.size(), previous.getPath());
+        return previous;
+    }
+
+    /**
+     * Finds the {@link AudioItem} in the current catalog.
+     *
+     * @param key the key
+     * @return a new {@link AudioItem}, or {@code null} if not found
+     * @see AudioCatalog#findAudioItem(String)
+     */
+    public AudioItem findAudioItem(String key) {
+        return this.current.get().findAudioItem(key);
+    }
+
+    /**
+     * Finds the {@link AudioStreamInfoObject} in the current catalog.
+     *
+     * @param key the key
+     * @return a new {@link AudioStreamInfoObject}, or {@code null} if not found
+     * @see AudioCatalog#findStream(String)
+     */
+    public AudioStreamInfoObject findStream(String key) {
+        return this.current.get().findStream(key);
+    }
+
+}
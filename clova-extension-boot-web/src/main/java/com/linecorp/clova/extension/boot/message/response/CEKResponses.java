@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * Static utility methods for {@link CEKResponse} instances.
+ *
+ * @see ConstantCEKResponses
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CEKResponses {
+
+    /**
+     * Returns the {@link CEKResponse} which can not be changed and is serialized only once.
+     * <p>
+     * The response should not be changed after this call. The nested objects, e.g.)
+     * {@link CEKResponse#getOutputSpeech() outputSpeech}, are shared with the response.
+     *
+     * @param response the response
+     * @return the unmodifiable response
+     */
+    public static CEKResponse unmodifiable(@NonNull CEKResponse response) {
+        return response instanceof CachedCEKResponse ? response : new CachedCEKResponse(response);
+    }
+
+    /**
+     * Returns the {@link CEKResponse} which is written as the serialized JSON, e.g.) loaded from a remote
+     * cache.
+     * <p>
+     * The JSON is written as is, without being deserialized. The properties other than
+     * {@link CEKResponse#getShouldEndSession() shouldEndSession} are read from the JSON only when one of their
+     * getters is called.
+     *
+     * @param objectMapper     {@link ObjectMapper} to read the properties from the JSON
+     * @param json             the serialized {@link CEKResponse}
+     * @param shouldEndSession {@code shouldEndSession} of the JSON
+     * @return the unmodifiable response
+     */
+    public static CEKResponse serialized(@NonNull ObjectMapper objectMapper, @NonNull String json,
+                                         Boolean shouldEndSession) {
+        return new CachedCEKResponse(objectMapper, json, shouldEndSession);
+    }
+
+}
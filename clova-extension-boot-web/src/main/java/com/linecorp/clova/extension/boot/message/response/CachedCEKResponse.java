@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.response;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import com.linecorp.clova.extension.boot.message.directive.Directive;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeech;
+import com.linecorp.clova.extension.boot.message.speech.Reprompt;
+
+/**
+ * {@link CEKResponse} which is serialized only once.
+ * <p>
+ * The JSON of the response is written by the given {@link ObjectMapper}, or by the one of the first response
+ * writing if not given, and the UTF-8 bytes of it are written as is after that. The other fields of
+ * {@link CEKResponseMessage}, e.g.) the session attributes, are written as usual.
+ * <p>
+ * The properties can not be changed after constructed. If constructed from the JSON, they are read from it
+ * at the first call of their getters.
+ *
+ * @see CEKResponses#unmodifiable(CEKResponse)
+ * @see ConstantCEKResponses
+ */
+@JsonSerialize(using = CachedCEKResponse.Serializer.class)
+final class CachedCEKResponse extends CEKResponse {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ObjectMapper objectMapper;
+    private volatile CEKResponse source;
+    private volatile SerializableString json;
+
+    CachedCEKResponse(CEKResponse source) {
+        this.objectMapper = null;
+        this.source = source;
+        super.setCard(source.getCard());
+        super.setOutputSpeech(source.getOutputSpeech());
+        super.setReprompt(source.getReprompt());
+        super.setDirectives(source.getDirectives() != null
+                            ? Collections.unmodifiableList(source.getDirectives())
+                            : null);
+        super.setShouldEndSession(source.getShouldEndSession());
+    }
+
+    /**
+     * Constructs an instance whose JSON is written now by the {@link ObjectMapper}, so that the changes of the
+     * nested objects after this are not written.
+     */
+    CachedCEKResponse(CEKResponse source, ObjectMapper objectMapper) {
+        this(source);
+        try {
+            this.json = serialize(objectMapper, source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize the cached response.", e);
+        }
+    }
+
+    /**
+     * Constructs an instance from the serialized JSON. The properties other than {@code shouldEndSession} are
+     * read from the JSON by the {@link ObjectMapper} when they are requested.
+     */
+    CachedCEKResponse(ObjectMapper objectMapper, String json, Boolean shouldEndSession) {
+        this.objectMapper = objectMapper;
+        this.source = null;
+        this.json = new SerializedString(json);
+        this.json.asUnquotedUTF8();
+        super.setShouldEndSession(shouldEndSession);
+    }
+
+    @Override
+    public Object getCard() {
+        return source().getCard();
+    }
+
+    @Override
+    public OutputSpeech getOutputSpeech() {
+        return source().getOutputSpeech();
+    }
+
+    @Override
+    public Reprompt getReprompt() {
+        return source().getReprompt();
+    }
+
+    @Override
+    public List<Directive> getDirectives() {
+        List<Directive> directives = source().getDirectives();
+        return directives != null ? Collections.unmodifiableList(directives) : null;
+    }
+
+    @Override
+    public void setCard(Object card) {
+        throw new UnsupportedOperationException("The cached response can not be changed.");
+    }
+
+    @Override
+    public void setOutputSpeech(OutputSpeech outputSpeech) {
+        throw new UnsupportedOperationException("The cached response can not be changed.");
+    }
+
+    @Override
+    public void setReprompt(Reprompt reprompt) {
+        throw new UnsupportedOperationException("The cached response can not be changed.");
+    }
+
+    @Override
+    public void setDirectives(List<Directive> directives) {
+        throw new UnsupportedOperationException("The cached response can not be changed.");
+    }
+
+    @Override
+    public void setShouldEndSession(Boolean shouldEndSession) {
+        throw new UnsupportedOperationException("The cached response can not be changed.");
+    }
+
+    /**
+     * Equal to a {@link CEKResponse} which has the same properties.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private CEKResponse source() {
+        CEKResponse source = this.source;
+        if (source == null) {
+            try {
+                source = this.objectMapper.readValue(this.json.getValue(), CEKResponse.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the cached response.", e);
+            }
+            this.source = source;
+        }
+        return source;
+    }
+
+    /**
+     * Returns the serialized JSON, or {@code null} if it can not be serialized by the codec.
+     */
+    private SerializableString getJson(ObjectCodec codec) throws IOException {
+        SerializableString json = this.json;
+        if (json == null) {
+            if (!(codec instanceof ObjectMapper)) {
+                return null;
+            }
+            json = serialize((ObjectMapper) codec, this.source);
+            this.json = json;
+        }
+        return json;
+    }
+
+    private static SerializableString serialize(ObjectMapper objectMapper, CEKResponse source)
+            throws IOException {
+        SerializableString json = new SerializedString(objectMapper.writeValueAsString(source));
+        // encodes it here so that the bytes are not encoded in each writing
+        json.asUnquotedUTF8();
+        return json;
+    }
+
+    static class Serializer extends StdSerializer<CachedCEKResponse> {
+
+        private static final long serialVersionUID = 1L;
+
+        Serializer() {
+            super(CachedCEKResponse.class);
+        }
+
+        @Override
+        public void serialize(CachedCEKResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            SerializableString json = value.getJson(gen.getCodec());
+            if (json == null) {
+                provider.findValueSerializer(CEKResponse.class).serialize(value.source(), gen, provider);
+                return;
+            }
+            gen.writeRawValue(json);
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.response;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeechGenerator;
+
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Caches constant {@link CEKResponse}s, which are serialized only once.
+ * <p>
+ * Use this only for constant responses, e.g.) welcome or help messages. Responses which depend on the
+ * request, e.g.) {@code dialogRequestId} of directives, must not be cached. The session attributes are not a
+ * part of {@link CEKResponse}, so they are written as usual.
+ * <pre><code>
+ * &#64;Autowired
+ * ConstantCEKResponses constantResponses;
+ *
+ * &#64;LaunchMapping
+ * CEKResponse handleLaunch() {
+ *     return constantResponses.get("welcome", () -&gt; CEKResponse.builder()
+ *                                                     .outputSpeech(...)
+ *                                                     .shouldEndSession(false)
+ *                                                     .build());
+ * }
+ * </code></pre>
+ */
+public class ConstantCEKResponses {
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<CachedResponseKey, CEKResponse> responses = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param objectMapper {@link ObjectMapper} to serialize the responses
+     */
+    public ConstantCEKResponses(@NonNull ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the cached {@link CEKResponse} for the key and the current locale, creating it by the supplier
+     * only at the first call.
+     * <p>
+     * The response is serialized when it is created, so the changes of the objects given by the supplier are
+     * not written after that. The returned response can not be changed, and its nested objects must not be
+     * changed as they are shared between the callers.
+     *
+     * @param key      the key of the response, which should be one of a few constants
+     * @param supplier creates the response
+     * @return the cached response
+     * @see #clearCache()
+     */
+    public CEKResponse get(@NonNull Object key, @NonNull Supplier<? extends CEKResponse> supplier) {
+        Locale locale = LocaleContextHolder.getLocale();
+        return this.responses.computeIfAbsent(new CachedResponseKey(key, locale), cachedResponseKey -> {
+            CEKResponse response = supplier.get();
+            Assert.notNull(response, "The supplier should not return null. key: " + key);
+            return new CachedCEKResponse(response, this.objectMapper);
+        });
+    }
+
+    /**
+     * Clears the cached responses.
+     * <p>
+     * This is called by {@link OutputSpeechGenerator#clearCache()}, so call it after reloading the messages of
+     * {@link MessageSource}, or let {@code OutputSpeechCacheRefresher} call it periodically.
+     */
+    public void clearCache() {
+        this.responses.clear();
+    }
+
+    @Data
+    private static class CachedResponseKey {
+
+        private final Object key;
+        private final Locale locale;
+
+    }
+
+}
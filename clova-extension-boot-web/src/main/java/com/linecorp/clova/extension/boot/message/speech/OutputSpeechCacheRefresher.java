@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.speech;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.MessageSource;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calls {@link OutputSpeechGenerator#clearCache()} periodically, so that the messages reloaded by
+ * {@link MessageSource} are spoken, e.g.) with {@code spring.messages.cache-duration}.
+ * <p>
+ * The messages cached by {@link OutputSpeechGenerator}, {@link SpeechTemplates} and
+ * {@code ConstantCEKResponses} are kept until the next refresh, so they are reloaded up to twice the interval
+ * later than {@link MessageSource}.
+ */
+@Slf4j
+public class OutputSpeechCacheRefresher implements InitializingBean, DisposableBean {
+
+    private final OutputSpeechGenerator outputSpeechGenerator;
+    @Getter
+    private final Duration interval;
+
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param outputSpeechGenerator {@link OutputSpeechGenerator} to clear the cache
+     * @param interval              the interval to clear the cache, e.g.) the cache duration of
+     *                              {@link MessageSource}
+     */
+    public OutputSpeechCacheRefresher(@NonNull OutputSpeechGenerator outputSpeechGenerator,
+                                      @NonNull Duration interval) {
+        this.outputSpeechGenerator = outputSpeechGenerator;
+        this.interval = interval;
+    }
+
+    /**
+     * Starts refreshing, unless the interval is zero or negative.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (this.interval.isZero() || this.interval.isNegative()) {
+            return;
+        }
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cek-output-speech-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, this.interval.toMillis());
+        this.refresher.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis,
+                                              TimeUnit.MILLISECONDS);
+        log.info("Clears the cached output speeches every {}", this.interval);
+    }
+
+    /**
+     * Clears the cache of {@link OutputSpeechGenerator}.
+     */
+    public void refresh() {
+        try {
+            this.outputSpeechGenerator.clearCache();
+        } catch (RuntimeException e) {
+            log.warn("Failed to clear the cached output speeches.", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (this.refresher != null) {
+            this.refresher.shutdownNow();
+        }
+    }
+
+}
@@ -21,12 +21,20 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
 
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.util.ObjectUtils;
 
+import com.linecorp.clova.extension.boot.message.response.ConstantCEKResponses;
+
+import lombok.Data;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -38,8 +46,26 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OutputSpeechGenerator {
 
+    private static final Pattern MESSAGE_SEPARATOR = Pattern.compile("\\s*,\\s*");
+    private static final String BRIEF_SUFFIX = "." + MessageType.BRIEF.name().toLowerCase();
+    private static final String VERBOSE_SUFFIX = "." + MessageType.VERBOSE.name().toLowerCase();
+
     private final MessageSource messageSource;
 
+    private final ConcurrentMap<ResolvedSpeechKey, ResolvedSpeech> resolvedSpeeches = new ConcurrentHashMap<>();
+
+    /**
+     * Precompiled messages used instead of {@link MessageSource} if set.
+     */
+    @Setter
+    private SpeechTemplates speechTemplates;
+
+    /**
+     * Constant responses cleared with the messages if set.
+     */
+    @Setter
+    private ConstantCEKResponses constantResponses;
+
     /**
      * Alternative to {@link #generateFrom(MessageCode, Locale, Object...)}
      * using a code only.
@@ -68,10 +94,18 @@ public class OutputSpeechGenerator {
      * @param locale      The locale for {@link SpeechInfoObject}
      * @param args        An array of arguments that will fill for params with in the message.
      *                    See detail at {@link MessageSource#getMessage(String, Object[], Locale)}
-     * @return the generated OutputSpeech
+     * @return the generated OutputSpeech, shared between callers and unmodifiable if {@link SpeechTemplates} is
+     *         set and no args are given
      */
     public OutputSpeech generateFrom(MessageCode messageCode, Locale locale, Object... args) {
-        String message = messageSource.getMessage(messageCode.getCode() + ".brief", args, locale);
+        String code = messageCode.getCode() + BRIEF_SUFFIX;
+        if (this.speechTemplates != null) {
+            SpeechTemplate template = this.speechTemplates.get(code, locale);
+            if (template != null) {
+                return template.toOutputSpeech(args);
+            }
+        }
+        String message = messageSource.getMessage(code, args, locale);
         return OutputSpeech.text(message, locale);
     }
 
@@ -100,6 +134,9 @@ public class OutputSpeechGenerator {
      * <p>
      * Normally, generated OutputSpeech is the "SimpleSpeech" type. If a message definition includes a comma,
      * generateFrom method generates a "SpeechList" type OutputSpeech.
+     * <p>
+     * The messages found for each exception class and locale are cached, including the absence of them. Without
+     * args, the same unmodifiable OutputSpeech is returned for them; see {@link OutputSpeeches#unmodifiable}.
      *
      * @param t      the exception. If code is not defined, generator will search ancestor code.
      * @param locale the locale for {@link SpeechInfoObject}
@@ -107,16 +144,70 @@ public class OutputSpeechGenerator {
      * @return the generated OutputSpeech, may be null if neither {@code .brief} nor {@code .verbose} exists
      */
     public OutputSpeech generateFrom(Throwable t, Locale locale, Object... args) {
-        MessageCodes messageCodes = getMessageCodes(t);
-        List<String> briefMessages = getMessages(messageCodes.getBrief(), args, locale);
-        List<String> verboseMessages = getMessages(messageCodes.getVerbose(), args, locale);
+        if (ObjectUtils.isEmpty(args)) {
+            return generateFrom(t.getClass(), locale);
+        }
+        ResolvedSpeech resolved = this.resolvedSpeeches.computeIfAbsent(
+                new ResolvedSpeechKey(t.getClass(), locale), this::resolve);
+        if (resolved == ResolvedSpeech.NOT_FOUND) {
+            return null;
+        }
+        return buildSpeech(t.getClass(), locale,
+                           getMessages(resolved.getBriefCode(), args, locale),
+                           getMessages(resolved.getVerboseCode(), args, locale));
+    }
+
+    /**
+     * Generate an {@link OutputSpeech} for an exception type without creating the exception, in the same way as
+     * {@link #generateFrom(Throwable, Locale, Object...)} without args.
+     *
+     * @param type   the exception type. If code is not defined, generator will search ancestor code.
+     * @param locale the locale for {@link SpeechInfoObject}
+     * @return the shared and unmodifiable OutputSpeech, may be null if neither {@code .brief} nor
+     *         {@code .verbose} exists
+     */
+    public OutputSpeech generateFrom(Class<? extends Throwable> type, Locale locale) {
+        return this.resolvedSpeeches.computeIfAbsent(new ResolvedSpeechKey(type, locale), this::resolve)
+                                    .getSpeech();
+    }
+
+    /**
+     * Clears the cache of the messages resolved for exceptions and the responses cached by
+     * {@link ConstantCEKResponses} if set, and compiles {@link SpeechTemplates} again if set.
+     * <p>
+     * Call this after reloading the messages of {@link MessageSource}. With
+     * {@code spring.messages.cache-duration}, {@link OutputSpeechCacheRefresher} calls this at the same period.
+     */
+    public void clearCache() {
+        this.resolvedSpeeches.clear();
+        if (this.constantResponses != null) {
+            this.constantResponses.clearCache();
+        }
+        if (this.speechTemplates != null) {
+            this.speechTemplates.reload();
+        }
+    }
 
-        if (briefMessages.isEmpty() && verboseMessages.isEmpty()) {
+    private ResolvedSpeech resolve(ResolvedSpeechKey key) {
+        MessageCodes messageCodes = getMessageCodes(key.getType());
+        String briefCode = findCode(messageCodes.getBrief(), key.getLocale());
+        String verboseCode = findCode(messageCodes.getVerbose(), key.getLocale());
+
+        if (briefCode == null && verboseCode == null) {
             log.warn("Not found any messages for {}(locale:{}). Check your message resources.",
-                     t.getClass(), locale);
-            return null;
+                     key.getType(), key.getLocale());
+            return ResolvedSpeech.NOT_FOUND;
         }
 
+        // shared between the responses, so that it is built once
+        OutputSpeech speech = buildSpeech(key.getType(), key.getLocale(),
+                                          getMessages(briefCode, null, key.getLocale()),
+                                          getMessages(verboseCode, null, key.getLocale()));
+        return new ResolvedSpeech(briefCode, verboseCode, OutputSpeeches.unmodifiable(speech));
+    }
+
+    private OutputSpeech buildSpeech(Class<?> type, Locale locale,
+                                     List<String> briefMessages, List<String> verboseMessages) {
         OutputSpeech.OutputSpeechBuilder builder = OutputSpeech.builder();
 
         // Simple message pattern.
@@ -134,7 +225,7 @@ public class OutputSpeechGenerator {
         if (briefMessages.size() != 1) {
             // Don't throw any exception. But only first message is used.
             log.error("Brief message should have only one message. [throwable:{}, locale:{}, messages:{}]",
-                      t.getClass().getName(), locale, briefMessages);
+                      type.getName(), locale, briefMessages);
         }
 
         if (!briefMessages.isEmpty()) {
@@ -149,23 +240,31 @@ public class OutputSpeechGenerator {
         return builder.verbose(verboseBuilder.build()).build();
     }
 
-    List<String> getMessages(String[] codes, Object[] args, Locale locale) {
-        String messages = messageSource.getMessage(
-                new DefaultMessageSourceResolvable(codes, args, ""), locale);
-        if (messages.isEmpty()) {
+    private String findCode(String[] codes, Locale locale) {
+        for (String code : codes) {
+            String message = messageSource.getMessage(code, null, "", locale);
+            if (message != null && !message.isEmpty()) {
+                return code;
+            }
+        }
+        return null;
+    }
+
+    List<String> getMessages(String code, Object[] args, Locale locale) {
+        if (code == null) {
+            return Collections.emptyList();
+        }
+        String messages = messageSource.getMessage(code, args, "", locale);
+        if (messages == null || messages.isEmpty()) {
             return Collections.emptyList();
         }
-        return Arrays.asList(messages.split("\\s*,\\s*"));
+        return Arrays.asList(MESSAGE_SEPARATOR.split(messages));
     }
 
-    MessageCodes getMessageCodes(Throwable t) {
+    MessageCodes getMessageCodes(Class<?> type) {
         MessageCodes messageCodes = new MessageCodes();
-        messageCodes.add(t.getClass().getName());
-
-        Class<?> superClass = t.getClass().getSuperclass();
-        while (superClass != Object.class) {
-            messageCodes.add(superClass.getName());
-            superClass = superClass.getSuperclass();
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            messageCodes.add(current.getName());
         }
         return messageCodes;
     }
@@ -176,8 +275,8 @@ public class OutputSpeechGenerator {
         List<String> verbose = new ArrayList<>();
 
         void add(String code) {
-            brief.add(code + "." + MessageType.BRIEF.name().toLowerCase());
-            verbose.add(code + "." + MessageType.VERBOSE.name().toLowerCase());
+            brief.add(code + BRIEF_SUFFIX);
+            verbose.add(code + VERBOSE_SUFFIX);
         }
 
         String[] getBrief() {
@@ -189,6 +288,30 @@ public class OutputSpeechGenerator {
         }
     }
 
+    @Data
+    private static class ResolvedSpeechKey {
+
+        private final Class<?> type;
+        private final Locale locale;
+
+    }
+
+    /**
+     * The codes of the messages found for an exception type, and the unmodifiable speech built from them without
+     * arguments.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class ResolvedSpeech {
+
+        static final ResolvedSpeech NOT_FOUND = new ResolvedSpeech(null, null, null);
+
+        private final String briefCode;
+        private final String verboseCode;
+        private final OutputSpeech speech;
+
+    }
+
     private enum MessageType {
         BRIEF,
         VERBOSE;
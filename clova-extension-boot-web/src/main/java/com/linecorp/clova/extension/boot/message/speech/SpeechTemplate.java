@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.speech;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.util.ObjectUtils;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A message compiled for a {@link SpeechInfoObject.Lang language}, rendered without parsing it again.
+ * <p>
+ * The message follows the {@link MessageFormat} syntax, as {@link org.springframework.context.MessageSource}
+ * does. Simple placeholders like <code>{0}</code> with {@link CharSequence} arguments are rendered by
+ * concatenation; the other ones are rendered by a {@link MessageFormat} kept per thread.
+ * <p>
+ * Without arguments, the message is rendered as it is like {@link org.springframework.context.MessageSource},
+ * and the same unmodifiable {@link SpeechInfoObject} and {@link OutputSpeech} instances are returned.
+ * See {@link OutputSpeeches#unmodifiable(OutputSpeech)}.
+ */
+public final class SpeechTemplate {
+
+    @Getter
+    private final String code;
+    @Getter
+    private final Locale locale;
+    @Getter
+    private final String message;
+
+    // literals.length == argumentIndexes.length + 1, or null if the message is not a simple one
+    private final String[] literals;
+    private final int[] argumentIndexes;
+    private final ThreadLocal<MessageFormat> messageFormats;
+
+    private final SpeechInfoObject constantSpeechInfo;
+    private final OutputSpeech constantSpeech;
+
+    public SpeechTemplate(@NonNull String code, @NonNull Locale locale, @NonNull String message) {
+        this.code = code;
+        this.locale = locale;
+        this.message = message;
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> argumentIndexes = new ArrayList<>();
+        if (compile(message, literals, argumentIndexes)) {
+            this.literals = literals.toArray(new String[0]);
+            this.argumentIndexes = argumentIndexes.stream().mapToInt(Integer::intValue).toArray();
+        } else {
+            this.literals = null;
+            this.argumentIndexes = null;
+        }
+        this.messageFormats = ThreadLocal.withInitial(() -> new MessageFormat(message, locale));
+
+        this.constantSpeechInfo = OutputSpeeches.unmodifiable(SpeechInfoObject.text(message, locale));
+        this.constantSpeech = OutputSpeeches.unmodifiable(OutputSpeech.text(message, locale));
+    }
+
+    /**
+     * Renders the message.
+     *
+     * @param args arguments for the placeholders
+     * @return rendered message
+     */
+    public String render(Object... args) {
+        if (ObjectUtils.isEmpty(args)) {
+            return this.message;
+        }
+        if (this.literals == null || !isSimple(args)) {
+            return this.messageFormats.get().format(args);
+        }
+        StringBuilder sb = new StringBuilder(this.message.length() + 16 * this.argumentIndexes.length);
+        sb.append(this.literals[0]);
+        for (int i = 0; i < this.argumentIndexes.length; i++) {
+            int argumentIndex = this.argumentIndexes[i];
+            if (argumentIndex < args.length) {
+                sb.append(args[argumentIndex] != null ? (CharSequence) args[argumentIndex] : "null");
+            } else {
+                sb.append('{').append(argumentIndex).append('}');
+            }
+            sb.append(this.literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Renders the message as a {@link SpeechInfoObject}.
+     *
+     * @param args arguments for the placeholders
+     * @return {@link SpeechInfoObject}, shared and unmodifiable if no arguments are given
+     */
+    public SpeechInfoObject toSpeechInfoObject(Object... args) {
+        if (ObjectUtils.isEmpty(args)) {
+            return this.constantSpeechInfo;
+        }
+        return SpeechInfoObject.text(render(args), this.locale);
+    }
+
+    /**
+     * Renders the message as a {@link OutputSpeech}.
+     *
+     * @param args arguments for the placeholders
+     * @return {@link OutputSpeech}, shared and unmodifiable if no arguments are given
+     */
+    public OutputSpeech toOutputSpeech(Object... args) {
+        if (ObjectUtils.isEmpty(args)) {
+            return this.constantSpeech;
+        }
+        return OutputSpeech.builder().value(toSpeechInfoObject(args)).build();
+    }
+
+    private boolean isSimple(Object[] args) {
+        for (int argumentIndex : this.argumentIndexes) {
+            if (argumentIndex < args.length && args[argumentIndex] != null
+                && !(args[argumentIndex] instanceof CharSequence)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits the message into literals and argument indexes, following the quoting rules of
+     * {@link MessageFormat}.
+     *
+     * @return {@code false} if the message has a placeholder other than <code>{n}</code>
+     */
+    static boolean compile(String message, List<String> literals, List<Integer> argumentIndexes) {
+        StringBuilder literal = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < message.length() && message.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (quoted || c != '{') {
+                literal.append(c);
+            } else {
+                int end = message.indexOf('}', i);
+                if (end < 0) {
+                    return false;
+                }
+                String argument = message.substring(i + 1, end).trim();
+                if (argument.isEmpty() || argument.length() > 9
+                    || !argument.chars().allMatch(Character::isDigit)) {
+                    return false;
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                argumentIndexes.add(Integer.parseInt(argument));
+                i = end;
+            }
+        }
+        literals.add(literal.toString());
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return this.code + "(" + this.locale + "):" + this.message;
+    }
+
+}
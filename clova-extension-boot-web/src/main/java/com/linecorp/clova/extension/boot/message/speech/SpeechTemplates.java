@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.speech;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import com.linecorp.clova.extension.boot.message.speech.SpeechInfoObject.Lang;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiled {@link SpeechTemplate}s of all the messages in the message bundles, per
+ * {@link SpeechInfoObject.Lang language}.
+ * <p>
+ * The codes are collected from the properties files of the basenames, e.g.) {@code messages.properties} and
+ * {@code messages_ja.properties} for {@code messages}, and the messages are resolved by the
+ * {@link MessageSource} for each language, so the fallback rules of the {@link MessageSource} are kept.
+ * Call {@link #reload()} after reloading the messages of the {@link MessageSource}.
+ *
+ * @see OutputSpeechGenerator#generateFrom(MessageCode, Locale, Object...)
+ */
+@Slf4j
+public class SpeechTemplates {
+
+    private static final String PROPERTIES_SUFFIX = ".properties";
+
+    private final MessageSource messageSource;
+    private final Collection<String> basenames;
+    private final ResourcePatternResolver resourceResolver;
+
+    private volatile Map<Lang, Map<String, SpeechTemplate>> templates = Collections.emptyMap();
+
+    /**
+     * Constructs a new instance, and compiles the messages.
+     *
+     * @param messageSource {@link MessageSource} to resolve the messages
+     * @param basenames     basenames of the message bundles in the classpath, e.g.) {@code i18n/messages}
+     */
+    public SpeechTemplates(@NonNull MessageSource messageSource, @NonNull Collection<String> basenames) {
+        this(messageSource, basenames, new PathMatchingResourcePatternResolver());
+    }
+
+    SpeechTemplates(MessageSource messageSource, Collection<String> basenames,
+                    ResourcePatternResolver resourceResolver) {
+        this.messageSource = messageSource;
+        this.basenames = basenames;
+        this.resourceResolver = resourceResolver;
+        reload();
+    }
+
+    /**
+     * Returns the template of the code for the locale.
+     *
+     * @param code   message code
+     * @param locale locale, only whose language is used
+     * @return {@link SpeechTemplate}, or {@code null} if the message is not found or the language is not
+     *         supported by CEK
+     */
+    public SpeechTemplate get(@NonNull String code, Locale locale) {
+        Map<String, SpeechTemplate> templatesOfLang = this.templates.get(Lang.identifyBy(locale));
+        return templatesOfLang != null ? templatesOfLang.get(code) : null;
+    }
+
+    /**
+     * Compiles the messages again.
+     */
+    public void reload() {
+        Set<String> codes = collectCodes();
+        Map<Lang, Map<String, SpeechTemplate>> templates = new EnumMap<>(Lang.class);
+        for (Lang lang : Lang.values()) {
+            if (lang.getLocale() == null) {
+                continue;
+            }
+            Map<String, SpeechTemplate> templatesOfLang = new HashMap<>();
+            for (String code : codes) {
+                String message = this.messageSource.getMessage(code, null, null, lang.getLocale());
+                if (message != null) {
+                    templatesOfLang.put(code, new SpeechTemplate(code, lang.getLocale(), message));
+                }
+            }
+            templates.put(lang, Collections.unmodifiableMap(templatesOfLang));
+        }
+        this.templates = Collections.unmodifiableMap(templates);
+        log.info("Compiled speech templates. [codes:{}, basenames:{}]", codes.size(), this.basenames);
+    }
+
+    private Set<String> collectCodes() {
+        Set<String> codes = new LinkedHashSet<>();
+        for (String basename : this.basenames) {
+            String locationPattern =
+                    ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + basename + "*" + PROPERTIES_SUFFIX;
+            try {
+                for (Resource resource : this.resourceResolver.getResources(locationPattern)) {
+                    if (!isBundleOf(basename, resource)) {
+                        continue;
+                    }
+                    Properties properties = PropertiesLoaderUtils.loadProperties(resource);
+                    properties.stringPropertyNames().forEach(codes::add);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load the message bundle. basename: " + basename, e);
+            }
+        }
+        return codes;
+    }
+
+    private static boolean isBundleOf(String basename, Resource resource) {
+        String filename = resource.getFilename();
+        if (filename == null) {
+            return false;
+        }
+        String name = basename.substring(basename.lastIndexOf('/') + 1);
+        String suffix = filename.substring(name.length(), filename.length() - PROPERTIES_SUFFIX.length());
+        // e.g.) "" or "_ja" or "_ja_JP", but not "-extra"
+        return suffix.isEmpty() || suffix.charAt(0) == '_';
+    }
+
+}
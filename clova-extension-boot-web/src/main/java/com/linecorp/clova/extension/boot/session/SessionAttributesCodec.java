@@ -0,0 +1,284 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Encodes session attributes into one attribute in a compact binary format.
+ * <p>
+ * The attributes are written by the {@link ObjectMapper} of the application into a binary {@link JsonFactory},
+ * e.g.) Smile or CBOR, compressed when it is large, and stored as a Base64 (URL-safe, no padding) string in
+ * the attribute named {@link #getAttributeName()}. The first byte of the encoded bytes is the format version,
+ * and the second one is flags.
+ * <p>
+ * {@link SessionHolder} decodes the attribute only when an encoded attribute is accessed, and writes it back
+ * without encoding again unless any encoded attribute has been changed.
+ * <p>
+ * The attributes are kept in the CEK session. To keep them on the server side, use
+ * {@link com.linecorp.clova.extension.boot.session.store.CEKSessionStore} instead.
+ */
+public class SessionAttributesCodec implements SessionAttributesExternalizer {
+
+    static final int VERSION = 1;
+    static final int FLAG_DEFLATED = 1;
+
+    private static final int HEADER_SIZE = 2;
+    private static final String DECODED_ATTRIBUTES_REQUEST_ATTR_KEY =
+            SessionAttributesCodec.class.getName() + ".DECODED_ATTRIBUTES";
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory binaryFactory;
+    private final JavaType attributesType;
+
+    private final String attributeName;
+    private final Set<String> encodedNames;
+    private final int compressionThreshold;
+
+    private final LongAdder encodeCount = new LongAdder();
+    private final LongAdder decodeCount = new LongAdder();
+    private final LongAdder serializedBytes = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param objectMapper         {@link ObjectMapper} to serialize and deserialize attribute values
+     * @param binaryFactory        {@link JsonFactory} of the binary format, e.g.) {@code new SmileFactory()}
+     * @param attributeName        name of the attribute which holds the encoded attributes
+     * @param encodedNames         names of the attributes to encode, or empty to encode all attributes
+     * @param compressionThreshold the minimum size in bytes to compress, or a negative value not to compress
+     */
+    public SessionAttributesCodec(@NonNull ObjectMapper objectMapper, @NonNull JsonFactory binaryFactory,
+                                  @NonNull String attributeName, @NonNull Collection<String> encodedNames,
+                                  int compressionThreshold) {
+        this.objectMapper = objectMapper;
+        this.binaryFactory = binaryFactory;
+        this.attributesType = objectMapper.getTypeFactory()
+                                          .constructMapType(LinkedHashMap.class, String.class, Object.class);
+        this.attributeName = attributeName;
+        this.encodedNames = Collections.unmodifiableSet(new HashSet<>(encodedNames));
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public String getAttributeName() {
+        return this.attributeName;
+    }
+
+    /**
+     * Returns whether the attribute is encoded.
+     *
+     * @param name attribute name
+     * @return {@code true} if the attribute is encoded into {@link #getAttributeName()}
+     */
+    @Override
+    public boolean isExternalized(String name) {
+        return !this.attributeName.equals(name)
+               && (this.encodedNames.isEmpty() || this.encodedNames.contains(name));
+    }
+
+    @Override
+    public Map<String, Object> read(Session session) {
+        return session.getSessionAttributes() != null ? decodeAttributes(session.getSessionAttributes())
+                                                      : Collections.emptyMap();
+    }
+
+    @Override
+    public String write(Session session, Map<String, Object> attributes) {
+        return attributes.isEmpty() ? null : encode(attributes);
+    }
+
+    /**
+     * Encodes the attributes.
+     *
+     * @param attributes attributes to encode
+     * @return encoded attributes
+     */
+    public String encode(@NonNull Map<String, ?> attributes) {
+        try {
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try (JsonGenerator generator = this.binaryFactory.createGenerator(serialized)) {
+                this.objectMapper.writeValue(generator, attributes);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(serialized.size() + HEADER_SIZE);
+            out.write(VERSION);
+            if (this.compressionThreshold >= 0 && serialized.size() >= this.compressionThreshold) {
+                out.write(FLAG_DEFLATED);
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try (DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater)) {
+                    serialized.writeTo(deflated);
+                } finally {
+                    deflater.end();
+                }
+            } else {
+                out.write(0);
+                serialized.writeTo(out);
+            }
+
+            String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+            this.encodeCount.increment();
+            this.serializedBytes.add(serialized.size());
+            this.encodedBytes.add(encoded.length());
+            return encoded;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the attributes.
+     *
+     * @param encoded encoded attributes
+     * @return decoded attributes
+     * @throws IllegalArgumentException if the attributes are not encoded by this version of the codec
+     */
+    public Map<String, Object> decode(@NonNull String encoded) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The encoded session attributes are not Base64.", e);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[0] != VERSION) {
+            throw new IllegalArgumentException(
+                    "Unsupported version of the encoded session attributes. version: "
+                    + (bytes.length > 0 ? bytes[0] : "(none)"));
+        }
+
+        InputStream in = new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        if ((bytes[1] & FLAG_DEFLATED) != 0) {
+            in = new InflaterInputStream(in);
+        }
+        try (JsonParser parser = this.binaryFactory.createParser(in)) {
+            Map<String, Object> attributes = this.objectMapper.readValue(parser, this.attributesType);
+            this.decodeCount.increment();
+            return attributes != null ? attributes : Collections.emptyMap();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to decode the session attributes.", e);
+        }
+    }
+
+    /**
+     * Decodes the encoded attribute in the session attributes of a request.
+     * <p>
+     * While processing a request, the attributes are decoded only once and shared between the callers.
+     *
+     * @param sessionAttributes session attributes of a request
+     * @return decoded attributes, or empty if the session attributes do not have the encoded attribute
+     */
+    public Map<String, Object> decodeAttributes(@NonNull Map<String, Object> sessionAttributes) {
+        Object encoded = sessionAttributes.get(this.attributeName);
+        if (!(encoded instanceof String)) {
+            return Collections.emptyMap();
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return decode((String) encoded);
+        }
+        Object[] cached = (Object[]) requestAttributes.getAttribute(DECODED_ATTRIBUTES_REQUEST_ATTR_KEY,
+                                                                    RequestAttributes.SCOPE_REQUEST);
+        if (cached != null && cached[0] == encoded) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> decoded = (Map<String, Object>) cached[1];
+            return decoded;
+        }
+        Map<String, Object> decoded = decode((String) encoded);
+        requestAttributes.setAttribute(DECODED_ATTRIBUTES_REQUEST_ATTR_KEY, new Object[] { encoded, decoded },
+                                       RequestAttributes.SCOPE_REQUEST);
+        return decoded;
+    }
+
+    /**
+     * Returns the size metrics since this codec was created.
+     *
+     * @return {@link Metrics}
+     */
+    public Metrics getMetrics() {
+        return new Metrics(this.encodeCount.sum(), this.decodeCount.sum(),
+                           this.serializedBytes.sum(), this.encodedBytes.sum());
+    }
+
+    /**
+     * Size metrics of {@link SessionAttributesCodec}.
+     */
+    @Data
+    public static class Metrics {
+
+        /**
+         * The number of encoded session attributes.
+         */
+        private final long encodeCount;
+
+        /**
+         * The number of decoded session attributes.
+         */
+        private final long decodeCount;
+
+        /**
+         * The total size of the binary format before compression, in bytes.
+         */
+        private final long serializedBytes;
+
+        /**
+         * The total length of the encoded attributes.
+         */
+        private final long encodedBytes;
+
+        /**
+         * Returns the average length of the encoded attribute.
+         *
+         * @return average length, or {@code 0} if nothing has been encoded
+         */
+        public double getAverageEncodedBytes() {
+            return this.encodeCount > 0 ? (double) this.encodedBytes / this.encodeCount : 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session;
+
+import java.util.Map;
+
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+
+/**
+ * Moves session attributes out of the CEK session, leaving one attribute in their place.
+ * <p>
+ * {@link SessionHolder} reads the externalized attributes only when one of them is accessed, and writes them
+ * only when one of them has been changed. Otherwise, the attribute named {@link #getAttributeName()} is written
+ * back as it was received.
+ *
+ * @see SessionAttributesCodec
+ */
+public interface SessionAttributesExternalizer {
+
+    /**
+     * Returns the name of the session attribute left in the CEK session, which is hidden from
+     * {@link SessionHolder}.
+     *
+     * @return attribute name
+     */
+    String getAttributeName();
+
+    /**
+     * Returns whether the attribute is externalized.
+     *
+     * @param name attribute name
+     * @return {@code true} if the attribute is externalized
+     */
+    boolean isExternalized(String name);
+
+    /**
+     * Reads the externalized attributes of the session.
+     *
+     * @param session {@link Session} of the request
+     * @return externalized attributes, or empty if the session does not have them
+     */
+    Map<String, Object> read(Session session);
+
+    /**
+     * Writes the externalized attributes of the session.
+     *
+     * @param session    {@link Session} of the request
+     * @param attributes attributes to externalize, may be empty
+     * @return the value of the attribute named {@link #getAttributeName()}, or {@code null} to omit it
+     */
+    String write(Session session, Map<String, Object> attributes);
+
+    /**
+     * Discards the externalized attributes of the session, which has ended.
+     * <p>
+     * In default, does nothing since the attributes go away with the CEK session.
+     *
+     * @param session {@link Session} of the request
+     */
+    default void discard(Session session) {
+    }
+
+}
@@ -16,19 +16,37 @@
 
 package com.linecorp.clova.extension.boot.session;
 
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 
 import javax.validation.Valid;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+import com.linecorp.clova.extension.boot.message.request.RawSessionAttributes;
 import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.util.ConversionMemo;
 
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Component for operation of session attributes.
@@ -38,18 +56,31 @@ import lombok.NonNull;
  * <p>
  * You can operate session attributes via this class, and the result is effects the CEK response
  * unless {@link CEKResponse#shouldEndSession} is set {@code true}.
+ * <p>
+ * The session attributes of the request are never copied. Changes are kept separately, and the attributes
+ * which are neither changed nor read through {@link #getSessionAttributes()} are written to the response as
+ * they were received (see {@link RawSessionAttributes}).
+ * <p>
+ * When {@link SessionAttributesExternalizer} is enabled, the attributes selected by it are moved out of the CEK
+ * session, leaving one attribute which is hidden from this class. They are read only when one of them is
+ * accessed.
+ * This class is not thread-safe, as a CEK request is processed by a single thread.
  */
 public class SessionHolder {
 
-    private final Map<String, Object> sessionCache = new ConcurrentHashMap<>();
-
     private final ObjectMapper objectMapper;
 
     @Getter
     @Valid
     private final Session session;
-    @Getter
-    private final Map<String, Object> sessionAttributes;
+
+    private final Map<String, Object> source;
+    private final SessionAttributesExternalizer externalizer;
+    private final Map<String, Object> sessionAttributesView = new SessionAttributesView();
+    private final ConversionMemo conversionMemo = ConversionMemo.current();
+    private Map<String, Object> updates = Collections.emptyMap();
+    private Set<String> removed = Collections.emptySet();
+    private Map<String, Object> externalized;
 
     /**
      * Constructs a new instance with the specified session.
@@ -59,12 +90,38 @@ public class SessionHolder {
      * @param objectMapper {@link ObjectMapper}
      * @param session      {@link Session}
      */
-    public SessionHolder(@NonNull ObjectMapper objectMapper, @NonNull Session session) {
+    public SessionHolder(ObjectMapper objectMapper, Session session) {
+        this(objectMapper, session, null);
+    }
+
+    /**
+     * Constructs a new instance with the specified session, which externalizes session attributes.
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @param session      {@link Session}
+     * @param externalizer {@link SessionAttributesExternalizer}, or {@code null} not to externalize session
+     *                     attributes
+     */
+    public SessionHolder(@NonNull ObjectMapper objectMapper, @NonNull Session session,
+                         SessionAttributesExternalizer externalizer) {
         this.objectMapper = objectMapper;
         this.session = session;
-        this.sessionAttributes = session.getSessionAttributes() != null
-                                 ? new ConcurrentHashMap<>(session.getSessionAttributes())
-                                 : new ConcurrentHashMap<>();
+        this.source = session.getSessionAttributes() != null
+                      ? session.getSessionAttributes()
+                      : Collections.emptyMap();
+        this.externalizer = externalizer;
+    }
+
+    /**
+     * Returns the current session attributes, which are sent with the CEK response.
+     * <p>
+     * Changes through the returned map are the same as {@link #setAttribute(String, Object)} and
+     * {@link #removeAttribute(String)}.
+     *
+     * @return session attributes
+     */
+    public Map<String, Object> getSessionAttributes() {
+        return this.sessionAttributesView;
     }
 
     /**
@@ -77,18 +134,8 @@ public class SessionHolder {
      * @param <T>  session attribute value type
      * @return session attribute value
      */
-    @SuppressWarnings("unchecked")
     public <T> T getAttribute(@NonNull String name, @NonNull Class<T> type) {
-        return (T) sessionCache.compute(name, (key, cachedVal) -> {
-            if (cachedVal != null && type.isAssignableFrom(cachedVal.getClass())) {
-                return cachedVal;
-            }
-            Object val = sessionAttributes.get(key);
-            if (val == null) {
-                return null;
-            }
-            return objectMapper.convertValue(val, type);
-        });
+        return getAttribute(name, this.objectMapper.getTypeFactory().constructType(type));
     }
 
     /**
@@ -96,7 +143,7 @@ public class SessionHolder {
      * <p>
      * It's deserialized using the specified {@link TypeReference type reference}.
      * <p>
-     * This method always deserializes the specified value.
+     * From the second call, this method returns cached value until the value is changed.
      *
      * @param name          session attribute name
      * @param typeReference type reference for deserialization
@@ -104,12 +151,30 @@ public class SessionHolder {
      * @return session attribute value
      */
     public <T> T getAttribute(@NonNull String name, @NonNull TypeReference<T> typeReference) {
-        Object val = sessionAttributes.get(name);
-        if (val == null) {
+        return getAttribute(name, this.objectMapper.getTypeFactory().constructType(typeReference));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getAttribute(String name, JavaType type) {
+        Object value;
+        if (this.updates.containsKey(name)) {
+            value = this.updates.get(name);
+        } else if (this.removed.contains(name)) {
             return null;
+        } else if (this.source instanceof RawSessionAttributes
+                   && ((RawSessionAttributes) this.source).getRawValue(name) != null
+                   && !((RawSessionAttributes) this.source).isMaterialized(name)
+                   && !isExternalizerAttribute(name)) {
+            // converts the received JSON directly, so that the attribute is still written as it was received
+            RawSessionAttributes rawAttributes = (RawSessionAttributes) this.source;
+            return (T) this.conversionMemo.computeIfAbsent(rawAttributes.getRawValue(name), type,
+                                                           () -> rawAttributes.readValue(name, type));
+        } else {
+            value = sourceGet(name);
         }
 
-        return objectMapper.convertValue(val, objectMapper.getTypeFactory().constructType(typeReference));
+        // the converted value is memorized while the attribute is the same instance
+        return (T) this.conversionMemo.convert(this.objectMapper, value, type);
     }
 
     /**
@@ -117,10 +182,17 @@ public class SessionHolder {
      *
      * @param name  session attribute name
      * @param value session attribute value
+     * @throws IllegalArgumentException if the name is reserved by {@link SessionAttributesExternalizer}
      */
     public void setAttribute(@NonNull String name, Object value) {
-        sessionAttributes.put(name, value);
-        sessionCache.put(name, value);
+        if (isExternalizerAttribute(name)) {
+            throw new IllegalArgumentException("The session attribute name is reserved. name: " + name);
+        }
+        if (this.updates.isEmpty()) {
+            this.updates = new LinkedHashMap<>();
+        }
+        this.updates.put(name, value);
+        this.removed.remove(name);
     }
 
     /**
@@ -129,8 +201,331 @@ public class SessionHolder {
      * @param name session attribute name
      */
     public void removeAttribute(@NonNull String name) {
-        sessionAttributes.remove(name);
-        sessionCache.remove(name);
+        this.updates.remove(name);
+        if (sourceContains(name)) {
+            if (this.removed.isEmpty()) {
+                this.removed = new HashSet<>();
+            }
+            this.removed.add(name);
+        }
+    }
+
+    private boolean isExternalizerAttribute(Object name) {
+        return this.externalizer != null && this.externalizer.getAttributeName().equals(name);
+    }
+
+    private boolean hasExternalizedAttributes() {
+        return this.externalizer != null && this.source.containsKey(this.externalizer.getAttributeName());
+    }
+
+    private Map<String, Object> externalized() {
+        if (this.externalized == null) {
+            this.externalized = hasExternalizedAttributes() ? this.externalizer.read(this.session)
+                                                            : Collections.emptyMap();
+        }
+        return this.externalized;
+    }
+
+    private boolean sourceContains(Object name) {
+        if (isExternalizerAttribute(name)) {
+            return false;
+        }
+        return this.source.containsKey(name)
+               || hasExternalizedAttributes() && externalized().containsKey(name);
+    }
+
+    private Object sourceGet(Object name) {
+        if (isExternalizerAttribute(name)) {
+            return null;
+        }
+        if (this.source.containsKey(name) || !hasExternalizedAttributes()) {
+            return this.source.get(name);
+        }
+        return externalized().get(name);
+    }
+
+    /**
+     * Returns the names of the attributes of the request, including the externalized ones.
+     */
+    private Set<String> sourceNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : this.source.keySet()) {
+            if (!isExternalizerAttribute(name)) {
+                names.add(name);
+            }
+        }
+        if (hasExternalizedAttributes()) {
+            for (String name : externalized().keySet()) {
+                if (!this.source.containsKey(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns whether the externalized attributes of the request can be written back as they are.
+     */
+    private boolean isExternalizedAttributesUnchanged() {
+        if (this.externalized != null && !this.externalized.isEmpty()) {
+            // the values read may have been changed through the map view
+            return false;
+        }
+        for (String name : this.updates.keySet()) {
+            if (this.externalizer.isExternalized(name)) {
+                return false;
+            }
+        }
+        for (String name : this.removed) {
+            if (this.externalizer.isExternalized(name)) {
+                return false;
+            }
+        }
+        for (String name : this.source.keySet()) {
+            if (this.externalizer.isExternalized(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The session attributes of the request overlaid with the changes.
+     */
+    @JsonSerialize(using = SessionAttributesSerializer.class)
+    private final class SessionAttributesView extends AbstractMap<String, Object> {
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (String name : sourceNames()) {
+                if (!removed.contains(name)) {
+                    size++;
+                }
+            }
+            for (String name : updates.keySet()) {
+                if (!sourceContains(name)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return updates.containsKey(key) || !removed.contains(key) && sourceContains(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (updates.containsKey(key)) {
+                return updates.get(key);
+            }
+            return removed.contains(key) ? null : sourceGet(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            Object previous = get(key);
+            setAttribute(key, value);
+            return previous;
+        }
+
+        @Override
+        public Object remove(Object key) {
+            if (!(key instanceof String) || !containsKey(key)) {
+                return null;
+            }
+            Object previous = get(key);
+            removeAttribute((String) key);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            updates = Collections.emptyMap();
+            Set<String> names = sourceNames();
+            if (!names.isEmpty()) {
+                removed = new HashSet<>(names);
+            }
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return SessionAttributesView.this.size();
+                }
+            };
+        }
+
+        private SessionHolder holder() {
+            return SessionHolder.this;
+        }
+
+    }
+
+    /**
+     * Iterates the attributes of the request which are not removed, and then the added attributes.
+     * Values are read only when {@link Map.Entry#getValue()} is called.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private final Iterator<String> sourceNames = sourceNames().iterator();
+        private final Iterator<Map.Entry<String, Object>> updateEntries = updates.entrySet().iterator();
+        private Map.Entry<String, Object> nextEntry;
+
+        @Override
+        public boolean hasNext() {
+            while (this.nextEntry == null && this.sourceNames.hasNext()) {
+                String name = this.sourceNames.next();
+                if (!removed.contains(name)) {
+                    this.nextEntry = new LazyEntry(name);
+                }
+            }
+            while (this.nextEntry == null && this.updateEntries.hasNext()) {
+                Map.Entry<String, Object> entry = this.updateEntries.next();
+                if (!sourceContains(entry.getKey())) {
+                    this.nextEntry = entry;
+                }
+            }
+            return this.nextEntry != null;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, Object> entry = this.nextEntry;
+            this.nextEntry = null;
+            return entry;
+        }
+
+    }
+
+    /**
+     * An attribute of the request whose value is read only when it is requested.
+     */
+    @RequiredArgsConstructor
+    private final class LazyEntry implements Map.Entry<String, Object> {
+
+        private final String key;
+
+        @Override
+        public String getKey() {
+            return this.key;
+        }
+
+        @Override
+        public Object getValue() {
+            return sessionAttributesView.get(this.key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+            return this.key.equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return this.key + "=" + getValue();
+        }
+
+    }
+
+    /**
+     * Writes the session attributes, as they were received unless they have been changed or read.
+     */
+    static class SessionAttributesSerializer extends JsonSerializer<Map<String, Object>> {
+
+        @Override
+        public void serialize(Map<String, Object> value, JsonGenerator gen, SerializerProvider serializers)
+                throws IOException {
+            SessionHolder holder = ((SessionAttributesView) value).holder();
+            SessionAttributesExternalizer externalizer = holder.externalizer;
+            gen.writeStartObject(value);
+
+            if (externalizer != null && holder.hasExternalizedAttributes()
+                && holder.isExternalizedAttributesUnchanged()) {
+                // nothing to externalize again, and the attribute is written as it was received
+                writeAttributes(holder, holder.source.keySet(), null, gen, serializers);
+            } else {
+                Map<String, Object> externalized = externalizer != null ? new LinkedHashMap<>() : null;
+                writeAttributes(holder, holder.sourceNames(), externalized, gen, serializers);
+                if (externalized != null && (!externalized.isEmpty() || holder.hasExternalizedAttributes())) {
+                    String encoded = externalizer.write(holder.session, externalized);
+                    if (encoded != null) {
+                        gen.writeStringField(externalizer.getAttributeName(), encoded);
+                    }
+                }
+            }
+
+            gen.writeEndObject();
+        }
+
+        private static void writeAttributes(SessionHolder holder, Set<String> sourceNames,
+                                            Map<String, Object> externalized, JsonGenerator gen,
+                                            SerializerProvider serializers) throws IOException {
+            for (String name : sourceNames) {
+                if (holder.removed.contains(name)
+                    || holder.isExternalizerAttribute(name) && externalized != null) {
+                    continue;
+                }
+                if (holder.isExternalizerAttribute(name)) {
+                    writeRawField(holder, name, gen, serializers);
+                } else if (externalized != null && holder.externalizer.isExternalized(name)) {
+                    externalized.put(name, holder.sessionAttributesView.get(name));
+                } else if (holder.updates.containsKey(name)) {
+                    serializers.defaultSerializeField(name, holder.updates.get(name), gen);
+                } else {
+                    writeRawField(holder, name, gen, serializers);
+                }
+            }
+            for (Map.Entry<String, Object> entry : holder.updates.entrySet()) {
+                if (sourceNames.contains(entry.getKey())) {
+                    continue;
+                }
+                if (externalized != null && holder.externalizer.isExternalized(entry.getKey())) {
+                    externalized.put(entry.getKey(), entry.getValue());
+                } else {
+                    serializers.defaultSerializeField(entry.getKey(), entry.getValue(), gen);
+                }
+            }
+        }
+
+        private static void writeRawField(SessionHolder holder, String name, JsonGenerator gen,
+                                          SerializerProvider serializers) throws IOException {
+            if (!holder.source.containsKey(name)) {
+                serializers.defaultSerializeField(name, holder.sourceGet(name), gen);
+            } else if (holder.source instanceof RawSessionAttributes) {
+                ((RawSessionAttributes) holder.source).writeField(name, gen, serializers);
+            } else {
+                serializers.defaultSerializeField(name, holder.source.get(name), gen);
+            }
+        }
+
     }
 
 }
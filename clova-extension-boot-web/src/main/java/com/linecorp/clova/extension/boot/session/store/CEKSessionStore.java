@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session.store;
+
+import java.util.Map;
+
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+
+/**
+ * Stores session attributes on the server side, keyed by {@link Session#getSessionId() session id}.
+ * <p>
+ * The attributes passed to {@link #save(String, Map)} consist only of JSON compatible values, i.e.)
+ * {@link Map}, {@link java.util.List}, {@link String}, {@link Number}, {@link Boolean} and {@code null}, and
+ * are not changed after they are saved.
+ * <p>
+ * Implementations must be thread-safe.
+ *
+ * @see CEKSessionStoreExternalizer
+ */
+public interface CEKSessionStore {
+
+    /**
+     * Loads the attributes of the session.
+     *
+     * @param sessionId session id
+     * @return attributes, or {@code null} if absent or expired
+     */
+    Map<String, Object> load(String sessionId);
+
+    /**
+     * Saves the attributes of the session, replacing the previous ones.
+     *
+     * @param sessionId  session id
+     * @param attributes attributes to save
+     */
+    void save(String sessionId, Map<String, Object> attributes);
+
+    /**
+     * Removes the attributes of the session.
+     *
+     * @param sessionId session id
+     */
+    void remove(String sessionId);
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session.store;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage.Session;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
+import com.linecorp.clova.extension.boot.session.SessionHolder;
+
+import lombok.NonNull;
+
+/**
+ * {@link SessionAttributesExternalizer} which keeps session attributes in {@link CEKSessionStore}.
+ * <p>
+ * Only the attribute named {@link #getAttributeName()}, which refers to the entry of the session, is kept in
+ * the CEK session. {@link SessionHolder} loads the attributes from the store only when one of them is
+ * accessed, and saves them only when one of them has been changed.
+ */
+public class CEKSessionStoreExternalizer implements SessionAttributesExternalizer {
+
+    private final ObjectMapper objectMapper;
+    private final JavaType attributesType;
+    private final CEKSessionStore store;
+    private final String attributeName;
+    private final Set<String> storedNames;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param objectMapper  {@link ObjectMapper} to convert attributes into JSON-compatible values
+     * @param store         {@link CEKSessionStore} to keep attributes
+     * @param attributeName name of the attribute referring to the stored attributes
+     * @param storedNames   names of the attributes to keep in the store, or empty to keep all attributes
+     */
+    public CEKSessionStoreExternalizer(@NonNull ObjectMapper objectMapper, @NonNull CEKSessionStore store,
+                                       @NonNull String attributeName, @NonNull Collection<String> storedNames) {
+        this.objectMapper = objectMapper;
+        this.attributesType = objectMapper.getTypeFactory()
+                                          .constructMapType(LinkedHashMap.class, String.class, Object.class);
+        this.store = store;
+        this.attributeName = attributeName;
+        this.storedNames = Collections.unmodifiableSet(new HashSet<>(storedNames));
+    }
+
+    @Override
+    public String getAttributeName() {
+        return this.attributeName;
+    }
+
+    @Override
+    public boolean isExternalized(String name) {
+        return !this.attributeName.equals(name)
+               && (this.storedNames.isEmpty() || this.storedNames.contains(name));
+    }
+
+    @Override
+    public Map<String, Object> read(Session session) {
+        Map<String, Object> sessionAttributes = session.getSessionAttributes();
+        if (sessionAttributes == null || !sessionAttributes.containsKey(this.attributeName)) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> attributes = this.store.load(session.getSessionId());
+        return attributes != null ? attributes : Collections.emptyMap();
+    }
+
+    @Override
+    public String write(Session session, Map<String, Object> attributes) {
+        if (attributes.isEmpty()) {
+            this.store.remove(session.getSessionId());
+            return null;
+        }
+        // stores JSON-compatible values, so that remote stores can serialize them
+        Map<String, Object> converted = this.objectMapper.convertValue(attributes, this.attributesType);
+        this.store.save(session.getSessionId(), converted);
+        return session.getSessionId();
+    }
+
+    @Override
+    public void discard(Session session) {
+        Map<String, Object> sessionAttributes = session.getSessionAttributes();
+        if (sessionAttributes != null && sessionAttributes.containsKey(this.attributeName)) {
+            this.store.remove(session.getSessionId());
+        }
+    }
+
+}
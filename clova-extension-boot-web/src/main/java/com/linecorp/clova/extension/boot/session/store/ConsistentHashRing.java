@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session.store;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring which maps keys to nodes.
+ * <p>
+ * Each node is placed on the ring at {@code virtualNodes} points derived from its name, so that keys are
+ * spread evenly, every process with the same node names maps a key to the same node, and only the keys of a
+ * removed node move to other nodes.
+ *
+ * @param <N> node type
+ */
+final class ConsistentHashRing<N> {
+
+    private final NavigableMap<Long, N> ring = new TreeMap<>();
+
+    ConsistentHashRing(Map<String, N> nodesByName, int virtualNodes) {
+        if (nodesByName.isEmpty()) {
+            throw new IllegalArgumentException("nodes should not be empty.");
+        }
+        nodesByName.forEach((name, node) -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                this.ring.put(hash(name + "#" + i), node);
+            }
+        });
+    }
+
+    N nodeFor(String key) {
+        Map.Entry<Long, N> entry = this.ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : this.ring.firstEntry().getValue();
+    }
+
+    static long hash(String key) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = hash << Byte.SIZE | digest[i] & 0xFF;
+        }
+        return hash;
+    }
+
+}
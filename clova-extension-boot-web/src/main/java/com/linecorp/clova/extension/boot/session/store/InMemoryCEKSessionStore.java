@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session.store;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * {@link CEKSessionStore} which keeps session attributes in the heap of this process.
+ * <p>
+ * Each entry expires when it has been neither loaded nor saved for the time to live. Expired entries are
+ * removed when they are accessed, and by a sweep done once every {@value #SWEEP_INTERVAL} saves.
+ * <p>
+ * Attributes are copied when they are saved and loaded, so changes of a loaded map never leak into the store.
+ * <p>
+ * This is suitable for a single instance of the extension and for tests. Use {@link NearCachedCEKSessionStore}
+ * with a remote store for multiple instances.
+ */
+public class InMemoryCEKSessionStore implements CEKSessionStore {
+
+    static final int SWEEP_INTERVAL = 1024;
+
+    private final long ttlNanos;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger saveCount = new AtomicInteger();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param ttl time to live of each entry since it was accessed last
+     */
+    public InMemoryCEKSessionStore(@NonNull Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl should be positive. ttl: " + ttl);
+        }
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public Map<String, Object> load(@NonNull String sessionId) {
+        long now = System.nanoTime();
+        Entry entry = this.entries.get(sessionId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(now)) {
+            this.entries.remove(sessionId, entry);
+            return null;
+        }
+        entry.expiresAtNanos = now + this.ttlNanos;
+        return JsonValues.copy(entry.attributes);
+    }
+
+    @Override
+    public void save(@NonNull String sessionId, @NonNull Map<String, Object> attributes) {
+        long now = System.nanoTime();
+        this.entries.put(sessionId, new Entry(JsonValues.copy(attributes), now + this.ttlNanos));
+        if (this.saveCount.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            this.entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+    }
+
+    @Override
+    public void remove(@NonNull String sessionId) {
+        this.entries.remove(sessionId);
+    }
+
+    /**
+     * Returns the number of entries, including expired ones which are not removed yet.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    @AllArgsConstructor
+    private static final class Entry {
+
+        private final Map<String, Object> attributes;
+        private volatile long expiresAtNanos;
+
+        boolean isExpired(long now) {
+            return now - this.expiresAtNanos >= 0;
+        }
+
+    }
+
+}
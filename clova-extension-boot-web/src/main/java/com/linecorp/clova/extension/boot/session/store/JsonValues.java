@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session.store;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Copies the JSON compatible values stored by {@link CEKSessionStore}s.
+ */
+@UtilityClass
+class JsonValues {
+
+    /**
+     * Copies the attributes deeply, so that neither the caller nor the store sees changes of the other.
+     * <p>
+     * {@link Map}s and {@link java.util.List}s are copied, and the other values are immutable.
+     *
+     * @param attributes attributes consist of JSON compatible values
+     * @return a mutable copy
+     */
+    static Map<String, Object> copy(Map<String, Object> attributes) {
+        Map<String, Object> copied = new LinkedHashMap<>(attributes.size() * 4 / 3 + 1);
+        attributes.forEach((name, value) -> copied.put(name, copyValue(value)));
+        return copied;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            Map<Object, Object> copied = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            map.forEach((key, element) -> copied.put(key, copyValue(element)));
+            return copied;
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> copied = new ArrayList<>(list.size());
+            list.forEach(element -> copied.add(copyValue(element)));
+            return copied;
+        }
+        return value;
+    }
+
+}
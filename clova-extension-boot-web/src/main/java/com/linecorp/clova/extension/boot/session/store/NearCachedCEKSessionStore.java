@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session.store;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link CEKSessionStore} which distributes sessions to remote stores, with a near-cache in this process.
+ * <p>
+ * Each session is stored in one of the remote stores chosen by consistent hashing of the session id, so that
+ * every instance of the extension configured with the same node names uses the same remote store for a
+ * session.
+ * <p>
+ * Loaded and saved attributes are kept in a size-bounded LRU cache for the time to live. The cache keeps its
+ * own copies, and hands out copies, so changes of a loaded map never leak into the cache. The cache of another
+ * instance of the extension is not invalidated, so the time to live should be short unless the requests of a
+ * session are routed to the same instance.
+ * <p>
+ * When the flush interval is positive, saves and removals are written to the remote stores in the background
+ * (write-behind). Only the latest change of each session is written, and a failed write is retried at the next
+ * flush. Changes not flushed yet are lost if the process crashes.
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * Map<String, CEKSessionStore> nodes = new LinkedHashMap<>();
+ * nodes.put("redis-1", new MyRedisSessionStore("redis-1.example.com"));
+ * nodes.put("redis-2", new MyRedisSessionStore("redis-2.example.com"));
+ * CEKSessionStore store = new NearCachedCEKSessionStore(nodes, Duration.ofSeconds(30), 10_000,
+ *                                                       Duration.ofMillis(100));
+ * }</pre>
+ */
+@Slf4j
+public class NearCachedCEKSessionStore implements CEKSessionStore, DisposableBean {
+
+    static final int VIRTUAL_NODES = 160;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    // marks a pending removal, compared by identity
+    private static final Map<String, Object> REMOVED = Collections.unmodifiableMap(new HashMap<>());
+
+    private final ConsistentHashRing<CEKSessionStore> ring;
+    private final long ttlNanos;
+    private final Map<String, CacheEntry> cache;
+    private final ConcurrentMap<String, Map<String, Object>> pendingWrites = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param nodes         remote stores by node name, which should be the same in every instance
+     * @param ttl           time to live of each entry in the near-cache
+     * @param maximumSize   the maximum number of entries in the near-cache
+     * @param flushInterval interval of writing changes to the remote stores, or zero to write them
+     *                      synchronously
+     */
+    public NearCachedCEKSessionStore(@NonNull Map<String, CEKSessionStore> nodes, @NonNull Duration ttl,
+                                     int maximumSize, @NonNull Duration flushInterval) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize should be positive. maximumSize: " + maximumSize);
+        }
+        if (flushInterval.isNegative()) {
+            throw new IllegalArgumentException("flushInterval should not be negative.");
+        }
+        this.ring = new ConsistentHashRing<>(nodes, VIRTUAL_NODES);
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+
+        if (flushInterval.isZero()) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cek-session-store-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(1, flushInterval.toMillis());
+            this.flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis,
+                                                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Map<String, Object> load(@NonNull String sessionId) {
+        Map<String, Object> pending = this.pendingWrites.get(sessionId);
+        if (pending != null) {
+            return pending != REMOVED ? JsonValues.copy(pending) : null;
+        }
+
+        long now = System.nanoTime();
+        synchronized (this.cache) {
+            CacheEntry entry = this.cache.get(sessionId);
+            if (entry != null) {
+                if (now - entry.expiresAtNanos < 0) {
+                    return JsonValues.copy(entry.attributes);
+                }
+                this.cache.remove(sessionId);
+            }
+        }
+
+        Map<String, Object> attributes = this.ring.nodeFor(sessionId).load(sessionId);
+        if (attributes != null) {
+            putCache(sessionId, JsonValues.copy(attributes), now);
+        }
+        return attributes;
+    }
+
+    @Override
+    public void save(@NonNull String sessionId, @NonNull Map<String, Object> attributes) {
+        // the cache and the pending write share the copy, which is never handed out
+        Map<String, Object> copied = JsonValues.copy(attributes);
+        putCache(sessionId, copied, System.nanoTime());
+        if (this.flusher != null) {
+            this.pendingWrites.put(sessionId, copied);
+        } else {
+            this.ring.nodeFor(sessionId).save(sessionId, copied);
+        }
+    }
+
+    @Override
+    public void remove(@NonNull String sessionId) {
+        synchronized (this.cache) {
+            this.cache.remove(sessionId);
+        }
+        if (this.flusher != null) {
+            this.pendingWrites.put(sessionId, REMOVED);
+        } else {
+            this.ring.nodeFor(sessionId).remove(sessionId);
+        }
+    }
+
+    /**
+     * Writes the pending changes to the remote stores.
+     * <p>
+     * This is called periodically in the background, and can be called to write the changes immediately.
+     */
+    public void flush() {
+        for (Map.Entry<String, Map<String, Object>> entry : this.pendingWrites.entrySet()) {
+            String sessionId = entry.getKey();
+            Map<String, Object> attributes = entry.getValue();
+            try {
+                CEKSessionStore node = this.ring.nodeFor(sessionId);
+                if (attributes == REMOVED) {
+                    node.remove(sessionId);
+                } else {
+                    node.save(sessionId, attributes);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to write the session attributes, which will be retried. sessionId: {}",
+                         sessionId, e);
+                continue;
+            }
+            // keeps a newer change made while writing, compared by identity since REMOVED equals an empty map
+            this.pendingWrites.computeIfPresent(sessionId, (key, pending) -> pending == attributes ? null
+                                                                                      : pending);
+        }
+    }
+
+    /**
+     * Returns the number of sessions whose changes are not written to the remote stores yet.
+     *
+     * @return the number of pending changes
+     */
+    public int getPendingWriteCount() {
+        return this.pendingWrites.size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (this.flusher != null) {
+            this.flusher.shutdown();
+            this.flusher.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            flush();
+        }
+    }
+
+    private void putCache(String sessionId, Map<String, Object> attributes, long now) {
+        synchronized (this.cache) {
+            this.cache.put(sessionId, new CacheEntry(attributes, now + this.ttlNanos));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class CacheEntry {
+
+        private final Map<String, Object> attributes;
+        private final long expiresAtNanos;
+
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.NonNull;
+
+/**
+ * Request-scoped memo of the values converted from parts of a CEK request.
+ * <p>
+ * The converted value is kept by the identity of the source and the target type, so the same part is bound at
+ * most once per request, e.g. {@code context.System} into {@code SystemContext} for both the verifiers and the
+ * handler arguments. The converted value is shared by all the callers within the request.
+ * <p>
+ * This class is not thread-safe, as a CEK request is processed by a single thread.
+ */
+public final class ConversionMemo {
+
+    public static final String CONVERSION_MEMO_ATTR_KEY = "cek.conversionMemo";
+
+    private final Map<Key, Object> converted = new HashMap<>();
+
+    /**
+     * Gets the memo of the request, creating it on the first call.
+     *
+     * @param request {@link HttpServletRequest}
+     * @return {@link ConversionMemo} of the request
+     */
+    public static ConversionMemo of(@NonNull HttpServletRequest request) {
+        Object memo = request.getAttribute(CONVERSION_MEMO_ATTR_KEY);
+        if (memo instanceof ConversionMemo) {
+            return (ConversionMemo) memo;
+        }
+        ConversionMemo newMemo = new ConversionMemo();
+        request.setAttribute(CONVERSION_MEMO_ATTR_KEY, newMemo);
+        return newMemo;
+    }
+
+    /**
+     * Gets the memo of the current request.
+     *
+     * @return {@link ConversionMemo} of the current request, or a new one which is not shared if called outside
+     *         of a request
+     */
+    public static ConversionMemo current() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes)) {
+            return new ConversionMemo();
+        }
+        return of(((ServletRequestAttributes) requestAttributes).getRequest());
+    }
+
+    /**
+     * Converts the value by {@link ObjectMapper#convertValue(Object, JavaType)}, unless it has been converted
+     * into the type in this request.
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @param source       the value to convert
+     * @param type         the type to convert into
+     * @return converted value
+     */
+    public Object convert(@NonNull ObjectMapper objectMapper, Object source, @NonNull JavaType type) {
+        if (source == null) {
+            return null;
+        }
+        if (!type.hasGenericTypes() && type.getRawClass().isInstance(source)) {
+            return source;
+        }
+        return computeIfAbsent(source, type, () -> objectMapper.convertValue(source, type));
+    }
+
+    /**
+     * Returns the value converted from the source into the type, calling the converter only on the first call.
+     * <p>
+     * Exceptions thrown by the converter are not memorized.
+     *
+     * @param source    the value to convert, compared by the identity
+     * @param type      the type to convert into
+     * @param converter converts the source into the type
+     * @return converted value
+     */
+    public Object computeIfAbsent(@NonNull Object source, @NonNull JavaType type, Supplier<?> converter) {
+        Key key = new Key(source, type);
+        Object value = this.converted.get(key);
+        if (value == null && !this.converted.containsKey(key)) {
+            value = converter.get();
+            this.converted.put(key, value);
+        }
+        return value;
+    }
+
+    private static final class Key {
+
+        private final Object source;
+        private final JavaType type;
+
+        private Key(Object source, JavaType type) {
+            this.source = source;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.source == other.source && this.type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.source) + this.type.hashCode();
+        }
+
+    }
+
+}
@@ -87,4 +87,32 @@ public class LogUtils {
         }
     }
 
+    /**
+     * Logs an outcome reported without creating the exception, with the level of the exception type.
+     * <p>
+     * The message is logged without a stack trace in any level.
+     *
+     * @param log     {@link Logger}
+     * @param type    the exception type, which should be annotated with {@link LogLevel @LogLevel}
+     * @param message the message of the exception
+     */
+    public static void logging(@NonNull Logger log, @NonNull Class<? extends Throwable> type, String message) {
+        LogLevel logLevel = AnnotationUtils.getAnnotation(type, LogLevel.class);
+        InformationLevel informationLevel = logLevel != null ? logLevel.value() : InformationLevel.ERROR;
+        switch (informationLevel) {
+            case DEBUG:
+                log.debug("[{}]{}", type.getSimpleName(), message);
+                return;
+            case INFO:
+                log.info("[{}]{}", type.getSimpleName(), message);
+                return;
+            case WARN:
+                log.warn("[{}]{}", type.getSimpleName(), message);
+                return;
+            case ERROR:
+                log.error("[{}]{}", type.getSimpleName(), message);
+                return;
+        }
+    }
+
 }
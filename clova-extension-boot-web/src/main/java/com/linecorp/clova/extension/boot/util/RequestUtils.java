@@ -24,8 +24,10 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.linecorp.clova.extension.boot.message.request.CEKRequest;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
 import com.linecorp.clova.extension.boot.message.request.EventRequest;
 import com.linecorp.clova.extension.boot.message.request.RequestType;
+import com.linecorp.clova.extension.boot.session.SessionAttributesExternalizer;
 
 import lombok.experimental.UtilityClass;
 
@@ -38,7 +40,8 @@ public class RequestUtils {
     public static final String REQUEST_TYPE_ATTR_KEY = "cek.requestType";
     public static final String REQUEST_ID_ATTR_KEY = "cek.requestId";
     public static final String REQUEST_NAME_ATTR_KEY = "cek.requestName";
-    public static final String REQUEST_BODY_JSON_ATTR_KEY = "cek.requestBodyJson";
+    public static final String REQUEST_BODY_JSON_ATTR_KEY = CEKRequestMessage.REQUEST_BODY_JSON_ATTR_KEY;
+    public static final String SESSION_ATTRIBUTES_EXTERNALIZER_ATTR_KEY = "cek.sessionAttributesExternalizer";
 
     /**
      * Gets current {@link HttpServletRequest request} from {@link ThreadLocal}.
@@ -133,4 +136,25 @@ public class RequestUtils {
         return (String) request.getAttribute(REQUEST_BODY_JSON_ATTR_KEY);
     }
 
+    /**
+     * Sets {@link SessionAttributesExternalizer} of the session attributes to request attribute.
+     *
+     * @param request      {@link HttpServletRequest}
+     * @param externalizer {@link SessionAttributesExternalizer}
+     */
+    public static void setSessionAttributesExternalizer(HttpServletRequest request,
+                                                        SessionAttributesExternalizer externalizer) {
+        request.setAttribute(SESSION_ATTRIBUTES_EXTERNALIZER_ATTR_KEY, externalizer);
+    }
+
+    /**
+     * Gets {@link SessionAttributesExternalizer} of the session attributes from request attribute.
+     *
+     * @param request {@link HttpServletRequest}
+     * @return {@link SessionAttributesExternalizer}, may be null if session attributes are not externalized.
+     */
+    public static SessionAttributesExternalizer getSessionAttributesExternalizer(HttpServletRequest request) {
+        return (SessionAttributesExternalizer) request.getAttribute(SESSION_ATTRIBUTES_EXTERNALIZER_ATTR_KEY);
+    }
+
 }
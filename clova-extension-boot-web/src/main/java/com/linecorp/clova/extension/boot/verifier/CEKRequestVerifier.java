@@ -31,9 +31,7 @@ import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
  *
  * @see CEKRequestSignatureVerifier
  * @see CEKRequestHandlerDispatcher
- * @see CEKWebAutoConfiguration#cekRequestHandlerDispatcher(com.linecorp.clova.extension.boot.handler.CEKRequestMappingHandlerMapping,
- * org.springframework.beans.factory.ObjectProvider, org.springframework.beans.factory.ObjectProvider,
- * org.springframework.beans.factory.ObjectProvider, org.springframework.beans.factory.ObjectProvider)
+ * @see CEKWebAutoConfiguration
  */
 public interface CEKRequestVerifier {
 
@@ -18,14 +18,18 @@ package com.linecorp.clova.extension.boot.autoconfigure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.mock.env.MockEnvironment;
 
 import com.linecorp.clova.extension.boot.handler.interceptor.CEKHandlerInterceptor;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeechGenerator;
 
 public class CEKWebAutoConfigurationTest {
 
@@ -49,6 +53,22 @@ public class CEKWebAutoConfigurationTest {
                 .containsSequence("e", "d", "b", "a", "c");
     }
 
+    @Test
+    public void outputSpeechCacheRefresher() {
+        OutputSpeechGenerator outputSpeechGenerator = new OutputSpeechGenerator(new StaticMessageSource());
+        CEKWebAutoConfiguration.OutputSpeechCacheRefresherConfig refresherConfig =
+                new CEKWebAutoConfiguration.OutputSpeechCacheRefresherConfig();
+
+        assertThat(refresherConfig.outputSpeechCacheRefresher(
+                outputSpeechGenerator, new MockEnvironment().withProperty("spring.messages.cache-duration", "30"))
+                                  .getInterval())
+                .isEqualTo(Duration.ofSeconds(30));
+        assertThat(refresherConfig.outputSpeechCacheRefresher(
+                outputSpeechGenerator, new MockEnvironment().withProperty("spring.messages.cache-duration", "5m"))
+                                  .getInterval())
+                .isEqualTo(Duration.ofMinutes(5));
+    }
+
     static class InterceptorA implements CEKHandlerInterceptor, Ordered {
 
         @Override
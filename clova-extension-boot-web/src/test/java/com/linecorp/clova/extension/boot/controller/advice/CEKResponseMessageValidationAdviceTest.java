@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.controller.advice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.Method;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+public class CEKResponseMessageValidationAdviceTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(CEKResponseMessageValidationAdvice.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SmartValidator validator = mock(SmartValidator.class);
+    private final CEKResponseMessage body = new CEKResponseMessage(CEKResponse.empty());
+
+    private Level level;
+
+    @Before
+    public void setUp() {
+        // DEBUG logging validates all responses regardless of the sample rate
+        level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @After
+    public void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(level);
+    }
+
+    @Test
+    public void rejectInvalidSampleRate() {
+        assertThatThrownBy(() -> new CEKResponseMessageValidationAdvice(validator, -0.1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CEKResponseMessageValidationAdvice(validator, 1.1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void sampleRateZero() throws Exception {
+        CEKResponseMessageValidationAdvice advice = new CEKResponseMessageValidationAdvice(validator, 0.0);
+
+        assertThat(advice.supports(returnType(), MappingJackson2HttpMessageConverter.class)).isFalse();
+        assertThat(beforeBodyWrite(advice)).isSameAs(body);
+        verify(validator, never()).validate(any(), any());
+    }
+
+    @Test
+    public void sampleRateOne_WarnErrors() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<Errors>getArgument(1).reject("invalid");
+            return null;
+        }).when(validator).validate(any(), any());
+        CEKResponseMessageValidationAdvice advice = new CEKResponseMessageValidationAdvice(validator, 1.0);
+
+        assertThat(advice.supports(returnType(), MappingJackson2HttpMessageConverter.class)).isTrue();
+        assertThat(beforeBodyWrite(advice)).isSameAs(body);
+        verify(validator).validate(any(), any());
+        assertThat(appender.list)
+                .hasSize(1)
+                .allSatisfy(event -> {
+                    assertThat(event.getLevel()).isEqualTo(Level.WARN);
+                    assertThat(event.getFormattedMessage()).startsWith("Invalid CEK response.");
+                });
+    }
+
+    @Test
+    public void sampleRateOne_NeverThrow() throws Exception {
+        doThrow(new IllegalStateException("validator failure")).when(validator).validate(any(), any());
+        CEKResponseMessageValidationAdvice advice = new CEKResponseMessageValidationAdvice(validator, 1.0);
+
+        assertThat(beforeBodyWrite(advice)).isSameAs(body);
+        verify(validator).validate(any(), any());
+    }
+
+    private Object beforeBodyWrite(CEKResponseMessageValidationAdvice advice) throws Exception {
+        return advice.beforeBodyWrite(body, returnType(), MediaType.APPLICATION_JSON,
+                                      MappingJackson2HttpMessageConverter.class,
+                                      new ServletServerHttpRequest(new MockHttpServletRequest()),
+                                      new ServletServerHttpResponse(new MockHttpServletResponse()));
+    }
+
+    private static MethodParameter returnType() throws Exception {
+        Method method = CEKResponseMessageValidationAdviceTest.class.getDeclaredMethod("handle");
+        return new MethodParameter(method, -1);
+    }
+
+    static CEKResponseMessage handle() {
+        return new CEKResponseMessage(CEKResponse.empty());
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.linecorp.clova.extension.boot.message.request.RequestType;
+
+public class ExpectedExceptionsTest {
+
+    @After
+    public void tearDown() {
+        ExpectedExceptions.setStackTraceEnabled(false);
+    }
+
+    @Test
+    public void stackless() {
+        assertThat(new MissingSlotException("slot").getStackTrace()).isEmpty();
+        assertThat(new RequestHandlerNotFoundException(RequestType.INTENT, "Unknown").getStackTrace()).isEmpty();
+        assertThat(new InvalidUserParameterException("invalid").getStackTrace()).isEmpty();
+        assertThat(new UnsupportedHandlerArgumentException(null, "unsupported").getStackTrace()).isNotEmpty();
+        assertThat(new MissingSessionAttributeException("attribute").getStackTrace()).isEmpty();
+        assertThat(new InvalidSlotException(null, null, new NumberFormatException()).getStackTrace()).isEmpty();
+        assertThat(new InvalidApplicationParameterException("invalid").getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    public void stackTraceEnabled() {
+        ExpectedExceptions.setStackTraceEnabled(true);
+
+        assertThat(new MissingSlotException("slot").getStackTrace()).isNotEmpty();
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.filter;
+
+import static com.linecorp.clova.extension.boot.message.speech.OutputSpeech.text;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.linecorp.clova.extension.boot.filter.capture.CEKTrafficLogWriter;
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SlotValue;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.replay.CEKTrafficLogReader;
+import com.linecorp.clova.extension.test.replay.CEKTrafficReplayer;
+import com.linecorp.clova.extension.test.replay.CapturedExchange;
+import com.linecorp.clova.extension.test.replay.ReplayReport;
+import com.linecorp.clova.extension.test.target.CEKTargets;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "cek.capture.enabled=true",
+        "cek.capture.directory=target/cek-capture-test",
+        "cek.capture.compress=true"
+})
+public class CEKTrafficCaptureFilterTest {
+
+    private static final String CAPTURE_DIRECTORY = "target/cek-capture-test";
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class TestHandler {
+
+            @IntentMapping("CEKTrafficCapture")
+            CEKResponse handle(@SlotValue String word) {
+                return CEKResponse.builder()
+                                  .outputSpeech(text(word))
+                                  .build();
+            }
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    CEKTrafficLogWriter writer;
+
+    @Test
+    public void captureAndReplay() throws Exception {
+        String word = RandomStringUtils.randomAlphabetic(10);
+        String signature = RandomStringUtils.randomAlphanumeric(20);
+        String body = CEKRequestGenerator.requestBodyBuilder()
+                                         .intent("CEKTrafficCapture")
+                                         .slot("word", word)
+                                         .build();
+
+        mvc.perform(post("/cek/v1")
+                            .header("SignatureCEK", signature)
+                            .content(body)
+                            .contentType(MediaType.APPLICATION_JSON))
+           .andDo(print())
+           .andExpect(status().isOk());
+
+        assertThat(writer.flush(5, TimeUnit.SECONDS)).isTrue();
+
+        List<CapturedExchange> captured =
+                CEKTrafficLogReader.read(Paths.get(CAPTURE_DIRECTORY))
+                                   .stream()
+                                   .filter(exchange -> signature.equals(exchange.getSignature()))
+                                   .collect(Collectors.toList());
+
+        assertThat(captured).hasSize(1);
+        CapturedExchange exchange = captured.get(0);
+        assertThat(exchange.getStatus()).isEqualTo(200);
+        assertThat(exchange.getDurationNanos()).isPositive();
+        assertThat(new String(exchange.getRequestBody(), StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(new String(exchange.getResponseBody(), StandardCharsets.UTF_8)).contains(word);
+
+        ReplayReport report = CEKTrafficReplayer.of(captured)
+                                                .target(CEKTargets.mockMvc(mvc, "/cek/v1"))
+                                                .speed(0)
+                                                .run();
+
+        assertThat(report.getRequestCount()).isEqualTo(1);
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getMismatches()).isEmpty();
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static com.linecorp.clova.extension.boot.message.speech.OutputSpeech.text;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SessionValue;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.session.SessionHolder;
+import com.linecorp.clova.extension.test.conversation.CEKConversation;
+import com.linecorp.clova.extension.test.conversation.CEKConversationSimulator;
+import com.linecorp.clova.extension.test.conversation.SimulationReport;
+import com.linecorp.clova.extension.test.target.CEKTargets;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CEKConversationTest {
+
+    private static final int MAX_COUNT = 3;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class TestHandler {
+
+            @IntentMapping("CEKConversationCount")
+            CEKResponse count(@SessionValue("count") Optional<Integer> count, SessionHolder sessionHolder) {
+                int next = count.orElse(0) + 1;
+                sessionHolder.setAttribute("count", next);
+                return CEKResponse.builder()
+                                  .outputSpeech(text(String.valueOf(next)))
+                                  .shouldEndSession(next >= MAX_COUNT)
+                                  .build();
+            }
+        }
+
+    }
+
+    @Autowired
+    ApplicationContext context;
+
+    @Autowired
+    CEKRequestProcessor processor;
+
+    @Test
+    public void carrySessionAttributes() {
+        CEKConversation conversation = CEKConversation.start(CEKTargets.inProcess(context, processor::process))
+                                                      .intent("CEKConversationCount")
+                                                      .intent("CEKConversationCount");
+
+        assertThat(conversation.isEnded()).isFalse();
+        assertThat(conversation.getSessionAttributes().path("count").asInt()).isEqualTo(2);
+
+        conversation.intent("CEKConversationCount");
+
+        assertThat(conversation.isEnded()).isTrue();
+        assertThat(conversation.getTurns()).hasSize(MAX_COUNT);
+        assertThat(conversation.getLastTurn().getDepth()).isEqualTo(MAX_COUNT);
+        assertThat(conversation.getLastTurn().getResponse().at("/response/outputSpeech/values/value").asText())
+                .isEqualTo(String.valueOf(MAX_COUNT));
+        assertThatThrownBy(() -> conversation.intent("CEKConversationCount"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void simulateUsers() throws Exception {
+        SimulationReport report =
+                CEKConversationSimulator.target(CEKTargets.inProcess(context, processor::process))
+                                        .users(200)
+                                        .concurrency(8)
+                                        .script(conversation -> {
+                                            while (!conversation.isEnded()) {
+                                                conversation.intent("CEKConversationCount");
+                                            }
+                                        })
+                                        .run();
+
+        assertThat(report.getErrorMessages()).isEmpty();
+        assertThat(report.getEndedCount()).isEqualTo(200);
+        assertThat(report.getTurnCount()).isEqualTo(200 * MAX_COUNT);
+        assertThat(report.getLatencyHistograms()).containsOnlyKeys(1, 2, 3);
+        assertThat(report.getSessionAttributesSizeHistograms().get(1).getMaxValue()).isPositive();
+    }
+
+}
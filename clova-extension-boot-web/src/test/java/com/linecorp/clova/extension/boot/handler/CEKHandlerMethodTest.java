@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javax.validation.Valid;
+
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.annotation.Validated;
+
+import com.linecorp.clova.extension.boot.message.request.RequestType;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+
+public class CEKHandlerMethodTest {
+
+    @Test
+    public void validationHints() throws Exception {
+        CEKHandlerMethod handlerMethod = handlerMethod("handleValidated");
+
+        assertThat(handlerMethod.hasValidatedParams()).isTrue();
+        assertThat(handlerMethod.getValidationHints(0)).isNull();
+        assertThat(handlerMethod.getValidationHints(1)).isEmpty();
+        assertThat(handlerMethod.getValidationHints(2)).isEmpty();
+        assertThat(handlerMethod.getValidationHints(3)).containsExactly(First.class, Second.class);
+        assertThat(handlerMethod.getValidationHints(3))
+                .containsExactly((Object[]) handlerMethod.getMethod().getParameters()[3]
+                                                         .getAnnotation(Validated.class).value());
+    }
+
+    @Test
+    public void validationHints_NoValidatedParams() throws Exception {
+        CEKHandlerMethod handlerMethod = handlerMethod("handle");
+
+        assertThat(handlerMethod.hasValidatedParams()).isFalse();
+        assertThat(handlerMethod.getValidationHints(0)).isNull();
+    }
+
+    private static CEKHandlerMethod handlerMethod(String methodName) throws Exception {
+        Method method = Arrays.stream(TestHandler.class.getDeclaredMethods())
+                              .filter(declaredMethod -> declaredMethod.getName().equals(methodName))
+                              .findFirst()
+                              .orElseThrow(NoSuchMethodException::new);
+        return CEKHandlerMethod.builder()
+                               .requestType(RequestType.INTENT)
+                               .bean(new TestHandler())
+                               .method(method)
+                               .name(methodName)
+                               .methodParams(IntStream.range(0, method.getParameterCount())
+                                                      .mapToObj(i -> new MethodParameter(method, i))
+                                                      .collect(toList()))
+                               .build();
+    }
+
+    interface First {}
+
+    interface Second {}
+
+    static class TestHandler {
+
+        CEKResponse handleValidated(String notValidated, @Valid String valid, @Validated String validated,
+                                    @Validated({ First.class, Second.class }) String grouped) {
+            return CEKResponse.empty();
+        }
+
+        CEKResponse handle(String notValidated) {
+            return CEKResponse.empty();
+        }
+
+    }
+
+}
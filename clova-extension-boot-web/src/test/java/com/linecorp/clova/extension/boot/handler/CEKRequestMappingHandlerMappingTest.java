@@ -17,6 +17,7 @@
 package com.linecorp.clova.extension.boot.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Documented;
@@ -41,6 +42,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.test.context.ActiveProfiles;
@@ -48,18 +50,31 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.ReflectionUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.exception.UnsupportedHandlerArgumentException;
 import com.linecorp.clova.extension.boot.handler.CEKRequestMappingHandlerMappingTest.TestConfig.TestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKCacheable;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKHandleCondition;
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.EventMapping;
 import com.linecorp.clova.extension.boot.handler.annnotation.ExtensionIdCondition;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
 import com.linecorp.clova.extension.boot.handler.annnotation.LaunchMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SessionValue;
 import com.linecorp.clova.extension.boot.handler.condition.CEKHandleConditionMatcher;
 import com.linecorp.clova.extension.boot.handler.condition.CEKHandleConditionMatcherFactory;
 import com.linecorp.clova.extension.boot.handler.condition.ExtensionIdConditionMatcher;
 import com.linecorp.clova.extension.boot.handler.condition.ExtensionIdConditionMatcherFactory;
+import com.linecorp.clova.extension.boot.handler.resolver.CEKEventPayloadArgumentResolver;
+import com.linecorp.clova.extension.boot.handler.resolver.CEKSessionHolderArgumentResolver;
+import com.linecorp.clova.extension.boot.handler.resolver.CEKSessionValueArgumentResolver;
 import com.linecorp.clova.extension.boot.message.context.SystemContext;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
 import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.EventPayloadTypeRegistry;
 import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.session.SessionHolder;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -196,6 +211,84 @@ public class CEKRequestMappingHandlerMappingTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    public void rejectCacheableHandlerTakingSessionAttributes() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (Class<?> handlerType : Arrays.asList(SessionHolderCacheableHandler.class,
+                                                  SessionValueCacheableHandler.class)) {
+            StaticApplicationContext context = new StaticApplicationContext();
+            context.registerSingleton("handler", handlerType);
+            context.refresh();
+            CEKRequestMappingHandlerMapping mapping = new CEKRequestMappingHandlerMapping(Arrays.asList(
+                    new CEKSessionHolderArgumentResolver(objectMapper),
+                    new CEKSessionValueArgumentResolver(objectMapper)));
+            mapping.setBeanFactory(context);
+
+            assertThatThrownBy(mapping::afterPropertiesSet)
+                    .isInstanceOf(UnsupportedHandlerArgumentException.class)
+                    .hasMessageContaining("@CEKCacheable");
+        }
+    }
+
+    @Test
+    public void registerEventPayloadTypes() {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerSingleton("handler", PayloadEventHandler.class);
+        context.refresh();
+        EventPayloadTypeRegistry payloadTypeRegistry = new EventPayloadTypeRegistry();
+        CEKRequestMappingHandlerMapping mapping = new CEKRequestMappingHandlerMapping(Collections.singletonList(
+                new CEKEventPayloadArgumentResolver(new ObjectMapper())));
+        mapping.setBeanFactory(context);
+        mapping.setPayloadTypeRegistry(payloadTypeRegistry);
+
+        mapping.afterPropertiesSet();
+
+        assertThat(payloadTypeRegistry.find("AudioPlayer.PlayStarted"))
+                .isEqualTo(AudioPlayerPlaybackStatePayload.class);
+        assertThat(payloadTypeRegistry.find("*")).isNull();
+    }
+
+    @CEKRequestHandler
+    @Profile("CEKRequestMappingHandlerMappingTest.Payload")
+    static class PayloadEventHandler {
+
+        @EventMapping("AudioPlayer.PlayStarted")
+        CEKResponse handlePlayStarted(AudioPlayerPlaybackStatePayload payload) {
+            return CEKResponse.empty();
+        }
+
+        @EventMapping("*")
+        CEKResponse handleAll(AudioPlayerPlaybackStatePayload payload) {
+            return CEKResponse.empty();
+        }
+
+    }
+
+    // registered only by the test, as the mapping of them fails
+    @CEKRequestHandler
+    @Profile("CEKRequestMappingHandlerMappingTest.Cacheable")
+    static class SessionHolderCacheableHandler {
+
+        @IntentMapping("Cacheable.SessionHolder")
+        @CEKCacheable
+        CEKResponse handle(SessionHolder sessionHolder) {
+            return CEKResponse.empty();
+        }
+
+    }
+
+    @CEKRequestHandler
+    @Profile("CEKRequestMappingHandlerMappingTest.Cacheable")
+    static class SessionValueCacheableHandler {
+
+        @IntentMapping("Cacheable.SessionValue")
+        @CEKCacheable
+        CEKResponse handle(@SessionValue String state) {
+            return CEKResponse.empty();
+        }
+
+    }
+
     @Target(ElementType.METHOD)
     @Retention(RetentionPolicy.RUNTIME)
     @Documented
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static com.linecorp.clova.extension.boot.message.speech.OutputSpeech.text;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SlotValue;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.scenario.CEKScenario;
+import com.linecorp.clova.extension.test.scenario.CEKScenarioRunner;
+import com.linecorp.clova.extension.test.scenario.ScenarioReport;
+import com.linecorp.clova.extension.test.scenario.ScenarioResult;
+import com.linecorp.clova.extension.test.target.CEKTargets;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class CEKScenarioRunnerTest {
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class TestHandler {
+
+            @IntentMapping("CEKScenario")
+            CEKResponse handle(@SlotValue String word) {
+                return CEKResponse.builder()
+                                  .outputSpeech(text(word))
+                                  .build();
+            }
+        }
+
+    }
+
+    @Autowired
+    ApplicationContext context;
+
+    @Autowired
+    CEKRequestProcessor processor;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    public void runScenarioFiles() throws Exception {
+        Path junitReport = Paths.get("target/cek-scenarios/TEST-cek-scenarios.xml");
+
+        ScenarioReport report = CEKScenarioRunner.scenarios("classpath*:scenarios/*.json")
+                                                 .target(CEKTargets.inProcess(context, processor::process))
+                                                 .parallelism(2)
+                                                 .junitReport(junitReport)
+                                                 .run();
+
+        assertThat(report.getResults()).hasSize(2);
+        assertThat(report.getFailures()).isEmpty();
+        assertThat(report.getSlowest(1)).hasSize(1);
+
+        String xml = new String(Files.readAllBytes(junitReport), StandardCharsets.UTF_8);
+        assertThat(xml).contains("tests=\"2\" failures=\"0\" errors=\"0\"")
+                       .contains("<testcase name=\"echo hello\"")
+                       .contains("<testcase name=\"echo bonjour\"")
+                       .contains("Slowest scenarios:")
+                       .endsWith("</testsuite>\n");
+    }
+
+    @Test
+    public void reportDifferences() {
+        byte[] requestBody = CEKRequestGenerator.requestBodyBuilder()
+                                                .intent("CEKScenario")
+                                                .slot("word", "hello")
+                                                .build()
+                                                .getBytes(StandardCharsets.UTF_8);
+        CEKScenario scenario = new CEKScenario(
+                "wrong", "test", Collections.emptyMap(), requestBody, 200,
+                objectMapper.createObjectNode()
+                            .set("response", objectMapper.createObjectNode()
+                                                         .put("shouldEndSession", false)));
+
+        ScenarioReport report = CEKScenarioRunner.of(Collections.singletonList(scenario))
+                                                 .target(CEKTargets.inProcess(context, processor::process))
+                                                 .run();
+
+        assertThat(report.isPassed()).isFalse();
+        ScenarioResult result = report.getFailures().get(0);
+        assertThat(result.getError()).isNull();
+        assertThat(result.getDifferences()).containsExactly("/response/shouldEndSession: false -> true");
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKCacheable;
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SlotValue;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeech;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("CacheableHandlerTest")
+public class CacheableHandlerTest {
+
+    @TestConfiguration
+    @Profile("CacheableHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class WeatherHandler {
+
+            @IntentMapping("Cacheable.Weather")
+            @CEKCacheable(slots = "city")
+            CEKResponse handleWeather(@SlotValue String city) {
+                return CEKResponse.builder()
+                                  .outputSpeech(OutputSpeech.text(city + "は晴れです。"))
+                                  .shouldEndSession(false)
+                                  .build();
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @SpyBean
+    TestConfig.WeatherHandler handler;
+
+    @After
+    public void tearDown() {
+        reset(handler);
+    }
+
+    @Test
+    public void handleWeather() throws Exception {
+        for (String count : new String[] { "1", "2" }) {
+            mvc.perform(post("/cek/v1")
+                                .content(CEKRequestGenerator.requestBodyBuilder()
+                                                            .intent("Cacheable.Weather")
+                                                            .slot("city", "東京")
+                                                            .sessionAttribute("count", count)
+                                                            .build())
+                                .contentType(MediaType.APPLICATION_JSON))
+               .andDo(print())
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.response.outputSpeech.values.value").value("東京は晴れです。"))
+               .andExpect(jsonPath("$.sessionAttributes.count").value(count));
+        }
+        mvc.perform(post("/cek/v1")
+                            .content(CEKRequestGenerator.requestBodyBuilder()
+                                                        .intent("Cacheable.Weather")
+                                                        .slot("city", "大阪")
+                                                        .build())
+                            .contentType(MediaType.APPLICATION_JSON))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.response.outputSpeech.values.value").value("大阪は晴れです。"));
+
+        verify(handler, times(2)).handleWeather(anyString());
+    }
+
+}
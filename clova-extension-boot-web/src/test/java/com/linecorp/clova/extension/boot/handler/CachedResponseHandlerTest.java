@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+import com.linecorp.clova.extension.boot.message.response.CEKResponses;
+import com.linecorp.clova.extension.boot.message.response.ConstantCEKResponses;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeech;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeechGenerator;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("CachedResponseHandlerTest")
+public class CachedResponseHandlerTest {
+
+    @TestConfiguration
+    @Profile("CachedResponseHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class TestHandler {
+
+            final AtomicInteger created = new AtomicInteger();
+
+            @Autowired
+            ConstantCEKResponses constantResponses;
+
+            @IntentMapping("CachedResponse.Welcome")
+            CEKResponse handleWelcome() {
+                return constantResponses.get("welcome", this::welcome);
+            }
+
+            CEKResponse welcome() {
+                created.incrementAndGet();
+                return CEKResponse.builder()
+                                  .outputSpeech(OutputSpeech.text("ようこそ"))
+                                  .shouldEndSession(false)
+                                  .build();
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ConstantCEKResponses constantResponses;
+
+    @Autowired
+    OutputSpeechGenerator outputSpeechGenerator;
+
+    @SpyBean
+    TestConfig.TestHandler handler;
+
+    @After
+    public void tearDown() {
+        constantResponses.clearCache();
+        handler.created.set(0);
+    }
+
+    @Test
+    public void handleWelcome() throws Exception {
+        for (String count : new String[] { "1", "2" }) {
+            mvc.perform(post("/cek/v1")
+                                .content(CEKRequestGenerator.requestBodyBuilder()
+                                                            .intent("CachedResponse.Welcome")
+                                                            .sessionAttribute("count", count)
+                                                            .build())
+                                .contentType(MediaType.APPLICATION_JSON))
+               .andDo(print())
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.response.outputSpeech.values.value").value("ようこそ"))
+               .andExpect(jsonPath("$.response.shouldEndSession").value(false))
+               .andExpect(jsonPath("$.sessionAttributes.count").value(count))
+               .andExpect(jsonPath("$.meta.customExtensionSdk").exists());
+        }
+
+        assertThat(handler.created).hasValue(1);
+    }
+
+    @Test
+    public void serialize() throws Exception {
+        CEKResponse cached = constantResponses.get("welcome", handler::welcome);
+
+        assertThat(constantResponses.get("welcome", handler::welcome)).isSameAs(cached);
+        for (int i = 0; i < 2; i++) {
+            assertThat(json(cached)).isEqualTo(json(handler.welcome()));
+        }
+        assertThatThrownBy(() -> cached.setShouldEndSession(true))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(cached).isEqualTo(handler.welcome());
+    }
+
+    @Test
+    public void serialize_writtenWhenCached() throws Exception {
+        CEKResponse welcome = handler.welcome();
+        CEKResponse cached = constantResponses.get("welcome", () -> welcome);
+        welcome.getOutputSpeech().setValues(null);
+
+        assertThat(json(cached)).isEqualTo(json(handler.welcome()));
+    }
+
+    @Test
+    public void serialized() throws Exception {
+        CEKResponse serialized = CEKResponses.serialized(objectMapper,
+                                                         objectMapper.writeValueAsString(handler.welcome()),
+                                                         false);
+
+        assertThat(serialized.getShouldEndSession()).isFalse();
+        assertThat(serialized.getOutputSpeech()).isEqualTo(handler.welcome().getOutputSpeech());
+        assertThat(serialized).isEqualTo(handler.welcome());
+        assertThat(json(serialized)).isEqualTo(json(handler.welcome()));
+    }
+
+    @Test
+    public void clearCache() {
+        CEKResponse cached = constantResponses.get("welcome", handler::welcome);
+        outputSpeechGenerator.clearCache();
+
+        assertThat(constantResponses.get("welcome", handler::welcome)).isNotSameAs(cached);
+        assertThat(handler.created).hasValue(2);
+    }
+
+    private JsonNode json(CEKResponse response) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(new CEKResponseMessage(response)));
+    }
+
+}
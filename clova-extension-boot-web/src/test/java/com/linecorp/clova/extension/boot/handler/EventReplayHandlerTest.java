@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.EventMapping;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateStore;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "cek.event-replay.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("EventReplayHandlerTest")
+public class EventReplayHandlerTest {
+
+    @TestConfiguration
+    @Profile("EventReplayHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        @Profile("EventReplayHandlerTest")
+        static class PlayHandler {
+
+            final List<String> events = new CopyOnWriteArrayList<>();
+
+            @EventMapping("AudioPlayer.PlayStarted")
+            CEKResponse handlePlayStarted() {
+                events.add("AudioPlayer.PlayStarted");
+                return CEKResponse.empty();
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    TestConfig.PlayHandler handler;
+
+    @MockBean
+    PlaybackStateStore playbackStateStore;
+
+    @Test
+    public void replayBeforeRecording() throws Exception {
+        String timestamp = OffsetDateTime.now(ZoneOffset.UTC).toString();
+        sendEvent("request-1", timestamp);
+        // retried by the client
+        sendEvent("request-1", timestamp);
+
+        assertThat(handler.events).hasSize(1);
+        verify(playbackStateStore, times(1)).record(any(CEKRequestMessage.class));
+    }
+
+    private void sendEvent(String requestId, String timestamp) throws Exception {
+        mvc.perform(post("/cek/v1")
+                            .content(CEKRequestGenerator.requestBodyBuilder()
+                                                        .event("AudioPlayer.PlayStarted")
+                                                        .put("$.request.requestId", requestId)
+                                                        .put("$.request.timestamp", timestamp)
+                                                        .put("$.request.event.payload.token", "token-1")
+                                                        .put("$.request.event.payload.offsetInMilliseconds",
+                                                             0)
+                                                        .build())
+                            .contentType(MediaType.APPLICATION_JSON))
+           .andExpect(status().isOk());
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.linecorp.clova.extension.boot.controller.CEKHandleIntentController;
+import com.linecorp.clova.extension.boot.exception.MissingSlotException;
+import com.linecorp.clova.extension.boot.exception.RequestHandlerNotFoundException;
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SlotValue;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "cek.expected-exceptions-thrown=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("ExpectedOutcomeHandlerTest")
+public class ExpectedOutcomeHandlerTest {
+
+    @TestConfiguration
+    @Profile("ExpectedOutcomeHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        @Profile("ExpectedOutcomeHandlerTest")
+        static class GreetingHandler {
+
+            @IntentMapping("Greeting")
+            CEKResponse handleGreeting(@SlotValue String name) {
+                return CEKResponse.empty();
+            }
+
+        }
+
+        @RestControllerAdvice(assignableTypes = CEKHandleIntentController.class)
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        @Profile("ExpectedOutcomeHandlerTest")
+        static class ThrownExceptionAdvice {
+
+            final List<Throwable> thrown = new CopyOnWriteArrayList<>();
+
+            @ExceptionHandler({ RequestHandlerNotFoundException.class, MissingSlotException.class })
+            CEKResponseMessage handle(Throwable t) {
+                thrown.add(t);
+                return new CEKResponseMessage(CEKResponse.empty());
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    TestConfig.ThrownExceptionAdvice advice;
+
+    @After
+    public void tearDown() {
+        advice.thrown.clear();
+    }
+
+    @Test
+    public void handlerNotFound() throws Exception {
+        send("Unknown", "name", "Clova")
+                .andExpect(jsonPath("$.response.outputSpeech.values.value").isNotEmpty());
+
+        assertThat(advice.thrown).isEmpty();
+    }
+
+    @Test
+    public void missingSlot() throws Exception {
+        send("Greeting", "other", "Clova")
+                .andExpect(jsonPath("$.response.outputSpeech.values.value").isNotEmpty());
+
+        assertThat(advice.thrown).isEmpty();
+    }
+
+    @Test
+    public void handled() throws Exception {
+        send("Greeting", "name", "Clova")
+                .andExpect(jsonPath("$.response.outputSpeech").doesNotExist());
+    }
+
+    private ResultActions send(String intent, String slotName, String slotValue) throws Exception {
+        return mvc.perform(post("/cek/v1")
+                                   .content(CEKRequestGenerator.requestBodyBuilder()
+                                                               .intent(intent)
+                                                               .slot(slotName, slotValue)
+                                                               .build())
+                                   .contentType(MediaType.APPLICATION_JSON))
+                  .andExpect(status().isOk());
+    }
+
+}
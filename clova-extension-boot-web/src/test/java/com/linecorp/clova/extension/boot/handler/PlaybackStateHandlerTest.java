@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.PlaybackStateMapping;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateBuffer;
+import com.linecorp.clova.extension.boot.handler.playback.PlaybackStateUpdate;
+import com.linecorp.clova.extension.boot.message.response.ConstantCEKResponses;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.CEKRequestGenerator.RequestBodyBuilder;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "cek.playback-state.flush-interval=1h")
+@AutoConfigureMockMvc
+@ActiveProfiles("PlaybackStateHandlerTest")
+public class PlaybackStateHandlerTest {
+
+    @TestConfiguration
+    @Profile("PlaybackStateHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class ProgressHandler {
+
+            final List<PlaybackStateUpdate> updates = new CopyOnWriteArrayList<>();
+
+            @PlaybackStateMapping({ "AudioPlayer.ProgressReportIntervalPassed", "AudioPlayer.PlayPaused" })
+            void handleProgress(PlaybackStateUpdate update) {
+                updates.add(update);
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    TestConfig.ProgressHandler handler;
+
+    @Autowired
+    PlaybackStateBuffer playbackStateBuffer;
+
+    @SpyBean
+    ConstantCEKResponses constantResponses;
+
+    @After
+    public void tearDown() {
+        playbackStateBuffer.flush();
+        handler.updates.clear();
+    }
+
+    @Test
+    public void coalesceProgress() throws Exception {
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-1", 2000, "2018-09-01T10:00:02Z");
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-1", 3000, "2018-09-01T10:00:03Z");
+        // delivered late, but older than the others
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-1", 1000, "2018-09-01T10:00:01Z");
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-2", 500, "2018-09-01T10:00:01Z");
+
+        assertThat(handler.updates).isEmpty();
+        assertThat(playbackStateBuffer.getPendingCount()).isEqualTo(2);
+
+        playbackStateBuffer.flush();
+
+        assertThat(playbackStateBuffer.getPendingCount()).isZero();
+        assertThat(handler.updates).hasSize(2);
+        PlaybackStateUpdate update = findUpdate("token-1", "AudioPlayer.ProgressReportIntervalPassed");
+        assertThat(update.getUserId()).isEqualTo("user-1");
+        assertThat(update.getPayload().getOffsetInMilliseconds()).isEqualTo(3000L);
+        assertThat(update.getEventCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void keepEventNamesApart() throws Exception {
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-1", 2000, "2018-09-01T10:00:02Z");
+        sendEvent("AudioPlayer.PlayPaused", "token-1", 1000, "2018-09-01T10:00:01Z");
+
+        assertThat(playbackStateBuffer.getPendingCount()).isEqualTo(2);
+
+        playbackStateBuffer.flush();
+
+        assertThat(handler.updates).hasSize(2);
+        assertThat(findUpdate("token-1", "AudioPlayer.ProgressReportIntervalPassed")
+                           .getPayload().getOffsetInMilliseconds()).isEqualTo(2000L);
+        assertThat(findUpdate("token-1", "AudioPlayer.PlayPaused")
+                           .getPayload().getOffsetInMilliseconds()).isEqualTo(1000L);
+    }
+
+    @Test
+    public void handleWithoutUserImmediately() throws Exception {
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-1", 1000, "2018-09-01T10:00:01Z", null);
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-1", 2000, "2018-09-01T10:00:02Z", null);
+
+        assertThat(playbackStateBuffer.getPendingCount()).isZero();
+        assertThat(handler.updates).hasSize(2);
+        assertThat(handler.updates).allSatisfy(update -> {
+            assertThat(update.getUserId()).isNull();
+            assertThat(update.getEventCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    public void respondWithConstantResponse() throws Exception {
+        sendEvent("AudioPlayer.ProgressReportIntervalPassed", "token-1", 1000, "2018-09-01T10:00:01Z");
+        sendEvent("AudioPlayer.PlayPaused", "token-1", 2000, "2018-09-01T10:00:02Z");
+
+        verify(constantResponses, times(2)).get(any(), any());
+    }
+
+    private PlaybackStateUpdate findUpdate(String token, String eventName) {
+        return handler.updates.stream()
+                              .filter(u -> token.equals(u.getPayload().getToken())
+                                           && eventName.equals(u.getEventName()))
+                              .findFirst()
+                              .orElseThrow(AssertionError::new);
+    }
+
+    private void sendEvent(String event, String token, long offset, String timestamp) throws Exception {
+        sendEvent(event, token, offset, timestamp, "user-1");
+    }
+
+    private void sendEvent(String event, String token, long offset, String timestamp, String userId)
+            throws Exception {
+        RequestBodyBuilder builder = CEKRequestGenerator.requestBodyBuilder()
+                                                        .event(event)
+                                                        .put("$.request.timestamp", timestamp)
+                                                        .put("$.request.event.payload.token", token)
+                                                        .put("$.request.event.payload.offsetInMilliseconds",
+                                                             offset);
+        if (userId != null) {
+            builder.placeholder("sessionUserId", userId);
+        } else {
+            builder.remove("$.session.user.userId");
+        }
+        mvc.perform(post("/cek/v1")
+                            .content(builder.build())
+                            .contentType(MediaType.APPLICATION_JSON))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.response.outputSpeech").doesNotExist());
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SessionStateCondition;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.session.SessionAttributesCodec;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.CEKRequestGenerator.RequestBodyBuilder;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("SessionStateCodecHandlerTest")
+@TestPropertySource(properties = "cek.session-codec.enabled=true")
+public class SessionStateCodecHandlerTest {
+
+    @TestConfiguration
+    @Profile("SessionStateCodecHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class QuizHandler {
+
+            @IntentMapping("StateCodec.Answer")
+            @SessionStateCondition("quiz")
+            CEKResponse handleQuizAnswer() {
+                return CEKResponse.empty();
+            }
+
+            @IntentMapping("StateCodec.Answer")
+            CEKResponse handleAnswer() {
+                return CEKResponse.empty();
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    SessionAttributesCodec codec;
+
+    @SpyBean
+    TestConfig.QuizHandler handler;
+
+    @After
+    public void tearDown() {
+        reset(handler);
+    }
+
+    @Test
+    public void handleQuizAnswer_encodedState() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("StateCodec.Answer")
+                                   .sessionAttribute(codec.getAttributeName(), encodeState("quiz")));
+
+        verify(handler).handleQuizAnswer();
+    }
+
+    @Test
+    public void handleQuizAnswer_plainState() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("StateCodec.Answer")
+                                   .sessionAttribute("state", "quiz"));
+
+        verify(handler).handleQuizAnswer();
+    }
+
+    @Test
+    public void handleAnswer_encodedUnknownState() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("StateCodec.Answer")
+                                   .sessionAttribute(codec.getAttributeName(), encodeState("unknown")));
+
+        verify(handler).handleAnswer();
+    }
+
+    private String encodeState(String state) {
+        return codec.encode(Collections.singletonMap("state", state));
+    }
+
+    private void perform(RequestBodyBuilder builder) throws Exception {
+        mvc.perform(post("/cek/v1")
+                            .content(builder.build())
+                            .contentType(MediaType.APPLICATION_JSON))
+           .andDo(print())
+           .andExpect(status().isOk());
+    }
+
+}
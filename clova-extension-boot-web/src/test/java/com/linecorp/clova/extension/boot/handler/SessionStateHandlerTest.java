@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SessionStateCondition;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.CEKRequestGenerator.RequestBodyBuilder;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("SessionStateHandlerTest")
+public class SessionStateHandlerTest {
+
+    @TestConfiguration
+    @Profile("SessionStateHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class QuizHandler {
+
+            @IntentMapping("State.Answer")
+            @SessionStateCondition("quiz")
+            CEKResponse handleQuizAnswer() {
+                return CEKResponse.empty();
+            }
+
+            @IntentMapping("State.Answer")
+            @SessionStateCondition({ "result", "retry" })
+            CEKResponse handleResultAnswer() {
+                return CEKResponse.empty();
+            }
+
+            @IntentMapping("State.Answer")
+            CEKResponse handleAnswer() {
+                return CEKResponse.empty();
+            }
+
+            @IntentMapping("State.Level")
+            @SessionStateCondition(state = "quiz", attribute = "mode")
+            CEKResponse handleLevelInQuizMode() {
+                return CEKResponse.empty();
+            }
+
+            @IntentMapping("State.Level")
+            CEKResponse handleLevel() {
+                return CEKResponse.empty();
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @SpyBean
+    TestConfig.QuizHandler handler;
+
+    @After
+    public void tearDown() {
+        reset(handler);
+    }
+
+    @Test
+    public void handleQuizAnswer() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("State.Answer")
+                                   .sessionAttribute("state", "quiz"));
+
+        verify(handler).handleQuizAnswer();
+    }
+
+    @Test
+    public void handleResultAnswer() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("State.Answer")
+                                   .sessionAttribute("state", "retry"));
+
+        verify(handler).handleResultAnswer();
+    }
+
+    @Test
+    public void handleAnswer_unknownState() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("State.Answer")
+                                   .sessionAttribute("state", "unknown"));
+
+        verify(handler).handleAnswer();
+    }
+
+    @Test
+    public void handleAnswer_noState() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("State.Answer"));
+
+        verify(handler).handleAnswer();
+    }
+
+    @Test
+    public void handleAnswer_notStringState() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("State.Answer")
+                                   .sessionAttribute("state", 1));
+
+        verify(handler).handleAnswer();
+    }
+
+    @Test
+    public void handleLevelInQuizMode() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("State.Level")
+                                   .sessionAttribute("state", "result")
+                                   .sessionAttribute("mode", "quiz"));
+
+        verify(handler).handleLevelInQuizMode();
+    }
+
+    @Test
+    public void handleLevel() throws Exception {
+        perform(CEKRequestGenerator.requestBodyBuilder()
+                                   .intent("State.Level")
+                                   .sessionAttribute("state", "quiz"));
+
+        verify(handler).handleLevel();
+        verifyNoMoreInteractions(handler);
+    }
+
+    private void perform(RequestBodyBuilder builder) throws Exception {
+        mvc.perform(post("/cek/v1")
+                            .content(builder.build())
+                            .contentType(MediaType.APPLICATION_JSON))
+           .andDo(print())
+           .andExpect(status().isOk());
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.session.SessionHolder;
+import com.linecorp.clova.extension.boot.session.store.CEKSessionStore;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.CEKRequestGenerator.RequestBodyBuilder;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("SessionStoreHandlerTest")
+@TestPropertySource(properties = "cek.session-store.type=memory")
+public class SessionStoreHandlerTest {
+
+    private static final String SESSION_ID = "SessionStoreHandlerTest";
+
+    @TestConfiguration
+    @Profile("SessionStoreHandlerTest")
+    static class TestConfig {
+
+        @CEKRequestHandler
+        static class StoreHandler {
+
+            @IntentMapping("SessionStore.Count")
+            CEKResponse handleCount(SessionHolder sessionHolder) {
+                Integer count = sessionHolder.getAttribute("count", Integer.class);
+                sessionHolder.setAttribute("count", count != null ? count + 1 : 1);
+                return CEKResponse.builder()
+                                  .shouldEndSession(false)
+                                  .build();
+            }
+
+            @IntentMapping("SessionStore.Fail")
+            CEKResponse handleFail(SessionHolder sessionHolder) {
+                sessionHolder.setAttribute("count", 0);
+                throw new IllegalStateException("SessionStore.Fail");
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    CEKSessionStore store;
+
+    @After
+    public void tearDown() {
+        store.remove(SESSION_ID);
+    }
+
+    @Test
+    public void keepAttributes() throws Exception {
+        store.save(SESSION_ID, Collections.singletonMap("count", 1));
+
+        perform(requestBodyBuilder().intent("SessionStore.Count"));
+
+        assertThat(store.load(SESSION_ID)).containsOnly(entry("count", 2));
+    }
+
+    @Test
+    public void discardAttributes_handlerFailed() throws Exception {
+        store.save(SESSION_ID, Collections.singletonMap("count", 1));
+
+        perform(requestBodyBuilder().intent("SessionStore.Fail"));
+
+        assertThat(store.load(SESSION_ID)).isNull();
+    }
+
+    @Test
+    public void discardAttributes_handlerNotFound() throws Exception {
+        store.save(SESSION_ID, Collections.singletonMap("count", 1));
+
+        perform(requestBodyBuilder().intent("SessionStore.Unknown"));
+
+        assertThat(store.load(SESSION_ID)).isNull();
+    }
+
+    private static RequestBodyBuilder requestBodyBuilder() {
+        return CEKRequestGenerator.requestBodyBuilder()
+                                  .placeholder("sessionId", SESSION_ID)
+                                  .sessionAttribute("_cekSession", SESSION_ID);
+    }
+
+    private ResultActions perform(RequestBodyBuilder builder) throws Exception {
+        return mvc.perform(post("/cek/v1")
+                                   .content(builder.build())
+                                   .contentType(MediaType.APPLICATION_JSON))
+                  .andDo(print());
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.IntentMapping;
+import com.linecorp.clova.extension.boot.handler.annnotation.SlotValue;
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotDictionary;
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotEntity;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("SlotDictionaryHandlerTest")
+public class SlotDictionaryHandlerTest {
+
+    @TestConfiguration
+    @Profile("SlotDictionaryHandlerTest")
+    static class TestConfig {
+
+        @Bean
+        SlotDictionary songDictionary() {
+            return SlotDictionary.builder("songs")
+                                 .add("song-1", "Yesterday Once More", "Yesterday")
+                                 .add("song-2", "Top of the World")
+                                 .build();
+        }
+
+        @CEKRequestHandler
+        @Profile("SlotDictionaryHandlerTest")
+        static class SongHandler {
+
+            final List<Object> songs = new CopyOnWriteArrayList<>();
+
+            @IntentMapping("PlaySong")
+            CEKResponse handlePlaySong(@SlotValue(dictionary = "songs") SlotEntity song) {
+                songs.add(song);
+                return CEKResponse.empty();
+            }
+
+            @IntentMapping("FindSong")
+            CEKResponse handleFindSong(@SlotValue(dictionary = "songs") Optional<String> song) {
+                songs.add(song);
+                return CEKResponse.empty();
+            }
+
+            @IntentMapping("FindArtist")
+            CEKResponse handleFindArtist(@SlotValue(dictionary = "artists") String artist) {
+                songs.add(artist);
+                return CEKResponse.empty();
+            }
+
+        }
+
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    TestConfig.SongHandler handler;
+
+    @After
+    public void tearDown() {
+        handler.songs.clear();
+    }
+
+    @Test
+    public void handlePlaySong_synonym() throws Exception {
+        send("PlaySong", "yesterday")
+                .andExpect(jsonPath("$.response.outputSpeech").doesNotExist());
+
+        assertThat(handler.songs).hasSize(1);
+        SlotEntity song = (SlotEntity) handler.songs.get(0);
+        assertThat(song.getId()).isEqualTo("song-1");
+        assertThat(song.getValue()).isEqualTo("Yesterday Once More");
+        assertThat(song.getMatchType()).isEqualTo(SlotEntity.MatchType.SYNONYM);
+    }
+
+    @Test
+    public void handlePlaySong_fuzzy() throws Exception {
+        send("PlaySong", "top of the wold")
+                .andExpect(jsonPath("$.response.outputSpeech").doesNotExist());
+
+        SlotEntity song = (SlotEntity) handler.songs.get(0);
+        assertThat(song.getId()).isEqualTo("song-2");
+        assertThat(song.getMatchType()).isEqualTo(SlotEntity.MatchType.FUZZY);
+        assertThat(song.getDistance()).isEqualTo(1);
+    }
+
+    @Test
+    public void handlePlaySong_noMatch() throws Exception {
+        send("PlaySong", "Unknown Song")
+                .andExpect(jsonPath("$.response.outputSpeech.values.value").isNotEmpty());
+
+        assertThat(handler.songs).isEmpty();
+    }
+
+    @Test
+    public void handleFindSong() throws Exception {
+        send("FindSong", "Top of the World");
+        send("FindSong", "Unknown Song");
+
+        assertThat(handler.songs).containsExactly(Optional.of("Top of the World"), Optional.empty());
+    }
+
+    @Test
+    public void handleFindArtist_unknownDictionary() throws Exception {
+        send("FindArtist", "artist", "The Carpenters")
+                .andExpect(jsonPath("$.response.outputSpeech.values.value").isNotEmpty());
+
+        assertThat(handler.songs).isEmpty();
+    }
+
+    private ResultActions send(String intent, String song) throws Exception {
+        return send(intent, "song", song);
+    }
+
+    private ResultActions send(String intent, String slotName, String slotValue) throws Exception {
+        return mvc.perform(post("/cek/v1")
+                                   .content(CEKRequestGenerator.requestBodyBuilder()
+                                                               .intent(intent)
+                                                               .slot(slotName, slotValue)
+                                                               .build())
+                                   .contentType(MediaType.APPLICATION_JSON))
+                  .andExpect(status().isOk());
+    }
+
+}
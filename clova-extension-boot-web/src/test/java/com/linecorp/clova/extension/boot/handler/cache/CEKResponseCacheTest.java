@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.handler.CEKHandlerMethod;
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKCacheable;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.RequestType;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeech;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+
+public class CEKResponseCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @CEKCacheable(slots = "city")
+    CEKResponse weather() {
+        return CEKResponse.builder()
+                          .outputSpeech(OutputSpeech.text("晴れ"))
+                          .shouldEndSession(false)
+                          .build();
+    }
+
+    @Test
+    public void test_cacheBySlots() throws Exception {
+        CEKResponseCache cache = new CEKResponseCache(new InMemoryCEKResponseCacheStore(10),
+                                                      Duration.ofMinutes(1));
+        AtomicInteger loadCount = new AtomicInteger();
+
+        Object response = cache.get(handlerMethod(), request("Tokyo", "1"), () -> load(loadCount));
+        assertThat(cache.get(handlerMethod(), request("Tokyo", "2"), () -> load(loadCount)))
+                .isSameAs(response);
+        cache.get(handlerMethod(), request("Osaka", "1"), () -> load(loadCount));
+
+        assertThat(loadCount).hasValue(2);
+        assertThat(cache.getMetrics()).satisfies(metrics -> {
+            assertThat(metrics.getHitCount()).isEqualTo(1);
+            assertThat(metrics.getMissCount()).isEqualTo(2);
+            assertThat(metrics.getLoadCount()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    public void test_singleFlight() throws Exception {
+        CEKResponseCache cache = new CEKResponseCache(new InMemoryCEKResponseCacheStore(10),
+                                                      Duration.ofMinutes(1));
+        CEKRequestMessage request = request("Tokyo", "1");
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(
+                () -> cache.get(handlerMethod(), request, () -> {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return load(loadCount);
+                }));
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> second = CompletableFuture.supplyAsync(
+                () -> cache.get(handlerMethod(), request, () -> load(loadCount)));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertThat(second.get(10, TimeUnit.SECONDS)).isSameAs(first.get(10, TimeUnit.SECONDS));
+        assertThat(loadCount).hasValue(1);
+    }
+
+    @Test
+    public void test_inMemory_evict() {
+        InMemoryCEKResponseCacheStore store = new InMemoryCEKResponseCacheStore(2);
+        store.put("a", weather(), Duration.ofMinutes(1));
+        store.put("b", weather(), Duration.ofMinutes(1));
+        store.get("a");
+        store.put("c", weather(), Duration.ofMinutes(1));
+
+        assertThat(store.get("a")).isNotNull();
+        assertThat(store.get("b")).isNull();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_inMemory_expire() throws Exception {
+        InMemoryCEKResponseCacheStore store = new InMemoryCEKResponseCacheStore(2);
+        store.put("a", weather(), Duration.ofMillis(10));
+
+        Thread.sleep(50);
+
+        assertThat(store.get("a")).isNull();
+    }
+
+    @Test
+    public void test_remote() throws Exception {
+        InMemoryRemoteResponseCacheClient client = new InMemoryRemoteResponseCacheClient();
+        RemoteCEKResponseCacheStore store = new RemoteCEKResponseCacheStore(objectMapper, client);
+
+        store.put("a", weather(), Duration.ofMinutes(1));
+        CEKResponse cached = store.get("a");
+
+        assertThat(client.size()).isEqualTo(1);
+        assertThat(cached.getShouldEndSession()).isFalse();
+        assertThat(objectMapper.writeValueAsString(new CEKResponseMessage(cached)))
+                .isEqualTo(objectMapper.writeValueAsString(new CEKResponseMessage(weather())));
+        assertThat(cached).isEqualTo(weather());
+        assertThat(cached.getOutputSpeech()).isEqualTo(weather().getOutputSpeech());
+        assertThat(store.get("b")).isNull();
+    }
+
+    @Test
+    public void test_remote_unknownFormat() throws Exception {
+        InMemoryRemoteResponseCacheClient client = new InMemoryRemoteResponseCacheClient();
+        RemoteCEKResponseCacheStore store = new RemoteCEKResponseCacheStore(objectMapper, client);
+
+        client.set("a", objectMapper.writeValueAsBytes(weather()), Duration.ofMinutes(1));
+
+        assertThat(store.get("a")).isNull();
+    }
+
+    private Object load(AtomicInteger loadCount) {
+        loadCount.incrementAndGet();
+        return weather();
+    }
+
+    private CEKHandlerMethod handlerMethod() {
+        Method method = ReflectionUtils.findMethod(CEKResponseCacheTest.class, "weather");
+        return CEKHandlerMethod.builder()
+                               .requestType(RequestType.INTENT)
+                               .bean(this)
+                               .method(method)
+                               .name("Weather")
+                               .build();
+    }
+
+    private CEKRequestMessage request(String city, String other) throws Exception {
+        return objectMapper.readValue(CEKRequestGenerator.requestBodyBuilder()
+                                                         .intent("Weather")
+                                                         .slot("city", city)
+                                                         .slot("other", other)
+                                                         .build(),
+                                      CEKRequestMessage.class);
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.request.EventRequest;
+import com.linecorp.clova.extension.boot.message.response.CEKResponse;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+
+import lombok.RequiredArgsConstructor;
+
+public class EventReplayCacheTest {
+
+    private static final Instant NOW = Instant.parse("2018-10-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventReplayCache cache = new EventReplayCache(objectMapper, Duration.ofMinutes(5), 2,
+                                                                Clock.fixed(NOW, ZoneOffset.UTC));
+    private final AtomicInteger processCount = new AtomicInteger();
+
+    @Test
+    public void test_replay() throws Throwable {
+        CEKResponseMessage first = cache.process(eventRequest("request-1", NOW), this::process);
+        CEKResponseMessage retried = cache.process(eventRequest("request-1", NOW.plusSeconds(10)),
+                                                   this::process);
+
+        assertThat(processCount).hasValue(1);
+        assertThat(retried).isNotSameAs(first);
+        assertThat(retried.getResponse()).isSameAs(first.getResponse());
+        assertThat(retried.getSessionAttributes()).containsEntry("count", 1);
+        assertThat(cache.getMetrics().getReplayCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_serializeSessionAttributesOnce() throws Throwable {
+        AtomicInteger serializeCount = new AtomicInteger();
+        EventReplayCache.Processor processor = () -> {
+            CEKResponseMessage responseMessage = new CEKResponseMessage(CEKResponse.empty());
+            SerializeCounter counter = new SerializeCounter(serializeCount);
+            responseMessage.setSessionAttributes(Collections.singletonMap("value", counter));
+            return responseMessage;
+        };
+        CEKResponseMessage first = cache.process(eventRequest("request-1", NOW), processor);
+        CEKResponseMessage retried = cache.process(eventRequest("request-1", NOW), processor);
+
+        assertThat(objectMapper.writeValueAsString(retried))
+                .isEqualTo(objectMapper.writeValueAsString(first));
+        assertThat(retried.getSessionAttributes()).containsEntry("value", 1);
+        assertThat(serializeCount).hasValue(1);
+    }
+
+    @Test
+    public void test_noRequestId() throws Throwable {
+        cache.process(eventRequest(null, NOW), this::process);
+        cache.process(eventRequest(null, NOW), this::process);
+
+        assertThat(processCount).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void test_outOfWindow() {
+        assertThatThrownBy(() -> cache.process(eventRequest("request-1", NOW.minusSeconds(301)),
+                                               this::process))
+                .isInstanceOf(SecurityException.class);
+
+        assertThat(processCount).hasValue(0);
+        assertThat(cache.getMetrics().getRejectCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_failure() throws Throwable {
+        assertThatThrownBy(() -> cache.process(eventRequest("request-1", NOW), () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        cache.process(eventRequest("request-1", NOW), this::process);
+
+        assertThat(processCount).hasValue(1);
+    }
+
+    @Test
+    public void test_evict() throws Throwable {
+        cache.process(eventRequest("request-1", NOW), this::process);
+        cache.process(eventRequest("request-2", NOW), this::process);
+        cache.process(eventRequest("request-3", NOW), this::process);
+        cache.process(eventRequest("request-1", NOW), this::process);
+
+        assertThat(processCount).hasValue(4);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private CEKResponseMessage process() {
+        processCount.incrementAndGet();
+        CEKResponseMessage responseMessage = new CEKResponseMessage(CEKResponse.builder()
+                                                                               .shouldEndSession(false)
+                                                                               .build());
+        responseMessage.setSessionAttributes(Collections.singletonMap("count", 1));
+        return responseMessage;
+    }
+
+    private static EventRequest eventRequest(String requestId, Instant timestamp) {
+        EventRequest eventRequest = new EventRequest();
+        eventRequest.setRequestId(requestId);
+        eventRequest.setTimestamp(OffsetDateTime.ofInstant(timestamp, ZoneOffset.UTC));
+        return eventRequest;
+    }
+
+    @RequiredArgsConstructor
+    static class SerializeCounter {
+
+        private final AtomicInteger count;
+
+        @JsonValue
+        public int value() {
+            return count.incrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.dictionary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import com.linecorp.clova.extension.boot.handler.dictionary.SlotEntity.MatchType;
+
+public class SlotDictionaryTest {
+
+    private final SlotDictionary dictionary = SlotDictionary.builder("stations")
+                                                            .add("JY01", "Tokyo", "東京", "Tokyo Station")
+                                                            .add("JY02", "Kanda", "神田")
+                                                            .add("JY03", "Akihabara", "秋葉原", "Akiba")
+                                                            .add("JY04", "Kanda Sudacho")
+                                                            .build();
+
+    @Test
+    public void test_exact() {
+        SlotEntity entity = lookUp(dictionary, "ＫＡＮＤＡ ");
+
+        assertThat(entity.getDictionary()).isEqualTo("stations");
+        assertThat(entity.getId()).isEqualTo("JY02");
+        assertThat(entity.getValue()).isEqualTo("Kanda");
+        assertThat(entity.getMatchedText()).isEqualTo("ＫＡＮＤＡ ");
+        assertThat(entity.getMatchType()).isEqualTo(MatchType.EXACT);
+        assertThat(entity.getDistance()).isZero();
+        // a prefix of the other key
+        assertThat(lookUp(dictionary, "kandasudacho").getId()).isEqualTo("JY04");
+    }
+
+    @Test
+    public void test_synonym() {
+        SlotEntity entity = lookUp(dictionary, "秋葉原");
+
+        assertThat(entity.getId()).isEqualTo("JY03");
+        assertThat(entity.getValue()).isEqualTo("Akihabara");
+        assertThat(entity.getMatchType()).isEqualTo(MatchType.SYNONYM);
+        assertThat(lookUp(dictionary, "tokyo station").getId()).isEqualTo("JY01");
+    }
+
+    @Test
+    public void test_fuzzy() {
+        SlotEntity entity = lookUp(dictionary, "Akihabra");
+
+        assertThat(entity.getId()).isEqualTo("JY03");
+        assertThat(entity.getMatchType()).isEqualTo(MatchType.FUZZY);
+        assertThat(entity.getDistance()).isEqualTo(1);
+        assertThat(lookUp(dictionary, "Akihbra").getDistance()).isEqualTo(2);
+        assertThat(lookUp(dictionary, "Tokio").getId()).isEqualTo("JY01");
+    }
+
+    @Test
+    public void test_fuzzy_bounded() {
+        // one edit for 3 chars
+        assertThat(dictionary.lookup("Tokiu")).isNull();
+        assertThat(dictionary.lookup("Kan")).isNull();
+        assertThat(dictionary.lookup("Akhbr")).isNull();
+
+        SlotDictionary exactOnly = SlotDictionary.builder("exact-only")
+                                                 .maxEditDistance(0)
+                                                 .add("JY03", "Akihabara")
+                                                 .build();
+        assertThat(exactOnly.lookup("Akihabra")).isNull();
+    }
+
+    @Test
+    public void test_fuzzy_boundedScan() {
+        // all keys share the bigrams of "abcdefg", over the postings scanned by a lookup
+        SlotDictionary.Builder builder = SlotDictionary.builder("common");
+        for (char i = '一'; i < '一' + 150; i++) {
+            for (char j = '一'; j < '一' + 150; j++) {
+                builder.add(i + "-" + j, "abcdefg" + i + j);
+            }
+        }
+        SlotDictionary common = builder.build();
+        SlotDictionary small = SlotDictionary.builder("small")
+                                             .add("1", "abcdefg一一")
+                                             .build();
+
+        assertThat(lookUp(common, "abcdefg一一").getMatchType()).isEqualTo(MatchType.EXACT);
+        assertThat(lookUp(small, "abcdefg一x").getDistance()).isEqualTo(1);
+        assertThat(common.lookup("abcdefg一x")).isNull();
+    }
+
+    @Test
+    public void test_valuePrecedesSynonym() {
+        SlotDictionary songs = SlotDictionary.builder("songs")
+                                             .add("1", "Yesterday", "Today")
+                                             .add("2", "Today")
+                                             .add("3", "Tomorrow", "Yesterday")
+                                             .build();
+
+        assertThat(lookUp(songs, "today").getId()).isEqualTo("2");
+        assertThat(lookUp(songs, "yesterday").getId()).isEqualTo("1");
+        assertThat(songs.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void test_fuzzy_sameAsBruteForce() {
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>();
+        SlotDictionary.Builder builder = SlotDictionary.builder("random");
+        for (int i = 0; i < 2000; i++) {
+            String value = randomWord(random, 3 + random.nextInt(10));
+            values.add(value);
+            builder.add(String.valueOf(i), value);
+        }
+        SlotDictionary randomDictionary = builder.build();
+
+        for (int i = 0; i < 500; i++) {
+            String query = mutate(random, values.get(random.nextInt(values.size())));
+            int maxDistance = Math.min(2, query.length() / 3);
+            int expected = values.stream()
+                                 .mapToInt(value -> levenshtein(query, value))
+                                 .min()
+                                 .getAsInt();
+
+            SlotEntity entity = randomDictionary.lookup(query);
+            if (expected > maxDistance) {
+                assertThat(entity).as(query).isNull();
+            } else {
+                assertThat(entity).as(query).isNotNull();
+                assertThat(entity.getDistance()).as(query).isEqualTo(expected);
+                assertThat(levenshtein(query, entity.getValue())).as(query).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void test_load() {
+        String tsv = "# id\tvalue\tsynonyms\n"
+                     + "JY01\tTokyo\t東京\n"
+                     + "\n"
+                     + "JY02\tKanda\n";
+
+        SlotDictionary loaded = SlotDictionary.load("stations",
+                                                    new ByteArrayResource(tsv.getBytes(StandardCharsets.UTF_8)),
+                                                    1);
+
+        assertThat(loaded.getName()).isEqualTo("stations");
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(lookUp(loaded, "東京").getId()).isEqualTo("JY01");
+        assertThat(lookUp(loaded, "Kandda").getId()).isEqualTo("JY02");
+    }
+
+    @Test
+    public void test_load_invalid() {
+        ByteArrayResource resource = new ByteArrayResource("JY01\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> SlotDictionary.load("stations", resource, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void test_duplicatedName() {
+        assertThatThrownBy(() -> new SlotDictionaries(Arrays.asList(dictionary, dictionary)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SlotEntity lookUp(SlotDictionary dictionary, String text) {
+        SlotEntity entity = dictionary.lookup(text);
+        if (entity == null) {
+            throw new AssertionError("No entry matches: " + text);
+        }
+        return entity;
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(8)));
+        }
+        return sb.toString();
+    }
+
+    private static String mutate(Random random, String value) {
+        StringBuilder sb = new StringBuilder(value);
+        for (int i = random.nextInt(4); i > 0 && sb.length() > 1; i--) {
+            int position = random.nextInt(sb.length());
+            switch (random.nextInt(3)) {
+                case 0:
+                    sb.deleteCharAt(position);
+                    break;
+                case 1:
+                    sb.insert(position, (char) ('a' + random.nextInt(8)));
+                    break;
+                default:
+                    sb.setCharAt(position, (char) ('a' + random.nextInt(8)));
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] distances = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distances[i][j] = i + j;
+                } else {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    distances[i][j] = Math.min(distances[i - 1][j - 1] + cost,
+                                               Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+                }
+            }
+        }
+        return distances[a.length()][b.length()];
+    }
+
+}
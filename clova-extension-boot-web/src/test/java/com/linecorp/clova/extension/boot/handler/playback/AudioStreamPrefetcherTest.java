@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.linecorp.clova.extension.boot.message.model.AudioStreamInfoObject;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerStreamPayload;
+
+public class AudioStreamPrefetcherTest {
+
+    private final AtomicInteger resolveCount = new AtomicInteger();
+    private final AudioStreamPrefetcher prefetcher =
+            new AudioStreamPrefetcher(this::resolveNext, Duration.ofMinutes(5), 10, 1);
+
+    @After
+    public void tearDown() throws Exception {
+        prefetcher.destroy();
+    }
+
+    @Test
+    public void test_prefetch() throws Exception {
+        assertThat(prefetcher.prefetch("user-1", playing("track-1", 0))).isTrue();
+        // once per user and playing token
+        assertThat(prefetcher.prefetch("user-1", playing("track-1", 10000))).isFalse();
+        awaitSize(1);
+
+        assertThat(prefetcher.get("user-1", "track-2").getAudioStream().getUrl())
+                .isEqualTo("https://example.com/track-2");
+        assertThat(prefetcher.get("user-1", "track-3", () -> stream("track-3")).getAudioStream().getToken())
+                .isEqualTo("track-3");
+        // not shared with the other users playing the same track
+        assertThat(prefetcher.get("user-2", "track-2")).isNull();
+        assertThat(resolveCount).hasValue(1);
+
+        AudioStreamPrefetcher.Metrics metrics = prefetcher.getMetrics();
+        assertThat(metrics.getPrefetchCount()).isEqualTo(1);
+        assertThat(metrics.getHitCount()).isEqualTo(1);
+        assertThat(metrics.getMissCount()).isEqualTo(2);
+        assertThat(metrics.getHitRatio()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    public void test_failure() throws Exception {
+        assertThat(prefetcher.prefetch("user-1", playing("broken", 0))).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (prefetcher.getMetrics().getFailureCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(prefetcher.getMetrics().getFailureCount()).isEqualTo(1);
+        // retried by the next event
+        assertThat(prefetcher.prefetch("user-1", playing("broken", 1000))).isTrue();
+    }
+
+    private AudioPlayerStreamPayload resolveNext(String userId, AudioPlayerPlaybackStatePayload playing) {
+        resolveCount.incrementAndGet();
+        if ("broken".equals(playing.getToken())) {
+            throw new IllegalStateException("broken");
+        }
+        int number = Integer.parseInt(playing.getToken().substring("track-".length()));
+        return stream("track-" + (number + 1));
+    }
+
+    private void awaitSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (prefetcher.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(prefetcher.size()).isEqualTo(size);
+    }
+
+    private static AudioPlayerPlaybackStatePayload playing(String token, long offset) {
+        return AudioPlayerPlaybackStatePayload.builder()
+                                              .token(token)
+                                              .offsetInMilliseconds(offset)
+                                              .build();
+    }
+
+    private static AudioPlayerStreamPayload stream(String token) {
+        return AudioPlayerStreamPayload.builder()
+                                       .audioItemId(token)
+                                       .audioStream(AudioStreamInfoObject.builder()
+                                                                         .beginAtInMilliseconds(0L)
+                                                                         .token(token)
+                                                                         .url("https://example.com/" + token)
+                                                                         .urlPlayable(true)
+                                                                         .build())
+                                       .build();
+    }
+
+}
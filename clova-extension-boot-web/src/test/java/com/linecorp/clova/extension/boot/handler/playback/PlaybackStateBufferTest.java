@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.annotation.Profile;
+
+import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
+import com.linecorp.clova.extension.boot.handler.annnotation.PlaybackStateMapping;
+import com.linecorp.clova.extension.boot.message.payload.MapPayload;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.EventRequest;
+
+public class PlaybackStateBufferTest {
+
+    private final PlaybackStateBuffer buffer = new PlaybackStateBuffer(Duration.ofHours(1));
+
+    @After
+    public void tearDown() throws Exception {
+        buffer.destroy();
+    }
+
+    @Test
+    public void invokeOnProxy() {
+        ProgressHandler target = new ProgressHandler();
+        List<String> intercepted = new CopyOnWriteArrayList<>();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            intercepted.add(invocation.getMethod().getName());
+            return invocation.proceed();
+        });
+        initialize(proxyFactory.getProxy());
+
+        assertThat(buffer.offer(event("AudioPlayer.PlayPaused", "token-1", 1000L))).isTrue();
+
+        assertThat(intercepted).containsExactly("handleProgress");
+        assertThat(target.updates).extracting(update -> update.getPayload().getToken())
+                                  .containsExactly("token-1");
+    }
+
+    @Test
+    public void rejectPrivateMethod() {
+        assertThatThrownBy(() -> initialize(new PrivateHandler()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("should not be private");
+    }
+
+    private void initialize(Object handler) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("handler", handler);
+        buffer.setBeanFactory(beanFactory);
+        buffer.afterPropertiesSet();
+    }
+
+    // without the user ID, so that the update is passed immediately
+    private static CEKRequestMessage event(String name, String token, Long offset) {
+        MapPayload payload = new MapPayload();
+        payload.put("token", token);
+        payload.put("offsetInMilliseconds", offset);
+        EventRequest.Event event = new EventRequest.Event();
+        String[] namespaceAndName = name.split("\\.");
+        event.setNamespace(namespaceAndName[0]);
+        event.setName(namespaceAndName[1]);
+        event.setPayload(payload);
+        EventRequest eventRequest = new EventRequest();
+        eventRequest.setEvent(event);
+        eventRequest.setTimestamp(OffsetDateTime.parse("2018-09-01T10:00:00Z"));
+
+        CEKRequestMessage requestMessage = new CEKRequestMessage();
+        requestMessage.setSession(new CEKRequestMessage.Session());
+        requestMessage.setContext(Collections.emptyMap());
+        requestMessage.setRequest(eventRequest);
+        return requestMessage;
+    }
+
+    @CEKRequestHandler
+    @Profile("PlaybackStateBufferTest")
+    static class ProgressHandler {
+
+        final List<PlaybackStateUpdate> updates = new CopyOnWriteArrayList<>();
+
+        @PlaybackStateMapping("AudioPlayer.PlayPaused")
+        void handleProgress(PlaybackStateUpdate update) {
+            updates.add(update);
+        }
+
+    }
+
+    @CEKRequestHandler
+    @Profile("PlaybackStateBufferTest")
+    static class PrivateHandler {
+
+        @PlaybackStateMapping("AudioPlayer.PlayPaused")
+        private void handleProgress(PlaybackStateUpdate update) {
+        }
+
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.handler.playback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.context.AudioPlayerContext.PlayerActivity;
+import com.linecorp.clova.extension.boot.message.payload.MapPayload;
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.request.EventRequest;
+
+public class PlaybackStateStoreTest {
+
+    private static final Instant NOW = Instant.parse("2018-10-01T00:00:00Z");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Path logFile;
+    private AppendLogPlaybackStatePersister persister;
+    private PlaybackStateStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        logFile = temporaryFolder.getRoot().toPath().resolve("playback-state.log");
+        persister = new AppendLogPlaybackStatePersister(logFile, objectMapper, 4);
+        store = new PlaybackStateStore(persister, 2, Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store.destroy();
+        persister.destroy();
+    }
+
+    @Test
+    public void test_lastWriterWins() {
+        store.record(event("user-1", "AudioPlayer.PlayPaused", "token-1", 3000L, NOW.plusSeconds(3)));
+        store.record(event("user-1", "AudioPlayer.ProgressReportIntervalPassed", "token-1", 1000L,
+                           NOW.plusSeconds(1)));
+
+        PlaybackState state = store.get("user-1");
+        assertThat(state.getToken()).isEqualTo("token-1");
+        assertThat(state.getOffsetInMilliseconds()).isEqualTo(1000L);
+        assertThat(state.getPlayerActivity()).isEqualTo(PlayerActivity.PLAYING);
+        assertThat(store.getPendingWriteCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_ignoreEventTimestamp() {
+        // the clock of the device is ahead of the server
+        store.record(event("user-1", "AudioPlayer.PlayStarted", "token-1", 0L, NOW.plusSeconds(3600)));
+        Map<String, Object> audioPlayer = new HashMap<>();
+        audioPlayer.put("offsetInMilliseconds", 1000);
+        audioPlayer.put("playerActivity", "PAUSED");
+        audioPlayer.put("stream", Collections.singletonMap("token", "token-1"));
+        CEKRequestMessage requestMessage = requestMessage("user-1");
+        requestMessage.setContext(Collections.singletonMap("AudioPlayer", audioPlayer));
+        store.record(requestMessage);
+
+        PlaybackState state = store.get("user-1");
+        assertThat(state.getPlayerActivity()).isEqualTo(PlayerActivity.PAUSED);
+        assertThat(state.getTimestamp()).isEqualTo(OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    public void test_recordContext() {
+        Map<String, Object> audioPlayer = new HashMap<>();
+        audioPlayer.put("offsetInMilliseconds", 60000);
+        audioPlayer.put("playerActivity", "PLAYING");
+        audioPlayer.put("stream", Collections.singletonMap("token", "token-1"));
+        CEKRequestMessage requestMessage = requestMessage("user-1");
+        requestMessage.setContext(Collections.singletonMap("AudioPlayer", audioPlayer));
+
+        store.record(requestMessage);
+
+        assertThat(store.get("user-1"))
+                .isEqualTo(new PlaybackState("user-1", "token-1", 60000L, PlayerActivity.PLAYING,
+                                             OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC)));
+    }
+
+    @Test
+    public void test_writeBehind() throws Exception {
+        store.record(event("user-1", "AudioPlayer.PlayStarted", "token-1", 0L, NOW));
+        store.record(event("user-1", "AudioPlayer.ProgressReportIntervalPassed", "token-1", 1000L,
+                           NOW.plusSeconds(1)));
+        store.record(event("user-2", "AudioPlayer.PlayStarted", "token-2", 0L, NOW));
+        store.record(event("user-3", "AudioPlayer.PlayStarted", "token-3", 0L, NOW));
+        assertThat(Files.readAllLines(logFile, StandardCharsets.UTF_8)).isEmpty();
+
+        store.flush();
+
+        assertThat(store.getPendingWriteCount()).isZero();
+        assertThat(Files.readAllLines(logFile, StandardCharsets.UTF_8)).hasSize(3);
+        // the flushed states over the maximum size are evicted, and loaded again
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get("user-1").getOffsetInMilliseconds()).isEqualTo(1000L);
+        assertThat(store.get("user-2").getToken()).isEqualTo("token-2");
+        assertThat(store.get("user-3").getToken()).isEqualTo("token-3");
+    }
+
+    @Test
+    public void test_replayLog() throws Exception {
+        store.record(event("user-1", "AudioPlayer.PlayStarted", "token-1", 0L, NOW));
+        store.flush();
+        store.record(event("user-1", "AudioPlayer.PlayStopped", "token-1", 5000L, NOW));
+        store.flush();
+        persister.destroy();
+        // a line torn by a crash
+        Files.write(logFile, "{\"userId\":\"user-".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+        persister = new AppendLogPlaybackStatePersister(logFile, objectMapper, 2);
+
+        PlaybackState state = persister.load("user-1");
+        assertThat(state.getOffsetInMilliseconds()).isEqualTo(5000L);
+        assertThat(state.getPlayerActivity()).isEqualTo(PlayerActivity.STOPPED);
+        assertThat(Files.readAllLines(logFile, StandardCharsets.UTF_8)).hasSize(1);
+    }
+
+    @Test
+    public void test_compactWhileAppending() throws Exception {
+        for (long offset = 0; offset < 3000; offset += 1000) {
+            persister.persist(Collections.singletonList(state("user-1", offset)));
+        }
+        assertThat(Files.readAllLines(logFile, StandardCharsets.UTF_8)).hasSize(3);
+
+        persister.persist(Collections.singletonList(state("user-1", 3000L)));
+
+        assertThat(Files.readAllLines(logFile, StandardCharsets.UTF_8)).hasSize(1);
+        assertThat(persister.load("user-1").getOffsetInMilliseconds()).isEqualTo(3000L);
+
+        persister.persist(Collections.singletonList(state("user-2", 0L)));
+
+        assertThat(Files.readAllLines(logFile, StandardCharsets.UTF_8)).hasSize(2);
+        assertThat(persister.load("user-1").getOffsetInMilliseconds()).isEqualTo(3000L);
+        assertThat(persister.load("user-2").getOffsetInMilliseconds()).isZero();
+    }
+
+    private static PlaybackState state(String userId, long offset) {
+        return new PlaybackState(userId, "token-1", offset, PlayerActivity.PLAYING,
+                                 OffsetDateTime.ofInstant(NOW.plusMillis(offset), ZoneOffset.UTC));
+    }
+
+    private static CEKRequestMessage event(String userId, String name, String token, Long offset,
+                                           Instant timestamp) {
+        MapPayload payload = new MapPayload();
+        payload.put("token", token);
+        payload.put("offsetInMilliseconds", offset);
+        EventRequest.Event event = new EventRequest.Event();
+        String[] namespaceAndName = name.split("\\.");
+        event.setNamespace(namespaceAndName[0]);
+        event.setName(namespaceAndName[1]);
+        event.setPayload(payload);
+        EventRequest eventRequest = new EventRequest();
+        eventRequest.setEvent(event);
+        eventRequest.setTimestamp(OffsetDateTime.ofInstant(timestamp, ZoneOffset.UTC));
+
+        CEKRequestMessage requestMessage = requestMessage(userId);
+        requestMessage.setRequest(eventRequest);
+        return requestMessage;
+    }
+
+    private static CEKRequestMessage requestMessage(String userId) {
+        CEKRequestMessage.Session.User user = new CEKRequestMessage.Session.User();
+        user.setUserId(userId);
+        CEKRequestMessage.Session session = new CEKRequestMessage.Session();
+        session.setUser(user);
+        CEKRequestMessage requestMessage = new CEKRequestMessage();
+        requestMessage.setSession(session);
+        requestMessage.setContext(Collections.emptyMap());
+        return requestMessage;
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.linecorp.clova.extension.boot.message.catalog.AudioCatalog;
+import com.linecorp.clova.extension.boot.message.catalog.AudioCatalogWriter;
+import com.linecorp.clova.extension.boot.message.catalog.SwappableAudioCatalog;
+import com.linecorp.clova.extension.boot.message.model.AudioItem;
+import com.linecorp.clova.extension.boot.message.model.AudioStreamInfoObject;
+import com.linecorp.clova.extension.boot.message.model.ProgressReport;
+
+public class AudioCatalogTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void test_lookup() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("catalog.bin");
+        AudioItem item = AudioItem.builder()
+                                  .audioItemId("item-1")
+                                  .titleText("タイトル")
+                                  .titleSubText1("アーティスト")
+                                  .stream(stream("token-1", true))
+                                  .build();
+        try (AudioCatalogWriter writer = AudioCatalogWriter.create(path)) {
+            writer.add("token-1", item)
+                  // "Aa" and "BB" have the same hash code
+                  .add("Aa", stream("token-Aa", false))
+                  .add("BB", stream("token-BB", null))
+                  .commit();
+        }
+
+        AudioCatalog catalog = AudioCatalog.open(path);
+
+        assertThat(catalog.size()).isEqualTo(3);
+        assertThat(catalog.findAudioItem("token-1")).isEqualTo(item);
+        assertThat(catalog.findStream("token-1")).isEqualTo(item.getStream());
+        assertThat(catalog.findStream("Aa")).isEqualTo(stream("token-Aa", false));
+        assertThat(catalog.findStream("BB")).isEqualTo(stream("token-BB", null));
+        assertThat(catalog.findAudioItem("Aa")).isNull();
+        assertThat(catalog.findStream("C#")).isNull();
+        assertThat(catalog.contains("unknown")).isFalse();
+    }
+
+    @Test
+    public void test_duplicatedKey() throws Exception {
+        Path path = temporaryFolder.getRoot().toPath().resolve("catalog.bin");
+        try (AudioCatalogWriter writer = AudioCatalogWriter.create(path)) {
+            writer.add("token-1", stream("token-1", true));
+
+            assertThatThrownBy(() -> writer.add("token-1", stream("token-1", true)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        // not committed
+        assertThat(path).doesNotExist();
+        assertThat(temporaryFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void test_swap() throws Exception {
+        Path version1 = temporaryFolder.getRoot().toPath().resolve("catalog-1.bin");
+        Path version2 = temporaryFolder.getRoot().toPath().resolve("catalog-2.bin");
+        try (AudioCatalogWriter writer = AudioCatalogWriter.create(version1)) {
+            writer.add("token-1", stream("token-1", false)).commit();
+        }
+        try (AudioCatalogWriter writer = AudioCatalogWriter.create(version2)) {
+            writer.add("token-1", stream("token-1", true))
+                  .add("token-2", stream("token-2", true))
+                  .commit();
+        }
+        Path broken = temporaryFolder.newFile("broken.bin").toPath();
+        Files.write(broken, "broken".getBytes(StandardCharsets.UTF_8));
+
+        SwappableAudioCatalog catalog = SwappableAudioCatalog.open(version1);
+        AudioCatalog previous = catalog.swap(version2);
+
+        assertThat(previous.getPath()).isEqualTo(version1);
+        assertThat(previous.findStream("token-1").getUrlPlayable()).isFalse();
+        assertThat(catalog.findStream("token-1").getUrlPlayable()).isTrue();
+        assertThat(catalog.findStream("token-2")).isNotNull();
+
+        assertThatThrownBy(() -> catalog.swap(broken)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(catalog.get().getPath()).isEqualTo(version2);
+    }
+
+    private static AudioStreamInfoObject stream(String token, Boolean urlPlayable) {
+        return AudioStreamInfoObject.builder()
+                                    .beginAtInMilliseconds(0L)
+                                    .durationInMilliseconds(180_000L)
+                                    .progressReport(ProgressReport.builder()
+                                                                  .intervalInMilliseconds(60_000L)
+                                                                  .build())
+                                    .token(token)
+                                    .url("https://example.com/" + token)
+                                    .urlPlayable(urlPlayable)
+                                    .build();
+    }
+
+}
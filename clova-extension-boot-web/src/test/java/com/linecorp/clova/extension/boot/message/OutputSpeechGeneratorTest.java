@@ -106,4 +106,37 @@ public class OutputSpeechGeneratorTest {
                                 });
                   });
     }
+
+    @Test
+    public void generateFrom_cached() {
+        OutputSpeech outputSpeech = outputSpeechGenerator.generateFrom(new MissingSlotException(""));
+
+        Assertions.assertThat(outputSpeechGenerator.generateFrom(new MissingSlotException("other")))
+                  .isSameAs(outputSpeech);
+        Assertions.assertThat(outputSpeechGenerator.generateFrom(new MissingSlotException(""), Locale.JAPAN,
+                                                                 "arg"))
+                  .isNotSameAs(outputSpeech)
+                  .isEqualTo(outputSpeech);
+
+        outputSpeechGenerator.clearCache();
+
+        Assertions.assertThat(outputSpeechGenerator.generateFrom(new MissingSlotException("")))
+                  .isNotSameAs(outputSpeech)
+                  .isEqualTo(outputSpeech);
+    }
+
+    @Test
+    public void generateFrom_unmodifiable() {
+        OutputSpeech outputSpeech = outputSpeechGenerator.generateFrom(new MissingSlotException(""));
+
+        Assertions.assertThatThrownBy(() -> outputSpeech.setValues(null))
+                  .isInstanceOf(UnsupportedOperationException.class);
+        Assertions.assertThatThrownBy(() -> outputSpeech.setVerbose(null))
+                  .isInstanceOf(UnsupportedOperationException.class);
+        Assertions.assertThatThrownBy(() -> outputSpeech.getValues().clear())
+                  .isInstanceOf(UnsupportedOperationException.class);
+        Assertions.assertThatThrownBy(() -> outputSpeech.getValues().get(0).setValue("changed"))
+                  .isInstanceOf(UnsupportedOperationException.class);
+    }
+
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeech;
+import com.linecorp.clova.extension.boot.message.speech.OutputSpeechGenerator;
+import com.linecorp.clova.extension.boot.message.speech.SpeechInfoObject;
+import com.linecorp.clova.extension.boot.message.speech.SpeechTemplate;
+import com.linecorp.clova.extension.boot.message.speech.SpeechTemplates;
+
+public class SpeechTemplatesTest {
+
+    private ResourceBundleMessageSource messageSource;
+    private SpeechTemplates speechTemplates;
+
+    @Before
+    public void setUp() {
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/speech-template");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        speechTemplates = new SpeechTemplates(messageSource, Collections.singletonList("i18n/speech-template"));
+    }
+
+    @Test
+    public void render() {
+        SpeechTemplate template = speechTemplates.get("greeting.brief", Locale.JAPAN);
+
+        assertThat(template.render("クローバ")).isEqualTo("こんにちは、クローバさん。");
+        assertThat(speechTemplates.get("greeting.brief", Locale.ENGLISH).render("Clova"))
+                .isEqualTo("Hello, Clova.");
+        // falls back to the default bundle like MessageSource
+        assertThat(speechTemplates.get("items.brief", Locale.JAPANESE)).isNotNull();
+        assertThat(speechTemplates.get("unknown.brief", Locale.ENGLISH)).isNull();
+        assertThat(speechTemplates.get("greeting.brief", Locale.CHINESE)).isNull();
+    }
+
+    @Test
+    public void render_sameAsMessageSource() {
+        for (String code : new String[] { "greeting.brief", "items.brief", "welcome.brief", "quoted.brief" }) {
+            for (Object arg : new Object[] { "Clova", 1234, null }) {
+                assertThat(speechTemplates.get(code, Locale.ENGLISH).render(arg))
+                        .as("code: %s, arg: %s", code, arg)
+                        .isEqualTo(messageSource.getMessage(code, new Object[] { arg }, Locale.ENGLISH));
+            }
+            assertThat(speechTemplates.get(code, Locale.ENGLISH).render())
+                    .isEqualTo(messageSource.getMessage(code, null, Locale.ENGLISH));
+        }
+    }
+
+    @Test
+    public void constantSpeech() {
+        SpeechTemplate template = speechTemplates.get("welcome.brief", Locale.JAPAN);
+
+        assertThat(template.toOutputSpeech()).isSameAs(template.toOutputSpeech());
+        assertThat(template.toSpeechInfoObject()).satisfies(speechInfo -> {
+            assertThat(speechInfo.getValue()).isEqualTo("ようこそ。");
+            assertThat(speechInfo.getLang()).isEqualTo(SpeechInfoObject.Lang.JA);
+        });
+
+        assertThatThrownBy(() -> template.toSpeechInfoObject().setValue("changed"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> template.toOutputSpeech().getValues().add(SpeechInfoObject.text("changed")))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> template.toOutputSpeech().getValues().get(0).setValue("changed"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(template.toOutputSpeech().getValues()).extracting(SpeechInfoObject::getValue)
+                                                         .containsExactly("ようこそ。");
+    }
+
+    @Test
+    public void outputSpeechGenerator() {
+        OutputSpeechGenerator outputSpeechGenerator = new OutputSpeechGenerator(messageSource);
+        outputSpeechGenerator.setSpeechTemplates(speechTemplates);
+
+        OutputSpeech outputSpeech =
+                outputSpeechGenerator.generateFrom(() -> "greeting", Locale.JAPAN, "クローバ");
+
+        assertThat(outputSpeech.getValues()).extracting(SpeechInfoObject::getValue)
+                                            .containsExactly("こんにちは、クローバさん。");
+        assertThat(outputSpeechGenerator.generateFrom(() -> "welcome", Locale.JAPAN))
+                .isSameAs(outputSpeechGenerator.generateFrom(() -> "welcome", Locale.JAPAN));
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+
+public class SessionAttributesCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void test_encodeAndDecode() {
+        SessionAttributesCodec codec = codec(-1);
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("count", 3);
+        attributes.put("items", Collections.singletonList("apple"));
+
+        String encoded = codec.encode(attributes);
+
+        assertThat(Base64.getUrlDecoder().decode(encoded)[0]).isEqualTo((byte) SessionAttributesCodec.VERSION);
+        assertThat(codec.decode(encoded)).isEqualTo(attributes);
+        assertThat(codec.getMetrics()).satisfies(metrics -> {
+            assertThat(metrics.getEncodeCount()).isEqualTo(1);
+            assertThat(metrics.getDecodeCount()).isEqualTo(1);
+            assertThat(metrics.getEncodedBytes()).isEqualTo(encoded.length());
+        });
+    }
+
+    @Test
+    public void test_compress() {
+        SessionAttributesCodec codec = codec(16);
+        Map<String, Object> attributes = Collections.singletonMap("text", StringUtils.repeat("clova", 100));
+
+        String encoded = codec.encode(attributes);
+
+        assertThat(Base64.getUrlDecoder().decode(encoded)[1])
+                .isEqualTo((byte) SessionAttributesCodec.FLAG_DEFLATED);
+        assertThat(encoded.length()).isLessThan(500);
+        assertThat(codec.decode(encoded)).isEqualTo(attributes);
+    }
+
+    @Test
+    public void test_decode_unsupportedVersion() {
+        String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[] { 99, 0, 0 });
+
+        assertThatThrownBy(() -> codec(-1).decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version: 99");
+    }
+
+    @Test
+    public void test_sessionHolder_writeEncodedAttributeAsReceived() {
+        SessionAttributesCodec codec = codec(-1, "count");
+        String encoded = codec.encode(Collections.singletonMap("count", 1));
+        SessionHolder sessionHolder = new SessionHolder(objectMapper, session(encoded), codec);
+
+        sessionHolder.setAttribute("plain", "value");
+
+        JsonNode written = objectMapper.valueToTree(sessionHolder.getSessionAttributes());
+        assertThat(written.get("_cek").textValue()).isEqualTo(encoded);
+        assertThat(written.get("plain").textValue()).isEqualTo("value");
+        assertThat(codec.getMetrics().getDecodeCount()).isZero();
+    }
+
+    @Test
+    public void test_sessionHolder_encodeChangedAttributes() {
+        SessionAttributesCodec codec = codec(-1);
+        String encoded = codec.encode(Collections.singletonMap("count", 1));
+        SessionHolder sessionHolder = new SessionHolder(objectMapper, session(encoded), codec);
+
+        assertThat(sessionHolder.getAttribute("count", Integer.class)).isEqualTo(1);
+        assertThat(sessionHolder.getSessionAttributes()).containsOnlyKeys("count");
+
+        sessionHolder.setAttribute("count", 2);
+
+        JsonNode written = objectMapper.valueToTree(sessionHolder.getSessionAttributes());
+        assertThat(written.size()).isEqualTo(1);
+        assertThat(codec.decode(written.get("_cek").textValue())).containsOnly(entry("count", 2));
+    }
+
+    private SessionAttributesCodec codec(int compressionThreshold, String... encodedNames) {
+        return new SessionAttributesCodec(objectMapper, new SmileFactory(), "_cek", Arrays.asList(encodedNames),
+                                          compressionThreshold);
+    }
+
+    private static CEKRequestMessage.Session session(String encoded) {
+        CEKRequestMessage.Session session = new CEKRequestMessage.Session();
+        session.setSessionAttributes(Collections.singletonMap("_cek", encoded));
+        return session;
+    }
+
+}
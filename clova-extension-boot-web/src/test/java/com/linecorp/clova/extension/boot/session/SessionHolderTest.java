@@ -42,12 +42,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.annotation.Repeat;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.collect.Lists;
 
 import com.linecorp.clova.extension.boot.handler.annnotation.CEKRequestHandler;
@@ -243,6 +248,109 @@ public class SessionHolderTest {
                                               new TypeReference<List<AImpl>>() {})).isNull();
     }
 
+    @Test
+    public void test_getAttribute_sharedWithinRequest() {
+        CEKRequestMessage.Session session = new CEKRequestMessage.Session();
+        String sessionName = RandomStringUtils.randomAlphabetic(10);
+        Map<String, Object> sessionAttributes = new HashMap<>();
+        sessionAttributes.put(sessionName, new AImpl(RandomStringUtils.randomAlphabetic(10)));
+        session.setSessionAttributes(sessionAttributes);
+
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        try {
+            setNewRequest();
+            ABImpl converted = new SessionHolder(objectMapper, session).getAttribute(sessionName, ABImpl.class);
+
+            assertThat(new SessionHolder(objectMapper, session).getAttribute(sessionName, ABImpl.class))
+                    .isSameAs(converted);
+
+            setNewRequest();
+
+            assertThat(new SessionHolder(objectMapper, session).getAttribute(sessionName, ABImpl.class))
+                    .isNotSameAs(converted)
+                    .isEqualTo(converted);
+        } finally {
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+        }
+    }
+
+    private static void setNewRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Test
+    public void test_copyOnWrite() {
+        CEKRequestMessage.Session session = new CEKRequestMessage.Session();
+        String sessionName = RandomStringUtils.randomAlphabetic(10);
+        String sessionValue = RandomStringUtils.randomAlphabetic(10);
+
+        Map<String, Object> sessionAttributes = new HashMap<>();
+        sessionAttributes.put(sessionName, sessionValue);
+        session.setSessionAttributes(sessionAttributes);
+        session.toReadOnly();
+
+        SessionHolder sessionHolder = new SessionHolder(objectMapper, session);
+        sessionHolder.removeAttribute(RandomStringUtils.randomAlphabetic(10));
+
+        assertThat(sessionHolder.getSessionAttributes()).containsOnlyKeys(sessionName);
+
+        String addedName = RandomStringUtils.randomAlphabetic(10);
+        sessionHolder.getSessionAttributes().put(addedName, sessionValue);
+        sessionHolder.removeAttribute(sessionName);
+
+        assertThat(sessionHolder.getSessionAttributes()).containsOnlyKeys(addedName);
+        assertThat(session.getSessionAttributes()).containsOnlyKeys(sessionName);
+    }
+
+    @Test
+    public void test_getAttribute_cacheTypeReference() {
+        CEKRequestMessage.Session session = new CEKRequestMessage.Session();
+        String sessionName = RandomStringUtils.randomAlphabetic(10);
+        List<AImpl> sessionValues = Lists.newArrayList(new AImpl(RandomStringUtils.randomAlphabetic(10)));
+
+        Map<String, Object> sessionAttributes = new HashMap<>();
+        sessionAttributes.put(sessionName, sessionValues);
+        session.setSessionAttributes(sessionAttributes);
+
+        SessionHolder sessionHolder = new SessionHolder(objectMapper, session);
+
+        List<ABImpl> first = sessionHolder.getAttribute(sessionName, new TypeReference<List<ABImpl>>() {});
+        List<ABImpl> second = sessionHolder.getAttribute(sessionName, new TypeReference<List<ABImpl>>() {});
+
+        assertThat(second).isSameAs(first);
+
+        sessionHolder.setAttribute(sessionName, Lists.newArrayList(new AImpl("changed")));
+
+        assertThat(sessionHolder.getAttribute(sessionName, new TypeReference<List<ABImpl>>() {}))
+                .isNotSameAs(first)
+                .extracting(ABImpl::getAValue)
+                .containsExactly("changed");
+    }
+
+    @Test
+    public void test_writeUntouchedAttributesAsReceived() throws Exception {
+        CEKRequestMessage.Session session = objectMapper.readValue(
+                "{\"sessionId\":\"id\",\"new\":false,"
+                + "\"sessionAttributes\":{\"read\":{\"name\":\"a\",\"value\":\"b\"},"
+                + "\"removed\":1,\"changed\":2}}",
+                CEKRequestMessage.Session.class);
+
+        SessionHolder sessionHolder = new SessionHolder(objectMapper, session);
+
+        assertThat(sessionHolder.getAttribute("read", MyData.class)).isEqualTo(new MyData("a", "b"));
+        assertThat(sessionHolder.getAttribute("read", MyData.class))
+                .isSameAs(sessionHolder.getAttribute("read", MyData.class));
+        sessionHolder.removeAttribute("removed");
+        sessionHolder.setAttribute("changed", 3);
+        sessionHolder.setAttribute("added", new MyData("c", "d"));
+
+        assertThat(sessionHolder.getSessionAttributes()).containsOnlyKeys("read", "changed", "added");
+        assertThat(objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT)
+                               .writeValueAsString(sessionHolder.getSessionAttributes()))
+                .isEqualTo("{\"read\":{\"name\":\"a\",\"value\":\"b\"},\"changed\":3,"
+                           + "\"added\":{\"name\":\"c\",\"value\":\"d\"}}");
+    }
+
     interface AIface {
         String getAValue();
     }
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.session.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.session.SessionHolder;
+
+public class CEKSessionStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void test_inMemory_saveAndLoad() {
+        InMemoryCEKSessionStore store = new InMemoryCEKSessionStore(Duration.ofMinutes(1));
+
+        store.save("session-1", Collections.singletonMap("count", 1));
+
+        assertThat(store.load("session-1")).containsOnly(entry("count", 1));
+        assertThat(store.load("session-2")).isNull();
+
+        store.remove("session-1");
+
+        assertThat(store.load("session-1")).isNull();
+    }
+
+    @Test
+    public void test_inMemory_expire() throws Exception {
+        InMemoryCEKSessionStore store = new InMemoryCEKSessionStore(Duration.ofMillis(10));
+        store.save("session-1", Collections.singletonMap("count", 1));
+
+        Thread.sleep(50);
+
+        assertThat(store.load("session-1")).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void test_inMemory_copies() {
+        InMemoryCEKSessionStore store = new InMemoryCEKSessionStore(Duration.ofMinutes(1));
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("items", new ArrayList<>(Collections.singletonList("a")));
+        store.save("session-1", attributes);
+
+        attributes.put("count", 1);
+        @SuppressWarnings("unchecked")
+        List<Object> loadedItems = (List<Object>) store.load("session-1").get("items");
+        loadedItems.add("b");
+
+        assertThat(store.load("session-1")).containsOnly(entry("items", Collections.singletonList("a")));
+    }
+
+    @Test
+    public void test_consistentHashRing() {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        nodes.put("node-1", "node-1");
+        nodes.put("node-2", "node-2");
+        nodes.put("node-3", "node-3");
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes, 160);
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("node-3", "node-3");
+        reversed.put("node-2", "node-2");
+        reversed.put("node-1", "node-1");
+        ConsistentHashRing<String> anotherRing = new ConsistentHashRing<>(reversed, 160);
+        nodes.remove("node-3");
+        ConsistentHashRing<String> shrunkRing = new ConsistentHashRing<>(nodes, 160);
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String key = "session-" + i;
+            String node = ring.nodeFor(key);
+            counts.merge(node, 1, Integer::sum);
+            assertThat(anotherRing.nodeFor(key)).isEqualTo(node);
+            if (!"node-3".equals(node)) {
+                assertThat(shrunkRing.nodeFor(key)).isEqualTo(node);
+            }
+        }
+        assertThat(counts).hasSize(3);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(700, 1300));
+    }
+
+    @Test
+    public void test_nearCached_writeBehind() throws Exception {
+        InMemoryCEKSessionStore remote = new InMemoryCEKSessionStore(Duration.ofMinutes(1));
+        NearCachedCEKSessionStore store = new NearCachedCEKSessionStore(
+                Collections.singletonMap("node-1", remote), Duration.ofMinutes(1), 100, Duration.ofHours(1));
+        try {
+            store.save("session-1", Collections.singletonMap("count", 1));
+            store.save("session-1", Collections.singletonMap("count", 2));
+
+            assertThat(store.load("session-1")).containsOnly(entry("count", 2));
+            assertThat(remote.load("session-1")).isNull();
+            assertThat(store.getPendingWriteCount()).isEqualTo(1);
+
+            store.flush();
+
+            assertThat(remote.load("session-1")).containsOnly(entry("count", 2));
+            assertThat(store.getPendingWriteCount()).isZero();
+
+            store.remove("session-1");
+
+            assertThat(store.load("session-1")).isNull();
+            store.flush();
+            assertThat(remote.load("session-1")).isNull();
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    public void test_nearCached_copies() throws Exception {
+        InMemoryCEKSessionStore remote = new InMemoryCEKSessionStore(Duration.ofMinutes(1));
+        NearCachedCEKSessionStore store = new NearCachedCEKSessionStore(
+                Collections.singletonMap("node-1", remote), Duration.ofMinutes(1), 100, Duration.ofHours(1));
+        try {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("count", 1);
+            store.save("session-1", attributes);
+            attributes.put("count", 2);
+            store.load("session-1").put("count", 3);
+
+            assertThat(store.load("session-1")).containsOnly(entry("count", 1));
+
+            store.flush();
+            store.load("session-1").put("count", 4);
+
+            assertThat(store.load("session-1")).containsOnly(entry("count", 1));
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    public void test_nearCached_keepRemovalDuringFlush() throws Exception {
+        InMemoryCEKSessionStore remote = new InMemoryCEKSessionStore(Duration.ofMinutes(1));
+        AtomicReference<NearCachedCEKSessionStore> storeRef = new AtomicReference<>();
+        CEKSessionStore node = new CEKSessionStore() {
+            @Override
+            public Map<String, Object> load(String sessionId) {
+                return remote.load(sessionId);
+            }
+
+            @Override
+            public void save(String sessionId, Map<String, Object> attributes) {
+                remote.save(sessionId, attributes);
+                // the session ends while its empty attributes are being written
+                storeRef.get().remove(sessionId);
+            }
+
+            @Override
+            public void remove(String sessionId) {
+                remote.remove(sessionId);
+            }
+        };
+        NearCachedCEKSessionStore store = new NearCachedCEKSessionStore(
+                Collections.singletonMap("node-1", node), Duration.ofMinutes(1), 100, Duration.ofHours(1));
+        storeRef.set(store);
+        try {
+            store.save("session-1", Collections.emptyMap());
+            store.flush();
+
+            assertThat(store.getPendingWriteCount()).isEqualTo(1);
+
+            store.flush();
+
+            assertThat(remote.load("session-1")).isNull();
+            assertThat(store.getPendingWriteCount()).isZero();
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    public void test_nearCached_loadFromRemote() throws Exception {
+        InMemoryCEKSessionStore remote = new InMemoryCEKSessionStore(Duration.ofMinutes(1));
+        remote.save("session-1", Collections.singletonMap("count", 1));
+        NearCachedCEKSessionStore store = new NearCachedCEKSessionStore(
+                Collections.singletonMap("node-1", remote), Duration.ofMinutes(1), 1, Duration.ZERO);
+        try {
+            assertThat(store.load("session-1")).containsOnly(entry("count", 1));
+
+            remote.clear();
+
+            // served from the near-cache
+            assertThat(store.load("session-1")).containsOnly(entry("count", 1));
+
+            store.save("session-2", Collections.singletonMap("count", 2));
+
+            // evicted by the size limit
+            assertThat(store.load("session-1")).isNull();
+            assertThat(remote.load("session-2")).containsOnly(entry("count", 2));
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    public void test_sessionHolder_storeChangedAttributes() {
+        InMemoryCEKSessionStore store = new InMemoryCEKSessionStore(Duration.ofMinutes(1));
+        store.save("session-1", Collections.singletonMap("count", 1));
+        CEKSessionStoreExternalizer externalizer =
+                new CEKSessionStoreExternalizer(objectMapper, store, "_cekSession", Collections.emptyList());
+        CEKRequestMessage.Session session = new CEKRequestMessage.Session();
+        session.setSessionId("session-1");
+        session.setSessionAttributes(Collections.singletonMap("_cekSession", "session-1"));
+        SessionHolder sessionHolder = new SessionHolder(objectMapper, session, externalizer);
+
+        assertThat(sessionHolder.getAttribute("count", Integer.class)).isEqualTo(1);
+
+        sessionHolder.setAttribute("count", 2);
+
+        JsonNode written = objectMapper.valueToTree(sessionHolder.getSessionAttributes());
+        assertThat(written.size()).isEqualTo(1);
+        assertThat(written.get("_cekSession").textValue()).isEqualTo("session-1");
+        assertThat(store.load("session-1")).containsOnly(entry("count", 2));
+
+        externalizer.discard(session);
+
+        assertThat(store.load("session-1")).isNull();
+    }
+
+}
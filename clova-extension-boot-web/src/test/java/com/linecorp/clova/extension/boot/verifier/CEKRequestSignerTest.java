@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.verifier;
+
+import static com.linecorp.clova.extension.boot.verifier.CEKRequestSignatureVerifier.CLOVA_SIGNATURE_REQUEST_HEADER;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.linecorp.clova.extension.test.load.CEKRequestSigner;
+
+public class CEKRequestSignerTest {
+
+    private static final String BODY = "{\"version\":\"1.0\",\"request\":{\"type\":\"LaunchRequest\"}}";
+
+    @Test
+    public void generatedKeyPair() throws Exception {
+        CEKRequestSigner signer = CEKRequestSigner.generate();
+        CEKRequestSignatureVerifier verifier = new CEKRequestSignatureVerifier(
+                new ByteArrayResource(signer.getPublicKeyPem().getBytes(StandardCharsets.US_ASCII)));
+
+        assertVerified(verifier, signer.sign(BODY));
+    }
+
+    @Test
+    public void loadTestKeyPair() throws Exception {
+        CEKRequestSigner signer = CEKRequestSigner.loadTestSigner();
+        CEKRequestSignatureVerifier verifier = new CEKRequestSignatureVerifier(
+                new ClassPathResource("key/signature-public-key.load-test.pem"));
+
+        assertVerified(verifier, signer.sign(BODY.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertVerified(CEKRequestSignatureVerifier verifier, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CLOVA_SIGNATURE_REQUEST_HEADER, signature);
+
+        verifier.verify(request, null, BODY, null);
+
+        assertThatThrownBy(() -> verifier.verify(request, null, BODY + " ", null))
+                .isExactlyInstanceOf(SecurityException.class)
+                .hasMessage("Failed to verify the signature for the provided request.");
+    }
+
+}
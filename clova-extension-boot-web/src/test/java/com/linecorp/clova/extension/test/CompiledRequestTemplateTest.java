@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.test.CEKRequestGenerator.RequestBodyBuilder;
+import com.linecorp.clova.extension.test.CompiledRequestTemplate.Location;
+
+public class CompiledRequestTemplateTest {
+
+    private static final String[] PLACEHOLDERS = {
+            "sessionId", "sessionUserId", "sessionAccessToken", "applicationId", "userId", "accessToken",
+            "deviceId"
+    };
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    public void sameAsBuilder() throws IOException {
+        RequestBodyBuilder builder = CEKRequestGenerator.requestBodyBuilder(objectMapper)
+                                                        .intent("Echo")
+                                                        .slot("number", 1)
+                                                        .sessionAttribute("count", 2)
+                                                        .remove("$.context.System.device.display");
+
+        assertThat(tree(builder.compile().newWriter().build())).isEqualTo(tree(builder.build()));
+    }
+
+    @Test
+    public void placeholders() throws IOException {
+        RequestBodyBuilder builder = CEKRequestGenerator.requestBodyBuilder(objectMapper).launch();
+        CompiledRequestTemplate template = builder.compile();
+        CompiledRequestTemplate.Writer writer = template.newWriter();
+        for (String name : PLACEHOLDERS) {
+            assertThat(template.hasPlaceholder(name)).isTrue();
+            builder.placeholder(name, name + "-value");
+            writer.set(template.placeholder(name), name + "-value");
+        }
+
+        assertThat(tree(writer.build())).isEqualTo(tree(builder.build()));
+    }
+
+    @Test
+    public void locations() throws IOException {
+        CompiledRequestTemplate template = CEKRequestGenerator.requestBodyBuilder(objectMapper)
+                                                              .intent("Echo")
+                                                              .slot("number", 0)
+                                                              .compile();
+        Location number = template.location("$.request.intent.slots.number.value");
+        Location attribute = template.location("$.session.sessionAttributes.items[1]");
+        CompiledRequestTemplate.Writer writer = template.newWriter();
+
+        writer.set(number, 42)
+              .set(attribute, "second");
+        String expected = CEKRequestGenerator.requestBodyBuilder(objectMapper)
+                                             .intent("Echo")
+                                             .slot("number", 42)
+                                             .build();
+        JsonNode actual = tree(writer.build());
+        assertThat(actual.at("/request")).isEqualTo(tree(expected).at("/request"));
+        assertThat(actual.at("/session/sessionAttributes/items").toString()).isEqualTo("[null,\"second\"]");
+
+        // values set before remain, and other writers are not affected
+        writer.set(attribute, "again");
+        assertThat(tree(writer.build()).at("/request/intent/slots/number/value").asInt()).isEqualTo(42);
+        assertThat(tree(template.newWriter().build()).at("/request/intent/slots/number/value").asInt())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void unknownPlaceholder() {
+        CompiledRequestTemplate template = CEKRequestGenerator.requestBodyBuilder(objectMapper)
+                                                              .launch()
+                                                              .placeholder("sessionId", "fixed")
+                                                              .compile();
+
+        assertThat(template.hasPlaceholder("sessionId")).isFalse();
+        assertThatThrownBy(() -> template.placeholder("sessionId"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> template.location("$.request..intent"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void readTemplateOncePerBuilder() throws IOException {
+        RequestBodyBuilder builder = CEKRequestGenerator.requestBodyBuilder(objectMapper).launch();
+
+        assertThat(tree(builder.build())).isEqualTo(tree(builder.build()));
+        assertThat(tree(builder.intent("Echo").build()).at("/request/intent/name").asText()).isEqualTo("Echo");
+    }
+
+    private JsonNode tree(String json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+
+}
@@ -31,6 +31,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.DatabindContext;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
 import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
 import com.fasterxml.jackson.databind.type.TypeFactory;
@@ -51,9 +52,15 @@ import lombok.Data;
 @Data
 public class CEKRequestMessage implements Serializable {
 
+    /**
+     * Key of the request attribute which holds the request body JSON of this message.
+     */
+    public static final String REQUEST_BODY_JSON_ATTR_KEY = "cek.requestBodyJson";
+
     private static final long serialVersionUID = 1L;
 
     @NotEmpty
+    @JsonDeserialize(using = CompactMap.Deserializer.class)
     private Map<String, Object> context;
 
     @NotNull
@@ -78,6 +85,7 @@ public class CEKRequestMessage implements Serializable {
         @JsonProperty("new")
         private Boolean created;
         @NotNull
+        @JsonDeserialize(using = RawSessionAttributes.Deserializer.class)
         private Map<String, Object> sessionAttributes;
         @NotBlank
         private String sessionId;
@@ -86,6 +94,10 @@ public class CEKRequestMessage implements Serializable {
         private User user;
 
         public void toReadOnly() {
+            if (this.sessionAttributes instanceof RawSessionAttributes) {
+                // already read-only, and wrapping it hides the raw attributes
+                return;
+            }
             this.sessionAttributes = this.sessionAttributes != null
                                      ? Collections.unmodifiableMap(sessionAttributes)
                                      : Collections.emptyMap();
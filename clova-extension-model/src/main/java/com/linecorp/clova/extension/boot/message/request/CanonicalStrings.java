@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.request;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Canonical instances of the string values which repeat across requests, e.g. {@code applicationId} and
+ * {@code playerActivity}.
+ * <p>
+ * Property names need not be canonicalized here, as the JSON parser already interns them.
+ * Only the values of the well-known properties are canonicalized, and the table is bounded so that unexpected
+ * values do not fill the heap.
+ */
+@UtilityClass
+class CanonicalStrings {
+
+    static final int MAX_ENTRIES = 1024;
+    static final int MAX_LENGTH = 128;
+
+    private static final Set<String> CANONICALIZED_PROPERTIES = new HashSet<>(Arrays.asList(
+            "applicationId", "contentLayer", "name", "namespace", "orientation", "playerActivity",
+            "repeatMode", "size", "type", "unit", "valueType"));
+
+    private static final ConcurrentMap<String, String> STRINGS = new ConcurrentHashMap<>();
+
+    static {
+        Arrays.asList("landscape", "portrait", "none", "s100", "m100", "l100", "xl100", "custom",
+                      "IDLE", "PLAYING", "PAUSED", "STOPPED", "AudioPlayer", "PlaybackController")
+              .forEach(value -> STRINGS.put(value, value));
+    }
+
+    /**
+     * Returns the canonical instance of the value if the property is well-known.
+     *
+     * @param propertyName the name of the property which has the value, or {@code null} for array elements
+     * @param value        string value
+     * @return the canonical instance, or the value itself
+     */
+    static String canonicalize(String propertyName, String value) {
+        if (propertyName == null || !CANONICALIZED_PROPERTIES.contains(propertyName)) {
+            return value;
+        }
+        String canonical = STRINGS.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (value.length() > MAX_LENGTH || STRINGS.size() >= MAX_ENTRIES) {
+            return value;
+        }
+        canonical = STRINGS.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.request;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+/**
+ * Immutable {@link Map} which keeps up to {@value #MAX_SIZE} entries in a single array, in insertion order.
+ * <p>
+ * A CEK request has many small JSON objects, e.g. {@code context.System.application}, so keeping them in
+ * {@link LinkedHashMap}s costs a table and an entry object for each property. This map has only the array,
+ * and finds a key by a linear scan, which is as fast as hashing for such a few keys.
+ * Maps larger than {@value #MAX_SIZE} entries are kept in an unmodifiable {@link LinkedHashMap}.
+ *
+ * @param <V> value type
+ */
+public final class CompactMap<V> extends AbstractMap<String, V> implements Serializable {
+
+    /**
+     * The maximum number of entries kept in an array.
+     */
+    public static final int MAX_SIZE = 8;
+
+    private static final long serialVersionUID = 1L;
+
+    // key at even index, and its value at the next
+    private final Object[] keysAndValues;
+
+    private CompactMap(Object[] keysAndValues) {
+        this.keysAndValues = keysAndValues;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param <V> value type
+     * @return {@link Builder}
+     */
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public int size() {
+        return keysAndValues.length >> 1;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? (V) keysAndValues[index + 1] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            action.accept((String) keysAndValues[i], (V) keysAndValues[i + 1]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<Entry<String, V>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keysAndValues.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<String, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, V> entry = new SimpleImmutableEntry<>((String) keysAndValues[index],
+                                                                            (V) keysAndValues[index + 1]);
+                        index += 2;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactMap.this.size();
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        // keys are mostly the same instances interned by the JSON parser
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (keysAndValues[i] == key) {
+                return i;
+            }
+        }
+        if (key == null) {
+            return -1;
+        }
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (key.equals(keysAndValues[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builder of {@link CompactMap}. A later value of the same key replaces the former one, as
+     * {@link Map#put(Object, Object)} does.
+     *
+     * @param <V> value type
+     */
+    public static final class Builder<V> {
+
+        private Object[] keysAndValues = new Object[MAX_SIZE << 1];
+        private int length;
+        private LinkedHashMap<String, V> overflow;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @param key   key, not {@code null}
+         * @param value value
+         * @return this builder
+         */
+        public Builder<V> put(String key, V value) {
+            if (key == null) {
+                throw new IllegalArgumentException("key should not be null.");
+            }
+            if (overflow != null) {
+                overflow.put(key, value);
+                return this;
+            }
+            for (int i = 0; i < length; i += 2) {
+                if (key.equals(keysAndValues[i])) {
+                    keysAndValues[i + 1] = value;
+                    return this;
+                }
+            }
+            if (length == keysAndValues.length) {
+                overflow = new LinkedHashMap<>();
+                forEachEntry(overflow::put);
+                overflow.put(key, value);
+                return this;
+            }
+            keysAndValues[length++] = key;
+            keysAndValues[length++] = value;
+            return this;
+        }
+
+        /**
+         * Builds an immutable map of the entries.
+         *
+         * @return {@link CompactMap}, an empty map, or an unmodifiable {@link LinkedHashMap} if it has more
+         *         than {@value #MAX_SIZE} entries
+         */
+        public Map<String, V> build() {
+            if (overflow != null) {
+                return Collections.unmodifiableMap(overflow);
+            }
+            if (length == 0) {
+                return Collections.emptyMap();
+            }
+            return new CompactMap<>(Arrays.copyOf(keysAndValues, length));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void forEachEntry(BiConsumer<String, V> action) {
+            for (int i = 0; i < length; i += 2) {
+                action.accept((String) keysAndValues[i], (V) keysAndValues[i + 1]);
+            }
+        }
+
+    }
+
+    /**
+     * Deserializes a JSON object into {@link CompactMap}s, including the nested objects. Arrays are read into
+     * unmodifiable {@link List}s, and the values of well-known properties are canonicalized.
+     */
+    public static class Deserializer extends JsonDeserializer<Map<String, Object>> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken() && !p.hasToken(JsonToken.FIELD_NAME)) {
+                return (Map<String, Object>) ctxt.handleUnexpectedToken(Map.class, p);
+            }
+            return readObject(p, ctxt);
+        }
+
+        /**
+         * Reads the fields of the current object one by one.
+         *
+         * @param p      {@link JsonParser} at the start of the object, or at its first field name
+         * @param ctxt   {@link DeserializationContext}
+         * @param action called with each field name and its value
+         * @throws IOException if failed to read
+         */
+        static void readFields(JsonParser p, DeserializationContext ctxt, BiConsumer<String, Object> action)
+                throws IOException {
+            String name = p.hasToken(JsonToken.FIELD_NAME) ? p.getCurrentName() : p.nextFieldName();
+            while (name != null) {
+                p.nextToken();
+                action.accept(name, readValue(p, ctxt, name));
+                name = p.nextFieldName();
+            }
+        }
+
+        private static Map<String, Object> readObject(JsonParser p, DeserializationContext ctxt)
+                throws IOException {
+            Builder<Object> builder = builder();
+            readFields(p, ctxt, builder::put);
+            return builder.build();
+        }
+
+        private static List<Object> readArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+            List<Object> values = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                values.add(readValue(p, ctxt, null));
+            }
+            return values.isEmpty() ? Collections.emptyList()
+                                    : Collections.unmodifiableList(Arrays.asList(values.toArray()));
+        }
+
+        private static Object readValue(JsonParser p, DeserializationContext ctxt, String name)
+                throws IOException {
+            switch (p.currentTokenId()) {
+                case JsonTokenId.ID_START_OBJECT:
+                    return readObject(p, ctxt);
+                case JsonTokenId.ID_START_ARRAY:
+                    return readArray(p, ctxt);
+                case JsonTokenId.ID_STRING:
+                    return CanonicalStrings.canonicalize(name, p.getText());
+                case JsonTokenId.ID_NUMBER_INT:
+                    if (ctxt.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)) {
+                        return p.getBigIntegerValue();
+                    }
+                    if (ctxt.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS)
+                        && p.getNumberType() == JsonParser.NumberType.INT) {
+                        return p.getLongValue();
+                    }
+                    return p.getNumberValue();
+                case JsonTokenId.ID_NUMBER_FLOAT:
+                    if (ctxt.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+                        return p.getDecimalValue();
+                    }
+                    return p.getDoubleValue();
+                case JsonTokenId.ID_TRUE:
+                    return Boolean.TRUE;
+                case JsonTokenId.ID_FALSE:
+                    return Boolean.FALSE;
+                case JsonTokenId.ID_NULL:
+                    return null;
+                case JsonTokenId.ID_EMBEDDED_OBJECT:
+                    return p.getEmbeddedObject();
+                default:
+                    return ctxt.handleUnexpectedToken(Object.class, p);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.request;
+
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.linecorp.clova.extension.boot.message.payload.MapPayload;
+import com.linecorp.clova.extension.boot.message.payload.Payload;
+
+import lombok.NonNull;
+
+/**
+ * Registry of the {@link Payload} types by the event name, i.e. {@code namespace.name}.
+ * <p>
+ * When this registry is set to the {@link ObjectReader} by {@link #applyTo(ObjectReader)}, the payload of the
+ * registered event is deserialized directly into the registered type, instead of {@link MapPayload}.
+ * If the payload does not match the registered type, it is read as {@link MapPayload} as well.
+ * <pre><code>
+ * EventPayloadTypeRegistry registry = new EventPayloadTypeRegistry();
+ * registry.register("AudioPlayer.PlayStarted", AudioPlayerPlaybackStatePayload.class);
+ *
+ * CEKRequestMessage message = registry.applyTo(objectMapper.readerFor(CEKRequestMessage.class))
+ *                                     .readValue(requestBody);
+ * </code></pre>
+ */
+public class EventPayloadTypeRegistry {
+
+    /**
+     * The attribute key of {@code DeserializationContext} to find this registry.
+     */
+    public static final String ATTRIBUTE_KEY = EventPayloadTypeRegistry.class.getName();
+
+    private final Map<String, Class<? extends Payload>> payloadTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the payload type of the event.
+     * <p>
+     * If the type is not concrete, or a different type has been registered for the same event, the payload of
+     * the event is read as {@link MapPayload} so that every type can be converted from it.
+     *
+     * @param eventName   {@code namespace.name} of the event
+     * @param payloadType the payload type to deserialize into
+     */
+    public void register(@NonNull String eventName, @NonNull Class<? extends Payload> payloadType) {
+        boolean concrete = !payloadType.isInterface() && !Modifier.isAbstract(payloadType.getModifiers());
+        payloadTypes.merge(eventName, concrete ? payloadType : MapPayload.class,
+                           (registered, added) -> registered == added ? registered : MapPayload.class);
+    }
+
+    /**
+     * Finds the payload type to deserialize into.
+     *
+     * @param eventName {@code namespace.name} of the event
+     * @return the payload type, or {@code null} if the payload should be read as {@link MapPayload}
+     */
+    public Class<? extends Payload> find(String eventName) {
+        Class<? extends Payload> payloadType = payloadTypes.get(eventName);
+        return payloadType == MapPayload.class ? null : payloadType;
+    }
+
+    /**
+     * Sets this registry to the attributes of the {@link ObjectReader}.
+     *
+     * @param reader {@link ObjectReader} for {@link CEKRequestMessage}
+     * @return {@link ObjectReader} which deserializes event payloads by this registry
+     */
+    public ObjectReader applyTo(@NonNull ObjectReader reader) {
+        return reader.withAttribute(ATTRIBUTE_KEY, this);
+    }
+
+}
@@ -19,7 +19,6 @@ package com.linecorp.clova.extension.boot.message.request;
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.OffsetDateTime;
-import java.util.Map;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
@@ -27,10 +26,13 @@ import javax.validation.constraints.NotNull;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import com.linecorp.clova.extension.boot.message.payload.MapPayload;
 import com.linecorp.clova.extension.boot.message.payload.Payload;
@@ -73,6 +75,7 @@ public class EventRequest extends CEKRequest {
     }
 
     @Data
+    @JsonDeserialize(using = Event.EventDeserializer.class)
     public static class Event implements Serializable {
 
         private static final long serialVersionUID = 1L;
@@ -82,21 +85,104 @@ public class EventRequest extends CEKRequest {
         @NotBlank
         private String name;
         @NotNull
-        @JsonDeserialize(using = PayloadMapDeserializer.class)
         private Payload payload;
 
+        /**
+         * Reads the payload as {@link MapPayload}.
+         */
         public static class PayloadMapDeserializer extends JsonDeserializer<Payload> {
 
             @Override
             public Payload deserialize(JsonParser p, DeserializationContext ctxt)
                     throws IOException, JsonProcessingException {
-                Map<String, Object> mapValue = p.readValueAs(new TypeReference<Map<String, Object>>() {});
+                if (!p.isExpectedStartObjectToken() && !p.hasToken(JsonToken.FIELD_NAME)) {
+                    return (Payload) ctxt.handleUnexpectedToken(MapPayload.class, p);
+                }
+                // nested objects are kept in compact maps
                 MapPayload mapPayload = new MapPayload();
-                mapPayload.putAll(mapValue);
+                CompactMap.Deserializer.readFields(p, ctxt, mapPayload::put);
                 return mapPayload;
             }
         }
 
+        /**
+         * Reads the event, and then its payload into the type registered to {@link EventPayloadTypeRegistry}.
+         * <p>
+         * The payload is buffered until the whole event is read, so that the order of the fields does not
+         * matter. It is read as {@link MapPayload} if no type is registered for the event, or if it does not
+         * match the registered type.
+         */
+        public static class EventDeserializer extends StdDeserializer<Event> {
+
+            private static final long serialVersionUID = 1L;
+
+            private static final PayloadMapDeserializer PAYLOAD_MAP_DESERIALIZER = new PayloadMapDeserializer();
+
+            public EventDeserializer() {
+                super(Event.class);
+            }
+
+            @Override
+            public Event deserialize(JsonParser p, DeserializationContext ctxt)
+                    throws IOException, JsonProcessingException {
+                if (!p.isExpectedStartObjectToken() && !p.hasToken(JsonToken.FIELD_NAME)) {
+                    return (Event) ctxt.handleUnexpectedToken(Event.class, p);
+                }
+                Event event = new Event();
+                TokenBuffer payloadBuffer = null;
+                String fieldName = p.hasToken(JsonToken.FIELD_NAME) ? p.getCurrentName() : p.nextFieldName();
+                for (; fieldName != null; fieldName = p.nextFieldName()) {
+                    JsonToken token = p.nextToken();
+                    switch (fieldName) {
+                        case "namespace":
+                            event.setNamespace(_parseString(p, ctxt));
+                            break;
+                        case "name":
+                            event.setName(_parseString(p, ctxt));
+                            break;
+                        case "payload":
+                            payloadBuffer = null;
+                            if (token != JsonToken.VALUE_NULL) {
+                                payloadBuffer = new TokenBuffer(p, ctxt);
+                                payloadBuffer.copyCurrentStructure(p);
+                            }
+                            break;
+                        default:
+                            handleUnknownProperty(p, ctxt, event, fieldName);
+                    }
+                }
+                if (payloadBuffer != null) {
+                    event.setPayload(readPayload(payloadBuffer, ctxt, findPayloadType(ctxt, event)));
+                }
+                return event;
+            }
+
+            private static Payload readPayload(TokenBuffer payloadBuffer, DeserializationContext ctxt,
+                                               Class<? extends Payload> payloadType) throws IOException {
+                if (payloadType != null) {
+                    try (JsonParser payloadParser = payloadBuffer.asParser()) {
+                        payloadParser.nextToken();
+                        return ctxt.readValue(payloadParser, payloadType);
+                    } catch (JsonMappingException e) {
+                        // the handlers convert the payload by themselves, and report the mismatch if any
+                    }
+                }
+                try (JsonParser payloadParser = payloadBuffer.asParser()) {
+                    payloadParser.nextToken();
+                    return PAYLOAD_MAP_DESERIALIZER.deserialize(payloadParser, ctxt);
+                }
+            }
+
+            private static Class<? extends Payload> findPayloadType(DeserializationContext ctxt, Event event) {
+                Object registry = ctxt.getAttribute(EventPayloadTypeRegistry.ATTRIBUTE_KEY);
+                if (!(registry instanceof EventPayloadTypeRegistry)
+                    || event.getNamespace() == null || event.getName() == null) {
+                    return null;
+                }
+                return ((EventPayloadTypeRegistry) registry).find(event.getNamespace() + "." + event.getName());
+            }
+        }
+
     }
 
 }
@@ -16,6 +16,7 @@
 
 package com.linecorp.clova.extension.boot.message.request;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Map;
 
@@ -23,6 +24,12 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -62,8 +69,43 @@ public class IntentRequest extends CEKRequest {
         private String name;
         @NotNull
         @Valid
+        @JsonDeserialize(using = SlotsDeserializer.class)
         private Map<String, Slot<?>> slots;
 
+        /**
+         * Reads slots into {@link CompactMap}, sharing the slot name with the key.
+         */
+        public static class SlotsDeserializer extends JsonDeserializer<Map<String, Slot<?>>> {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map<String, Slot<?>> deserialize(JsonParser p, DeserializationContext ctxt)
+                    throws IOException {
+                if (!p.isExpectedStartObjectToken() && !p.hasToken(JsonToken.FIELD_NAME)) {
+                    return (Map<String, Slot<?>>) ctxt.handleUnexpectedToken(Map.class, p);
+                }
+                CompactMap.Builder<Slot<?>> slots = CompactMap.builder();
+                String name = p.hasToken(JsonToken.FIELD_NAME) ? p.getCurrentName() : p.nextFieldName();
+                while (name != null) {
+                    p.nextToken();
+                    Slot<?> slot = p.hasToken(JsonToken.VALUE_NULL) ? null : ctxt.readValue(p, Slot.class);
+                    if (slot != null) {
+                        if (name.equals(slot.getName())) {
+                            // the key is interned by the parser
+                            slot.setName(name);
+                        }
+                        if (slot.getUnit() != null) {
+                            slot.setUnit(CanonicalStrings.canonicalize("unit", slot.getUnit()));
+                        }
+                    }
+                    slots.put(name, slot);
+                    name = p.nextFieldName();
+                }
+                return slots.build();
+            }
+
+        }
+
     }
 
 }
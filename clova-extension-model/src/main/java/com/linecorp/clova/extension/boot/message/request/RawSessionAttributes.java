@@ -0,0 +1,301 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.request;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Read-only session attributes which keep the JSON of each attribute as it was received.
+ * <p>
+ * The JSON is copied token by token without deserializing it, so only insignificant whitespace is dropped.
+ * <p>
+ * Each attribute is deserialized only when it is accessed, and attributes which have never been accessed
+ * through {@link #get(Object)} are written back as the received JSON. Attributes which have been accessed may
+ * have been changed by the caller, so they are serialized again from the deserialized values.
+ * <p>
+ * This class is not thread-safe, as a CEK request is processed by a single thread.
+ */
+@JsonSerialize(using = RawSessionAttributes.Serializer.class)
+public class RawSessionAttributes extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ObjectCodec codec;
+    private final transient Map<String, String> rawValues;
+    // allocated when an attribute is accessed
+    private transient Map<String, Object> values = Collections.emptyMap();
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param codec     {@link ObjectCodec} to deserialize attributes
+     * @param rawValues JSON of each attribute by the attribute name
+     */
+    public RawSessionAttributes(ObjectCodec codec, Map<String, String> rawValues) {
+        this.codec = codec;
+        this.rawValues = rawValues;
+    }
+
+    @Override
+    public int size() {
+        return this.rawValues.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.rawValues.containsKey(key);
+    }
+
+    /**
+     * Returns the deserialized attribute, which is serialized again when these attributes are written.
+     *
+     * @param key attribute name
+     * @return attribute value
+     */
+    @Override
+    public Object get(Object key) {
+        if (this.values.containsKey(key)) {
+            return this.values.get(key);
+        }
+        String rawValue = this.rawValues.get(key);
+        if (rawValue == null) {
+            return null;
+        }
+        Object value = parse(rawValue, Object.class);
+        if (this.values.isEmpty()) {
+            this.values = new HashMap<>();
+        }
+        this.values.put((String) key, value);
+        return value;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(this.rawValues.keySet());
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<String> names = rawValues.keySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return names.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        String name = names.next();
+                        return new SimpleImmutableEntry<>(name, get(name));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return rawValues.size();
+            }
+        };
+    }
+
+    /**
+     * Returns the JSON of the attribute as it was received.
+     *
+     * @param name attribute name
+     * @return JSON of the attribute, or {@code null} if absent
+     */
+    public String getRawValue(String name) {
+        return this.rawValues.get(name);
+    }
+
+    /**
+     * Returns whether the attribute has been deserialized through {@link #get(Object)}.
+     *
+     * @param name attribute name
+     * @return {@code true} if the attribute is serialized again
+     */
+    public boolean isMaterialized(String name) {
+        return this.values.containsKey(name);
+    }
+
+    /**
+     * Deserializes the attribute into a new instance of the type, without keeping it.
+     *
+     * @param name attribute name
+     * @param type value type
+     * @param <T>  value type
+     * @return attribute value, or {@code null} if absent
+     */
+    public <T> T readValue(String name, JavaType type) {
+        try (JsonParser parser = openParser(name)) {
+            return parser != null ? this.codec.readValue(parser, type) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deserializes the attribute into a new tree, without keeping it.
+     *
+     * @param name attribute name
+     * @return attribute value, or {@code null} if absent or {@code null}
+     */
+    public JsonNode readTree(String name) {
+        try (JsonParser parser = openParser(name)) {
+            JsonNode node = parser != null ? this.codec.readTree(parser) : null;
+            return node != null && !node.isNull() ? node : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the attribute as a field, as it was received unless it has been deserialized.
+     *
+     * @param name      attribute name
+     * @param generator {@link JsonGenerator}
+     * @param provider  {@link SerializerProvider}
+     * @throws IOException if failed to write
+     */
+    public void writeField(String name, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeFieldName(name);
+        if (this.values.containsKey(name)) {
+            provider.defaultSerializeValue(this.values.get(name), generator);
+            return;
+        }
+
+        String rawValue = this.rawValues.get(name);
+        if (generator instanceof TokenBuffer) {
+            // TokenBuffer keeps raw values as embedded objects, which are not converted to other types
+            try (JsonParser parser = this.codec.getFactory().createParser(rawValue)) {
+                parser.nextToken();
+                generator.copyCurrentStructure(parser);
+            }
+        } else {
+            generator.writeRawValue(rawValue);
+        }
+    }
+
+    private JsonParser openParser(String name) throws IOException {
+        if (this.values.containsKey(name)) {
+            // the value may have been changed by the caller
+            TokenBuffer buffer = new TokenBuffer(this.codec, false);
+            this.codec.writeValue(buffer, this.values.get(name));
+            return buffer.asParser(this.codec);
+        }
+        String rawValue = this.rawValues.get(name);
+        return rawValue != null ? this.codec.getFactory().createParser(rawValue) : null;
+    }
+
+    private Object parse(String rawValue, Class<?> type) {
+        try (JsonParser parser = this.codec.getFactory().createParser(rawValue)) {
+            return this.codec.readValue(parser, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new LinkedHashMap<>(this);
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        // written as LinkedHashMap by writeReplace()
+        throw new InvalidObjectException("RawSessionAttributes is serialized as LinkedHashMap.");
+    }
+
+    /**
+     * Deserializes a JSON object into {@link RawSessionAttributes}, copying the JSON of each attribute without
+     * deserializing it.
+     */
+    public static class Deserializer extends JsonDeserializer<Map<String, Object>> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            ObjectCodec codec = p.getCodec();
+            if (codec == null || !p.isExpectedStartObjectToken()) {
+                return (Map<String, Object>) ctxt.readValue(p, Map.class);
+            }
+
+            CompactMap.Builder<String> rawValues = CompactMap.builder();
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                StringWriter writer = new StringWriter();
+                try (JsonGenerator generator = codec.getFactory().createGenerator(writer)) {
+                    generator.copyCurrentStructure(p);
+                }
+                rawValues.put(name, writer.toString());
+            }
+            if (p.currentToken() != JsonToken.END_OBJECT) {
+                return (Map<String, Object>) ctxt.handleUnexpectedToken(Map.class, p);
+            }
+            return new RawSessionAttributes(codec, rawValues.build());
+        }
+
+    }
+
+    /**
+     * Serializes {@link RawSessionAttributes}, writing the attributes which have not been deserialized as they
+     * were received.
+     */
+    public static class Serializer extends JsonSerializer<RawSessionAttributes> {
+
+        @Override
+        public void serialize(RawSessionAttributes value, JsonGenerator gen, SerializerProvider serializers)
+                throws IOException {
+            gen.writeStartObject(value);
+            for (String name : value.rawValues.keySet()) {
+                value.writeField(name, gen, serializers);
+            }
+            gen.writeEndObject();
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.speech;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * Static utility methods for {@link OutputSpeech} and {@link SpeechInfoObject} instances.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class OutputSpeeches {
+
+    private static final String UNMODIFIABLE_MESSAGE = "The shared speech can not be changed.";
+
+    /**
+     * Returns the {@link OutputSpeech} which can not be changed, so that it can be shared between responses.
+     * <p>
+     * The nested {@link SpeechInfoObject}s and {@link Verbose} are copied into unmodifiable ones as well. The
+     * setters of them throw {@link UnsupportedOperationException}.
+     *
+     * @param speech the speech
+     * @return the unmodifiable speech
+     */
+    public static OutputSpeech unmodifiable(@NonNull OutputSpeech speech) {
+        return speech instanceof UnmodifiableOutputSpeech ? speech : new UnmodifiableOutputSpeech(speech);
+    }
+
+    /**
+     * Returns the {@link SpeechInfoObject} which can not be changed, so that it can be shared between
+     * responses.
+     *
+     * @param speechInfo the speech information
+     * @return the unmodifiable speech information
+     */
+    public static SpeechInfoObject unmodifiable(@NonNull SpeechInfoObject speechInfo) {
+        if (speechInfo instanceof UnmodifiableSpeechInfoObject) {
+            return speechInfo;
+        }
+        return new UnmodifiableSpeechInfoObject(speechInfo);
+    }
+
+    static List<SpeechInfoObject> unmodifiable(List<SpeechInfoObject> speechInfos) {
+        if (speechInfos == null) {
+            return null;
+        }
+        List<SpeechInfoObject> copied = new ArrayList<>(speechInfos.size());
+        for (SpeechInfoObject speechInfo : speechInfos) {
+            copied.add(speechInfo != null ? unmodifiable(speechInfo) : null);
+        }
+        return Collections.unmodifiableList(copied);
+    }
+
+    static UnsupportedOperationException unmodifiableException() {
+        return new UnsupportedOperationException(UNMODIFIABLE_MESSAGE);
+    }
+
+}
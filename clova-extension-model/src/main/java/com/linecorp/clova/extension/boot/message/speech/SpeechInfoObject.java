@@ -19,7 +19,6 @@ package com.linecorp.clova.extension.boot.message.speech;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
@@ -115,8 +114,11 @@ public class SpeechInfoObject implements Serializable {
 
         NONE("", null);
 
+        private static final Lang[] VALUES = values();
+
         @Getter(onMethod = @__(@JsonValue))
         private final String value;
+        @Getter
         private final Locale locale;
 
         /**
@@ -129,11 +131,14 @@ public class SpeechInfoObject implements Serializable {
             if (locale == null) {
                 return Lang.NONE;
             }
-            return Arrays.stream(values())
-                         .filter(lang -> lang.locale != null)
-                         .filter(lang -> Objects.equals(lang.locale.getLanguage(), locale.getLanguage()))
-                         .findFirst()
-                         .orElse(Lang.NONE);
+            // called for every speech, so avoids streams and copying values()
+            String language = locale.getLanguage();
+            for (Lang lang : VALUES) {
+                if (lang.locale != null && Objects.equals(lang.locale.getLanguage(), language)) {
+                    return lang;
+                }
+            }
+            return Lang.NONE;
         }
     }
 
@@ -163,4 +168,11 @@ public class SpeechInfoObject implements Serializable {
                        .orElseGet(() -> Lang.identifyBy(LocaleContextHolder.getLocale()));
     }
 
+    /**
+     * Returns the language as it is set, without the fallback of {@link #getLang()}.
+     */
+    Lang getLangAsSet() {
+        return this.lang;
+    }
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.speech;
+
+import java.util.List;
+
+/**
+ * {@link OutputSpeech} which can not be changed.
+ *
+ * @see OutputSpeeches#unmodifiable(OutputSpeech)
+ */
+final class UnmodifiableOutputSpeech extends OutputSpeech {
+
+    private static final long serialVersionUID = 1L;
+
+    UnmodifiableOutputSpeech(OutputSpeech source) {
+        super.setBrief(source.getBrief() != null ? OutputSpeeches.unmodifiable(source.getBrief()) : null);
+        super.setValues(OutputSpeeches.unmodifiable(source.getValues()));
+        super.setVerbose(source.getVerbose() != null ? new UnmodifiableVerbose(source.getVerbose()) : null);
+    }
+
+    @Override
+    public void setBrief(SpeechInfoObject brief) {
+        throw OutputSpeeches.unmodifiableException();
+    }
+
+    @Override
+    public void setValues(List<SpeechInfoObject> values) {
+        throw OutputSpeeches.unmodifiableException();
+    }
+
+    @Override
+    public void setVerbose(Verbose verbose) {
+        throw OutputSpeeches.unmodifiableException();
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.speech;
+
+/**
+ * {@link SpeechInfoObject} which can not be changed.
+ *
+ * @see OutputSpeeches#unmodifiable(SpeechInfoObject)
+ */
+final class UnmodifiableSpeechInfoObject extends SpeechInfoObject {
+
+    private static final long serialVersionUID = 1L;
+
+    UnmodifiableSpeechInfoObject(SpeechInfoObject source) {
+        super.setLang(source.getLangAsSet());
+        super.setType(source.getType());
+        super.setValue(source.getValue());
+    }
+
+    @Override
+    public void setLang(Lang lang) {
+        throw OutputSpeeches.unmodifiableException();
+    }
+
+    @Override
+    public void setType(Type type) {
+        throw OutputSpeeches.unmodifiableException();
+    }
+
+    @Override
+    public void setValue(String value) {
+        throw OutputSpeeches.unmodifiableException();
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CompactMapTest {
+
+    private static final String CONTEXT_JSON =
+            "{\"System\":{\"application\":{\"applicationId\":\"com.example.extension\"},"
+            + "\"device\":{\"deviceId\":\"device-1\",\"display\":{\"size\":\"l100\",\"dpi\":213}}},"
+            + "\"list\":[1,2.5,null,\"text\"]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void test_keepEntriesInInsertionOrder() {
+        Map<String, Integer> map = CompactMap.<Integer>builder()
+                .put("b", 1)
+                .put("a", 2)
+                .put("b", 3)
+                .build();
+
+        assertThat(map).isInstanceOf(CompactMap.class);
+        assertThat(map).containsExactly(entry("b", 3), entry("a", 2));
+        assertThat(map.get(new StringBuilder("a").toString())).isEqualTo(2);
+        assertThat(map.get("c")).isNull();
+        assertThatThrownBy(() -> map.put("c", 4)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void test_overflowToLinkedHashMap() {
+        CompactMap.Builder<Integer> builder = CompactMap.builder();
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i <= CompactMap.MAX_SIZE; i++) {
+            builder.put("key" + i, i);
+            expected.put("key" + i, i);
+        }
+
+        Map<String, Integer> map = builder.build();
+
+        assertThat(map).isNotInstanceOf(CompactMap.class);
+        assertThat(map).isEqualTo(expected);
+        assertThat(CompactMap.builder().build()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_readNestedObjects() throws Exception {
+        Map<String, Object> context = readContext(CONTEXT_JSON);
+        Map<String, Object> other = readContext(CONTEXT_JSON);
+
+        assertThat(context).isEqualTo(objectMapper.readValue(CONTEXT_JSON, Map.class));
+        assertThat(objectMapper.writeValueAsString(context)).isEqualTo(CONTEXT_JSON);
+        Map<String, Object> system = (Map<String, Object>) context.get("System");
+        assertThat(system).isInstanceOf(CompactMap.class);
+        assertThat((List<Object>) context.get("list")).containsExactly(1, 2.5, null, "text");
+        // values of well-known properties are shared across requests
+        assertThat(((Map<String, Object>) system.get("application")).get("applicationId"))
+                .isSameAs(((Map<String, Object>) ((Map<String, Object>) other.get("System"))
+                        .get("application")).get("applicationId"));
+    }
+
+    @Test
+    public void test_readSlots() throws Exception {
+        IntentRequest.Intent intent = objectMapper.readValue(
+                "{\"name\":\"Order\",\"slots\":{\"menu\":{\"name\":\"menu\",\"value\":\"pizza\"},"
+                + "\"count\":{\"name\":\"count\",\"value\":2}}}", IntentRequest.Intent.class);
+
+        assertThat(intent.getSlots()).isInstanceOf(CompactMap.class);
+        assertThat(intent.getSlots().keySet()).containsExactly("menu", "count");
+        assertThat(intent.getSlots().get("menu").getValue()).isEqualTo("pizza");
+        assertThat(intent.getSlots().get("count").getValue()).isEqualTo(2);
+    }
+
+    private Map<String, Object> readContext(String json) throws Exception {
+        return objectMapper.readValue("{\"context\":" + json + "}", CEKRequestMessage.class).getContext();
+    }
+
+}
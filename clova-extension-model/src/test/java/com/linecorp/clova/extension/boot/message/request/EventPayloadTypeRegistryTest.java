@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import com.linecorp.clova.extension.boot.message.payload.AudioPlayerPlaybackStatePayload;
+import com.linecorp.clova.extension.boot.message.payload.MapPayload;
+import com.linecorp.clova.extension.boot.message.payload.Payload;
+
+public class EventPayloadTypeRegistryTest {
+
+    private static final String EVENT_JSON =
+            "{\"namespace\":\"AudioPlayer\",\"name\":\"PlayStarted\","
+            + "\"payload\":{\"token\":\"token-1\",\"offsetInMilliseconds\":1000}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventPayloadTypeRegistry registry = new EventPayloadTypeRegistry();
+
+    @Test
+    public void test_readRegisteredPayloadDirectly() throws Exception {
+        registry.register("AudioPlayer.PlayStarted", AudioPlayerPlaybackStatePayload.class);
+
+        Payload payload = readEvent(EVENT_JSON).getPayload();
+
+        assertThat(payload).isInstanceOf(AudioPlayerPlaybackStatePayload.class);
+        assertThat(((AudioPlayerPlaybackStatePayload) payload).getToken()).isEqualTo("token-1");
+        assertThat(((AudioPlayerPlaybackStatePayload) payload).getOffsetInMilliseconds()).isEqualTo(1000L);
+    }
+
+    @Test
+    public void test_readUnregisteredPayloadAsMap() throws Exception {
+        registry.register("AudioPlayer.PlayPaused", AudioPlayerPlaybackStatePayload.class);
+
+        assertThat(readEvent(EVENT_JSON).getPayload()).isInstanceOf(MapPayload.class);
+        assertThat(objectMapper.readValue(EVENT_JSON, EventRequest.Event.class).getPayload())
+                .isInstanceOf(MapPayload.class);
+    }
+
+    @Test
+    public void test_readPayloadPrecedingName() throws Exception {
+        registry.register("AudioPlayer.PlayStarted", AudioPlayerPlaybackStatePayload.class);
+
+        EventRequest.Event event = readEvent(
+                "{\"payload\":{\"token\":\"token-1\"},\"namespace\":\"AudioPlayer\",\"name\":\"PlayStarted\"}");
+
+        assertThat(event.getPayload()).isInstanceOf(AudioPlayerPlaybackStatePayload.class);
+        assertThat(((AudioPlayerPlaybackStatePayload) event.getPayload()).getToken()).isEqualTo("token-1");
+    }
+
+    @Test
+    public void test_readMismatchedPayloadAsMap() throws Exception {
+        registry.register("AudioPlayer.PlayStarted", AudioPlayerPlaybackStatePayload.class);
+
+        EventRequest.Event event = readEvent(
+                "{\"namespace\":\"AudioPlayer\",\"name\":\"PlayStarted\","
+                + "\"payload\":{\"offsetInMilliseconds\":\"unknown\"}}");
+
+        assertThat(event.getPayload()).isInstanceOf(MapPayload.class);
+        assertThat(event.getPayload()).isEqualTo(singletonPayload("offsetInMilliseconds", "unknown"));
+        assertThat(event.getName()).isEqualTo("PlayStarted");
+    }
+
+    @Test
+    public void test_conflictedTypesFallBackToMap() {
+        registry.register("AudioPlayer.PlayStarted", AudioPlayerPlaybackStatePayload.class);
+        registry.register("AudioPlayer.PlayStarted", AudioPlayerPlaybackStatePayload.class);
+        registry.register("AudioPlayer.PlayPaused", AudioPlayerPlaybackStatePayload.class);
+        registry.register("AudioPlayer.PlayPaused", Payload.class);
+        registry.register("AudioPlayer.PlayPaused", AudioPlayerPlaybackStatePayload.class);
+
+        assertThat(registry.find("AudioPlayer.PlayStarted")).isEqualTo(AudioPlayerPlaybackStatePayload.class);
+        assertThat(registry.find("AudioPlayer.PlayPaused")).isNull();
+        assertThat(registry.find("AudioPlayer.PlayStopped")).isNull();
+    }
+
+    private EventRequest.Event readEvent(String json) throws Exception {
+        ObjectReader reader = registry.applyTo(objectMapper.readerFor(EventRequest.Event.class));
+        return reader.readValue(json);
+    }
+
+    private static MapPayload singletonPayload(String key, Object value) {
+        MapPayload payload = new MapPayload();
+        payload.put(key, value);
+        return payload;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class RawSessionAttributesTest {
+
+    private static final String SESSION_JSON =
+            "{\"sessionId\":\"id\",\"new\":false,"
+            + "\"sessionAttributes\":{\"b\":{\"z\":1.5,\"a\":[1, 2]},\"a\":\"text\",\"n\":null}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void test_writeUntouchedAttributesAsReceived() throws Exception {
+        RawSessionAttributes attributes = readSessionAttributes();
+
+        assertThat(attributes.keySet()).containsExactly("b", "a", "n");
+        assertThat(attributes.getRawValue("b")).isEqualTo("{\"z\":1.5,\"a\":[1,2]}");
+        assertThat(objectMapper.writeValueAsString(attributes))
+                .isEqualTo("{\"b\":{\"z\":1.5,\"a\":[1,2]},\"a\":\"text\",\"n\":null}");
+        assertThat(attributes.isMaterialized("b")).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_writeAccessedAttributesAgain() throws Exception {
+        RawSessionAttributes attributes = readSessionAttributes();
+
+        ((Map<String, Object>) attributes.get("b")).put("c", true);
+
+        assertThat(attributes.isMaterialized("b")).isTrue();
+        assertThat(attributes.isMaterialized("a")).isFalse();
+        assertThat(objectMapper.writeValueAsString(attributes))
+                .isEqualTo("{\"b\":{\"z\":1.5,\"a\":[1,2],\"c\":true},\"a\":\"text\",\"n\":null}");
+    }
+
+    @Test
+    public void test_readWithoutMaterializing() throws Exception {
+        RawSessionAttributes attributes = readSessionAttributes();
+        JavaType type = objectMapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class);
+
+        Map<String, Object> value = attributes.readValue("b", type);
+
+        assertThat((List<?>) value.get("a")).containsExactly(1, 2);
+        assertThat(attributes.readTree("a").textValue()).isEqualTo("text");
+        assertThat(attributes.readTree("n")).isNull();
+        assertThat(attributes.readTree("none")).isNull();
+        assertThat(attributes.containsKey("n")).isTrue();
+        assertThat(attributes.isMaterialized("b")).isFalse();
+    }
+
+    private RawSessionAttributes readSessionAttributes() throws Exception {
+        CEKRequestMessage.Session session =
+                objectMapper.readValue(SESSION_JSON, CEKRequestMessage.Session.class);
+        assertThat(session.getSessionAttributes()).isInstanceOf(RawSessionAttributes.class);
+        return (RawSessionAttributes) session.getSessionAttributes();
+    }
+
+}
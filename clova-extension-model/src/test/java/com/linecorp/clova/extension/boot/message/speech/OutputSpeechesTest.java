@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.boot.message.speech;
+
+import static com.linecorp.clova.extension.boot.message.speech.SpeechInfoObject.text;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class OutputSpeechesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void unmodifiableSpeechList() throws Exception {
+        OutputSpeech source = OutputSpeech.builder()
+                                          .value(text("first", Locale.JAPANESE))
+                                          .value(SpeechInfoObject.url("https://example.com/second.mp3"))
+                                          .build();
+        String json = objectMapper.writeValueAsString(source);
+
+        OutputSpeech speech = OutputSpeeches.unmodifiable(source);
+
+        assertThat(speech).isEqualTo(source);
+        assertThat(objectMapper.writeValueAsString(speech)).isEqualTo(json);
+        assertThat(OutputSpeeches.unmodifiable(speech)).isSameAs(speech);
+        assertThatThrownBy(() -> speech.setValues(null)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> speech.getValues().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> speech.getValues().get(0).setValue("changed"))
+                .isInstanceOf(UnsupportedOperationException.class);
+
+        // copied, not a view of the source
+        source.getValues().get(0).setValue("changed");
+        assertThat(speech.getValues().get(0).getValue()).isEqualTo("first");
+    }
+
+    @Test
+    public void unmodifiableSpeechSet() throws Exception {
+        OutputSpeech source = OutputSpeech.builder()
+                                          .brief(text("brief", Locale.ENGLISH))
+                                          .verbose(Verbose.text("verbose", Locale.ENGLISH))
+                                          .build();
+
+        OutputSpeech speech = OutputSpeeches.unmodifiable(source);
+
+        assertThat(speech).isEqualTo(source);
+        assertThat(objectMapper.writeValueAsString(speech)).isEqualTo(objectMapper.writeValueAsString(source));
+        assertThatThrownBy(() -> speech.setBrief(null)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> speech.getBrief().setLang(SpeechInfoObject.Lang.JA))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> speech.getVerbose().setValues(null))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> speech.getVerbose().getValues().get(0).setValue("changed"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+}
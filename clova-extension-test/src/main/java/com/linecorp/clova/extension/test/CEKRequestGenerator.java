@@ -37,9 +37,11 @@ import java.util.stream.Collectors;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy.SnakeCaseStrategy;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
@@ -154,6 +156,11 @@ public class CEKRequestGenerator {
 
         private Configuration configuration;
 
+        /**
+         * The template read from classpath, kept until the path or the charset changes.
+         */
+        private String template;
+
         /**
          * Sets JSON template path
          *
@@ -162,6 +169,7 @@ public class CEKRequestGenerator {
          */
         RequestBodyBuilder resource(String path) {
             this.path = path;
+            this.template = null;
             return this;
         }
 
@@ -186,6 +194,7 @@ public class CEKRequestGenerator {
          */
         public RequestBodyBuilder resourceCharset(Charset charset) {
             this.resourceCharset = charset;
+            this.template = null;
             return this;
         }
 
@@ -321,47 +330,75 @@ public class CEKRequestGenerator {
         public String build() {
             Configuration configuration = getConfiguration();
 
-            try (InputStream in = CEKRequestGenerator.class.getClassLoader().getResourceAsStream(this.path)) {
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(in, this.resourceCharset))) {
-                    String body = reader.lines().collect(Collectors.joining("\n"));
+            if (this.template == null) {
+                this.template = readTemplate(this.path, this.resourceCharset);
+            }
+            String body = this.template;
 
-                    for (Map.Entry<String, Object> entry : this.placeholder.entrySet()) {
-                        body = body.replaceAll(Pattern.quote("${" + entry.getKey() + "}"),
-                                               entry.getValue().toString());
-                    }
+            for (Map.Entry<String, Object> entry : this.placeholder.entrySet()) {
+                body = body.replaceAll(Pattern.quote("${" + entry.getKey() + "}"),
+                                       entry.getValue().toString());
+            }
 
-                    if (!this.additionalArrays.isEmpty()) {
-                        DocumentContext documentContext = JsonPath.using(configuration).parse(body);
-                        this.additionalArrays.forEach((path, list) -> {
-                            String cleanPath = cleanPath(path);
-                            initPathIfAbsent(documentContext, cleanPath + "[]");
-                            list.forEach(val -> documentContext.add(cleanPath, val));
-                        });
-                        body = documentContext.jsonString();
-                    }
+            if (!this.additionalArrays.isEmpty()) {
+                DocumentContext documentContext = JsonPath.using(configuration).parse(body);
+                this.additionalArrays.forEach((path, list) -> {
+                    String cleanPath = cleanPath(path);
+                    initPathIfAbsent(documentContext, cleanPath + "[]");
+                    list.forEach(val -> documentContext.add(cleanPath, val));
+                });
+                body = documentContext.jsonString();
+            }
 
-                    if (!this.additionalObjects.isEmpty()) {
-                        DocumentContext documentContext = JsonPath.using(configuration).parse(body);
-                        this.additionalObjects.forEach((path, value) -> {
-                            String cleanPath = cleanPath(path);
-                            initPathIfAbsent(documentContext, cleanPath);
-                            documentContext.put(pathWithoutKey(cleanPath), key(cleanPath), value);
-                        });
-                        body = documentContext.jsonString();
-                    }
+            if (!this.additionalObjects.isEmpty()) {
+                DocumentContext documentContext = JsonPath.using(configuration).parse(body);
+                this.additionalObjects.forEach((path, value) -> {
+                    String cleanPath = cleanPath(path);
+                    initPathIfAbsent(documentContext, cleanPath);
+                    documentContext.put(pathWithoutKey(cleanPath), key(cleanPath), value);
+                });
+                body = documentContext.jsonString();
+            }
 
-                    if (!this.removePaths.isEmpty()) {
-                        DocumentContext documentContext = JsonPath.using(configuration).parse(body);
-                        this.removePaths.stream()
-                                        .map(RequestBodyBuilder::cleanPath)
-                                        .forEach(documentContext::delete);
-                        body = documentContext.jsonString();
-                    }
+            if (!this.removePaths.isEmpty()) {
+                DocumentContext documentContext = JsonPath.using(configuration).parse(body);
+                this.removePaths.stream()
+                                .map(RequestBodyBuilder::cleanPath)
+                                .forEach(documentContext::delete);
+                body = documentContext.jsonString();
+            }
 
-                    return body.trim() + "\n";
+            return body.trim() + "\n";
+        }
+
+        /**
+         * Compiles the request for generating a large number of requests.
+         * <p>
+         * Everything set to this builder is applied only once. Placeholders not set by
+         * {@link #placeholder(String, Object)} remain and can be set through {@link CompiledRequestTemplate}.
+         *
+         * @return {@link CompiledRequestTemplate}
+         */
+        public CompiledRequestTemplate compile() {
+            try {
+                JsonNode tree = this.objectMapper.readTree(build());
+                if (!tree.isObject()) {
+                    throw new IllegalArgumentException(
+                            "The template should be a JSON object. path: " + this.path);
                 }
+                return new CompiledRequestTemplate((ObjectNode) tree, this.objectMapper);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
 
+        private static String readTemplate(String path, Charset charset) {
+            InputStream in = CEKRequestGenerator.class.getClassLoader().getResourceAsStream(path);
+            if (in == null) {
+                throw new IllegalArgumentException("The template is not found. path: " + path);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset))) {
+                return reader.lines().collect(Collectors.joining("\n"));
             } catch (IOException e) {
                 throw new IllegalArgumentException(e);
             }
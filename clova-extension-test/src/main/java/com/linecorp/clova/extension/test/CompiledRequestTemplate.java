@@ -0,0 +1,388 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.linecorp.clova.extension.test.CEKRequestGenerator.RequestBodyBuilder;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * CEK request template parsed only once, for generating a large number of requests.
+ * <p>
+ * The template is compiled from {@link RequestBodyBuilder#compile()}, so everything set to the builder is
+ * applied only once. Values which vary for each request are set through {@link Writer}, which patches only the
+ * precomputed locations of the parsed tree and writes it.
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * CompiledRequestTemplate template = CEKRequestGenerator.requestBodyBuilder()
+ *                                                       .intent("Echo")
+ *                                                       .slot("number", 0)
+ *                                                       .compile();
+ * Location number = template.location("$.request.intent.slots.number.value");
+ * Location sessionId = template.placeholder("sessionId");
+ *
+ * CompiledRequestTemplate.Writer writer = template.newWriter();
+ * byte[] body = writer.set(number, 42)
+ *                     .set(sessionId, UUID.randomUUID().toString())
+ *                     .toBytes();
+ * }</pre>
+ * This class is thread-safe, but {@link Writer} is not. Use a {@link Writer} per thread.
+ */
+public class CompiledRequestTemplate {
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+    private final ObjectNode tree;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final Map<String, List<TextSite>> placeholderSites;
+
+    CompiledRequestTemplate(ObjectNode tree, ObjectMapper objectMapper) {
+        this.tree = tree;
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer()
+                                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.placeholderSites = new HashMap<>();
+        collectPlaceholders(tree, new ArrayList<>());
+    }
+
+    /**
+     * Compiles the JsonPath of a value to be patched.
+     * <p>
+     * Only dot-notation with array indexes is supported. e.g.) {@code $.request.event.payload.items[0].token}
+     *
+     * @param path JsonPath
+     * @return precomputed {@link Location}
+     */
+    public Location location(String path) {
+        return new Location(path, parsePath(path), null);
+    }
+
+    /**
+     * Compiles the placeholder (e.g. {@code ${sessionId}}) remaining in the template.
+     *
+     * @param name placeholder name
+     * @return precomputed {@link Location}
+     * @throws IllegalArgumentException if the template does not have the placeholder
+     */
+    public Location placeholder(String name) {
+        if (!this.placeholderSites.containsKey(name)) {
+            throw new IllegalArgumentException("The template does not have the placeholder. name: " + name);
+        }
+        return new Location("${" + name + "}", null, name);
+    }
+
+    /**
+     * Returns whether the placeholder (e.g. {@code ${sessionId}}) remains in the template.
+     *
+     * @param name placeholder name
+     * @return {@code true} if the template has the placeholder
+     */
+    public boolean hasPlaceholder(String name) {
+        return this.placeholderSites.containsKey(name);
+    }
+
+    /**
+     * Creates a new {@link Writer}, which has its own copy of the tree.
+     *
+     * @return {@link Writer}
+     */
+    public Writer newWriter() {
+        return new Writer(this.tree.deepCopy());
+    }
+
+    private void collectPlaceholders(JsonNode node, List<Object> segments) {
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                segments.add(field.getKey());
+                collectPlaceholders(field.getValue(), segments);
+                segments.remove(segments.size() - 1);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                segments.add(i);
+                collectPlaceholders(node.get(i), segments);
+                segments.remove(segments.size() - 1);
+            }
+        } else if (node.isTextual()) {
+            String text = node.textValue();
+            Matcher matcher = PLACEHOLDER_PATTERN.matcher(text);
+            List<String> parts = new ArrayList<>();
+            int last = 0;
+            while (matcher.find()) {
+                parts.add(text.substring(last, matcher.start()));
+                parts.add(matcher.group(1));
+                last = matcher.end();
+            }
+            if (parts.isEmpty()) {
+                return;
+            }
+            parts.add(text.substring(last));
+            TextSite site = new TextSite(new ArrayList<>(segments), parts);
+            for (int i = 1; i < parts.size(); i += 2) {
+                List<TextSite> sites = this.placeholderSites.computeIfAbsent(parts.get(i),
+                                                                             key -> new ArrayList<>());
+                if (!sites.contains(site)) {
+                    sites.add(site);
+                }
+            }
+        }
+    }
+
+    private static List<Object> parsePath(String path) {
+        String cleanPath = path.startsWith("$") ? path.substring(1) : "." + path;
+        List<Object> segments = new ArrayList<>();
+        for (String key : cleanPath.substring(1).split("\\.")) {
+            int bracket = key.indexOf('[');
+            if (bracket < 0) {
+                segments.add(key);
+                continue;
+            }
+            if (bracket > 0) {
+                segments.add(key.substring(0, bracket));
+            }
+            for (String index : key.substring(bracket + 1, key.length() - 1).split("]\\[")) {
+                try {
+                    segments.add(Integer.valueOf(index));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unsupported JsonPath: " + path, e);
+                }
+            }
+        }
+        if (segments.isEmpty() || segments.contains("")) {
+            throw new IllegalArgumentException("Unsupported JsonPath: " + path);
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Precomputed location in {@link CompiledRequestTemplate}.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Location {
+
+        private final String expression;
+        private final List<Object> segments;
+        private final String placeholderName;
+
+        @Override
+        public String toString() {
+            return this.expression;
+        }
+
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class TextSite {
+
+        /**
+         * Path segments from the root to the text node.
+         */
+        private final List<Object> segments;
+
+        /**
+         * Literals and placeholder names alternately, starts and ends with literals.
+         */
+        private final List<String> parts;
+
+    }
+
+    /**
+     * Patches and writes a copy of the compiled tree.
+     * <p>
+     * Values set to this writer remain until they are set again, so only values which vary need to be set for
+     * each request.
+     */
+    public final class Writer {
+
+        private final ObjectNode root;
+        private final Map<Location, ContainerNode<?>> parents = new IdentityHashMap<>();
+        private final Map<String, String> placeholderValues = new HashMap<>();
+        private final ByteArrayBuilder buffer = new ByteArrayBuilder();
+
+        private Writer(ObjectNode root) {
+            this.root = root;
+        }
+
+        /**
+         * Sets the value to the location.
+         *
+         * @param location {@link Location} compiled by the same template
+         * @param value    value, converted by the {@link ObjectMapper} if it is not a simple value
+         * @return this instance
+         */
+        public Writer set(Location location, Object value) {
+            if (location.placeholderName != null) {
+                this.placeholderValues.put(location.placeholderName, String.valueOf(value));
+                for (TextSite site : placeholderSites.get(location.placeholderName)) {
+                    replace(site.segments, JsonNodeFactory.instance.textNode(render(site.parts)));
+                }
+                return this;
+            }
+
+            JsonNode node = toNode(value);
+            ContainerNode<?> parent = this.parents.get(location);
+            if (parent == null) {
+                parent = resolveParent(location.segments);
+                this.parents.put(location, parent);
+            }
+            setChild(parent, location.segments.get(location.segments.size() - 1), node);
+            if (node.isContainerNode()) {
+                // the replaced container may be a parent of other locations
+                this.parents.clear();
+            }
+            return this;
+        }
+
+        /**
+         * Writes the request body into the reused buffer, and returns a copy of it.
+         *
+         * @return request body
+         */
+        public byte[] toBytes() {
+            this.buffer.reset();
+            writeTo(this.buffer);
+            return this.buffer.toByteArray();
+        }
+
+        /**
+         * Writes the request body.
+         *
+         * @return request body
+         */
+        public String build() {
+            return new String(toBytes(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Writes the request body to the stream without intermediate copies. The stream is not closed.
+         *
+         * @param out destination
+         */
+        public void writeTo(OutputStream out) {
+            try {
+                objectWriter.writeValue(out, this.root);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String render(List<String> parts) {
+            StringBuilder sb = new StringBuilder(parts.get(0));
+            for (int i = 1; i < parts.size(); i += 2) {
+                String value = this.placeholderValues.get(parts.get(i));
+                sb.append(value != null ? value : "${" + parts.get(i) + "}")
+                  .append(parts.get(i + 1));
+            }
+            return sb.toString();
+        }
+
+        private void replace(List<Object> segments, JsonNode node) {
+            setChild(resolveParent(segments), segments.get(segments.size() - 1), node);
+        }
+
+        private ContainerNode<?> resolveParent(List<Object> segments) {
+            JsonNode current = this.root;
+            for (int i = 0; i < segments.size() - 1; i++) {
+                Object segment = segments.get(i);
+                Object next = segments.get(i + 1);
+                JsonNode child = segment instanceof Integer ? current.get((Integer) segment)
+                                                            : current.get((String) segment);
+                if (child == null || !child.isContainerNode()) {
+                    child = next instanceof Integer ? JsonNodeFactory.instance.arrayNode()
+                                                    : JsonNodeFactory.instance.objectNode();
+                    setChild((ContainerNode<?>) current, segment, child);
+                }
+                current = child;
+            }
+            return (ContainerNode<?>) current;
+        }
+
+        private void setChild(ContainerNode<?> parent, Object segment, JsonNode node) {
+            if (segment instanceof Integer) {
+                if (!parent.isArray()) {
+                    throw new IllegalArgumentException("Not an array at the index: " + segment);
+                }
+                ArrayNode array = (ArrayNode) parent;
+                int index = (Integer) segment;
+                while (array.size() <= index) {
+                    array.addNull();
+                }
+                array.set(index, node);
+            } else {
+                if (!parent.isObject()) {
+                    throw new IllegalArgumentException("Not an object at the field: " + segment);
+                }
+                ((ObjectNode) parent).set((String) segment, node);
+            }
+        }
+
+        private JsonNode toNode(Object value) {
+            if (value == null) {
+                return JsonNodeFactory.instance.nullNode();
+            }
+            if (value instanceof JsonNode) {
+                return (JsonNode) value;
+            }
+            if (value instanceof String) {
+                return JsonNodeFactory.instance.textNode((String) value);
+            }
+            if (value instanceof Integer) {
+                return JsonNodeFactory.instance.numberNode((Integer) value);
+            }
+            if (value instanceof Long) {
+                return JsonNodeFactory.instance.numberNode((Long) value);
+            }
+            if (value instanceof Boolean) {
+                return JsonNodeFactory.instance.booleanNode((Boolean) value);
+            }
+            return objectMapper.valueToTree(value);
+        }
+
+    }
+
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.conversation;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.linecorp.clova.extension.boot.message.request.RequestType;
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.CompiledRequestTemplate;
+import com.linecorp.clova.extension.test.CompiledRequestTemplate.Location;
+import com.linecorp.clova.extension.test.load.CEKRequestSigner;
+import com.linecorp.clova.extension.test.target.CEKTarget;
+import com.linecorp.clova.extension.test.target.CEKTargetResponse;
+
+/**
+ * A dialog of a simulated user, which carries {@code sessionAttributes} of each response forward to the next
+ * request until {@code shouldEndSession} is {@code true}.
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * CEKConversation conversation = CEKConversation.start(CEKTargets.inProcess(context, processor::process))
+ *                                               .launch()
+ *                                               .intent("Order", Collections.singletonMap("menu", "pizza"))
+ *                                               .intent("Clova.YesIntent");
+ *
+ * assertThat(conversation.isEnded()).isTrue();
+ * assertThat(conversation.getLastTurn().getResponse().at("/response/outputSpeech/values/value").asText())
+ *         .isEqualTo("Your pizza is on its way.");
+ * }</pre>
+ * All requests of a conversation share the same session ID and user, and {@code session.new} is {@code true}
+ * only for the first request.
+ * This class is not thread-safe, use a conversation per thread.
+ */
+public class CEKConversation {
+
+    private static final ObjectMapper DEFAULT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final CompiledRequestTemplate TEMPLATE = CEKRequestGenerator.requestBodyBuilder().compile();
+    private static final Location SESSION_NEW = TEMPLATE.location("$.session.new");
+    private static final Location SESSION_ATTRIBUTES = TEMPLATE.location("$.session.sessionAttributes");
+    private static final Location REQUEST = TEMPLATE.location("$.request");
+
+    private final CEKTarget target;
+    private final CEKRequestSigner signer;
+    private final CompiledRequestTemplate.Writer writer;
+    private final List<ConversationTurn> turns = new ArrayList<>();
+    private final Consumer<ConversationTurn> turnListener;
+
+    private JsonNode sessionAttributes = JsonNodeFactory.instance.objectNode();
+    private boolean ended;
+
+    CEKConversation(CEKTarget target, CEKRequestSigner signer, String userId,
+                    Consumer<ConversationTurn> turnListener) {
+        this.target = target;
+        this.signer = signer;
+        this.turnListener = turnListener;
+        this.writer = TEMPLATE.newWriter();
+        setPlaceholder("sessionId", UUID.randomUUID().toString());
+        setPlaceholder("sessionUserId", userId);
+        setPlaceholder("userId", userId);
+        setPlaceholder("sessionAccessToken", "access-token-" + userId);
+        setPlaceholder("accessToken", "access-token-" + userId);
+        setPlaceholder("deviceId", "device-" + userId);
+        setPlaceholder("applicationId", "com.example.conversation");
+    }
+
+    /**
+     * Starts a conversation of a new user.
+     *
+     * @param target {@link CEKTarget}
+     * @return {@link CEKConversation}
+     */
+    public static CEKConversation start(CEKTarget target) {
+        return start(target, null);
+    }
+
+    /**
+     * Starts a conversation of a new user whose requests are signed.
+     *
+     * @param target {@link CEKTarget}
+     * @param signer {@link CEKRequestSigner}, or {@code null} not to sign requests
+     * @return {@link CEKConversation}
+     */
+    public static CEKConversation start(CEKTarget target, CEKRequestSigner signer) {
+        return new CEKConversation(target, signer, UUID.randomUUID().toString(), turn -> {});
+    }
+
+    /**
+     * Sends {@link RequestType#LAUNCH LaunchRequest}.
+     *
+     * @return this instance
+     */
+    public CEKConversation launch() {
+        return send(RequestType.LAUNCH.getValue(), request(RequestType.LAUNCH));
+    }
+
+    /**
+     * Sends {@link RequestType#INTENT IntentRequest} without slots.
+     *
+     * @param intentName intent name
+     * @return this instance
+     */
+    public CEKConversation intent(String intentName) {
+        return intent(intentName, Collections.emptyMap());
+    }
+
+    /**
+     * Sends {@link RequestType#INTENT IntentRequest}.
+     *
+     * @param intentName intent name
+     * @param slots      slot values by slot names
+     * @return this instance
+     */
+    public CEKConversation intent(String intentName, Map<String, ?> slots) {
+        ObjectNode slotsNode = JsonNodeFactory.instance.objectNode();
+        slots.forEach((name, value) -> slotsNode.putObject(name)
+                                                .put("name", name)
+                                                .set("value", DEFAULT_MAPPER.valueToTree(value)));
+        ObjectNode request = request(RequestType.INTENT);
+        request.putObject("intent")
+               .put("name", intentName)
+               .set("slots", slotsNode);
+        return send(intentName, request);
+    }
+
+    /**
+     * Sends {@link RequestType#EVENT EventRequest}.
+     *
+     * @param event   event namespace and name joined by dot. e.g.) AudioPlayer.PlayStarted
+     * @param payload event payload, converted by {@link ObjectMapper}, or {@code null}
+     * @return this instance
+     */
+    public CEKConversation event(String event, Object payload) {
+        String[] eventNamespaceAndName = event.split("\\.");
+        if (eventNamespaceAndName.length != 2) {
+            throw new IllegalArgumentException("event should be <namespace>.<name>. event: " + event);
+        }
+        ObjectNode request = request(RequestType.EVENT);
+        request.put("requestId", UUID.randomUUID().toString())
+               .put("timestamp", OffsetDateTime.now().toString());
+        request.putObject("event")
+               .put("namespace", eventNamespaceAndName[0])
+               .put("name", eventNamespaceAndName[1])
+               .set("payload", payload != null ? DEFAULT_MAPPER.valueToTree(payload)
+                                               : JsonNodeFactory.instance.objectNode());
+        return send(event, request);
+    }
+
+    /**
+     * Sends {@link RequestType#SESSION_ENDED SessionEndedRequest}, which ends the conversation regardless of
+     * the response.
+     *
+     * @return this instance
+     */
+    public CEKConversation sessionEnded() {
+        send(RequestType.SESSION_ENDED.getValue(), request(RequestType.SESSION_ENDED));
+        this.ended = true;
+        return this;
+    }
+
+    /**
+     * Sends a request with the current session.
+     *
+     * @param requestName name of the request, used in {@link ConversationTurn}
+     * @param request     {@code request} field of the CEK request
+     * @return this instance
+     * @throws IllegalStateException if the conversation has ended, or the response was not successful
+     */
+    public CEKConversation send(String requestName, JsonNode request) {
+        if (this.ended) {
+            throw new IllegalStateException("The conversation has ended. request: " + requestName);
+        }
+
+        byte[] body = this.writer.set(SESSION_NEW, this.turns.isEmpty())
+                                 .set(SESSION_ATTRIBUTES, this.sessionAttributes)
+                                 .set(REQUEST, request)
+                                 .toBytes();
+        long startNanos = System.nanoTime();
+        CEKTargetResponse response;
+        try {
+            response = this.target.send(body, this.signer != null
+                                              ? Collections.singletonMap(CEKRequestSigner.SIGNATURE_HEADER,
+                                                                         this.signer.sign(body))
+                                              : Collections.emptyMap());
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to send the request. request: " + requestName, e);
+        }
+        long latencyNanos = System.nanoTime() - startNanos;
+
+        JsonNode responseNode = readTree(response.getBody());
+        JsonNode attributes = responseNode.path("sessionAttributes");
+        this.sessionAttributes = attributes.isObject() ? attributes : JsonNodeFactory.instance.objectNode();
+        ConversationTurn turn = new ConversationTurn(this.turns.size() + 1, requestName, latencyNanos,
+                                                     response.getStatus(), responseNode,
+                                                     sizeOf(this.sessionAttributes));
+        this.turns.add(turn);
+        this.turnListener.accept(turn);
+
+        if (!response.isSuccessful()) {
+            this.ended = true;
+            throw new IllegalStateException("The response was not successful. request: " + requestName
+                                            + ", status: " + response.getStatus()
+                                            + ", body: " + response.getBodyAsString());
+        }
+        this.ended = turn.isShouldEndSession();
+        return this;
+    }
+
+    public boolean isEnded() {
+        return this.ended;
+    }
+
+    public List<ConversationTurn> getTurns() {
+        return Collections.unmodifiableList(this.turns);
+    }
+
+    /**
+     * Returns the last turn.
+     *
+     * @return the last {@link ConversationTurn}
+     * @throws IllegalStateException if no request has been sent
+     */
+    public ConversationTurn getLastTurn() {
+        if (this.turns.isEmpty()) {
+            throw new IllegalStateException("No request has been sent.");
+        }
+        return this.turns.get(this.turns.size() - 1);
+    }
+
+    /**
+     * Returns {@code sessionAttributes} which will be sent with the next request.
+     *
+     * @return session attributes
+     */
+    public JsonNode getSessionAttributes() {
+        return this.sessionAttributes;
+    }
+
+    private void setPlaceholder(String name, String value) {
+        if (TEMPLATE.hasPlaceholder(name)) {
+            this.writer.set(TEMPLATE.placeholder(name), value);
+        }
+    }
+
+    private static ObjectNode request(RequestType requestType) {
+        return JsonNodeFactory.instance.objectNode()
+                                       .put("type", requestType.getValue());
+    }
+
+    private static JsonNode readTree(byte[] body) {
+        try {
+            JsonNode node = body.length > 0 ? DEFAULT_MAPPER.readTree(body) : null;
+            return node != null ? node : MissingNode.getInstance();
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private static int sizeOf(JsonNode node) {
+        try {
+            return DEFAULT_MAPPER.writeValueAsBytes(node).length;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
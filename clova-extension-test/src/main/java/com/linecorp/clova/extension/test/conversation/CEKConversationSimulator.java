@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.conversation;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.linecorp.clova.extension.test.load.CEKRequestSigner;
+import com.linecorp.clova.extension.test.target.CEKTarget;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs {@link CEKConversation}s of many simulated users in parallel, to see how the latency and the size of
+ * {@code sessionAttributes} grow as dialogs get deeper.
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * SimulationReport report =
+ *         CEKConversationSimulator.target(CEKTargets.inProcess(context, processor::process))
+ *                                 .users(5000)
+ *                                 .concurrency(32)
+ *                                 .script(conversation -> {
+ *                                     conversation.launch();
+ *                                     while (!conversation.isEnded()) {
+ *                                         conversation.intent("Next");
+ *                                     }
+ *                                 })
+ *                                 .run();
+ * report.print(System.out);
+ * }</pre>
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CEKConversationSimulator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int MAX_ERROR_MESSAGES = 20;
+
+    private final CEKTarget target;
+
+    private CEKRequestSigner signer;
+    private int users = 1000;
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    private Consumer<CEKConversation> script = CEKConversation::launch;
+
+    /**
+     * Constructs {@link CEKConversationSimulator} which sends requests to the target.
+     *
+     * @param target {@link CEKTarget}
+     * @return {@link CEKConversationSimulator}
+     */
+    public static CEKConversationSimulator target(CEKTarget target) {
+        return new CEKConversationSimulator(target);
+    }
+
+    /**
+     * Sets {@link CEKRequestSigner} to sign requests.
+     * <p>
+     * Not required. In default, requests are not signed.
+     *
+     * @param signer {@link CEKRequestSigner}
+     * @return this instance
+     */
+    public CEKConversationSimulator signer(CEKRequestSigner signer) {
+        this.signer = signer;
+        return this;
+    }
+
+    /**
+     * Sets the number of simulated users, each user has a conversation.
+     * <p>
+     * Not required. In default, 1000.
+     *
+     * @param users the number of users
+     * @return this instance
+     */
+    public CEKConversationSimulator users(int users) {
+        if (users <= 0) {
+            throw new IllegalArgumentException("users should be positive.");
+        }
+        this.users = users;
+        return this;
+    }
+
+    /**
+     * Sets the number of users talking at the same time.
+     * <p>
+     * Not required. In default, the number of available processors.
+     *
+     * @param concurrency the number of threads
+     * @return this instance
+     */
+    public CEKConversationSimulator concurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency should be positive.");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Sets the dialog of each user.
+     * <p>
+     * Not required. In default, each user sends only LaunchRequest.
+     *
+     * @param script sends requests through the conversation, called from multiple threads
+     * @return this instance
+     */
+    public CEKConversationSimulator script(Consumer<CEKConversation> script) {
+        this.script = script;
+        return this;
+    }
+
+    /**
+     * Runs the conversations of all users and waits until all of them complete.
+     *
+     * @return {@link SimulationReport}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public SimulationReport run() throws InterruptedException {
+        Recording recording = new Recording();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "cek-conversation-simulator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long startNanos = System.nanoTime();
+        try {
+            for (int i = 0; i < this.users; i++) {
+                String userId = "simulated-user-" + i;
+                executor.execute(() -> converse(userId, recording));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        return new SimulationReport(this.users, recording.ended.sum(), recording.errors.sum(),
+                                    Duration.ofNanos(System.nanoTime() - startNanos),
+                                    Collections.unmodifiableSortedMap(new TreeMap<>(recording.latencies)),
+                                    Collections.unmodifiableSortedMap(
+                                            new TreeMap<>(recording.sessionAttributesSizes)),
+                                    Collections.unmodifiableList(recording.errorMessages));
+    }
+
+    private void converse(String userId, Recording recording) {
+        CEKConversation conversation = new CEKConversation(this.target, this.signer, userId, recording::record);
+        try {
+            this.script.accept(conversation);
+            if (conversation.isEnded()) {
+                recording.ended.increment();
+            }
+        } catch (RuntimeException e) {
+            recording.errors.increment();
+            if (recording.errorMessages.size() < MAX_ERROR_MESSAGES) {
+                recording.errorMessages.add(userId + ": " + e);
+            }
+        }
+    }
+
+    private static class Recording {
+
+        private final Map<Integer, Histogram> latencies = new ConcurrentHashMap<>();
+        private final Map<Integer, Histogram> sessionAttributesSizes = new ConcurrentHashMap<>();
+        private final LongAdder ended = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final List<String> errorMessages = new CopyOnWriteArrayList<>();
+
+        void record(ConversationTurn turn) {
+            histogram(this.latencies, turn.getDepth()).recordValue(turn.getLatencyNanos());
+            histogram(this.sessionAttributesSizes, turn.getDepth())
+                    .recordValue(turn.getSessionAttributesSize());
+        }
+
+        private static Histogram histogram(Map<Integer, Histogram> histograms, int depth) {
+            return histograms.computeIfAbsent(depth, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.conversation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.Data;
+
+/**
+ * A request and its response in {@link CEKConversation}.
+ */
+@Data
+public class ConversationTurn {
+
+    /**
+     * The depth of the turn in the session, starts from 1.
+     */
+    private final int depth;
+
+    /**
+     * The request name.
+     * e.g.) {@code LaunchRequest}, the intent name or {@code <namespace>.<name>} of the event
+     */
+    private final String requestName;
+
+    /**
+     * The time taken to send the request and to receive the response, in nanoseconds.
+     */
+    private final long latencyNanos;
+
+    private final int status;
+
+    /**
+     * The response, or a missing node if the response was not JSON.
+     */
+    private final JsonNode response;
+
+    /**
+     * The size of {@code sessionAttributes} in the response, as serialized JSON in bytes.
+     */
+    private final int sessionAttributesSize;
+
+    public boolean isShouldEndSession() {
+        return this.response.path("response").path("shouldEndSession").asBoolean(false);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.conversation;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Result of {@link CEKConversationSimulator#run()}.
+ * <p>
+ * Histograms are keyed by the depth of the turn, starts from 1. Latencies are recorded in nanoseconds, and the
+ * sizes of {@code sessionAttributes} in the responses are recorded in bytes.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SimulationReport {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int userCount;
+
+    /**
+     * The number of conversations which ended by {@code shouldEndSession} or SessionEndedRequest.
+     */
+    private final long endedCount;
+
+    /**
+     * The number of conversations which failed.
+     */
+    private final long errorCount;
+
+    private final Duration elapsed;
+    private final SortedMap<Integer, Histogram> latencyHistograms;
+    private final SortedMap<Integer, Histogram> sessionAttributesSizeHistograms;
+
+    /**
+     * Messages of the first failures.
+     */
+    private final List<String> errorMessages;
+
+    public long getTurnCount() {
+        return this.latencyHistograms.values().stream()
+                                     .mapToLong(Histogram::getTotalCount)
+                                     .sum();
+    }
+
+    /**
+     * Prints the summary of this report, a line per depth.
+     *
+     * @param out destination
+     */
+    public void print(PrintStream out) {
+        out.printf("users: %d, ended: %d, errors: %d, turns: %d, elapsed: %.3fs%n",
+                   this.userCount, this.endedCount, this.errorCount, getTurnCount(),
+                   this.elapsed.toNanos() / NANOS_PER_SECOND);
+        out.printf("%5s %8s %12s %12s %12s %14s %14s%n",
+                   "depth", "turns", "p50", "p99", "max", "attrs p50", "attrs max");
+        this.latencyHistograms.forEach((depth, latency) -> {
+            Histogram size = this.sessionAttributesSizeHistograms.get(depth);
+            out.printf("%5d %8d %10.3fms %10.3fms %10.3fms %12dB %12dB%n",
+                       depth, latency.getTotalCount(),
+                       latency.getValueAtPercentile(50.0) / NANOS_PER_MILLI,
+                       latency.getValueAtPercentile(99.0) / NANOS_PER_MILLI,
+                       latency.getMaxValue() / NANOS_PER_MILLI,
+                       size.getValueAtPercentile(50.0), size.getMaxValue());
+        });
+        this.errorMessages.forEach(out::println);
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.json;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Lists differences between two JSON trees.
+ * <p>
+ * Each difference is formatted as {@code <JSON pointer>: <expected> -> <actual>}.
+ */
+@UtilityClass
+public class JsonDiff {
+
+    /**
+     * Lists all differences.
+     *
+     * @param expected        expected JSON
+     * @param actual          actual JSON
+     * @param maxDifferences  the maximum number of differences to list
+     * @return differences, or an empty list if equal
+     */
+    public static List<String> diff(JsonNode expected, JsonNode actual, int maxDifferences) {
+        List<String> differences = new ArrayList<>();
+        collect(expected, actual, "", false, maxDifferences, differences);
+        return differences;
+    }
+
+    /**
+     * Lists differences only of values present in the expected JSON.
+     * <p>
+     * Fields which only the actual JSON has are ignored, so the expected JSON can be a part of the actual one.
+     * Arrays are compared by their elements in order, and should have the same size.
+     *
+     * @param expected       expected JSON, a subset of the actual
+     * @param actual         actual JSON
+     * @param maxDifferences the maximum number of differences to list
+     * @return differences, or an empty list if the actual contains the expected
+     */
+    public static List<String> diffLeniently(JsonNode expected, JsonNode actual, int maxDifferences) {
+        List<String> differences = new ArrayList<>();
+        collect(expected, actual, "", true, maxDifferences, differences);
+        return differences;
+    }
+
+    private static void collect(JsonNode expected, JsonNode actual, String path, boolean lenient,
+                                int maxDifferences, List<String> differences) {
+        if (differences.size() >= maxDifferences) {
+            return;
+        }
+        if (expected.isObject() && actual.isObject()) {
+            Set<String> names = new LinkedHashSet<>();
+            expected.fieldNames().forEachRemaining(names::add);
+            if (!lenient) {
+                actual.fieldNames().forEachRemaining(names::add);
+            }
+            for (String name : names) {
+                String escaped = name.replace("~", "~0").replace("/", "~1");
+                collect(expected.path(name), actual.path(name), path + "/" + escaped, lenient, maxDifferences,
+                        differences);
+            }
+        } else if (expected.isArray() && actual.isArray()) {
+            for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+                collect(expected.path(i), actual.path(i), path + "/" + i, lenient, maxDifferences,
+                        differences);
+            }
+        } else if (!expected.equals(actual)) {
+            differences.add((path.isEmpty() ? "/" : path) + ": "
+                            + toString(expected) + " -> " + toString(actual));
+        }
+    }
+
+    private static String toString(JsonNode node) {
+        return node.isMissingNode() ? "(missing)" : node.toString();
+    }
+
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.load;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.target.CEKTarget;
+import com.linecorp.clova.extension.test.target.CEKTargetResponse;
+import com.linecorp.clova.extension.test.target.CEKTargets;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Open-loop load generator for CEK extensions.
+ * <p>
+ * Requests are scheduled at a constant arrival rate regardless of how fast the extension responds, and each
+ * latency is measured from the time the request was scheduled to be sent. So a stalled extension shows up in
+ * the percentiles instead of silently lowering the request rate (coordinated omission).
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * LoadTestReport report =
+ *         CEKLoadGenerator.target("http://localhost:8080/")
+ *                         .signer(CEKRequestSigner.loadTestSigner())
+ *                         .requestMix(RequestMix.create()
+ *                                               .intent("GuideIntent", 1)
+ *                                               .add("Echo", 8, CEKRequestGenerator.requestBodyBuilder()
+ *                                                                                  .intent("Echo")
+ *                                                                                  .slot("number", 3)))
+ *                         .rate(500)
+ *                         .duration(Duration.ofSeconds(30))
+ *                         .run();
+ * report.print(System.out);
+ * }</pre>
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CEKLoadGenerator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final CEKTarget target;
+
+    private CEKRequestSigner signer;
+    private RequestMix requestMix =
+            RequestMix.create().add("launch", 1, CEKRequestGenerator.requestBodyBuilder().launch());
+    private double rate = 100;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ZERO;
+    private int concurrency = 64;
+
+    /**
+     * Runs a load test with the bundled {@link CEKRequestSigner#loadTestSigner() load test key} and prints the
+     * report.
+     * <p>
+     * Usage: {@code <url> <requests per second> <duration seconds> [<intent name>:<weight>,...]}
+     * <br>
+     * {@code launch} in the mix means LaunchRequest.
+     * e.g.) {@code http://localhost:8080/ 200 30 launch:1,Echo:4}
+     *
+     * @param args arguments
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.err.println(
+                    "Usage: <url> <requests per second> <duration seconds> [<intent name>:<weight>,...]");
+            System.exit(1);
+        }
+
+        RequestMix requestMix = RequestMix.create();
+        for (String entry : (args.length > 3 ? args[3] : "launch:1").split(",")) {
+            String[] nameAndWeight = entry.trim().split(":");
+            int weight = nameAndWeight.length > 1 ? Integer.parseInt(nameAndWeight[1]) : 1;
+            if ("launch".equalsIgnoreCase(nameAndWeight[0])) {
+                requestMix.add(nameAndWeight[0], weight, CEKRequestGenerator.requestBodyBuilder().launch());
+            } else {
+                requestMix.intent(nameAndWeight[0], weight);
+            }
+        }
+
+        CEKLoadGenerator.target(args[0])
+                        .signer(CEKRequestSigner.loadTestSigner())
+                        .requestMix(requestMix)
+                        .rate(Double.parseDouble(args[1]))
+                        .duration(Duration.ofSeconds(Long.parseLong(args[2])))
+                        .warmup(Duration.ofSeconds(5))
+                        .run()
+                        .print(System.out);
+    }
+
+    /**
+     * Constructs {@link CEKLoadGenerator} which sends requests to the URL over HTTP.
+     *
+     * @param url URL of the extension
+     * @return {@link CEKLoadGenerator}
+     */
+    public static CEKLoadGenerator target(String url) {
+        return target(CEKTargets.http(url));
+    }
+
+    /**
+     * Constructs {@link CEKLoadGenerator} which sends requests to the target.
+     *
+     * @param target {@link CEKTarget}
+     * @return {@link CEKLoadGenerator}
+     */
+    public static CEKLoadGenerator target(CEKTarget target) {
+        return new CEKLoadGenerator(target);
+    }
+
+    /**
+     * Sets {@link CEKRequestSigner} to sign requests.
+     * <p>
+     * Not required. In default, requests are not signed.
+     *
+     * @param signer {@link CEKRequestSigner}
+     * @return this instance
+     */
+    public CEKLoadGenerator signer(CEKRequestSigner signer) {
+        this.signer = signer;
+        return this;
+    }
+
+    /**
+     * Sets the mix of requests.
+     * <p>
+     * Not required. In default, only LaunchRequests are sent.
+     *
+     * @param requestMix {@link RequestMix}
+     * @return this instance
+     */
+    public CEKLoadGenerator requestMix(RequestMix requestMix) {
+        if (requestMix.isEmpty()) {
+            throw new IllegalArgumentException("requestMix should not be empty.");
+        }
+        this.requestMix = requestMix;
+        return this;
+    }
+
+    /**
+     * Sets the arrival rate.
+     *
+     * @param requestsPerSecond requests per second
+     * @return this instance
+     */
+    public CEKLoadGenerator rate(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("rate should be positive.");
+        }
+        this.rate = requestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Sets the measured duration, which does not include {@link #warmup(Duration) warmup}.
+     *
+     * @param duration measured duration
+     * @return this instance
+     */
+    public CEKLoadGenerator duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Sets the warmup duration, requests during warmup are sent at the same rate but not recorded.
+     *
+     * @param warmup warmup duration
+     * @return this instance
+     */
+    public CEKLoadGenerator warmup(Duration warmup) {
+        this.warmup = warmup;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads sending requests.
+     * <p>
+     * When all threads are busy, scheduled requests wait for a thread and the waiting time is recorded as a
+     * part of the latency.
+     *
+     * @param concurrency the number of threads
+     * @return this instance
+     */
+    public CEKLoadGenerator concurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency should be positive.");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Sends requests and waits until all of them complete.
+     *
+     * @return {@link LoadTestReport}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public LoadTestReport run() throws InterruptedException {
+        Recording warmupRecording = new Recording();
+        Recording recording = new Recording();
+        this.requestMix.getEntries().forEach(entry -> recording.histogram(entry.getName()));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "cek-load-generator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / this.rate);
+        long startNanos = System.nanoTime();
+        long measureStartNanos = startNanos + this.warmup.toNanos();
+        long endNanos = measureStartNanos + this.duration.toNanos();
+
+        try {
+            for (long i = 0; startNanos + i * intervalNanos < endNanos; i++) {
+                long intendedNanos = startNanos + i * intervalNanos;
+                long waitNanos;
+                while ((waitNanos = intendedNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                RequestMix.Entry entry = this.requestMix.next();
+                Recording current = intendedNanos < measureStartNanos ? warmupRecording : recording;
+                executor.execute(() -> send(entry, intendedNanos, current));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        long elapsedNanos = System.nanoTime() - measureStartNanos;
+
+        return new LoadTestReport(this.rate, Duration.ofNanos(elapsedNanos),
+                                  recording.corrected.getTotalCount(), recording.errors.sum(),
+                                  recording.corrected, recording.uncorrected,
+                                  Collections.unmodifiableMap(recording.byName));
+    }
+
+    private void send(RequestMix.Entry entry, long intendedNanos, Recording recording) {
+        long sentNanos = System.nanoTime();
+        boolean successful = false;
+        try {
+            byte[] body = entry.getBodySupplier().get();
+            Map<String, String> headers = this.signer != null
+                                          ? Collections.singletonMap(CEKRequestSigner.SIGNATURE_HEADER,
+                                                                     this.signer.sign(body))
+                                          : Collections.emptyMap();
+            CEKTargetResponse response = this.target.send(body, headers);
+            successful = response.isSuccessful();
+        } catch (Exception e) {
+            // counted as an error
+            successful = false;
+        } finally {
+            long completedNanos = System.nanoTime();
+            recording.record(entry.getName(), completedNanos - intendedNanos, completedNanos - sentNanos,
+                             successful);
+        }
+    }
+
+    private static class Recording {
+
+        private final Histogram corrected = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        private final Histogram uncorrected = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        private final Map<String, Histogram> byName = new LinkedHashMap<>();
+        private final LongAdder errors = new LongAdder();
+
+        Histogram histogram(String name) {
+            return this.byName.computeIfAbsent(name, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+        }
+
+        void record(String name, long correctedNanos, long uncorrectedNanos, boolean successful) {
+            this.corrected.recordValue(correctedNanos);
+            this.uncorrected.recordValue(uncorrectedNanos);
+            Histogram histogram = this.byName.get(name);
+            if (histogram != null) {
+                histogram.recordValue(correctedNanos);
+            }
+            if (!successful) {
+                this.errors.increment();
+            }
+        }
+
+    }
+
+}
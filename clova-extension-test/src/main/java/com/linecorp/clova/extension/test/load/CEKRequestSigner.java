@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Signs CEK request bodies in the same way as the Clova platform does.
+ * <p>
+ * The signature is put into the {@value #SIGNATURE_HEADER} header, so the extension can verify requests with
+ * {@code CEKRequestSignatureVerifier} by setting the matching public key to
+ * {@code cek.verifier.signature.public-key}.
+ */
+public class CEKRequestSigner {
+
+    public static final String SIGNATURE_HEADER = "SignatureCEK";
+
+    /**
+     * The private key bundled for load tests.
+     * <p>
+     * The matching public key is {@code classpath:key/signature-public-key.load-test.pem}.
+     * Never use this key pair except for tests.
+     */
+    public static final String LOAD_TEST_PRIVATE_KEY_PATH = "key/signature-private-key.load-test.pem";
+
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+    private static final String KEY_TYPE = "RSA";
+    private static final int KEY_SIZE = 2048;
+
+    private static final String PEM_BEGIN_PREFIX = "-----BEGIN ";
+    private static final String PEM_END_PREFIX = "-----END ";
+
+    private final PrivateKey privateKey;
+    private final PublicKey publicKey;
+    private final ThreadLocal<Signature> signatures;
+
+    CEKRequestSigner(PrivateKey privateKey, PublicKey publicKey) {
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.signatures = ThreadLocal.withInitial(this::newSignature);
+    }
+
+    /**
+     * Constructs {@link CEKRequestSigner} with the private key bundled for load tests.
+     *
+     * @return {@link CEKRequestSigner}
+     * @see #LOAD_TEST_PRIVATE_KEY_PATH
+     */
+    public static CEKRequestSigner loadTestSigner() {
+        return fromPem(new ClassPathResource(LOAD_TEST_PRIVATE_KEY_PATH));
+    }
+
+    /**
+     * Constructs {@link CEKRequestSigner} with a PKCS#8 PEM private key.
+     *
+     * @param privateKeyResource PKCS#8 PEM private key resource
+     * @return {@link CEKRequestSigner}
+     */
+    public static CEKRequestSigner fromPem(Resource privateKeyResource) {
+        try {
+            PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(readPem(privateKeyResource));
+            return new CEKRequestSigner(KeyFactory.getInstance(KEY_TYPE).generatePrivate(keySpec), null);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalArgumentException("Failed to load the private key from " + privateKeyResource, e);
+        }
+    }
+
+    /**
+     * Constructs {@link CEKRequestSigner} with a newly generated key pair.
+     * <p>
+     * Use {@link #getPublicKeyPem()} to configure the extension under test.
+     *
+     * @return {@link CEKRequestSigner}
+     */
+    public static CEKRequestSigner generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(KEY_TYPE);
+            generator.initialize(KEY_SIZE);
+            KeyPair keyPair = generator.generateKeyPair();
+            return new CEKRequestSigner(keyPair.getPrivate(), keyPair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Signs the request body.
+     *
+     * @param requestBody request body to be sent
+     * @return Base64 encoded signature for {@value #SIGNATURE_HEADER} header
+     */
+    public String sign(byte[] requestBody) {
+        Signature signature = this.signatures.get();
+        try {
+            signature.update(requestBody);
+            return Base64.getEncoder().encodeToString(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign the request body.", e);
+        }
+    }
+
+    /**
+     * Signs the request body.
+     *
+     * @param requestBody request body to be sent
+     * @return Base64 encoded signature for {@value #SIGNATURE_HEADER} header
+     */
+    public String sign(String requestBody) {
+        return sign(requestBody.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the public key as PEM, which can be used as {@code cek.verifier.signature.public-key}.
+     *
+     * @return PEM formatted public key
+     * @throws IllegalStateException if this signer was loaded only from a private key
+     */
+    public String getPublicKeyPem() {
+        if (this.publicKey == null) {
+            throw new IllegalStateException(
+                    "The public key is unknown for a signer loaded from a private key.");
+        }
+        String encoded = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+                               .encodeToString(this.publicKey.getEncoded());
+        return PEM_BEGIN_PREFIX + "PUBLIC KEY-----\n" + encoded + "\n" + PEM_END_PREFIX + "PUBLIC KEY-----\n";
+    }
+
+    private Signature newSignature() {
+        try {
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initSign(this.privateKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readPem(Resource keyResource) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(keyResource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean started = false;
+            while ((line = reader.readLine()) != null) {
+                if (!started) {
+                    started = line.startsWith(PEM_BEGIN_PREFIX);
+                    continue;
+                }
+                if (line.startsWith(PEM_END_PREFIX)) {
+                    break;
+                }
+                sb.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(sb.toString());
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.load;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Result of {@link CEKLoadGenerator#run()}.
+ * <p>
+ * All histograms are recorded in nanoseconds.
+ * The corrected histograms, {@code correctedHistogram} and {@code correctedHistograms}, measure each request
+ * from the time it was scheduled to be sent, so the waiting time caused by a stalled target is counted
+ * (coordinated-omission correction). {@code uncorrectedHistogram} measures from the time it was actually sent.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = { 50.0, 75.0, 90.0, 99.0, 99.9, 99.99, 100.0 };
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final double targetRate;
+    private final Duration elapsed;
+    private final long requestCount;
+    private final long errorCount;
+    private final Histogram correctedHistogram;
+    private final Histogram uncorrectedHistogram;
+    private final Map<String, Histogram> correctedHistograms;
+
+    /**
+     * Returns the achieved throughput.
+     *
+     * @return completed requests per second
+     */
+    public double getThroughput() {
+        return this.requestCount / (this.elapsed.toNanos() / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Returns the latency at the percentile measured from the scheduled send time.
+     *
+     * @param percentile percentile, e.g.) 99.9
+     * @return latency in milliseconds
+     */
+    public double getLatencyMillisAtPercentile(double percentile) {
+        return this.correctedHistogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Prints the summary of this report.
+     *
+     * @param out destination
+     */
+    public void print(PrintStream out) {
+        out.printf("target rate: %.1f req/s, throughput: %.1f req/s, requests: %d, errors: %d, elapsed: %s%n",
+                   this.targetRate, getThroughput(), this.requestCount, this.errorCount, this.elapsed);
+        printPercentiles(out, "all (corrected)", this.correctedHistogram);
+        printPercentiles(out, "all (uncorrected)", this.uncorrectedHistogram);
+        this.correctedHistograms.forEach((name, histogram) -> printPercentiles(out, name, histogram));
+    }
+
+    /**
+     * Prints the full percentile distribution of the corrected histogram in milliseconds.
+     * <p>
+     * The output can be plotted with HdrHistogram's plotter.
+     *
+     * @param out destination
+     */
+    public void printPercentileDistribution(PrintStream out) {
+        this.correctedHistogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+    }
+
+    private static void printPercentiles(PrintStream out, String name, Histogram histogram) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-24s count=%-8d", name, histogram.getTotalCount()));
+        for (double percentile : PERCENTILES) {
+            sb.append(String.format(" p%s=%.3fms", formatPercentile(percentile),
+                                    histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI));
+        }
+        out.println(sb);
+    }
+
+    private static String formatPercentile(double percentile) {
+        if (percentile == Math.rint(percentile)) {
+            return String.valueOf((long) percentile);
+        }
+        return String.valueOf(percentile);
+    }
+
+}
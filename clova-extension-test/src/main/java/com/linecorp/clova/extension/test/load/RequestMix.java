@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.load;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.linecorp.clova.extension.test.CEKRequestGenerator;
+import com.linecorp.clova.extension.test.CEKRequestGenerator.RequestBodyBuilder;
+import com.linecorp.clova.extension.test.CompiledRequestTemplate;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Weighted mix of CEK requests sent by {@link CEKLoadGenerator}.
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * RequestMix mix = RequestMix.create()
+ *                            .add("launch", 1, CEKRequestGenerator.requestBodyBuilder().launch())
+ *                            .add("echo", 8, CEKRequestGenerator.requestBodyBuilder()
+ *                                                               .intent("Echo")
+ *                                                               .slot("number", 3));
+ * }</pre>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class RequestMix {
+
+    private final List<Entry> entries = new ArrayList<>();
+    private int[] cumulativeWeights = new int[0];
+    private int totalWeight;
+
+    public static RequestMix create() {
+        return new RequestMix();
+    }
+
+    /**
+     * Adds a request whose body is built only once.
+     *
+     * @param name    name of the request, used in the report
+     * @param weight  relative frequency of the request
+     * @param builder request body builder
+     * @return this instance
+     */
+    public RequestMix add(String name, int weight, RequestBodyBuilder builder) {
+        byte[] body = builder.build().getBytes(StandardCharsets.UTF_8);
+        return add(name, weight, () -> body);
+    }
+
+    /**
+     * Adds a request whose body is built for each request.
+     *
+     * @param name         name of the request, used in the report
+     * @param weight       relative frequency of the request
+     * @param bodySupplier request body supplier, called from multiple threads
+     * @return this instance
+     */
+    public RequestMix add(String name, int weight, Supplier<byte[]> bodySupplier) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight should be positive. name: " + name);
+        }
+        this.entries.add(new Entry(name, bodySupplier));
+        this.totalWeight += weight;
+        this.cumulativeWeights = Arrays.copyOf(this.cumulativeWeights, this.entries.size());
+        this.cumulativeWeights[this.entries.size() - 1] = this.totalWeight;
+        return this;
+    }
+
+    /**
+     * Adds a request whose body is patched for each request.
+     * <p>
+     * Each thread has its own {@link CompiledRequestTemplate.Writer}, so the customizer can vary only a few
+     * values without rebuilding the whole request.
+     *
+     * @param name       name of the request, used in the report
+     * @param weight     relative frequency of the request
+     * @param template   compiled request template
+     * @param customizer sets values to the writer for each request, called from multiple threads
+     * @return this instance
+     */
+    public RequestMix add(String name, int weight, CompiledRequestTemplate template,
+                          Consumer<CompiledRequestTemplate.Writer> customizer) {
+        ThreadLocal<CompiledRequestTemplate.Writer> writers = ThreadLocal.withInitial(template::newWriter);
+        return add(name, weight, () -> {
+            CompiledRequestTemplate.Writer writer = writers.get();
+            customizer.accept(writer);
+            return writer.toBytes();
+        });
+    }
+
+    /**
+     * Adds {@link CEKRequestGenerator.RequestBodyBuilder#intent(String) an intent request} without slots.
+     *
+     * @param intentName intent name
+     * @param weight     relative frequency of the request
+     * @return this instance
+     */
+    public RequestMix intent(String intentName, int weight) {
+        return add(intentName, weight, CEKRequestGenerator.requestBodyBuilder().intent(intentName));
+    }
+
+    boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    Entry next() {
+        int value = ThreadLocalRandom.current().nextInt(this.totalWeight);
+        int index = Arrays.binarySearch(this.cumulativeWeights, value + 1);
+        return this.entries.get(index >= 0 ? index : -index - 1);
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    static class Entry {
+
+        private final String name;
+        private final Supplier<byte[]> bodySupplier;
+
+    }
+
+}
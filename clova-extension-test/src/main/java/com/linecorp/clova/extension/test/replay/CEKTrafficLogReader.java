@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Reads binary log files written by {@code CEKTrafficLogWriter} of clova-extension-boot-web.
+ * <p>
+ * See {@code CEKTrafficLogWriter} for the file layout.
+ */
+@UtilityClass
+public class CEKTrafficLogReader {
+
+    private static final int MAGIC = 0x43454B54;
+    private static final byte VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final byte FLAG_DEFLATED = 0x01;
+
+    private static final String FILE_PREFIX = "cek-traffic-";
+    private static final String FILE_SUFFIX = ".log";
+
+    /**
+     * Reads all records from a log file, or all log files in a directory in the order they were written.
+     *
+     * @param path log file or directory
+     * @return records
+     */
+    public static List<CapturedExchange> read(Path path) {
+        List<CapturedExchange> exchanges = new ArrayList<>();
+        forEach(path, exchanges::add);
+        return exchanges;
+    }
+
+    /**
+     * Reads records from a log file, or all log files in a directory in the order they were written.
+     *
+     * @param path     log file or directory
+     * @param consumer called for each record
+     */
+    public static void forEach(Path path, Consumer<CapturedExchange> consumer) {
+        for (Path file : listFiles(path)) {
+            readFile(file, consumer);
+        }
+    }
+
+    private static List<Path> listFiles(Path path) {
+        if (!Files.isDirectory(path)) {
+            return Collections.singletonList(path);
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    private static void readFile(Path file, Consumer<CapturedExchange> consumer) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (buffer.remaining() < FILE_HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a CEK traffic log file. path: " + file);
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version: " + version + ", path: " + file);
+        }
+        buffer.position(FILE_HEADER_SIZE);
+
+        Inflater inflater = new Inflater();
+        try {
+            while (buffer.remaining() > Integer.BYTES) {
+                int length = buffer.getInt();
+                if (length <= 0) {
+                    break;
+                }
+                byte flags = buffer.get();
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                if ((flags & FLAG_DEFLATED) != 0) {
+                    payload = inflate(inflater, payload);
+                }
+                consumer.accept(decode(ByteBuffer.wrap(payload)));
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static CapturedExchange decode(ByteBuffer payload) {
+        long timestamp = payload.getLong();
+        long durationNanos = payload.getLong();
+        int status = payload.getInt();
+        byte[] signature = readBytes(payload);
+        byte[] requestBody = readBytes(payload);
+        byte[] responseBody = readBytes(payload);
+        return new CapturedExchange(timestamp, durationNanos, status,
+                                    signature != null ? new String(signature, StandardCharsets.UTF_8) : null,
+                                    requestBody, responseBody);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] payload) {
+        inflater.reset();
+        inflater.setInput(payload);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length * 4);
+        byte[] chunk = new byte[4096];
+        try {
+            while (!inflater.finished()) {
+                int length = inflater.inflate(chunk);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated compressed record.");
+                }
+                out.write(chunk, 0, length);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Broken compressed record.", e);
+        }
+        return out.toByteArray();
+    }
+
+}
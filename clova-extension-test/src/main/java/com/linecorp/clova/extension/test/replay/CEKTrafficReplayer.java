@@ -0,0 +1,283 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.linecorp.clova.extension.test.json.JsonDiff;
+import com.linecorp.clova.extension.test.target.CEKTarget;
+import com.linecorp.clova.extension.test.target.CEKTargetResponse;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Replays CEK traffic captured by {@code CEKTrafficCaptureFilter} and compares responses and latencies.
+ * <p>
+ * Requests are sent with the captured {@code SignatureCEK} header at the captured intervals divided by
+ * {@link #speed(double) speed}.
+ * <p>
+ * e.g.)
+ * <pre>{@code
+ * ReplayReport report = CEKTrafficReplayer.from(Paths.get("cek-capture"))
+ *                                         .target(CEKTargets.mockMvc(mockMvc, "/cek/v1"))
+ *                                         .speed(10)
+ *                                         .ignore("/meta")
+ *                                         .run();
+ * report.print(System.out);
+ * }</pre>
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CEKTrafficReplayer {
+
+    private static final String SIGNATURE_HEADER = "SignatureCEK";
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int MAX_DIFFERENCES = 10;
+
+    private final List<CapturedExchange> exchanges;
+
+    private CEKTarget target;
+    private double speed = 1.0;
+    private int concurrency = 16;
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonPointer> ignoredPaths = new ArrayList<>();
+
+    /**
+     * Constructs {@link CEKTrafficReplayer} with captured log files.
+     *
+     * @param path log file or directory
+     * @return {@link CEKTrafficReplayer}
+     */
+    public static CEKTrafficReplayer from(Path path) {
+        return of(CEKTrafficLogReader.read(path));
+    }
+
+    /**
+     * Constructs {@link CEKTrafficReplayer} with captured records.
+     *
+     * @param exchanges captured records
+     * @return {@link CEKTrafficReplayer}
+     */
+    public static CEKTrafficReplayer of(List<CapturedExchange> exchanges) {
+        return new CEKTrafficReplayer(exchanges);
+    }
+
+    /**
+     * Sets the target to which requests are replayed.
+     *
+     * @param target {@link CEKTarget}
+     * @return this instance
+     * @see com.linecorp.clova.extension.test.target.CEKTargets
+     */
+    public CEKTrafficReplayer target(CEKTarget target) {
+        this.target = target;
+        return this;
+    }
+
+    /**
+     * Sets the replay speed.
+     * <p>
+     * Not required. In default, requests are replayed at the original speed ({@code 1.0}).
+     * {@code 0} replays requests as fast as possible.
+     *
+     * @param speed speed multiplier
+     * @return this instance
+     */
+    public CEKTrafficReplayer speed(double speed) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("speed should not be negative.");
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads sending requests.
+     *
+     * @param concurrency the number of threads
+     * @return this instance
+     */
+    public CEKTrafficReplayer concurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency should be positive.");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Sets {@link ObjectMapper} to parse responses.
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @return this instance
+     */
+    public CEKTrafficReplayer objectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        return this;
+    }
+
+    /**
+     * Adds JSON pointers of response values excluded from comparison, e.g.) {@code /meta}
+     *
+     * @param jsonPointers JSON pointers
+     * @return this instance
+     */
+    public CEKTrafficReplayer ignore(String... jsonPointers) {
+        Arrays.stream(jsonPointers)
+              .map(JsonPointer::compile)
+              .forEach(this.ignoredPaths::add);
+        return this;
+    }
+
+    /**
+     * Replays all requests and waits until all of them complete.
+     *
+     * @return {@link ReplayReport}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public ReplayReport run() throws InterruptedException {
+        if (this.target == null) {
+            throw new IllegalStateException("target should be set.");
+        }
+
+        Histogram captured = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        Histogram replayed = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        Queue<ReplayReport.Mismatch> mismatches = new ConcurrentLinkedQueue<>();
+        LongAdder errors = new LongAdder();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "cek-traffic-replayer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long startNanos = System.nanoTime();
+        long firstTimestamp = this.exchanges.isEmpty() ? 0 : this.exchanges.get(0).getTimestamp();
+        try {
+            for (int i = 0; i < this.exchanges.size(); i++) {
+                CapturedExchange exchange = this.exchanges.get(i);
+                long intendedNanos = startNanos;
+                if (this.speed > 0) {
+                    long offsetMillis = Math.max(0, exchange.getTimestamp() - firstTimestamp);
+                    intendedNanos += (long) (TimeUnit.MILLISECONDS.toNanos(offsetMillis) / this.speed);
+                    long waitNanos;
+                    while ((waitNanos = intendedNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+                } else {
+                    intendedNanos = System.nanoTime();
+                }
+
+                long index = i;
+                long scheduledNanos = intendedNanos;
+                captured.recordValue(exchange.getDurationNanos());
+                executor.execute(() -> {
+                    List<String> differences;
+                    try {
+                        CEKTargetResponse response = this.target.send(exchange.getRequestBody(),
+                                                                      headers(exchange));
+                        differences = diff(exchange, response);
+                    } catch (Exception e) {
+                        errors.increment();
+                        differences = Collections.singletonList("error: " + e);
+                    } finally {
+                        replayed.recordValue(System.nanoTime() - scheduledNanos);
+                    }
+                    if (!differences.isEmpty()) {
+                        mismatches.add(new ReplayReport.Mismatch(index, exchange.getTimestamp(), differences));
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        List<ReplayReport.Mismatch> sortedMismatches = new ArrayList<>(mismatches);
+        sortedMismatches.sort(Comparator.comparingLong(ReplayReport.Mismatch::getIndex));
+        return new ReplayReport(this.exchanges.size(), errors.sum(), sortedMismatches, captured, replayed);
+    }
+
+    private static Map<String, String> headers(CapturedExchange exchange) {
+        return exchange.getSignature() != null
+               ? Collections.singletonMap(SIGNATURE_HEADER, exchange.getSignature())
+               : Collections.emptyMap();
+    }
+
+    private List<String> diff(CapturedExchange exchange, CEKTargetResponse response) {
+        List<String> differences = new ArrayList<>();
+        if (exchange.getStatus() != response.getStatus()) {
+            differences.add("status: " + exchange.getStatus() + " -> " + response.getStatus());
+        }
+
+        JsonNode expected = readTree(exchange.getResponseBody());
+        JsonNode actual = readTree(response.getBody());
+        if (expected == null || actual == null) {
+            if (!Arrays.equals(exchange.getResponseBody(), response.getBody())) {
+                differences.add("body: not JSON and differs");
+            }
+            return differences;
+        }
+
+        for (JsonPointer ignoredPath : this.ignoredPaths) {
+            remove(expected, ignoredPath);
+            remove(actual, ignoredPath);
+        }
+        differences.addAll(JsonDiff.diff(expected, actual, MAX_DIFFERENCES));
+        return differences;
+    }
+
+    private JsonNode readTree(byte[] body) {
+        try {
+            return body.length > 0 ? this.objectMapper.readTree(body) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void remove(JsonNode root, JsonPointer pointer) {
+        JsonNode parent = root.at(pointer.head());
+        if (parent.isObject()) {
+            ((ObjectNode) parent).remove(pointer.last().getMatchingProperty());
+        }
+    }
+
+}
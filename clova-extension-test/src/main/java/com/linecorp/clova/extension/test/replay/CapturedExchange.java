@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.replay;
+
+import lombok.Data;
+
+/**
+ * A pair of CEK request and response read by {@link CEKTrafficLogReader}.
+ */
+@Data
+public class CapturedExchange {
+
+    /**
+     * The time when the request was received, in epoch milliseconds.
+     */
+    private final long timestamp;
+
+    /**
+     * The time taken to process the request, in nanoseconds.
+     */
+    private final long durationNanos;
+
+    /**
+     * The HTTP status of the response.
+     */
+    private final int status;
+
+    /**
+     * The value of {@code SignatureCEK} header, or {@code null} if the request was not signed.
+     */
+    private final String signature;
+
+    private final byte[] requestBody;
+    private final byte[] responseBody;
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.replay;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Result of {@link CEKTrafficReplayer#run()}.
+ * <p>
+ * Histograms are recorded in nanoseconds. {@code capturedHistogram} has the processing time measured by the
+ * capture filter, and {@code replayedHistogram} has the latency measured from the time each request was
+ * scheduled.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ReplayReport {
+
+    private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9, 100.0 };
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int PRINTED_MISMATCHES = 20;
+
+    private final long requestCount;
+    private final long errorCount;
+    private final List<Mismatch> mismatches;
+    private final Histogram capturedHistogram;
+    private final Histogram replayedHistogram;
+
+    public boolean hasMismatches() {
+        return !this.mismatches.isEmpty();
+    }
+
+    /**
+     * Prints the summary of this report.
+     *
+     * @param out destination
+     */
+    public void print(PrintStream out) {
+        out.printf("requests: %d, errors: %d, mismatches: %d%n",
+                   this.requestCount, this.errorCount, this.mismatches.size());
+        printPercentiles(out, "captured", this.capturedHistogram);
+        printPercentiles(out, "replayed", this.replayedHistogram);
+        this.mismatches.stream()
+                       .limit(PRINTED_MISMATCHES)
+                       .forEach(mismatch -> out.printf("#%d (%d): %s%n", mismatch.getIndex(),
+                                                       mismatch.getTimestamp(), mismatch.getDifferences()));
+    }
+
+    private static void printPercentiles(PrintStream out, String name, Histogram histogram) {
+        StringBuilder sb = new StringBuilder(String.format("%-10s", name));
+        for (double percentile : PERCENTILES) {
+            sb.append(String.format(" p%s=%.3fms", percentile,
+                                    histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI));
+        }
+        out.println(sb);
+    }
+
+    /**
+     * A replayed response which differs from the captured one.
+     */
+    @Data
+    public static class Mismatch {
+
+        /**
+         * The index of the record in the log.
+         */
+        private final long index;
+
+        /**
+         * The time when the request was captured, in epoch milliseconds.
+         */
+        private final long timestamp;
+
+        /**
+         * Differences, e.g.) {@code /response/outputSpeech/values/value: "a" -> "b"}
+         */
+        private final List<String> differences;
+
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.scenario;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.Data;
+
+/**
+ * A CEK request and its expected response, run by {@link CEKScenarioRunner}.
+ * <p>
+ * A scenario file is JSON like below. Only {@code request} is required.
+ * <pre>{@code
+ * {
+ *   "name": "echo three",
+ *   "headers": { "SignatureCEK": "..." },
+ *   "request": { "version": "1.0", "session": { ... }, "context": { ... }, "request": { ... } },
+ *   "status": 200,
+ *   "response": { "response": { "outputSpeech": { "values": { "value": "3" } } } }
+ * }
+ * }</pre>
+ * {@code response} is compared only with the fields present in it, so the fields which are not interested
+ * (e.g. {@code meta}) can be omitted.
+ */
+@Data
+public class CEKScenario {
+
+    /**
+     * The name of the scenario, the file name without the extension if it is not specified.
+     */
+    private final String name;
+
+    /**
+     * The resource the scenario was loaded from.
+     */
+    private final String source;
+
+    private final Map<String, String> headers;
+    private final byte[] requestBody;
+
+    /**
+     * The expected HTTP status.
+     */
+    private final int expectedStatus;
+
+    /**
+     * The expected response, or {@code null} if the response is not verified.
+     */
+    private final JsonNode expectedResponse;
+
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.scenario;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import com.linecorp.clova.extension.test.json.JsonDiff;
+import com.linecorp.clova.extension.test.target.CEKTarget;
+import com.linecorp.clova.extension.test.target.CEKTargetResponse;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Runs {@link CEKScenario}s concurrently against an extension in the same process.
+ * <p>
+ * The Spring context is booted only once by the test which calls this runner, and all scenarios are run on a
+ * {@link ForkJoinPool} against the {@link CEKTarget}, typically
+ * {@link com.linecorp.clova.extension.test.target.CEKTargets#inProcess CEKTargets.inProcess} which calls
+ * {@code CEKRequestProcessor} without HTTP. The JUnit XML report is written once all scenarios complete, and
+ * the slowest scenarios are highlighted at the end of the report.
+ * <p>
+ * e.g.)
+ * <pre>
+ * &#64;RunWith(SpringRunner.class)
+ * &#64;SpringBootTest
+ * public class ScenarioTest {
+ *
+ *     &#64;Autowired
+ *     ApplicationContext context;
+ *
+ *     &#64;Autowired
+ *     CEKRequestProcessor processor;
+ *
+ *     &#64;Test
+ *     public void scenarios() {
+ *         ScenarioReport report =
+ *                 CEKScenarioRunner.scenarios("classpath*:scenarios/*.json")
+ *                                  .target(CEKTargets.inProcess(context, processor::process))
+ *                                  .junitReport(Paths.get("target/surefire-reports/TEST-cek-scenarios.xml"))
+ *                                  .run();
+ *         assertThat(report.getFailures()).isEmpty();
+ *     }
+ * }
+ * </pre>
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CEKScenarioRunner {
+
+    private static final ObjectMapper DEFAULT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final TypeReference<Map<String, String>> HEADERS_TYPE =
+            new TypeReference<Map<String, String>>() {};
+    private static final int MAX_DIFFERENCES = 20;
+    private static final int DEFAULT_STATUS = 200;
+
+    private final List<CEKScenario> scenarios;
+
+    private CEKTarget target;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Path junitReport;
+    private String suiteName = "cek-scenarios";
+    private int slowestCount = 10;
+    private PrintStream out = System.out;
+
+    /**
+     * Constructs {@link CEKScenarioRunner} with scenario files.
+     *
+     * @param locationPattern location pattern of the scenario files, e.g.)
+     *                        {@code classpath*:scenarios/*.json}, {@code file:src/test/scenarios/*.json}
+     * @return {@link CEKScenarioRunner}
+     * @throws IllegalArgumentException if no scenario was found, or a scenario file is invalid
+     */
+    public static CEKScenarioRunner scenarios(String locationPattern) {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources(locationPattern);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (resources.length == 0) {
+            throw new IllegalArgumentException("No scenario was found. locationPattern: " + locationPattern);
+        }
+
+        List<CEKScenario> scenarios = new ArrayList<>(resources.length);
+        for (Resource resource : resources) {
+            scenarios.add(load(resource));
+        }
+        return of(scenarios);
+    }
+
+    /**
+     * Constructs {@link CEKScenarioRunner} with scenarios.
+     *
+     * @param scenarios scenarios
+     * @return {@link CEKScenarioRunner}
+     */
+    public static CEKScenarioRunner of(List<CEKScenario> scenarios) {
+        return new CEKScenarioRunner(new ArrayList<>(scenarios));
+    }
+
+    /**
+     * Loads a scenario file.
+     *
+     * @param resource scenario file
+     * @return {@link CEKScenario}
+     * @throws IllegalArgumentException if the scenario file is invalid
+     */
+    public static CEKScenario load(Resource resource) {
+        JsonNode root;
+        try (InputStream in = resource.getInputStream()) {
+            root = DEFAULT_MAPPER.readTree(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read the scenario: " + resource, e);
+        }
+        if (root == null || !root.path("request").isObject()) {
+            throw new IllegalArgumentException("The scenario should have the request object: " + resource);
+        }
+
+        String name = root.path("name").isTextual()
+                      ? root.path("name").textValue()
+                      : StringUtils.stripFilenameExtension(String.valueOf(resource.getFilename()));
+        try {
+            Map<String, String> headers = root.has("headers")
+                                          ? DEFAULT_MAPPER.convertValue(root.get("headers"), HEADERS_TYPE)
+                                          : Collections.emptyMap();
+            JsonNode expectedResponse = root.get("response");
+            return new CEKScenario(name, resource.getDescription(), headers,
+                                   DEFAULT_MAPPER.writeValueAsBytes(root.get("request")),
+                                   root.path("status").asInt(DEFAULT_STATUS),
+                                   expectedResponse != null && !expectedResponse.isNull() ? expectedResponse
+                                                                                          : null);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid scenario: " + resource, e);
+        }
+    }
+
+    /**
+     * Sets the target to run the scenarios.
+     *
+     * @param target {@link CEKTarget}
+     * @return this instance
+     */
+    public CEKScenarioRunner target(CEKTarget target) {
+        this.target = target;
+        return this;
+    }
+
+    /**
+     * Sets the parallelism of the {@link ForkJoinPool}.
+     * <p>
+     * Not required. In default, the number of available processors.
+     *
+     * @param parallelism parallelism
+     * @return this instance
+     */
+    public CEKScenarioRunner parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism should be positive.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the path of the JUnit XML report.
+     * <p>
+     * Not required. In default, the report is not written.
+     *
+     * @param junitReport path of the report, e.g.) {@code target/surefire-reports/TEST-cek-scenarios.xml}
+     * @return this instance
+     */
+    public CEKScenarioRunner junitReport(Path junitReport) {
+        this.junitReport = junitReport;
+        return this;
+    }
+
+    /**
+     * Sets the name of the test suite in the JUnit XML report.
+     * <p>
+     * Not required. In default, {@code cek-scenarios}.
+     *
+     * @param suiteName test suite name
+     * @return this instance
+     */
+    public CEKScenarioRunner suiteName(String suiteName) {
+        this.suiteName = suiteName;
+        return this;
+    }
+
+    /**
+     * Sets the number of the slowest scenarios to be highlighted.
+     * <p>
+     * Not required. In default, 10.
+     *
+     * @param slowestCount the number of the slowest scenarios
+     * @return this instance
+     */
+    public CEKScenarioRunner slowest(int slowestCount) {
+        this.slowestCount = slowestCount;
+        return this;
+    }
+
+    /**
+     * Sets the destination of the summary.
+     * <p>
+     * Not required. In default, {@link System#out}. {@code null} disables the summary.
+     *
+     * @param out destination
+     * @return this instance
+     */
+    public CEKScenarioRunner out(PrintStream out) {
+        this.out = out;
+        return this;
+    }
+
+    /**
+     * Runs all scenarios and waits until all of them complete.
+     *
+     * @return {@link ScenarioReport}
+     * @throws IllegalStateException if the target is not set
+     */
+    public ScenarioReport run() {
+        if (this.target == null) {
+            throw new IllegalStateException("target is required.");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        long startNanos = System.nanoTime();
+        try {
+            List<ForkJoinTask<ScenarioResult>> tasks =
+                    this.scenarios.stream()
+                                  .map(scenario -> pool.submit(() -> execute(scenario)))
+                                  .collect(Collectors.toList());
+            List<ScenarioResult> results = tasks.stream()
+                                                .map(ForkJoinTask::join)
+                                                .collect(Collectors.toList());
+
+            ScenarioReport report = new ScenarioReport(Collections.unmodifiableList(results),
+                                                       Duration.ofNanos(System.nanoTime() - startNanos));
+            if (this.junitReport != null) {
+                JUnitReportWriter.write(this.junitReport, this.suiteName, report, this.slowestCount);
+            }
+            if (this.out != null) {
+                report.print(this.out, this.slowestCount);
+            }
+            return report;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ScenarioResult execute(CEKScenario scenario) {
+        long startNanos = System.nanoTime();
+        CEKTargetResponse response;
+        try {
+            response = this.target.send(scenario.getRequestBody(), scenario.getHeaders());
+        } catch (Exception e) {
+            return new ScenarioResult(scenario, System.nanoTime() - startNanos, Collections.emptyList(), e);
+        }
+
+        List<String> differences = new ArrayList<>();
+        if (response.getStatus() != scenario.getExpectedStatus()) {
+            differences.add("status: " + scenario.getExpectedStatus() + " -> " + response.getStatus());
+        }
+        if (scenario.getExpectedResponse() != null) {
+            try {
+                JsonNode actual = response.getBody().length > 0 ? DEFAULT_MAPPER.readTree(response.getBody())
+                                                                : MissingNode.getInstance();
+                differences.addAll(JsonDiff.diffLeniently(scenario.getExpectedResponse(), actual,
+                                                          MAX_DIFFERENCES));
+            } catch (IOException e) {
+                differences.add("body: not JSON, " + response.getBodyAsString());
+            }
+        }
+        return new ScenarioResult(scenario, System.nanoTime() - startNanos, differences, null);
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.scenario;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes a {@link ScenarioReport} as a JUnit XML report in the format of Surefire.
+ * <p>
+ * The counts of the test suite are computed from the report before anything is written, and the document is
+ * written with {@link XMLStreamWriter} which takes care of escaping.
+ */
+final class JUnitReportWriter {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private JUnitReportWriter() {
+    }
+
+    /**
+     * Writes the report, with the slowest scenarios in {@code system-out}.
+     *
+     * @param path         path of the report
+     * @param suiteName    test suite name
+     * @param report       {@link ScenarioReport}
+     * @param slowestCount the number of the slowest scenarios
+     */
+    static void write(Path path, String suiteName, ScenarioReport report, int slowestCount) {
+        List<ScenarioResult> results = report.getResults();
+        long errors = results.stream().filter(result -> result.getError() != null).count();
+        long failures = results.stream()
+                               .filter(result -> result.getError() == null && !result.isPassed())
+                               .count();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(path)) {
+                XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out,
+                                                                              StandardCharsets.UTF_8.name());
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                writer.writeCharacters("\n");
+                writer.writeStartElement("testsuite");
+                writer.writeAttribute("name", sanitize(suiteName));
+                writer.writeAttribute("tests", String.valueOf(results.size()));
+                writer.writeAttribute("failures", String.valueOf(failures));
+                writer.writeAttribute("errors", String.valueOf(errors));
+                writer.writeAttribute("skipped", "0");
+                writer.writeAttribute("time", formatSeconds(report.getElapsed().toNanos()));
+                writer.writeAttribute("timestamp", TIMESTAMP_FORMATTER.format(
+                        LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)));
+                for (ScenarioResult result : results) {
+                    writeTestCase(writer, suiteName, result);
+                }
+                writer.writeCharacters("\n  ");
+                writer.writeStartElement("system-out");
+                writer.writeCharacters(sanitize("Slowest scenarios:\n" + report.formatSlowest(slowestCount)));
+                writer.writeEndElement();
+                writer.writeCharacters("\n");
+                writer.writeEndElement();
+                writer.writeCharacters("\n");
+                writer.writeEndDocument();
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to write the JUnit report: " + path, e);
+        }
+    }
+
+    private static void writeTestCase(XMLStreamWriter writer, String suiteName, ScenarioResult result)
+            throws XMLStreamException {
+        writer.writeCharacters("\n  ");
+        writer.writeStartElement("testcase");
+        writer.writeAttribute("name", sanitize(result.getScenario().getName()));
+        writer.writeAttribute("classname", sanitize(suiteName));
+        writer.writeAttribute("time", formatSeconds(result.getDurationNanos()));
+        if (result.getError() != null) {
+            StringWriter stackTrace = new StringWriter();
+            result.getError().printStackTrace(new PrintWriter(stackTrace));
+            writer.writeCharacters("\n    ");
+            writer.writeStartElement("error");
+            writer.writeAttribute("message", sanitize(String.valueOf(result.getError().getMessage())));
+            writer.writeAttribute("type", result.getError().getClass().getName());
+            writer.writeCharacters(sanitize(stackTrace.toString()));
+            writer.writeEndElement();
+            writer.writeCharacters("\n  ");
+        } else if (!result.getDifferences().isEmpty()) {
+            writer.writeCharacters("\n    ");
+            writer.writeStartElement("failure");
+            writer.writeAttribute("message", sanitize(result.getDifferences().get(0)));
+            writer.writeAttribute("type", AssertionError.class.getName());
+            writer.writeCharacters(sanitize(String.join("\n", result.getDifferences())));
+            writer.writeEndElement();
+            writer.writeCharacters("\n  ");
+        }
+        writer.writeEndElement();
+    }
+
+    private static String formatSeconds(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_SECOND);
+    }
+
+    private static String sanitize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            // control characters are not allowed in XML 1.0, and the writer does not drop them
+            if (c >= 0x20 || c == '\n' || c == '\r' || c == '\t') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.scenario;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Result of {@link CEKScenarioRunner#run()}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ScenarioReport {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Results in the order of the scenarios.
+     */
+    private final List<ScenarioResult> results;
+
+    /**
+     * The wall-clock time taken to run all scenarios.
+     */
+    private final Duration elapsed;
+
+    public List<ScenarioResult> getFailures() {
+        return this.results.stream()
+                           .filter(result -> !result.isPassed())
+                           .collect(Collectors.toList());
+    }
+
+    public boolean isPassed() {
+        return this.results.stream().allMatch(ScenarioResult::isPassed);
+    }
+
+    /**
+     * Returns the slowest results.
+     *
+     * @param count the maximum number of results
+     * @return results in descending order of the duration
+     */
+    public List<ScenarioResult> getSlowest(int count) {
+        return this.results.stream()
+                           .sorted(Comparator.comparingLong(ScenarioResult::getDurationNanos).reversed())
+                           .limit(count)
+                           .collect(Collectors.toList());
+    }
+
+    /**
+     * Prints the summary of this report.
+     *
+     * @param out          destination
+     * @param slowestCount the number of the slowest scenarios to print
+     */
+    public void print(PrintStream out, int slowestCount) {
+        List<ScenarioResult> failures = getFailures();
+        out.printf("scenarios: %d, failures: %d, elapsed: %.3fms%n",
+                   this.results.size(), failures.size(), this.elapsed.toNanos() / NANOS_PER_MILLI);
+        failures.forEach(result -> out.printf("FAILED %s (%s): %s%n",
+                                              result.getScenario().getName(), result.getScenario().getSource(),
+                                              result.getError() != null ? result.getError()
+                                                                        : result.getDifferences()));
+        out.println("slowest:");
+        out.print(formatSlowest(slowestCount));
+    }
+
+    String formatSlowest(int count) {
+        StringBuilder sb = new StringBuilder();
+        List<ScenarioResult> slowest = getSlowest(count);
+        for (int i = 0; i < slowest.size(); i++) {
+            ScenarioResult result = slowest.get(i);
+            sb.append(String.format("%3d. %10.3fms %s%n", i + 1, result.getDurationNanos() / NANOS_PER_MILLI,
+                                    result.getScenario().getName()));
+        }
+        return sb.toString();
+    }
+
+}
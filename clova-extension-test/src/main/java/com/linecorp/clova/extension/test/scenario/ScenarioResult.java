@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.scenario;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Result of a {@link CEKScenario}.
+ */
+@Data
+public class ScenarioResult {
+
+    private final CEKScenario scenario;
+
+    /**
+     * The time taken to send the request and to verify the response, in nanoseconds.
+     */
+    private final long durationNanos;
+
+    /**
+     * Differences from the expected status and response.
+     * e.g.) {@code /response/shouldEndSession: true -> false}
+     */
+    private final List<String> differences;
+
+    /**
+     * The exception thrown while sending the request, or {@code null}.
+     */
+    private final Throwable error;
+
+    public boolean isPassed() {
+        return this.error == null && this.differences.isEmpty();
+    }
+
+}
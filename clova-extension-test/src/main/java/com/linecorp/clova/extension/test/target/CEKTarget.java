@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.target;
+
+import java.util.Map;
+
+/**
+ * An extension which CEK requests are sent to.
+ *
+ * @see CEKTargets
+ */
+@FunctionalInterface
+public interface CEKTarget {
+
+    /**
+     * Sends a CEK request.
+     * <p>
+     * Implementations should be thread-safe.
+     *
+     * @param requestBody CEK request message
+     * @param headers     additional HTTP headers, e.g.) {@code SignatureCEK}
+     * @return response from the extension
+     * @throws Exception if failed to send the request
+     */
+    CEKTargetResponse send(byte[] requestBody, Map<String, String> headers) throws Exception;
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.target;
+
+import java.nio.charset.StandardCharsets;
+
+import lombok.Data;
+
+/**
+ * Response of {@link CEKTarget#send(byte[], java.util.Map)}.
+ */
+@Data
+public class CEKTargetResponse {
+
+    private final int status;
+    private final byte[] body;
+
+    public boolean isSuccessful() {
+        return this.status >= 200 && this.status < 300;
+    }
+
+    public String getBodyAsString() {
+        return new String(this.body, StandardCharsets.UTF_8);
+    }
+
+}
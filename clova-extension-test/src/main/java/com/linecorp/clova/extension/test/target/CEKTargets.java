@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.clova.extension.test.target;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.linecorp.clova.extension.boot.message.request.CEKRequestMessage;
+import com.linecorp.clova.extension.boot.message.response.CEKResponseMessage;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Factory methods of {@link CEKTarget}.
+ */
+@UtilityClass
+public class CEKTargets {
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String DEFAULT_LOCALE_PROPERTY = "cek.client.default-locale";
+
+    /**
+     * Creates {@link CEKTarget} which sends requests over HTTP.
+     *
+     * @param url URL of the extension, e.g.) http://localhost:8080/
+     * @return {@link CEKTarget}
+     */
+    public static CEKTarget http(String url) {
+        return http(url, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates {@link CEKTarget} which sends requests over HTTP.
+     * <p>
+     * Connections are kept alive and reused by {@link HttpURLConnection}.
+     *
+     * @param url     URL of the extension, e.g.) http://localhost:8080/
+     * @param timeout connect and read timeout
+     * @return {@link CEKTarget}
+     */
+    public static CEKTarget http(String url, Duration timeout) {
+        URL endpoint;
+        try {
+            endpoint = new URL(url);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+        int timeoutMillis = (int) timeout.toMillis();
+
+        return (requestBody, headers) -> {
+            HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setFixedLengthStreamingMode(requestBody.length);
+            connection.setRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE);
+            headers.forEach(connection::setRequestProperty);
+
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(requestBody);
+            }
+
+            int status = connection.getResponseCode();
+            InputStream in = status < HttpURLConnection.HTTP_BAD_REQUEST
+                             ? connection.getInputStream()
+                             : connection.getErrorStream();
+            return new CEKTargetResponse(status, readFully(in));
+        };
+    }
+
+    /**
+     * Creates {@link CEKTarget} which sends requests to the application in the same process through
+     * {@link MockMvc}, without network I/O.
+     *
+     * @param mockMvc {@link MockMvc} of the extension
+     * @param path    CEK API path, e.g.) /cek/v1
+     * @return {@link CEKTarget}
+     */
+    public static CEKTarget mockMvc(MockMvc mockMvc, String path) {
+        return (requestBody, headers) -> {
+            MockHttpServletRequestBuilder request =
+                    MockMvcRequestBuilders.post(path)
+                                          .contentType(MediaType.APPLICATION_JSON_UTF8)
+                                          .content(requestBody);
+            headers.forEach((name, value) -> request.header(name, value));
+
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+            return new CEKTargetResponse(response.getStatus(), response.getContentAsByteArray());
+        };
+    }
+
+    /**
+     * Creates {@link CEKTarget} which calls {@code CEKRequestProcessor} in the application context directly,
+     * without HTTP nor the servlet filters.
+     * <p>
+     * Only the work of {@code CEKHandleIntentController} is done before calling the processor, so the response
+     * does not have the fields added by {@code ResponseBodyAdvice}s, and exceptions are thrown from
+     * {@link CEKTarget#send(byte[], java.util.Map)} instead of being handled by {@code ControllerAdvice}s.
+     * Use {@link #mockMvc(MockMvc, String)} to test them.
+     * <p>
+     * e.g.)
+     * <pre>{@code
+     * CEKTargets.inProcess(context, context.getBean(CEKRequestProcessor.class)::process)
+     * }</pre>
+     *
+     * @param context   application context of the extension
+     * @param processor {@code CEKRequestProcessor} of the application context
+     * @return {@link CEKTarget}
+     */
+    public static CEKTarget inProcess(ApplicationContext context, InProcessRequestProcessor processor) {
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        Locale locale = context.getEnvironment()
+                               .getProperty(DEFAULT_LOCALE_PROPERTY, Locale.class, Locale.JAPAN);
+
+        return (requestBody, headers) -> {
+            MockHttpServletRequest request = new MockHttpServletRequest(HttpMethod.POST.name(), "/");
+            request.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            request.setContent(requestBody);
+            headers.forEach(request::addHeader);
+            String requestBodyJson = new String(requestBody, StandardCharsets.UTF_8);
+            request.setAttribute(CEKRequestMessage.REQUEST_BODY_JSON_ATTR_KEY, requestBodyJson);
+
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+            RequestContextHolder.setRequestAttributes(
+                    new ServletRequestAttributes(request, new MockHttpServletResponse()));
+            LocaleContextHolder.setLocale(locale);
+            try {
+                CEKRequestMessage requestMessage = objectMapper.readValue(requestBodyJson,
+                                                                          CEKRequestMessage.class);
+                CEKResponseMessage responseMessage = processor.process(request, requestMessage);
+                return new CEKTargetResponse(HttpURLConnection.HTTP_OK,
+                                             objectMapper.writeValueAsBytes(responseMessage));
+            } catch (Throwable e) {
+                if (e instanceof Exception) {
+                    throw (Exception) e;
+                }
+                if (e instanceof Error) {
+                    throw (Error) e;
+                }
+                throw new IllegalStateException(e);
+            } finally {
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+                LocaleContextHolder.setLocaleContext(previousLocaleContext);
+            }
+        };
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        if (in == null) {
+            return new byte[0];
+        }
+        // reads to the end so that the connection can be reused
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+}